@@ -1,8 +1,13 @@
 package me.login;
 
+import me.login.bootstrap.ModuleBootstrap;
+import me.login.database.DatabaseService;
+import me.login.discord.DiscordGateway;
 import me.login.discord.DiscordModule;
 import me.login.discord.linking.DiscordLinkDatabase;
 import me.login.discord.linking.DiscordLinking;
+import me.login.discord.logging.DiscordLogBus;
+import me.login.discord.logging.JdaLogSink;
 // --- CHANGED IMPORT ---
 import me.login.discord.moderation.discord.DiscordModConfig;
 // ----------------------
@@ -48,7 +53,6 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import me.login.coinflip.*;
 import net.dv8tion.jda.api.JDA;
-import org.bukkit.scheduler.BukkitRunnable;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import me.login.leaderboards.LeaderboardModule;
@@ -105,6 +109,10 @@ public class Login extends JavaPlugin implements Listener {
     private CoinflipModule coinflipModule;
 
     // --- UTILS / API ---
+    private DatabaseService databaseService;
+    private DiscordLogBus logBus;
+    private DiscordGateway discordGateway;
+    private ModuleBootstrap bootstrap;
     private Economy vaultEconomy = null;
     private LuckPerms luckPermsApi;
     private MiniMessage miniMessage;
@@ -134,6 +142,14 @@ public class Login extends JavaPlugin implements Listener {
             return;
         }
 
+        // Shared SQLite layer must exist before any module opens its database
+        this.databaseService = new DatabaseService(this);
+        // Discord connections are opened by the bootstrap below; the log bus queues module logs until the logger bot is up
+        this.discordGateway = new DiscordGateway(this);
+        this.logBus = DiscordLogBus.fromConfig(getLogger(), getConfig().getConfigurationSection("discord-logging.bus"),
+                new JdaLogSink(() -> discordGateway.getJda(DiscordGateway.Bot.LOGGER)));
+        this.lagClearLogger = new LagClearLogger(this);
+
         itemsFile = new File(getDataFolder(), "items.yml");
         if (!itemsFile.exists()) {
             saveResource("items.yml", false);
@@ -168,9 +184,8 @@ public class Login extends JavaPlugin implements Listener {
             return;
         }
 
+        // Connected by the bootstrap off the server thread
         this.dailyRewardDatabase = new DailyRewardDatabase(this);
-        dailyRewardDatabase.connect();
-        dailyRewardDatabase.createTables();
 
         this.damageIndicator = new DamageIndicator(this);
         getServer().getPluginManager().registerEvents(damageIndicator, this);
@@ -220,169 +235,141 @@ public class Login extends JavaPlugin implements Listener {
         levelModule = new me.login.level.LevelModule(Login.this);
         levelModule.init();
 
-        // --- ASYNC STARTUP (Discord & Heavy Modules) ---
-        Bukkit.getScheduler().runTaskLater(this, () -> {
-            if (!isEnabled() || Bukkit.isStopping()) {
-                getLogger().warning("Plugin disabled before Discord startup. Skipping bot init.");
-                return;
-            }
+        // --- MODULE BOOTSTRAP ---
+        // Modules start as soon as what they need is up; Discord only gates the bot hooks, not gameplay
+        this.bootstrap = new ModuleBootstrap(this, 3);
+        bootstrap.provide("vault", vaultEconomy != null);
+        bootstrap.provide("luckperms", luckPermsApi != null);
+        bootstrap.provide("discord:main", discordGateway.whenReady(DiscordGateway.Bot.MAIN));
+        bootstrap.provide("discord:store", discordGateway.whenReady(DiscordGateway.Bot.STORE));
 
-            String token = getConfig().getString("logger-bot-token");
-            if (token == null || token.isEmpty()) {
-                getLogger().severe("CRITICAL: logger-bot-token is NULL/EMPTY in config! Bot cannot start.");
-            } else {
-                getLogger().info("Logger Bot Token loaded (starts with): " + (token.length() > 5 ? token.substring(0, 5) + "..." : "INVALID"));
-            }
+        bootstrap.add("discord-gateway", ModuleBootstrap.Side.ASYNC, () -> {
+            discordGateway.start();
+            return true;
+        });
 
-            this.lagClearLogger = new LagClearLogger(this);
-            getLogger().info("LagClear Logger initialization requested...");
-            getLogger().info("Initializing CustomArmorModule...");
+        bootstrap.add("custom-armor", ModuleBootstrap.Side.MAIN, () -> {
             customArmorModule = new CustomArmorModule(this);
             customArmorModule.enable();
+            return true;
+        });
+        bootstrap.add("dungeon", ModuleBootstrap.Side.MAIN, () -> {
+            dungeonModule = new DungeonModule(this);
+            return true;
+        });
+        bootstrap.add("moderation", ModuleBootstrap.Side.MAIN, () -> {
+            moderationModule = new ModerationModule(this);
+            moderationModule.enable();
+            return true;
+        });
+        bootstrap.add("rank", ModuleBootstrap.Side.MAIN, () -> {
+            rankModule = new RankModule(this);
+            if (rankModule.init(luckPermsApi)) return true;
+            rankModule = null;
+            return false;
+        }).requires("luckperms");
+
+        // --- Discord (linking, store, moderation) ---
+        bootstrap.add("discord", ModuleBootstrap.Side.MAIN, () -> {
+            discordModule = new DiscordModule(this);
+            // We pass ModerationModule so Discord commands can punish players properly
+            return discordModule.init(rankModule, moderationModule);
+        }).requires("rank", "moderation");
+        bootstrap.add("discord-main-bot", ModuleBootstrap.Side.ASYNC, () ->
+                discordModule.getLinkingModule().attachBot(discordGateway.whenReady(DiscordGateway.Bot.MAIN).join())
+        ).requires("discord", "discord:main");
+        bootstrap.add("discord-store-bot", ModuleBootstrap.Side.ASYNC, () -> {
+            discordModule.getTicketModule().attachBot(discordGateway.whenReady(DiscordGateway.Bot.STORE).join());
+            return true;
+        }).requires("discord", "discord:store");
 
-            new BukkitRunnable() {
-                int attempts = 0;
-                final int maxAttempts = 10;
-
-                @Override
-                public void run() {
-                    if (!isEnabled()) {
-                        this.cancel();
-                        return;
-                    }
-
-                    // Wait for Logger Bot (Shared JDA)
-                    if (lagClearLogger != null && lagClearLogger.getJDA() != null && lagClearLogger.getJDA().getStatus() == JDA.Status.CONNECTED) {
-                        getLogger().info("LagClear Logger JDA is now connected. Initializing JDA-dependent modules...");
-
-                        getLogger().info("Initializing DungeonModule...");
-                        dungeonModule = new DungeonModule(Login.this);
-
-                        getLogger().info("Initializing ModerationModule...");
-                        moderationModule = new ModerationModule(Login.this);
-                        moderationModule.enable();
-
-                        getLogger().info("Initializing RankModule...");
-                        if (luckPermsApi == null) {
-                            getLogger().severe("LuckPerms API not found! RankModule will be disabled.");
-                            rankModule = null;
-                        } else {
-                            rankModule = new RankModule(Login.this);
-                            if (!rankModule.init(lagClearLogger, luckPermsApi)) {
-                                getLogger().severe("Failed to initialize Rank Module!");
-                                rankModule = null;
-                            }
-                        }
-
-                        // --- NEW DISCORD MODULE INITIALIZATION ---
-                        getLogger().info("Initializing DiscordModule (Linking/Store/Mod)...");
-                        discordModule = new DiscordModule(Login.this);
-                        // We pass ModerationModule so Discord commands can punish players properly
-                        discordModule.init(lagClearLogger, rankModule, moderationModule);
-
-                        // NOTE: Login Module depends on Linking, but Linking is now inside DiscordModule
-                        // Ensure loginModule can access it via getters later
-                        if (discordModule.getLinkingModule() != null) {
-                            if (!loginModule.init(discordModule.getLinkingModule(), lagClearLogger.getJDA())) {
-                                disableWithError("Login Module Failed to Initialize!");
-                                this.cancel();
-                                return;
-                            }
-                        } else {
-                            getLogger().severe("Discord Linking Module failed. Login System disabled.");
-                        }
-
-                        getLogger().info("Initializing LifestealLogger...");
-                        lifestealLogger = new LifestealLogger(Login.this, lagClearLogger.getJDA());
-
-                        getLogger().info("Initializing LifestealModule...");
-                        lifestealModule = new LifestealModule(Login.this, luckPermsApi, lifestealLogger);
-                        if (!lifestealModule.init()) {
-                            getLogger().severe("Failed to initialize Lifesteal Module!");
-                        }
-
-                        getLogger().info("Initializing OrderModule...");
-                        orderModule = new OrderModule(Login.this);
-                        orderModule.enable();
-
-                        getLogger().info("Initializing Coinflip system...");
-                        coinflipModule.initLogicAndListeners();
-
-                        getLogger().info("Initializing TokenModule...");
-                        tokenModule = new TokenModule(Login.this, luckPermsApi);
-                        if (!tokenModule.init()) {
-                            getLogger().severe("Failed to initialize Token Module!");
-                        }
-                        tokenManager = tokenModule.getTokenManager();
-
-                        getLogger().info("Initializing MilestoneModule...");
-                        milestoneModule = new MilestoneModule(Login.this);
-                        milestoneModule.init();
-
-                        getLogger().info("Initializing DailyRewardModule...");
-                        dailyRewardModule = new DailyRewardModule(Login.this, vaultEconomy, dailyRewardDatabase, tokenManager);
-                        if (!dailyRewardModule.init()) {
-                            getLogger().severe("Failed to initialize DailyReward Module!");
-                        }
-
-                        getLogger().info("Initializing PlaytimeRewardModule...");
-                        playtimeRewardModule = new PlaytimeRewardModule(Login.this, vaultEconomy, tokenManager);
-                        if (!playtimeRewardModule.init()) {
-                            getLogger().severe("Failed to initialize PlaytimeReward Module!");
-                        }
-
-                        getLogger().info("Initializing QuestsModule...");
-                        questsModule.enable();
-
-                        getLogger().info("Initializing GenModule...");
-                        genModule = new GenModule(Login.this, lagClearLogger);
-                        genModule.init();
-
-                        getLogger().info("Initializing CreditsModule...");
-                        creditsModule = new me.login.premiumfeatures.credits.CreditsModule(Login.this);
-                        creditsModule.enable();
-
-                        getLogger().info("Initializing CreatorCodeModule...");
-                        creatorCodeModule = new CreatorCodeModule(Login.this, creditsModule.getDatabase());
-                        if (!creatorCodeModule.init(lagClearLogger)) {
-                            getLogger().severe("Failed to initialize Creator Code Module!");
-                        }
-
-                        getLogger().info("Initializing PetsLogger...");
-                        petsLogger = new PetsLogger(Login.this);
-                        getLogger().info("Initializing PetsModule...");
-                        petsModule = new PetsModule(Login.this);
-                        if (!petsModule.init(petsLogger)) {
-                            getLogger().severe("Failed to initialize Pets Module!");
-                        }
-
-                        getLogger().info("Initializing FiresaleModule...");
-                        firesaleModule = new FiresaleModule(Login.this);
-                        firesaleModule.init();
-
-                        getLogger().info("Initializing TabManager...");
-                        tabManager = new TabManager(Login.this);
-                        tabManager.startUpdater();
-
-                        getLogger().info("Initializing LeaderboardModule...");
-                        leaderboardModule = new LeaderboardModule(Login.this);
-                        if (!leaderboardModule.init()) {
-                            getLogger().severe("Failed to initialize Leaderboard Module!");
-                        }
-
-                        this.cancel();
-                        return;
-                    }
+        // Login works without linking; it just loses the Discord-backed commands
+        bootstrap.add("login", ModuleBootstrap.Side.MAIN, () -> {
+            if (discordModule == null || discordModule.getLinkingModule() == null) {
+                getLogger().severe("Discord Linking Module failed. Login System will run without Discord linking.");
+            }
+            return loginModule.init(discordModule != null ? discordModule.getLinkingModule() : null);
+        }).after("discord").critical();
+
+        // --- Gameplay ---
+        bootstrap.add("lifesteal", ModuleBootstrap.Side.MAIN, () -> {
+            lifestealLogger = new LifestealLogger(this);
+            lifestealModule = new LifestealModule(this, luckPermsApi, lifestealLogger);
+            return lifestealModule.init();
+        });
+        bootstrap.add("orders", ModuleBootstrap.Side.MAIN, () -> {
+            orderModule = new OrderModule(this);
+            orderModule.enable();
+            return true;
+        }).requires("vault");
+        bootstrap.add("coinflip", ModuleBootstrap.Side.MAIN, () -> {
+            coinflipModule.initLogicAndListeners();
+            return true;
+        }).requires("vault");
+        bootstrap.add("tokens", ModuleBootstrap.Side.MAIN, () -> {
+            tokenModule = new TokenModule(this, luckPermsApi);
+            boolean started = tokenModule.init();
+            tokenManager = tokenModule.getTokenManager();
+            return started;
+        });
+        bootstrap.add("milestones", ModuleBootstrap.Side.MAIN, () -> {
+            milestoneModule = new MilestoneModule(this);
+            milestoneModule.init();
+            return true;
+        }).requires("tokens");
+        bootstrap.add("dailyreward-db", ModuleBootstrap.Side.ASYNC, () -> {
+            dailyRewardDatabase.connect();
+            dailyRewardDatabase.createTables();
+            return true;
+        });
+        bootstrap.add("dailyreward", ModuleBootstrap.Side.MAIN, () -> {
+            dailyRewardModule = new DailyRewardModule(this, vaultEconomy, dailyRewardDatabase, tokenManager);
+            return dailyRewardModule.init();
+        }).requires("vault", "tokens", "dailyreward-db");
+        bootstrap.add("playtime-rewards", ModuleBootstrap.Side.MAIN, () -> {
+            playtimeRewardModule = new PlaytimeRewardModule(this, vaultEconomy, tokenManager);
+            return playtimeRewardModule.init();
+        }).requires("vault", "tokens");
+        bootstrap.add("quests", ModuleBootstrap.Side.MAIN, () -> {
+            questsModule.enable();
+            return true;
+        }).requires("tokens");
+        bootstrap.add("generators", ModuleBootstrap.Side.MAIN, () -> {
+            genModule = new GenModule(this);
+            genModule.init();
+            return true;
+        });
+        bootstrap.add("credits", ModuleBootstrap.Side.MAIN, () -> {
+            creditsModule = new me.login.premiumfeatures.credits.CreditsModule(this);
+            creditsModule.enable();
+            return true;
+        });
+        bootstrap.add("creator-codes", ModuleBootstrap.Side.MAIN, () -> {
+            creatorCodeModule = new CreatorCodeModule(this, creditsModule.getDatabase());
+            return creatorCodeModule.init();
+        }).requires("credits");
+        bootstrap.add("pets", ModuleBootstrap.Side.MAIN, () -> {
+            petsLogger = new PetsLogger(this);
+            petsModule = new PetsModule(this);
+            return petsModule.init(petsLogger);
+        });
+        bootstrap.add("firesale", ModuleBootstrap.Side.MAIN, () -> {
+            firesaleModule = new FiresaleModule(this);
+            firesaleModule.init();
+            return true;
+        });
+        bootstrap.add("tab", ModuleBootstrap.Side.MAIN, () -> {
+            tabManager = new TabManager(this);
+            tabManager.startUpdater();
+            return true;
+        });
+        // Leaderboards read from most of the modules above
+        bootstrap.add("leaderboards", ModuleBootstrap.Side.MAIN, () -> {
+            leaderboardModule = new LeaderboardModule(this);
+            return leaderboardModule.init();
+        }).after("lifesteal", "tokens", "dailyreward", "playtime-rewards", "credits", "coinflip");
 
-                    attempts++;
-                    if (attempts >= maxAttempts) {
-                        getLogger().severe("LagClear Logger JDA did not connect after 10 seconds.");
-                        getLogger().severe("All Discord-dependent modules will be disabled.");
-                        this.cancel();
-                    }
-                }
-            }.runTaskTimer(Login.this, 20L, 20L);
-        }, 20L);
+        bootstrap.start();
 
         getLogger().info(getName() + " v" + getDescription().getVersion() + " Enabled Successfully!");
     }
@@ -455,6 +442,7 @@ public class Login extends JavaPlugin implements Listener {
     public void onDisable() {
         try {
             getLogger().info("Shutting down " + getName() + "...");
+            if (bootstrap != null) bootstrap.cancel();
 
             if (loginModule != null) loginModule.shutdown();
             if (scoreboardManager != null) {
@@ -496,8 +484,11 @@ public class Login extends JavaPlugin implements Listener {
             if (creditsModule != null) creditsModule.disable();
             if (dungeonModule != null) dungeonModule.disable();
             if (coinflipModule != null && coinflipModule.getDatabase() != null) coinflipModule.getDatabase().disconnect();
-            if (lagClearLogger != null) lagClearLogger.shutdown();
+            if (logBus != null) logBus.shutdown(5000);
+            if (discordGateway != null) discordGateway.shutdown();
             if (hologramModule != null) hologramModule.disable();
+            if (rtpModule != null) rtpModule.disable();
+            if (databaseService != null) databaseService.shutdown();
 
             try {
                 Class<?> taskRunner = Class.forName("okhttp3.internal.concurrent.TaskRunner");
@@ -539,9 +530,12 @@ public class Login extends JavaPlugin implements Listener {
     public LoginSystem getLoginSystem() { return (loginModule != null) ? loginModule.getLoginSystem() : null; }
     public LoginSystemLogger getLoginSystemLogger() { return (loginModule != null) ? loginModule.getLogger() : null; }
     public Login getPlugin() { return this; }
+    public DatabaseService getDatabaseService() { return databaseService; }
+    public DiscordLogBus getLogBus() { return logBus; }
     public OrderAlertMenu getOrderAlertMenu() { return (orderModule != null) ? orderModule.getOrderAlertMenu() : null; }
     public int getDefaultOrderLimit() { return defaultOrderLimit; }
     public ScoreboardManager getScoreboardManager() { return scoreboardManager; }
+    public TabManager getTabManager() { return tabManager; }
     public CoinflipDatabase getCoinflipDatabase() { return (coinflipModule != null) ? coinflipModule.getDatabase() : null; }
     public Economy getVaultEconomy() { return vaultEconomy; }
     public CoinflipMenu getCoinflipMenu() { return (coinflipModule != null) ? coinflipModule.getCoinflipMenu() : null; }
@@ -570,7 +564,8 @@ public class Login extends JavaPlugin implements Listener {
     public RankManager getRankManager() { return (rankModule != null) ? rankModule.getManager() : null; }
     public PetsModule getPetsModule() { return petsModule; }
     public TokenManager getTokenManager() { if (this.tokenManager == null && this.tokenModule != null) this.tokenManager = this.tokenModule.getTokenManager(); return this.tokenManager; }
-    public JDA getJda() { return (lagClearLogger != null) ? lagClearLogger.getJDA() : null; }
+    public JDA getJda() { return (discordGateway != null) ? discordGateway.getJda(DiscordGateway.Bot.LOGGER) : null; }
+    public DiscordGateway getDiscordGateway() { return discordGateway; }
     public MiniMessage getComponentSerializer() { return miniMessage; }
     public String getServerPrefix() { return serverPrefix; }
     public me.login.dungeon.DungeonModule getDungeonModule() { return this.dungeonModule; }
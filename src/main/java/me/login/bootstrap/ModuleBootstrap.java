@@ -0,0 +1,256 @@
+package me.login.bootstrap;
+
+import me.login.Login;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Starts the plugin's modules in dependency order.
+ * <p>
+ * Each module is a named step that declares what it needs: earlier modules, or services such as Vault,
+ * LuckPerms or a Discord bot, registered with {@link #provide}. A step starts as soon as everything it requires
+ * is up, so a slow or missing dependency (Discord being down) only holds back the modules that use it, and a
+ * failed dependency skips its dependents instead of stopping the rest. {@link Side#ASYNC} steps run in parallel
+ * on a small pool; anything touching the Bukkit API stays on the server thread. Once every step has settled a
+ * per-step timing table is logged.
+ */
+public class ModuleBootstrap {
+
+    public enum Side { MAIN, ASYNC }
+
+    @FunctionalInterface
+    public interface Step {
+        /**
+         * Starts the module. Returning false (or throwing) marks it failed and skips every step that requires it.
+         */
+        boolean run() throws Exception;
+    }
+
+    private enum Outcome { STARTED, FAILED, SKIPPED }
+
+    private final Login plugin;
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final ExecutorService asyncPool;
+    private volatile boolean cancelled;
+    private long startedAt;
+
+    public ModuleBootstrap(Login plugin, int asyncThreads) {
+        this.plugin = plugin;
+        AtomicInteger count = new AtomicInteger();
+        this.asyncPool = Executors.newFixedThreadPool(Math.max(1, asyncThreads), r -> {
+            Thread thread = new Thread(r, "Login-Bootstrap-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // --- Registration ---
+
+    /**
+     * Registers a service that is either there or not (e.g. a soft-depend plugin hook).
+     */
+    public void provide(String name, boolean available) {
+        provide(name, available ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.failedFuture(new IllegalStateException(name + " is not available")));
+    }
+
+    /**
+     * Registers a service that becomes available later (e.g. a Discord connection); a failed future means it never will.
+     */
+    public void provide(String name, CompletableFuture<?> ready) {
+        Node node = register(name, null, null);
+        node.ready = ready;
+    }
+
+    /**
+     * Registers a module step. Dependencies must be registered before the modules that use them.
+     */
+    public Node add(String name, Side side, Step step) {
+        return register(name, side, step);
+    }
+
+    private Node register(String name, Side side, Step step) {
+        if (nodes.containsKey(name)) throw new IllegalArgumentException("Duplicate bootstrap step '" + name + "'");
+        Node node = new Node(name, side, step);
+        nodes.put(name, node);
+        return node;
+    }
+
+    public final class Node {
+        private final String name;
+        private final Side side;
+        private final Step step;
+        private final List<Node> requires = new ArrayList<>();
+        private final List<Node> after = new ArrayList<>();
+        private boolean critical;
+        private CompletableFuture<?> ready;
+
+        private CompletableFuture<Outcome> result;
+        private volatile long startNanos;
+        private volatile long elapsedMillis;
+        private volatile String skippedFor;
+
+        private Node(String name, Side side, Step step) {
+            this.name = name;
+            this.side = side;
+            this.step = step;
+        }
+
+        /**
+         * Only runs once all of these have started; skipped if any of them fails or is skipped.
+         */
+        public Node requires(String... names) {
+            requires.addAll(lookup(names));
+            return this;
+        }
+
+        /**
+         * Runs after these have settled, whether or not they started (optional integrations).
+         */
+        public Node after(String... names) {
+            after.addAll(lookup(names));
+            return this;
+        }
+
+        /**
+         * The plugin cannot run without this step; if it fails the plugin is disabled.
+         */
+        public Node critical() {
+            this.critical = true;
+            return this;
+        }
+
+        private List<Node> lookup(String... names) {
+            List<Node> found = new ArrayList<>();
+            for (String dependency : names) {
+                Node node = nodes.get(dependency);
+                // Registering dependencies first keeps the graph acyclic by construction
+                if (node == null) throw new IllegalArgumentException("'" + name + "' depends on unknown or later step '" + dependency + "'");
+                found.add(node);
+            }
+            return found;
+        }
+    }
+
+    // --- Execution ---
+
+    /**
+     * Starts every step. Call from the server thread; main-thread steps whose dependencies are already met run inline.
+     * The returned future completes once every step has started, failed or been skipped.
+     */
+    public CompletableFuture<Void> start() {
+        startedAt = System.nanoTime();
+        List<CompletableFuture<Outcome>> all = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            node.result = node.step == null ? settle(node) : schedule(node);
+            all.add(node.result);
+        }
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).thenRun(() -> {
+            asyncPool.shutdown();
+            if (!cancelled) report();
+        });
+    }
+
+    /**
+     * Stops steps that have not run yet from starting (plugin disabling mid-startup).
+     */
+    public void cancel() {
+        cancelled = true;
+        asyncPool.shutdownNow();
+    }
+
+    private CompletableFuture<Outcome> settle(Node service) {
+        service.startNanos = System.nanoTime();
+        return service.ready.handle((value, error) -> {
+            service.elapsedMillis = (System.nanoTime() - service.startNanos) / 1_000_000;
+            return error == null ? Outcome.STARTED : Outcome.FAILED;
+        });
+    }
+
+    private CompletableFuture<Outcome> schedule(Node node) {
+        List<CompletableFuture<Outcome>> waits = new ArrayList<>();
+        for (Node dependency : node.requires) waits.add(dependency.result);
+        for (Node dependency : node.after) waits.add(dependency.result);
+
+        return CompletableFuture.allOf(waits.toArray(new CompletableFuture[0])).thenCompose(ignored -> {
+            for (Node dependency : node.requires) {
+                if (dependency.result.join() != Outcome.STARTED) {
+                    node.skippedFor = dependency.name;
+                    plugin.getLogger().warning("Skipping " + node.name + ": requires " + dependency.name + ", which is not available.");
+                    return CompletableFuture.completedFuture(Outcome.SKIPPED);
+                }
+            }
+            CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+            Runnable task = () -> outcome.complete(run(node));
+            try {
+                if (node.side == Side.ASYNC) {
+                    asyncPool.execute(task);
+                } else if (Bukkit.isPrimaryThread()) {
+                    task.run();
+                } else {
+                    Bukkit.getScheduler().runTask(plugin, task);
+                }
+            } catch (RuntimeException e) {
+                // Pool shut down or plugin disabled before the step could be queued
+                outcome.complete(Outcome.SKIPPED);
+            }
+            return outcome;
+        });
+    }
+
+    private Outcome run(Node node) {
+        if (cancelled || !plugin.isEnabled()) return Outcome.SKIPPED;
+
+        node.startNanos = System.nanoTime();
+        boolean started;
+        try {
+            started = node.step.run();
+            if (!started) plugin.getLogger().severe("Failed to initialize " + node.name + "!");
+        } catch (Throwable t) {
+            started = false;
+            plugin.getLogger().log(Level.SEVERE, "Failed to initialize " + node.name + "!", t);
+        }
+        node.elapsedMillis = (System.nanoTime() - node.startNanos) / 1_000_000;
+
+        if (!started && node.critical) {
+            plugin.getLogger().severe(node.name + " is required. Disabling plugin.");
+            cancelled = true;
+            if (Bukkit.isPrimaryThread()) {
+                plugin.getServer().getPluginManager().disablePlugin(plugin);
+            } else {
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getServer().getPluginManager().disablePlugin(plugin));
+            }
+        }
+        return started ? Outcome.STARTED : Outcome.FAILED;
+    }
+
+    private void report() {
+        long total = (System.nanoTime() - startedAt) / 1_000_000;
+        long[] counts = new long[Outcome.values().length];
+        for (Node node : nodes.values()) counts[node.result.join().ordinal()]++;
+
+        plugin.getLogger().info("Startup finished in " + total + " ms: " + counts[Outcome.STARTED.ordinal()] + " started, "
+                + counts[Outcome.FAILED.ordinal()] + " failed, " + counts[Outcome.SKIPPED.ordinal()] + " skipped.");
+        for (Node node : nodes.values()) {
+            Outcome outcome = node.result.join();
+            String side = node.step == null ? "service" : node.side.name().toLowerCase();
+            String detail = switch (outcome) {
+                case STARTED -> node.elapsedMillis + " ms";
+                case FAILED -> "FAILED after " + node.elapsedMillis + " ms";
+                case SKIPPED -> node.skippedFor != null ? "skipped (needs " + node.skippedFor + ")" : "skipped";
+            };
+            // Offset from bootstrap start shows what ran in parallel
+            long offset = node.startNanos == 0 ? 0 : (node.startNanos - startedAt) / 1_000_000;
+            plugin.getLogger().info(String.format("  %-20s %-8s +%5d ms  %s", node.name, side, offset, detail));
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package me.login.coinflip;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player; // <-- IMPORT ADDED
 
-import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,47 +21,29 @@ import java.util.logging.Level;
 public class CoinflipDatabase {
 
     private final Login plugin;
-    private Connection connection;
-    private final String dbUrl;
+    private final SQLiteDatabase database;
 
     public CoinflipDatabase(Login plugin) {
         this.plugin = plugin;
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-        this.dbUrl = "jdbc:sqlite:" + dbFolder.getAbsolutePath() + File.separator + "coinflip.db"; // Changed file name
+        this.database = plugin.getDatabaseService().open("coinflip.db"); // Changed file name
     }
 
     public boolean connect() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            this.connection = DriverManager.getConnection(dbUrl);
-            plugin.getLogger().info("Coinflip SQLite database connected.");
             createTables();
-            return true;
         } catch (SQLException e) {
             plugin.getLogger().severe("Could not connect to Coinflip SQLite database: " + e.getMessage());
             return false;
-        } catch (ClassNotFoundException e) {
-            plugin.getLogger().severe("SQLite JDBC driver not found!");
-            return false;
         }
+        plugin.getLogger().info("Coinflip SQLite database connected.");
+        return true;
     }
 
-    // FIX: Made public so module can access it
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connect();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error getting Coinflip DB connection", e);
-        }
-        return connection;
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
-    private void createTables() {
+    private void createTables() throws SQLException {
         String gamesTable = """
             CREATE TABLE IF NOT EXISTS coinflips (
                 game_id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -86,51 +68,46 @@ public class CoinflipDatabase {
         String statsIndex = "CREATE INDEX IF NOT EXISTS idx_coinflips_status ON coinflips (status)";
         String creatorIndex = "CREATE INDEX IF NOT EXISTS idx_coinflips_creator ON coinflips (creator_uuid, status)";
 
-        try (Statement stmt = getConnection().createStatement()) {
-            stmt.execute(gamesTable);
-            stmt.execute(statsTable);
-            stmt.execute(statsIndex);
-            stmt.execute(creatorIndex);
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error creating Coinflip tables: " + e.getMessage());
-        }
+        database.withConnection(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(gamesTable);
+                stmt.execute(statsTable);
+                stmt.execute(statsIndex);
+                stmt.execute(creatorIndex);
+            }
+            return null;
+        });
     }
 
     public void disconnect() {
-        if (connection != null) {
-            try {
-                connection.close();
-                plugin.getLogger().info("Coinflip SQLite database disconnected.");
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Error disconnecting from Coinflip SQLite database: " + e.getMessage());
-            }
-        }
+        database.close();
+        plugin.getLogger().info("Coinflip SQLite database disconnected.");
     }
 
     // --- Game Management Methods (FIXED) ---
 
     public CompletableFuture<Long> createCoinflip(UUID creatorUUID, String creatorName, CoinflipGame.CoinSide side, double amount) {
         CompletableFuture<Long> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
+        database.runAsync(() -> {
             String query = "INSERT INTO coinflips (creator_uuid, creator_name, chosen_side, amount, creation_time, status) VALUES (?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setString(1, creatorUUID.toString());
-                ps.setString(2, creatorName);
-                ps.setString(3, side.name());
-                ps.setDouble(4, amount);
-                ps.setLong(5, System.currentTimeMillis());
-                ps.setString(6, "PENDING");
-                int affectedRows = ps.executeUpdate();
-                if (affectedRows == 0) { throw new SQLException("Creating coinflip failed, no rows affected."); }
-                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        future.complete(generatedKeys.getLong(1));
-                    } else {
+            try {
+                future.complete(database.withConnection(conn -> {
+                    PreparedStatement ps = database.prepare(query);
+                    ps.setString(1, creatorUUID.toString());
+                    ps.setString(2, creatorName);
+                    ps.setString(3, side.name());
+                    ps.setDouble(4, amount);
+                    ps.setLong(5, System.currentTimeMillis());
+                    ps.setString(6, "PENDING");
+                    int affectedRows = ps.executeUpdate();
+                    if (affectedRows == 0) { throw new SQLException("Creating coinflip failed, no rows affected."); }
+                    try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            return generatedKeys.getLong(1);
+                        }
                         throw new SQLException("Creating coinflip failed, no ID obtained.");
                     }
-                }
+                }));
             } catch (SQLException e) {
                 future.completeExceptionally(e);
             }
@@ -139,72 +116,32 @@ public class CoinflipDatabase {
     }
 
     public CompletableFuture<List<CoinflipGame>> loadAllGames() {
-        CompletableFuture<List<CoinflipGame>> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            List<CoinflipGame> games = new ArrayList<>();
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(games); return; }
-            String query = "SELECT * FROM coinflips WHERE status = 'PENDING' OR status = 'ACTIVE' ORDER BY creation_time ASC";
-            try (PreparedStatement ps = conn.prepareStatement(query);
-                 ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    try {
-                        games.add(parseGameFromResult(rs));
-                    } catch (IllegalArgumentException e) {
-                        plugin.getLogger().warning("Failed parse coinflip game ID " + rs.getLong("game_id") + ": Invalid side - " + e.getMessage());
-                    }
-                }
-                future.complete(games);
-            } catch (SQLException e) {
-                future.completeExceptionally(e);
-            }
-        });
-        return future;
+        return loadGames("SELECT * FROM coinflips WHERE status = 'PENDING' OR status = 'ACTIVE' ORDER BY creation_time ASC");
     }
 
     public CompletableFuture<List<CoinflipGame>> loadPendingCoinflips() {
-        CompletableFuture<List<CoinflipGame>> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            List<CoinflipGame> games = new ArrayList<>();
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(games); return; }
-            String query = "SELECT * FROM coinflips WHERE status = 'PENDING' ORDER BY creation_time ASC";
-            try (PreparedStatement ps = conn.prepareStatement(query);
-                 ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    try {
-                        games.add(parseGameFromResult(rs));
-                    } catch (IllegalArgumentException e) {
-                        plugin.getLogger().warning("Failed parse coinflip game ID " + rs.getLong("game_id") + ": Invalid side - " + e.getMessage());
-                    }
-                }
-                future.complete(games);
-            } catch (SQLException e) {
-                future.completeExceptionally(e);
-            }
-        });
-        return future;
+        return loadGames("SELECT * FROM coinflips WHERE status = 'PENDING' ORDER BY creation_time ASC");
     }
 
     public CompletableFuture<List<CoinflipGame>> loadPlayerPendingCoinflips(UUID playerUUID) {
+        return loadGames("SELECT * FROM coinflips WHERE creator_uuid = ? AND status = 'PENDING' ORDER BY creation_time DESC", playerUUID.toString());
+    }
+
+    private CompletableFuture<List<CoinflipGame>> loadGames(String query, Object... params) {
         CompletableFuture<List<CoinflipGame>> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            List<CoinflipGame> games = new ArrayList<>();
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(games); return; }
-            String query = "SELECT * FROM coinflips WHERE creator_uuid = ? AND status = 'PENDING' ORDER BY creation_time DESC";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, playerUUID.toString());
-                try (ResultSet rs = ps.executeQuery()) {
+        database.runAsync(() -> {
+            try {
+                future.complete(database.query(query, rs -> {
+                    List<CoinflipGame> games = new ArrayList<>();
                     while (rs.next()) {
                         try {
                             games.add(parseGameFromResult(rs));
                         } catch (IllegalArgumentException e) {
-                            plugin.getLogger().warning("Failed parse player coinflip game ID " + rs.getLong("game_id") + ": Invalid side - " + e.getMessage());
+                            plugin.getLogger().warning("Failed parse coinflip game ID " + rs.getLong("game_id") + ": Invalid side - " + e.getMessage());
                         }
                     }
-                }
-                future.complete(games);
+                    return games;
+                }, params));
             } catch (SQLException e) {
                 future.completeExceptionally(e);
             }
@@ -214,14 +151,9 @@ public class CoinflipDatabase {
 
     public CompletableFuture<Boolean> activateCoinflip(long gameId) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(false); return; }
-            String query = "UPDATE coinflips SET status = 'ACTIVE' WHERE game_id = ? AND status = 'PENDING'";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setLong(1, gameId);
-                int affectedRows = ps.executeUpdate();
-                future.complete(affectedRows > 0);
+        database.runAsync(() -> {
+            try {
+                future.complete(database.update("UPDATE coinflips SET status = 'ACTIVE' WHERE game_id = ? AND status = 'PENDING'", gameId) > 0);
             } catch (SQLException e) {
                 future.completeExceptionally(e);
             }
@@ -231,13 +163,9 @@ public class CoinflipDatabase {
 
     public CompletableFuture<Boolean> removeCoinflip(long gameId) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(false); return; }
-            String query = "DELETE FROM coinflips WHERE game_id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setLong(1, gameId);
-                future.complete(ps.executeUpdate() > 0);
+        database.runAsync(() -> {
+            try {
+                future.complete(database.update("DELETE FROM coinflips WHERE game_id = ?", gameId) > 0);
             } catch (SQLException e) {
                 future.completeExceptionally(e);
             }
@@ -261,19 +189,11 @@ public class CoinflipDatabase {
 
     public CompletableFuture<CoinflipStats> loadPlayerStats(UUID playerUUID) {
         CompletableFuture<CoinflipStats> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(new CoinflipStats(playerUUID, 0, 0)); return; }
-            String query = "SELECT wins, losses FROM coinflip_stats WHERE player_uuid = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, playerUUID.toString());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        future.complete(new CoinflipStats(playerUUID, rs.getInt("wins"), rs.getInt("losses")));
-                    } else {
-                        future.complete(new CoinflipStats(playerUUID, 0, 0));
-                    }
-                }
+        database.runAsync(() -> {
+            try {
+                future.complete(database.query("SELECT wins, losses FROM coinflip_stats WHERE player_uuid = ?",
+                        rs -> rs.next() ? new CoinflipStats(playerUUID, rs.getInt("wins"), rs.getInt("losses")) : new CoinflipStats(playerUUID, 0, 0),
+                        playerUUID.toString()));
             } catch (SQLException e) {
                 future.completeExceptionally(e);
             }
@@ -283,17 +203,12 @@ public class CoinflipDatabase {
 
     public CompletableFuture<Void> updatePlayerStats(UUID playerUUID, String playerName, boolean won) {
         CompletableFuture<Void> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
+        database.runAsync(() -> {
             String updateQuery = won ?
                     "INSERT INTO coinflip_stats (player_uuid, player_name, wins, losses) VALUES (?, ?, 1, 0) ON CONFLICT(player_uuid) DO UPDATE SET wins = wins + 1, player_name = excluded.player_name" :
                     "INSERT INTO coinflip_stats (player_uuid, player_name, wins, losses) VALUES (?, ?, 0, 1) ON CONFLICT(player_uuid) DO UPDATE SET losses = losses + 1, player_name = excluded.player_name";
-
-            try (PreparedStatement ps = conn.prepareStatement(updateQuery)) {
-                ps.setString(1, playerUUID.toString());
-                ps.setString(2, playerName);
-                ps.executeUpdate();
+            try {
+                database.update(updateQuery, playerUUID.toString(), playerName);
                 future.complete(null);
             } catch (SQLException e) {
                 future.completeExceptionally(e);
@@ -305,15 +220,11 @@ public class CoinflipDatabase {
     // --- [Req 3] Message Toggle Methods ---
     public CompletableFuture<Void> saveMessageToggle(UUID uuid, boolean enabled) {
         CompletableFuture<Void> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
+        database.runAsync(() -> {
             String query = "INSERT INTO coinflip_stats (player_uuid, player_name, message_toggle) VALUES (?, ?, ?) ON CONFLICT(player_uuid) DO UPDATE SET message_toggle = excluded.message_toggle";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, uuid.toString());
-                ps.setString(2, "Unknown"); // Name will be updated on next stat update
-                ps.setBoolean(3, enabled);
-                ps.executeUpdate();
+            try {
+                // Name will be updated on next stat update
+                database.update(query, uuid.toString(), "Unknown", enabled);
                 future.complete(null);
             } catch (SQLException e) {
                 future.completeExceptionally(e);
@@ -324,22 +235,13 @@ public class CoinflipDatabase {
 
     public CompletableFuture<Boolean> loadMessageToggle(UUID uuid) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(true); return; } // Default to true
-            String query = "SELECT message_toggle FROM coinflip_stats WHERE player_uuid = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, uuid.toString());
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        future.complete(rs.getBoolean("message_toggle"));
-                    } else {
-                        future.complete(true); // Default to true if no record
-                    }
-                }
+        database.runAsync(() -> {
+            try {
+                // Default to true if no record
+                future.complete(database.query("SELECT message_toggle FROM coinflip_stats WHERE player_uuid = ?",
+                        rs -> !rs.next() || rs.getBoolean("message_toggle"), uuid.toString()));
             } catch (SQLException e) {
                 future.completeExceptionally(e);
-                future.complete(true); // Default to true on error
             }
         });
         return future;
@@ -348,12 +250,10 @@ public class CoinflipDatabase {
     // Cooldown methods (from your previous file, adapted)
     public void setCooldown(UUID uuid, long time) {
         String sql = "INSERT INTO coinflip_stats (player_uuid, player_name, cooldown) VALUES (?, ?, ?) ON CONFLICT(player_uuid) DO UPDATE SET cooldown = excluded.cooldown";
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                pstmt.setString(1, uuid.toString());
-                pstmt.setString(2, "Unknown"); // Name is required, but we might not have it here. It will be updated on next stat update.
-                pstmt.setLong(3, time);
-                pstmt.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                // Name is required, but we might not have it here. It will be updated on next stat update.
+                database.update(sql, uuid.toString(), "Unknown", time);
             } catch (SQLException e) {
                 plugin.getLogger().severe("Error setting coinflip cooldown for " + uuid + ": " + e.getMessage());
             }
@@ -362,13 +262,8 @@ public class CoinflipDatabase {
 
     public long getCooldown(UUID uuid) {
         String sql = "SELECT cooldown FROM coinflip_stats WHERE player_uuid = ?;";
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, uuid.toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong("cooldown");
-                }
-            }
+        try {
+            return database.query(sql, rs -> rs.next() ? rs.getLong("cooldown") : 0L, uuid.toString());
         } catch (SQLException e) {
             plugin.getLogger().severe("Error getting coinflip cooldown for " + uuid + ": " + e.getMessage());
         }
@@ -388,21 +283,23 @@ public class CoinflipDatabase {
     public Map<UUID, CoinflipStats> getAllStats() {
         Map<UUID, CoinflipStats> allStats = new HashMap<>();
         String sql = "SELECT player_uuid, wins, losses FROM coinflip_stats;";
-        try (Statement stmt = getConnection().createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                try {
-                    UUID uuid = UUID.fromString(rs.getString("player_uuid"));
-                    CoinflipStats stats = new CoinflipStats(
-                            uuid,
-                            rs.getInt("wins"),
-                            rs.getInt("losses")
-                    );
-                    allStats.put(uuid, stats);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Found invalid UUID in coinflip_stats database: " + rs.getString("player_uuid"));
+        try {
+            database.query(sql, rs -> {
+                while (rs.next()) {
+                    try {
+                        UUID uuid = UUID.fromString(rs.getString("player_uuid"));
+                        CoinflipStats stats = new CoinflipStats(
+                                uuid,
+                                rs.getInt("wins"),
+                                rs.getInt("losses")
+                        );
+                        allStats.put(uuid, stats);
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Found invalid UUID in coinflip_stats database: " + rs.getString("player_uuid"));
+                    }
                 }
-            }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().severe("Error loading all coinflip stats: " + e.getMessage());
         }
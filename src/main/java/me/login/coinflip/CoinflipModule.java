@@ -52,11 +52,7 @@ public class CoinflipModule implements Listener {
      */
     public boolean initDatabase() {
         this.coinflipDatabase = new CoinflipDatabase(plugin);
-        this.coinflipDatabase.connect();
-        if (this.coinflipDatabase.getConnection() == null) {
-            return false;
-        }
-        return true;
+        return this.coinflipDatabase.connect();
     }
 
     /**
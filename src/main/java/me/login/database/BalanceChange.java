@@ -0,0 +1,26 @@
+package me.login.database;
+
+/**
+ * Queued change to a stored balance: either a delta or an absolute set.
+ * Used as the value of a {@link WriteBehindBuffer} so sets and deposits for one key
+ * are applied in the order they were made.
+ */
+public record BalanceChange(long amount, boolean absolute) {
+
+    public static BalanceChange add(long amount) {
+        return new BalanceChange(amount, false);
+    }
+
+    public static BalanceChange set(long amount) {
+        return new BalanceChange(amount, true);
+    }
+
+    /**
+     * Combines two queued changes, {@code previous} first. A later set replaces everything before it;
+     * a later delta is added on top of whatever came before.
+     */
+    public static BalanceChange merge(BalanceChange previous, BalanceChange next) {
+        if (next.absolute) return next;
+        return new BalanceChange(previous.amount + next.amount, previous.absolute);
+    }
+}
@@ -0,0 +1,163 @@
+package me.login.database;
+
+import me.login.Login;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Shared persistence layer for every module.
+ * <p>
+ * Owns one {@link SQLiteDatabase} per file in plugins/Login/database and a bounded
+ * executor that all database work runs on, instead of Bukkit's unbounded async pool.
+ */
+public class DatabaseService {
+
+    private final Login plugin;
+    private final File databaseFolder;
+    private final Map<String, SQLiteDatabase> databases = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final int readPoolSize;
+    private final int busyTimeoutMs;
+    private final int backlogWarning;
+    private final BukkitTask writeBehindTask;
+    private long lastBacklogWarning;
+
+    public DatabaseService(Login plugin) {
+        this.plugin = plugin;
+        this.databaseFolder = new File(plugin.getDataFolder(), "database");
+        if (!databaseFolder.exists()) {
+            databaseFolder.mkdirs();
+        }
+
+        FileConfiguration config = plugin.getConfig();
+        this.readPoolSize = config.getInt("database.read-pool-size", 3);
+        this.busyTimeoutMs = config.getInt("database.busy-timeout-ms", 5000);
+        int threads = Math.max(1, config.getInt("database.executor-threads", 4));
+        this.backlogWarning = Math.max(16, config.getInt("database.executor-queue-size", 2048));
+
+        // Unbounded queue: a full queue must neither drop a write nor run I/O on the server thread.
+        // The configured size is a warning threshold instead.
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory(),
+                (task, pool) -> plugin.getLogger().warning("Database task submitted after shutdown was dropped."));
+        this.executor.allowCoreThreadTimeOut(true);
+
+        // Buffered stat writes (xp, pet stats, token deltas) go out in one transaction per database per interval.
+        long flushInterval = Math.max(20L, config.getLong("database.write-behind-interval-ticks", 100L));
+        this.writeBehindTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin,
+                () -> runAsync(this::flushWriteBehind), flushInterval, flushInterval);
+    }
+
+    /**
+     * Opens (or returns the already open) database stored in plugins/Login/database/&lt;fileName&gt;.
+     */
+    public SQLiteDatabase open(String fileName) {
+        return open(new File(databaseFolder, fileName));
+    }
+
+    /**
+     * Opens (or returns the already open) database for an arbitrary file. A closed database is never reused;
+     * opening its file again returns a new instance, while the old one keeps rejecting work.
+     */
+    public SQLiteDatabase open(File file) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        return databases.compute(file.getAbsolutePath(), (path, existing) -> existing != null && !existing.isClosed()
+                ? existing
+                : new SQLiteDatabase(this, file, readPoolSize, busyTimeoutMs, plugin.getLogger()));
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        checkBacklog();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.SEVERE, "Unhandled error in database task", t);
+                throw t;
+            }
+        }, executor);
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        checkBacklog();
+        return CompletableFuture.supplyAsync(supplier, executor);
+    }
+
+    private void checkBacklog() {
+        int queued = executor.getQueue().size();
+        if (queued < backlogWarning) return;
+        long now = System.currentTimeMillis();
+        if (now - lastBacklogWarning < 30_000L) return;
+        lastBacklogWarning = now;
+        plugin.getLogger().warning("Database executor is falling behind: " + queued + " task(s) queued.");
+    }
+
+    /**
+     * Flushes the write-behind buffers of every open database on the calling thread.
+     */
+    public void flushWriteBehind() {
+        for (SQLiteDatabase database : databases.values()) {
+            if (database.isClosed()) continue;
+            database.flushWriteBehind();
+        }
+    }
+
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Drains pending database work and closes every connection. Called last in onDisable.
+     */
+    public void shutdown() {
+        writeBehindTask.cancel();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Database executor did not finish in time, " + executor.getQueue().size() + " task(s) dropped.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        // close() flushes whatever is still buffered before releasing the connections.
+        for (SQLiteDatabase database : databases.values()) {
+            database.close();
+        }
+        databases.clear();
+        plugin.getLogger().info("Database service shut down.");
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Login-DB-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package me.login.database;
+
+import org.sqlite.SQLiteConfig;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One SQLite file managed by the {@link DatabaseService}.
+ * <p>
+ * Holds a single writer connection (guarded by a lock, so transactions never interleave)
+ * plus a small pool of read-only connections. All connections run in WAL mode with
+ * synchronous=NORMAL and a busy timeout, and each keeps its own prepared-statement cache.
+ */
+public class SQLiteDatabase {
+
+    private final DatabaseService service;
+    private final File file;
+    private final String url;
+    private final Logger logger;
+    private final int busyTimeoutMs;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private PooledConnection writer;
+
+    private final BlockingQueue<PooledConnection> readers;
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+    private final int readPoolSize;
+    private final List<WriteBehindBuffer<?, ?>> buffers = new CopyOnWriteArrayList<>();
+    private volatile boolean closed = false;
+
+    SQLiteDatabase(DatabaseService service, File file, int readPoolSize, int busyTimeoutMs, Logger logger) {
+        this.service = service;
+        this.file = file;
+        this.url = "jdbc:sqlite:" + file.getAbsolutePath();
+        this.readPoolSize = Math.max(0, readPoolSize);
+        this.readers = new ArrayBlockingQueue<>(Math.max(1, this.readPoolSize));
+        this.busyTimeoutMs = busyTimeoutMs;
+        this.logger = logger;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getName() {
+        return file.getName();
+    }
+
+    // --- Connections ---
+
+    /**
+     * Runs work on the writer connection while holding the write lock. The connection must not escape
+     * {@code work}: any statement run on it outside the lock could join another thread's transaction.
+     */
+    public <T> T withConnection(SqlFunction<Connection, T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            return work.apply(writer().connection);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs work inside a single transaction on the writer connection. Rolls back on any exception.
+     */
+    public <T> T transaction(SqlFunction<Connection, T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            Connection conn = writer().connection;
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                T result = work.apply(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            } finally {
+                try { conn.setAutoCommit(autoCommit); } catch (SQLException ignored) {}
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a cached statement for the writer connection. Only valid inside
+     * {@link #withConnection} or {@link #transaction}; never close the returned statement.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        if (!writeLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("prepare() called without holding the write lock of " + getName());
+        }
+        PreparedStatement ps = writer().statement(sql);
+        ps.clearParameters();
+        return ps;
+    }
+
+    /**
+     * Executes an INSERT/UPDATE/DELETE through the statement cache of the writer connection.
+     */
+    public int update(String sql, Object... params) throws SQLException {
+        return withConnection(conn -> {
+            PreparedStatement ps = prepare(sql);
+            bind(ps, params);
+            return ps.executeUpdate();
+        });
+    }
+
+    /**
+     * Executes a SELECT on a pooled read-only connection (falls back to the writer when the pool is disabled).
+     */
+    public <T> T query(String sql, SqlFunction<ResultSet, T> mapper, Object... params) throws SQLException {
+        if (readPoolSize == 0) {
+            return withConnection(conn -> {
+                PreparedStatement ps = prepare(sql);
+                bind(ps, params);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return mapper.apply(rs);
+                }
+            });
+        }
+
+        PooledConnection reader = borrowReader();
+        try {
+            PreparedStatement ps = reader.statement(sql);
+            ps.clearParameters();
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return mapper.apply(rs);
+            }
+        } finally {
+            releaseReader(reader);
+        }
+    }
+
+    // --- Write-behind ---
+
+    /**
+     * Creates a buffer whose pending records are written with {@code sql} in one batch.
+     * Latest value per key wins; see {@link #writeBehind(String, String, WriteBehindBuffer.Binder, BinaryOperator)} for deltas.
+     */
+    public <K, V> WriteBehindBuffer<K, V> writeBehind(String name, String sql, WriteBehindBuffer.Binder<K, V> binder) {
+        return writeBehind(name, sql, binder, null);
+    }
+
+    /**
+     * Creates a buffer that merges pending values per key with {@code merger} before they are written.
+     * The buffer is flushed by the service on an interval and whenever this database is closed.
+     */
+    public <K, V> WriteBehindBuffer<K, V> writeBehind(String name, String sql, WriteBehindBuffer.Binder<K, V> binder, BinaryOperator<V> merger) {
+        WriteBehindBuffer<K, V> buffer = new WriteBehindBuffer<>(getName() + "/" + name, this, sql, binder, merger, logger);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Flushes every write-behind buffer of this database on the calling thread.
+     */
+    public void flushWriteBehind() {
+        for (WriteBehindBuffer<?, ?> buffer : buffers) {
+            buffer.flushAll();
+        }
+    }
+
+    // --- Async helpers (dedicated DB executor) ---
+
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        return service.runAsync(task);
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(java.util.function.Supplier<T> supplier) {
+        return service.supplyAsync(supplier);
+    }
+
+    // --- Lifecycle ---
+
+    public void close() {
+        if (!closed) {
+            // Never lose buffered writes when a module disconnects.
+            flushWriteBehind();
+        }
+        closed = true;
+        writeLock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        synchronized (allReaders) {
+            for (PooledConnection reader : allReaders) {
+                reader.close();
+            }
+            allReaders.clear();
+            readers.clear();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // --- Internals ---
+
+    static void bind(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+
+    private PooledConnection writer() throws SQLException {
+        ensureOpen();
+        if (writer == null || writer.connection.isClosed()) {
+            writer = open(false);
+        }
+        return writer;
+    }
+
+    private PooledConnection borrowReader() throws SQLException {
+        ensureOpen();
+        PooledConnection reader = readers.poll();
+        if (reader != null) {
+            if (!reader.connection.isClosed()) return reader;
+            synchronized (allReaders) { allReaders.remove(reader); }
+        }
+
+        synchronized (allReaders) {
+            if (allReaders.size() < readPoolSize) {
+                PooledConnection created = open(true);
+                allReaders.add(created);
+                return created;
+            }
+        }
+
+        try {
+            reader = readers.poll(busyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection to " + getName(), e);
+        }
+        if (reader == null) {
+            throw new SQLException("Timed out waiting for a read connection to " + getName());
+        }
+        return reader;
+    }
+
+    private void ensureOpen() throws SQLException {
+        // Closing is final; a late task must fail instead of quietly reopening the file after shutdown
+        if (closed) throw new SQLException("Database " + getName() + " is closed");
+    }
+
+    private void releaseReader(PooledConnection reader) {
+        if (closed) {
+            reader.close();
+            return;
+        }
+        if (!readers.offer(reader)) {
+            reader.close();
+        }
+    }
+
+    private PooledConnection open(boolean readOnly) throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite driver not found", e);
+        }
+
+        SQLiteConfig config = new SQLiteConfig();
+        if (!readOnly) {
+            // WAL is persistent in the file; readers inherit it once the writer has switched.
+            config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        }
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(busyTimeoutMs);
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setReadOnly(readOnly);
+
+        Connection connection = DriverManager.getConnection(url, config.toProperties());
+        return new PooledConnection(connection, readOnly);
+    }
+
+    /**
+     * A connection plus its prepared-statement cache. Only ever used by one thread at a time.
+     */
+    private final class PooledConnection {
+        private final Connection connection;
+        private final boolean readOnly;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection, boolean readOnly) {
+            this.connection = connection;
+            this.readOnly = readOnly;
+        }
+
+        private PreparedStatement statement(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null || ps.isClosed()) {
+                ps = readOnly
+                        ? connection.prepareStatement(sql)
+                        : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                statements.put(sql, ps);
+            }
+            return ps;
+        }
+
+        private void close() {
+            for (PreparedStatement ps : statements.values()) {
+                try { ps.close(); } catch (SQLException ignored) {}
+            }
+            statements.clear();
+            try {
+                if (!connection.isClosed()) connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error closing SQLite connection to " + getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package me.login.database;
+
+import java.sql.SQLException;
+
+/**
+ * Function that is allowed to throw {@link SQLException}, used for connection/result-set callbacks.
+ */
+@FunctionalInterface
+public interface SqlFunction<T, R> {
+    R apply(T t) throws SQLException;
+}
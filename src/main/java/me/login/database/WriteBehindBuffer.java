@@ -0,0 +1,167 @@
+package me.login.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coalesces high-frequency per-key writes in memory and flushes them in one transaction.
+ * <p>
+ * Without a merger the latest value for a key wins (snapshots such as level + xp).
+ * With a merger pending values are combined (deltas such as "add 5 tokens").
+ * The {@link DatabaseService} flushes every buffer on an interval and once more on shutdown;
+ * owners should call {@link #flushAsync(Object)} when a player quits.
+ * <p>
+ * Values are taken out of the queue under the database write lock and stay visible as in-flight
+ * until their batch commits, so batches commit in the order they were taken and a reader never
+ * sees a value that is neither pending nor stored.
+ */
+public class WriteBehindBuffer<K, V> {
+
+    @FunctionalInterface
+    public interface Binder<K, V> {
+        void bind(PreparedStatement ps, K key, V value) throws SQLException;
+    }
+
+    private final String name;
+    private final SQLiteDatabase database;
+    private final String sql;
+    private final Binder<K, V> binder;
+    private final BinaryOperator<V> merger;
+    private final Logger logger;
+    private final Map<K, V> dirty = new ConcurrentHashMap<>();
+    private final Map<K, V> inFlight = new ConcurrentHashMap<>();
+
+    WriteBehindBuffer(String name, SQLiteDatabase database, String sql, Binder<K, V> binder, BinaryOperator<V> merger, Logger logger) {
+        this.name = name;
+        this.database = database;
+        this.sql = sql;
+        this.binder = binder;
+        this.merger = merger;
+        this.logger = logger;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Queues a value for the key, replacing or merging with whatever is pending.
+     */
+    public void put(K key, V value) {
+        if (merger == null) {
+            dirty.put(key, value);
+        } else {
+            dirty.merge(key, value, merger);
+        }
+    }
+
+    /**
+     * Latest value for the key that is not committed yet (queued or being written), or null.
+     * Meant for latest-wins buffers; with a merger, {@link #flush(Object)} before reading instead.
+     */
+    public V pending(K key) {
+        // Queue first: a value leaves the queue only after it is in flight, and leaves flight only once committed
+        V queued = dirty.get(key);
+        return queued != null ? queued : inFlight.get(key);
+    }
+
+    /**
+     * Drops the queued value for the key without writing it. A batch already being written is not affected.
+     */
+    public V discard(K key) {
+        return dirty.remove(key);
+    }
+
+    public int size() {
+        return dirty.size();
+    }
+
+    /**
+     * Writes the pending value for one key on the calling thread. Returns once it is committed,
+     * including a value another thread was already writing. Returns false if the write failed (the value is
+     * re-queued). Opens its own transaction, so never call it inside {@link SQLiteDatabase#transaction}.
+     */
+    public boolean flush(K key) {
+        if (!dirty.containsKey(key) && !inFlight.containsKey(key)) return true;
+        return write(List.of(key));
+    }
+
+    public CompletableFuture<Void> flushAsync(K key) {
+        if (!dirty.containsKey(key)) return CompletableFuture.completedFuture(null);
+        return database.runAsync(() -> flush(key));
+    }
+
+    /**
+     * Writes every pending key matching the filter on the calling thread in a single transaction.
+     */
+    public void flushIf(Predicate<K> filter) {
+        if (dirty.isEmpty()) return;
+        List<K> keys = new ArrayList<>();
+        for (K key : dirty.keySet()) {
+            if (filter.test(key)) keys.add(key);
+        }
+        write(keys);
+    }
+
+    public CompletableFuture<Void> flushIfAsync(Predicate<K> filter) {
+        if (dirty.isEmpty()) return CompletableFuture.completedFuture(null);
+        return database.runAsync(() -> flushIf(filter));
+    }
+
+    /**
+     * Writes everything pending on the calling thread in a single transaction.
+     */
+    public void flushAll() {
+        flushIf(key -> true);
+    }
+
+    private boolean write(List<K> keys) {
+        if (keys.isEmpty()) return true;
+        List<Map.Entry<K, V>> batch = new ArrayList<>();
+        try {
+            database.transaction(conn -> {
+                // Taken under the write lock; a flush that finds its key in flight waits here until that batch commits
+                for (K key : keys) {
+                    dirty.computeIfPresent(key, (k, value) -> {
+                        inFlight.put(k, value);
+                        batch.add(Map.entry(k, value));
+                        return null;
+                    });
+                }
+                if (batch.isEmpty()) return null;
+                PreparedStatement ps = database.prepare(sql);
+                for (Map.Entry<K, V> entry : batch) {
+                    binder.bind(ps, entry.getKey(), entry.getValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Write-behind flush '" + name + "' failed for " + batch.size() + " record(s), re-queueing.", e);
+            // Put the values back without overwriting newer ones (or merge deltas back in, older first)
+            for (Map.Entry<K, V> entry : batch) {
+                if (merger == null) {
+                    dirty.putIfAbsent(entry.getKey(), entry.getValue());
+                } else {
+                    dirty.merge(entry.getKey(), entry.getValue(), (newer, failed) -> merger.apply(failed, newer));
+                }
+            }
+            return false;
+        } finally {
+            for (Map.Entry<K, V> entry : batch) {
+                inFlight.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package me.login.discord;
+
+import me.login.Login;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.OnlineStatus;
+import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.events.session.ShutdownEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns every Discord connection the plugin makes.
+ * <p>
+ * Each bot role has its own token in config.yml. Roles configured with the same token share one JDA connection,
+ * opened with the union of their intents. All connections are light (no member, presence or emoji caches).
+ * Connecting never blocks the server thread: {@link #whenReady} completes once a bot's gateway session is up,
+ * and fails if the bot is not configured or could not log in.
+ */
+public class DiscordGateway {
+
+    public enum Bot {
+        LOGGER("logger-bot-token", "YOUR_LOGGER_BOT_TOKEN_HERE", Activity.watching("server logs 📜"),
+                GatewayIntent.GUILD_MESSAGES),
+        MAIN("bot-token", "YOUR_BOT_TOKEN_HERE", null,
+                GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT),
+        STORE("store-bot-token", "YOUR_STORE_BOT_TOKEN_HERE", Activity.watching("the store"),
+                GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT);
+
+        private final String tokenPath;
+        private final String placeholder;
+        private final Activity activity;
+        private final Set<GatewayIntent> intents;
+
+        Bot(String tokenPath, String placeholder, Activity activity, GatewayIntent first, GatewayIntent... rest) {
+            this.tokenPath = tokenPath;
+            this.placeholder = placeholder;
+            this.activity = activity;
+            this.intents = EnumSet.of(first, rest);
+        }
+    }
+
+    private final Login plugin;
+    private final Map<Bot, Connection> byBot = new EnumMap<>(Bot.class);
+    private final List<Connection> connections = new ArrayList<>();
+
+    public DiscordGateway(Login plugin) {
+        this.plugin = plugin;
+
+        Map<String, Connection> byToken = new LinkedHashMap<>();
+        for (Bot bot : Bot.values()) {
+            String token = plugin.getConfig().getString(bot.tokenPath);
+            if (token == null || token.isEmpty() || token.equals(bot.placeholder)) {
+                plugin.getLogger().warning("'" + bot.tokenPath + "' not set in config.yml. The " + bot + " bot will not start.");
+                continue;
+            }
+            // The store bot mirrors the main bot's slash commands; on one connection they would overwrite each other
+            if (bot == Bot.STORE && token.equals(plugin.getConfig().getString(Bot.MAIN.tokenPath))) {
+                plugin.getLogger().warning("'store-bot-token' is the same as 'bot-token'. The STORE bot will not start.");
+                continue;
+            }
+            Connection connection = byToken.computeIfAbsent(token, Connection::new);
+            connection.bots.add(bot);
+            byBot.put(bot, connection);
+        }
+        connections.addAll(byToken.values());
+    }
+
+    /**
+     * Opens every configured connection in parallel. Call off the server thread; logging in makes a blocking REST call.
+     */
+    public void start() {
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (Connection connection : connections) {
+            logins.add(CompletableFuture.runAsync(connection::open));
+        }
+        CompletableFuture.allOf(logins.toArray(new CompletableFuture[0])).join();
+    }
+
+    public boolean isConfigured(Bot bot) {
+        return byBot.containsKey(bot);
+    }
+
+    /**
+     * The bot's JDA once it has logged in (it may still be connecting), or null.
+     */
+    public JDA getJda(Bot bot) {
+        Connection connection = byBot.get(bot);
+        return connection != null ? connection.jda : null;
+    }
+
+    /**
+     * Completes with the bot's JDA when its session is ready; completes exceptionally if it never will be.
+     */
+    public CompletableFuture<JDA> whenReady(Bot bot) {
+        Connection connection = byBot.get(bot);
+        if (connection == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The " + bot + " bot is not configured"));
+        }
+        return connection.ready;
+    }
+
+    public void shutdown() {
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private final class Connection extends ListenerAdapter {
+        private final String token;
+        private final Set<Bot> bots = EnumSet.noneOf(Bot.class);
+        private final CompletableFuture<JDA> ready = new CompletableFuture<>();
+        private volatile JDA jda;
+        private long startedAt;
+
+        private Connection(String token) {
+            this.token = token;
+        }
+
+        private void open() {
+            Set<GatewayIntent> intents = EnumSet.noneOf(GatewayIntent.class);
+            Activity activity = null;
+            for (Bot bot : bots) {
+                intents.addAll(bot.intents);
+                if (activity == null) activity = bot.activity;
+            }
+
+            startedAt = System.currentTimeMillis();
+            try {
+                JDABuilder builder = JDABuilder.createLight(token, intents)
+                        .setStatus(OnlineStatus.ONLINE)
+                        .addEventListeners(this);
+                if (activity != null) builder.setActivity(activity);
+                this.jda = builder.build();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to start Discord bot " + bots + ": " + e.getMessage());
+                ready.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onReady(ReadyEvent event) {
+            plugin.getLogger().info("Discord bot " + bots + " connected as " + event.getJDA().getSelfUser().getName()
+                    + " in " + (System.currentTimeMillis() - startedAt) + " ms.");
+            ready.complete(event.getJDA());
+        }
+
+        @Override
+        public void onShutdown(ShutdownEvent event) {
+            // Login rejected (bad token, disallowed intents) or closed before it was ever ready
+            ready.completeExceptionally(new IllegalStateException("Discord bot " + bots + " shut down: " + event.getCloseCode()));
+        }
+
+        private void close() {
+            JDA current = this.jda;
+            ready.completeExceptionally(new IllegalStateException("Discord gateway is shutting down"));
+            if (current == null) return;
+            try {
+                current.shutdown();
+                if (!current.awaitShutdown(10, TimeUnit.SECONDS)) {
+                    plugin.getLogger().warning("Discord bot " + bots + " took too long to shutdown. Forcing...");
+                    current.shutdownNow();
+                    current.awaitShutdown(5, TimeUnit.SECONDS);
+                }
+                plugin.getLogger().info("Discord bot " + bots + " has been shut down.");
+            } catch (InterruptedException e) {
+                plugin.getLogger().warning("Interrupted while shutting down Discord bot " + bots + ".");
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package me.login.discord;
 
 import me.login.Login;
-import me.login.clearlag.LagClearLogger;
 import me.login.discord.linking.DiscordLinkingModule;
 import me.login.discord.moderation.discord.DiscordModConfig;
 import me.login.discord.moderation.discord.DiscordModDatabase;
@@ -21,14 +20,13 @@ public class DiscordModule {
         this.plugin = plugin;
     }
 
-    public void init(LagClearLogger lagClearLogger, RankModule rankModule, ModerationModule moderationModule) {
+    /**
+     * Sets up linking, store and Discord moderation. Bots are attached separately as their connections come up,
+     * so this never waits on Discord.
+     */
+    public boolean init(RankModule rankModule, ModerationModule moderationModule) {
         plugin.getLogger().info("Initializing DiscordModule...");
 
-        if (lagClearLogger == null || lagClearLogger.getJDA() == null) {
-            plugin.getLogger().severe("DiscordModule: Shared JDA is null. Aborting.");
-            return;
-        }
-
         // 1. Config & Database for Discord-side Moderation
         this.modConfig = new DiscordModConfig(plugin);
         this.modDatabase = new DiscordModDatabase(plugin); // NEW
@@ -36,11 +34,11 @@ public class DiscordModule {
         // 2. Linking Module
         this.linkingModule = new DiscordLinkingModule(plugin);
         // Pass modDatabase here
-        boolean linkSuccess = this.linkingModule.init(lagClearLogger, modConfig, modDatabase, rankModule, moderationModule);
+        boolean linkSuccess = this.linkingModule.init(modConfig, modDatabase, rankModule, moderationModule);
 
         if (!linkSuccess) {
             plugin.getLogger().severe("DiscordModule: Linking Module failed to initialize.");
-            return;
+            return false;
         }
 
         // 3. Store/Ticket Module
@@ -48,6 +46,7 @@ public class DiscordModule {
         this.ticketModule.init();
 
         plugin.getLogger().info("DiscordModule initialized successfully.");
+        return true;
     }
 
     public void shutdown() {
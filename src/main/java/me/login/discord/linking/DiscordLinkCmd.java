@@ -134,6 +134,11 @@ public class DiscordLinkCmd implements CommandExecutor {
         String targetName = targetPlayer.getName() != null ? targetPlayer.getName() : targetUUID.toString();
 
         module.getDiscordLinking().unlinkUser(discordId);
+        if (module.getDiscordLinking().getJDA() == null) {
+            // Bot not connected (yet); roles are left for staff to fix
+            sender.sendMessage(prefix.append(Component.text("Unlinked " + targetName + " DB, but the Discord bot is offline so roles were not updated.", NamedTextColor.YELLOW)));
+            return;
+        }
         sender.sendMessage(prefix.append(Component.text("Unlinking... searching for Discord account...", NamedTextColor.GRAY)));
 
         module.getDiscordLinking().getJDA().retrieveUserById(discordId).queue(user -> {
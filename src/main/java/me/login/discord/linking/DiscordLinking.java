@@ -12,7 +12,6 @@ import me.login.misc.rank.RankModule;
 import me.login.moderation.ModerationModule;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
@@ -20,8 +19,6 @@ import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.ConfigurationSection;
@@ -41,7 +38,8 @@ import java.util.concurrent.TimeUnit;
 public class DiscordLinking extends ListenerAdapter {
 
     private final Login plugin;
-    private JDA jda;
+    private volatile JDA jda;
+    private final List<Object> botListeners = new ArrayList<>();
     private final DiscordModConfig modConfig;
     private final DiscordModDatabase modDatabase;
     private final DiscordLinkLogger logger;
@@ -72,20 +70,20 @@ public class DiscordLinking extends ListenerAdapter {
         }
     }
 
-    public JDA startBot(String token, DiscordCommandLogger commandLogger, ModerationModule moderationModule, RankModule rankModule, DiscordModDatabase modDatabase) {
+    /**
+     * Hooks the linking and command listeners into the main bot's (already ready) connection.
+     * The connection itself is owned by {@link me.login.discord.DiscordGateway}.
+     */
+    public JDA attachBot(JDA jda, DiscordCommandLogger commandLogger, ModerationModule moderationModule, RankModule rankModule, DiscordModDatabase modDatabase) {
         try {
-            JDABuilder builder = JDABuilder.createLight(token)
-                    .enableIntents(GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT)
-                    .disableCache(EnumSet.of(CacheFlag.ACTIVITY, CacheFlag.VOICE_STATE, CacheFlag.EMOJI, CacheFlag.STICKER, CacheFlag.CLIENT_STATUS, CacheFlag.ONLINE_STATUS, CacheFlag.SCHEDULED_EVENTS))
-                    .addEventListeners(
-                            this,
-                            new DiscordCommandManager(plugin, commandLogger),
-                            new MinecraftModCommands(plugin, modConfig, commandLogger, this, moderationModule),
-                            new DiscordStaffModCommands(plugin, modConfig, modDatabase, commandLogger, this, rankModule),
-                            new DiscordRankCommand(plugin, rankModule.getManager())
-                    );
-
-            jda = builder.build().awaitReady();
+            botListeners.add(this);
+            botListeners.add(new DiscordCommandManager(plugin, commandLogger));
+            botListeners.add(new MinecraftModCommands(plugin, modConfig, commandLogger, this, moderationModule));
+            botListeners.add(new DiscordStaffModCommands(plugin, modConfig, modDatabase, commandLogger, this, rankModule));
+            botListeners.add(new DiscordRankCommand(plugin, rankModule.getManager()));
+            jda.addEventListener(botListeners.toArray());
+
+            this.jda = jda;
             plugin.getLogger().info("Main Discord Bot connected!");
 
             checkAndSendVerificationPanel();
@@ -127,7 +125,8 @@ public class DiscordLinking extends ListenerAdapter {
     }
 
     public void shutdown() {
-        if (jda != null) jda.shutdownNow();
+        // Only detach; the gateway closes the connection
+        if (jda != null) jda.removeEventListener(botListeners.toArray());
     }
 
     public JDA getJDA() { return jda; }
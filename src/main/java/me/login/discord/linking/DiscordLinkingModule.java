@@ -1,7 +1,6 @@
 package me.login.discord.linking;
 
 import me.login.Login;
-import me.login.clearlag.LagClearLogger;
 import me.login.discord.moderation.DiscordCommandLogger;
 import me.login.discord.moderation.DiscordCommandRegistrar;
 import me.login.discord.moderation.discord.DiscordModConfig;
@@ -9,7 +8,6 @@ import me.login.discord.moderation.discord.DiscordModDatabase;
 import me.login.misc.rank.RankModule;
 import me.login.moderation.ModerationModule;
 import net.dv8tion.jda.api.JDA;
-import org.bukkit.Bukkit;
 
 public class DiscordLinkingModule {
 
@@ -19,42 +17,33 @@ public class DiscordLinkingModule {
     private DiscordLinkLogger discordLinkLogger;
     private JDA mainBotJda;
     private DiscordCommandLogger discordCommandLogger;
+    private DiscordModDatabase modDatabase;
+    private RankModule rankModule;
+    private ModerationModule moderationModule;
 
     public DiscordLinkingModule(Login plugin) {
         this.plugin = plugin;
     }
 
-    public boolean init(LagClearLogger lagClearLogger, DiscordModConfig discordModConfig, DiscordModDatabase modDatabase, RankModule rankModule, ModerationModule moderationModule) {
+    /**
+     * Sets up linking and its commands. Does not wait for Discord; the bot is hooked in later by {@link #attachBot}.
+     */
+    public boolean init(DiscordModConfig discordModConfig, DiscordModDatabase modDatabase, RankModule rankModule, ModerationModule moderationModule) {
         plugin.getLogger().info("Initializing DiscordLinking components...");
 
+        this.modDatabase = modDatabase;
+        this.rankModule = rankModule;
+        this.moderationModule = moderationModule;
+
         this.discordLinkDatabase = new DiscordLinkDatabase(plugin);
         discordLinkDatabase.connect();
 
-        JDA sharedJda = lagClearLogger.getJDA();
-        if (sharedJda == null) return false;
-
-        this.discordLinkLogger = new DiscordLinkLogger(plugin, sharedJda);
-        this.discordCommandLogger = new DiscordCommandLogger(plugin, sharedJda);
+        this.discordLinkLogger = new DiscordLinkLogger(plugin);
+        this.discordCommandLogger = new DiscordCommandLogger(plugin);
 
         // Pass ModDatabase
         this.discordLinking = new DiscordLinking(plugin, discordModConfig, modDatabase, discordLinkLogger, rankModule, moderationModule);
 
-        // Start Bot and Register Commands
-        String token = plugin.getConfig().getString("bot-token");
-        if (token == null || token.isEmpty()) return false;
-
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                // Pass Database to startBot
-                this.mainBotJda = discordLinking.startBot(token, discordCommandLogger, moderationModule, rankModule, modDatabase);
-                if (this.mainBotJda != null) {
-                    DiscordCommandRegistrar.register(mainBotJda, plugin, discordCommandLogger);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        });
-
         DiscordLinkCmd discordCmd = new DiscordLinkCmd(plugin, this);
         plugin.getCommand("discord").setExecutor(discordCmd);
         plugin.getCommand("unlink").setExecutor(discordCmd);
@@ -63,6 +52,16 @@ public class DiscordLinkingModule {
         return true;
     }
 
+    /**
+     * Hooks the main bot's listeners and slash commands into its connection. Runs off the server thread once it is ready.
+     */
+    public boolean attachBot(JDA jda) {
+        this.mainBotJda = discordLinking.attachBot(jda, discordCommandLogger, moderationModule, rankModule, modDatabase);
+        if (this.mainBotJda == null) return false;
+        DiscordCommandRegistrar.register(mainBotJda, plugin, discordCommandLogger);
+        return true;
+    }
+
     public void shutdown() {
         if (discordLinking != null) discordLinking.shutdown();
         if (discordLinkDatabase != null) discordLinkDatabase.disconnect();
@@ -0,0 +1,316 @@
+package me.login.discord.logging;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Shared pipeline for every module's Discord log messages.
+ * <p>
+ * Each channel has a bounded queue. Queued lines are flushed every {@code flush-interval-ms}, or as soon as
+ * {@code batch-size} are waiting, as one multi-line message (up to 2000 characters, identical consecutive lines
+ * folded into {@code (xN)}); embeds go out up to ten per message. At most one send per channel is in flight, so
+ * Discord rate limits slow the bus down instead of growing JDA's request queue. When a queue is full new entries
+ * are dropped and counted, and the next batch for that channel starts with a summary of what was lost.
+ * Safe to call from any thread.
+ */
+public class DiscordLogBus {
+
+    private static final long WARNING_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    public record Stats(long enqueued, long delivered, long messagesSent, long dropped, long failed, int queued) {}
+
+    private record Entry(String text, MessageEmbed embed) {}
+
+    private record Batch(String text, List<MessageEmbed> embeds, int entries) {}
+
+    private final Logger logger;
+    private final LogSink sink;
+    private final int queueSize;
+    private final int batchSize;
+    private final Map<Long, ChannelQueue> channels = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    // Scheduler thread only
+    private long droppedReported;
+    private long lastDropWarning;
+
+    private volatile boolean shutdown;
+
+    public DiscordLogBus(Logger logger, LogSink sink, int queueSize, int batchSize, long flushIntervalMillis) {
+        this.logger = logger;
+        this.sink = sink;
+        this.queueSize = Math.max(1, queueSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Discord-LogBus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(250, flushIntervalMillis);
+        scheduler.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Builds a bus from the {@code discord-logging.bus} section (missing values fall back to defaults).
+     */
+    public static DiscordLogBus fromConfig(Logger logger, ConfigurationSection section, LogSink sink) {
+        int queueSize = section != null ? section.getInt("queue-size", 500) : 500;
+        int batchSize = section != null ? section.getInt("batch-size", 20) : 20;
+        long interval = section != null ? section.getLong("flush-interval-ms", 2000) : 2000;
+        return new DiscordLogBus(logger, sink, queueSize, batchSize, interval);
+    }
+
+    // --- Producers ---
+
+    public void send(long channelId, String line) {
+        if (line == null || line.isEmpty()) return;
+        enqueue(channelId, new Entry(line, null));
+    }
+
+    public void send(String channelId, String line) {
+        send(parseChannel(channelId), line);
+    }
+
+    public void sendEmbed(long channelId, MessageEmbed embed) {
+        if (embed == null) return;
+        enqueue(channelId, new Entry(null, embed));
+    }
+
+    public void sendEmbed(String channelId, MessageEmbed embed) {
+        sendEmbed(parseChannel(channelId), embed);
+    }
+
+    private void enqueue(long channelId, Entry entry) {
+        if (channelId == 0 || shutdown) return;
+        ChannelQueue queue = channels.computeIfAbsent(channelId, ChannelQueue::new);
+        boolean flushNow;
+        synchronized (queue) {
+            if (queue.entries.size() >= queueSize) {
+                queue.dropped++;
+                dropped.incrementAndGet();
+                return;
+            }
+            queue.entries.add(entry);
+            enqueued.incrementAndGet();
+            flushNow = queue.entries.size() >= batchSize && !queue.inFlight && !queue.flushRequested;
+            if (flushNow) queue.flushRequested = true;
+        }
+        if (flushNow) {
+            scheduler.execute(() -> flush(queue));
+        }
+    }
+
+    private static long parseChannel(String channelId) {
+        if (channelId == null || channelId.isEmpty()) return 0;
+        try {
+            return Long.parseLong(channelId.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // --- Flushing ---
+
+    private void flushAll() {
+        for (ChannelQueue queue : channels.values()) {
+            flush(queue);
+        }
+        reportDrops();
+    }
+
+    private void flush(ChannelQueue queue) {
+        Batch batch;
+        synchronized (queue) {
+            queue.flushRequested = false;
+            // Not connected yet: keep queueing (bounded) until the bot is ready
+            if (queue.inFlight || !sink.isReady()) return;
+            batch = queue.takeBatch();
+            if (batch == null) return;
+            queue.inFlight = true;
+        }
+
+        send(queue.channelId, batch).whenComplete((ignored, error) -> {
+            boolean more;
+            synchronized (queue) {
+                queue.inFlight = false;
+                more = queue.entries.size() >= batchSize;
+            }
+            if (error != null) {
+                failed.addAndGet(batch.entries());
+                queue.warn("Failed to send " + batch.entries() + " log message(s) to channel " + queue.channelId + ": " + error.getMessage());
+            } else {
+                delivered.addAndGet(batch.entries());
+                messagesSent.incrementAndGet();
+            }
+            if (more && !shutdown) {
+                scheduler.execute(() -> flush(queue));
+            }
+        });
+    }
+
+    private CompletableFuture<Void> send(long channelId, Batch batch) {
+        try {
+            return batch.embeds() != null ? sink.sendEmbeds(channelId, batch.embeds()) : sink.sendText(channelId, batch.text());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void reportDrops() {
+        long total = dropped.get();
+        long now = System.currentTimeMillis();
+        if (total > droppedReported && now - lastDropWarning >= WARNING_INTERVAL_MILLIS) {
+            logger.warning("Discord log bus dropped " + (total - droppedReported) + " message(s); queues are full (limit " + queueSize + " per channel).");
+            droppedReported = total;
+            lastDropWarning = now;
+        }
+    }
+
+    // --- Metrics & Lifecycle ---
+
+    public Stats getStats() {
+        int queued = 0;
+        for (ChannelQueue queue : channels.values()) {
+            synchronized (queue) {
+                queued += queue.entries.size();
+            }
+        }
+        return new Stats(enqueued.get(), delivered.get(), messagesSent.get(), dropped.get(), failed.get(), queued);
+    }
+
+    /**
+     * Stops accepting messages and sends what is still queued, waiting at most {@code timeoutMillis}.
+     */
+    public void shutdown(long timeoutMillis) {
+        shutdown = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        if (sink.isReady()) {
+            for (ChannelQueue queue : channels.values()) {
+                while (System.currentTimeMillis() < deadline) {
+                    Batch batch;
+                    synchronized (queue) {
+                        batch = queue.takeBatch();
+                    }
+                    if (batch == null) break;
+                    try {
+                        send(queue.channelId, batch).get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                        delivered.addAndGet(batch.entries());
+                        messagesSent.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    } catch (Exception e) {
+                        failed.addAndGet(batch.entries());
+                        break;
+                    }
+                }
+            }
+        }
+
+        Stats stats = getStats();
+        logger.info("Discord log bus stopped: " + stats.delivered() + " delivered in " + stats.messagesSent() + " message(s), "
+                + stats.dropped() + " dropped, " + stats.failed() + " failed, " + stats.queued() + " unsent.");
+    }
+
+    private final class ChannelQueue {
+        private final long channelId;
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private int dropped;
+        private boolean inFlight;
+        private boolean flushRequested;
+        private long lastWarning;
+
+        private ChannelQueue(long channelId) {
+            this.channelId = channelId;
+        }
+
+        /**
+         * Removes the next message worth of entries: a run of text lines or a run of embeds. Caller holds the lock.
+         */
+        private Batch takeBatch() {
+            Entry head = entries.peekFirst();
+            if (head != null && head.embed() != null) {
+                return takeEmbeds();
+            }
+            if (head == null && dropped == 0) return null;
+
+            StringBuilder content = new StringBuilder();
+            int taken = 0;
+            if (dropped > 0) {
+                content.append(":warning: `").append(dropped).append("` log message(s) dropped (queue full)");
+                dropped = 0;
+            }
+            while (!entries.isEmpty() && entries.peekFirst().text() != null) {
+                Entry first = entries.pollFirst();
+                int repeats = 1;
+                while (!entries.isEmpty() && first.text().equals(entries.peekFirst().text())) {
+                    entries.pollFirst();
+                    repeats++;
+                }
+                String line = repeats > 1 ? first.text() + " `(x" + repeats + ")`" : first.text();
+                if (line.length() > Message.MAX_CONTENT_LENGTH) {
+                    line = line.substring(0, Message.MAX_CONTENT_LENGTH - 3) + "...";
+                }
+
+                int separator = content.length() > 0 ? 1 : 0;
+                if (content.length() + separator + line.length() > Message.MAX_CONTENT_LENGTH) {
+                    // Does not fit; leave the whole run for the next message
+                    for (int i = 0; i < repeats; i++) entries.addFirst(first);
+                    break;
+                }
+                if (separator > 0) content.append('\n');
+                content.append(line);
+                taken += repeats;
+            }
+            return new Batch(content.toString(), null, taken);
+        }
+
+        private Batch takeEmbeds() {
+            List<MessageEmbed> embeds = new ArrayList<>();
+            int length = 0;
+            while (!entries.isEmpty() && entries.peekFirst().embed() != null && embeds.size() < Message.MAX_EMBED_COUNT) {
+                MessageEmbed embed = entries.peekFirst().embed();
+                if (!embeds.isEmpty() && length + embed.getLength() > MessageEmbed.EMBED_MAX_LENGTH_BOT) break;
+                entries.pollFirst();
+                embeds.add(embed);
+                length += embed.getLength();
+            }
+            return new Batch(null, embeds, embeds.size());
+        }
+
+        // At most one warning per channel per minute, e.g. for a deleted channel
+        private void warn(String message) {
+            long now = System.currentTimeMillis();
+            if (now - lastWarning >= WARNING_INTERVAL_MILLIS) {
+                lastWarning = now;
+                logger.warning(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package me.login.discord.logging;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Delivers log batches through the shared logger bot. The JDA instance is looked up on every send,
+ * since the bot connects after the bus starts accepting messages.
+ */
+public class JdaLogSink implements LogSink {
+
+    private final Supplier<JDA> jda;
+
+    public JdaLogSink(Supplier<JDA> jda) {
+        this.jda = jda;
+    }
+
+    @Override
+    public boolean isReady() {
+        JDA current = jda.get();
+        return current != null && current.getStatus() == JDA.Status.CONNECTED;
+    }
+
+    @Override
+    public CompletableFuture<Void> sendText(long channelId, String content) {
+        TextChannel channel = channel(channelId);
+        if (channel == null) return missingChannel(channelId);
+        return channel.sendMessage(content).submit().thenApply(message -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendEmbeds(long channelId, List<MessageEmbed> embeds) {
+        TextChannel channel = channel(channelId);
+        if (channel == null) return missingChannel(channelId);
+        return channel.sendMessageEmbeds(embeds).submit().thenApply(message -> null);
+    }
+
+    private TextChannel channel(long channelId) {
+        JDA current = jda.get();
+        return current == null ? null : current.getTextChannelById(channelId);
+    }
+
+    private static CompletableFuture<Void> missingChannel(long channelId) {
+        return CompletableFuture.failedFuture(new IllegalStateException("Log channel " + channelId + " not found"));
+    }
+}
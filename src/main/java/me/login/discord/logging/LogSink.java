@@ -0,0 +1,22 @@
+package me.login.discord.logging;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where {@link DiscordLogBus} delivers its batches. Production uses {@link JdaLogSink};
+ * anything else (a console or file stand-in) can be plugged in to run the bus without Discord.
+ */
+public interface LogSink {
+
+    /**
+     * Whether messages can be delivered right now. While false the bus keeps (and bounds) its queues.
+     */
+    boolean isReady();
+
+    CompletableFuture<Void> sendText(long channelId, String content);
+
+    CompletableFuture<Void> sendEmbeds(long channelId, List<MessageEmbed> embeds);
+}
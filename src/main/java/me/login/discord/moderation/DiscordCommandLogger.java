@@ -1,32 +1,20 @@
 package me.login.discord.moderation; // <-- CHANGED
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 
 public class DiscordCommandLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long normalChannelId;
     private final long staffChannelId;
 
     /**
-     * Creates a logger for Discord commands using the shared JDA instance.
+     * Creates a logger for Discord commands; messages go through the plugin's log bus.
      * @param plugin The main plugin instance.
-     * @param jda The shared JDA instance (e.g., from LagClearLogger).
      */
-    public DiscordCommandLogger(Login plugin, JDA jda) {
-        this.plugin = plugin;
-        this.jda = jda;
-
-        // Load channel IDs from config.yml
-        this.normalChannelId = plugin.getConfig().getLong("normal-bot-channel", 0);
-        this.staffChannelId = plugin.getConfig().getLong("staff-bot-channel", 0);
+    public DiscordCommandLogger(Login plugin) {
+        this(plugin, plugin.getConfig().getLong("normal-bot-channel", 0), plugin.getConfig().getLong("staff-bot-channel", 0));
 
-        if (this.jda == null) {
-            plugin.getLogger().warning("DiscordCommandLogger received a null JDA! Command logging will be disabled.");
-        }
         if (this.normalChannelId == 0) {
             plugin.getLogger().warning("'normal-bot-channel' not set in config.yml. Normal command logging will be disabled.");
         }
@@ -35,12 +23,25 @@ public class DiscordCommandLogger {
         }
     }
 
+    private DiscordCommandLogger(Login plugin, long normalChannelId, long staffChannelId) {
+        this.plugin = plugin;
+        this.normalChannelId = normalChannelId;
+        this.staffChannelId = staffChannelId;
+    }
+
+    /**
+     * A logger that discards everything, for bots whose commands should not be logged.
+     */
+    public static DiscordCommandLogger disabled(Login plugin) {
+        return new DiscordCommandLogger(plugin, 0, 0);
+    }
+
     /**
      * Sends a log message to the normal (public) bot channel.
      * @param message The message content to send.
      */
     public void logNormal(String message) {
-        sendLog(normalChannelId, message, "Normal");
+        plugin.getLogBus().send(normalChannelId, message);
     }
 
     /**
@@ -48,22 +49,6 @@ public class DiscordCommandLogger {
      * @param message The message content to send.
      */
     public void logStaff(String message) {
-        sendLog(staffChannelId, message, "Staff");
-    }
-
-    private void sendLog(long channelId, String message, String logType) {
-        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED || channelId == 0) {
-            return;
-        }
-
-        MessageChannel channel = jda.getTextChannelById(channelId);
-        if (channel != null) {
-            channel.sendMessage(message).queue(
-                    null,
-                    error -> plugin.getLogger().warning("Failed to send Discord " + logType + " log: " + error.getMessage())
-            );
-        } else {
-            plugin.getLogger().warning("Discord " + logType + " Channel (" + channelId + ") not found.");
-        }
+        plugin.getLogBus().send(staffChannelId, message);
     }
 }
\ No newline at end of file
@@ -1,12 +1,8 @@
 package me.login.discord.store;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
 
-import java.io.File;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.logging.Level;
@@ -14,70 +10,44 @@ import java.util.logging.Level;
 public class TicketDatabase {
 
     private final Login plugin;
-    private Connection connection;
-    private final String url;
+    private final SQLiteDatabase database;
 
     public TicketDatabase(Login plugin) {
         this.plugin = plugin;
         // Updated path to be inside /database/ folder per your request
-        File dbDir = new File(plugin.getDataFolder(), "database");
-        if (!dbDir.exists()) {
-            dbDir.mkdirs();
-        }
-        this.url = "jdbc:sqlite:" + dbDir.getAbsolutePath() + File.separator + "store.db";
+        this.database = plugin.getDatabaseService().open("store.db");
     }
 
     public void connect() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
-            plugin.getLogger().info("Connected to Store SQLite DB (store.db)");
             createTables();
+            plugin.getLogger().info("Connected to Store SQLite DB (store.db)");
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to connect to Store SQLite DB!");
             e.printStackTrace();
-            this.connection = null;
-        }
-    }
-
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connect();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("Failed to get Store DB connection: " + e.getMessage());
         }
-        return connection;
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Disconnected from Store DB");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().warning("Failed to disconnect from Store DB: " + e.getMessage());
-        }
+        database.close();
+        plugin.getLogger().info("Disconnected from Store DB");
     }
 
     private void createTables() throws SQLException {
-        if (getConnection() == null) {
-            plugin.getLogger().severe("Cannot create tables, Store DB connection is null.");
-            return;
-        }
-        try (Statement stmt = getConnection().createStatement()) {
-            // New table for tracking purchase verifications
-            stmt.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS purchases (
-                    message_id BIGINT PRIMARY KEY NOT NULL,
-                    user_id BIGINT NOT NULL,
-                    purchase_item TEXT NOT NULL,
-                    status INTEGER DEFAULT 0 
-                )""");
-            // status: 0=pending, 1=confirmed, 2=denied, 3=hold
-        }
+        database.withConnection(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                // New table for tracking purchase verifications
+                stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS purchases (
+                        message_id BIGINT PRIMARY KEY NOT NULL,
+                        user_id BIGINT NOT NULL,
+                        purchase_item TEXT NOT NULL,
+                        status INTEGER DEFAULT 0 
+                    )""");
+                // status: 0=pending, 1=confirmed, 2=denied, 3=hold
+            }
+            return null;
+        });
     }
 
     // --- New Methods for Purchase Tracking ---
@@ -89,14 +59,10 @@ public class TicketDatabase {
      * @param purchaseItem The name of the item(s) purchased.
      */
     public void addPurchase(long messageId, long userId, String purchaseItem) {
-        if (getConnection() == null) return;
         String sql = "INSERT INTO purchases (message_id, user_id, purchase_item, status) VALUES (?, ?, ?, 0)";
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setLong(1, messageId);
-                ps.setLong(2, userId);
-                ps.setString(3, purchaseItem);
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update(sql, messageId, userId, purchaseItem);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to add purchase: " + e.getMessage(), e);
             }
@@ -110,19 +76,14 @@ public class TicketDatabase {
      * @return PurchaseData object or null if not found.
      */
     public PurchaseData getPurchase(long messageId) {
-        if (getConnection() == null) return null;
         String sql = "SELECT * FROM purchases WHERE message_id = ?";
-        try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-            ps.setLong(1, messageId);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return new PurchaseData(
-                        messageId,
-                        rs.getLong("user_id"),
-                        rs.getString("purchase_item"),
-                        rs.getInt("status")
-                );
-            }
+        try {
+            return database.query(sql, rs -> rs.next() ? new PurchaseData(
+                    messageId,
+                    rs.getLong("user_id"),
+                    rs.getString("purchase_item"),
+                    rs.getInt("status")
+            ) : null, messageId);
         } catch (SQLException e) {
             plugin.getLogger().log(Level.WARNING, "Failed to get purchase: " + e.getMessage(), e);
         }
@@ -135,13 +96,10 @@ public class TicketDatabase {
      * @param status The new status (1=confirmed, 2=denied, 3=hold).
      */
     public void updatePurchaseStatus(long messageId, int status) {
-        if (getConnection() == null) return;
         String sql = "UPDATE purchases SET status = ? WHERE message_id = ?";
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setInt(1, status);
-                ps.setLong(2, messageId);
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update(sql, status, messageId);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to update purchase status: " + e.getMessage(), e);
             }
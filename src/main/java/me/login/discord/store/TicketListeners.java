@@ -5,6 +5,7 @@ import me.login.discord.linking.DiscordLinking;
 import me.login.misc.rank.RankManager;
 import me.login.misc.rank.util.TimeUtil;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.concrete.Category;
@@ -56,6 +57,13 @@ public class TicketListeners extends ListenerAdapter {
 
     @Override
     public void onReady(ReadyEvent event) {
+        setup(event.getJDA());
+    }
+
+    /**
+     * Loads the store settings and (re)posts the ticket panel. Also called directly when attached to a ready bot.
+     */
+    public void setup(JDA jda) {
         this.ticketChannelId = plugin.getConfig().getLong("store-ticket-channel-id", 0);
         this.verificationChannelId = plugin.getConfig().getLong("payment-verification-channel-id", 0);
 
@@ -69,12 +77,12 @@ public class TicketListeners extends ListenerAdapter {
             return;
         }
 
-        TextChannel channel = event.getJDA().getTextChannelById(ticketChannelId);
+        TextChannel channel = jda.getTextChannelById(ticketChannelId);
         if (channel == null) return;
 
         // Cleanup old messages and send new panel
         channel.getHistory().retrievePast(20).queue(messages -> {
-            List<Message> botMsgs = messages.stream().filter(m -> m.getAuthor().equals(event.getJDA().getSelfUser())).toList();
+            List<Message> botMsgs = messages.stream().filter(m -> m.getAuthor().equals(jda.getSelfUser())).toList();
             if (!botMsgs.isEmpty()) {
                 if (botMsgs.size() == 1) botMsgs.get(0).delete().queue();
                 else channel.deleteMessages(botMsgs).queue();
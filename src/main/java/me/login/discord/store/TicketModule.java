@@ -5,7 +5,7 @@ import me.login.discord.linking.DiscordLinking;
 import me.login.discord.moderation.discord.DiscordModConfig;
 import me.login.discord.moderation.discord.DiscordModDatabase;
 import me.login.misc.rank.RankManager;
-import org.bukkit.Bukkit;
+import net.dv8tion.jda.api.JDA;
 
 import java.io.File;
 
@@ -43,25 +43,15 @@ public class TicketModule {
         // I will assume the user accepts the standard DB for now or I would need to edit DiscordModDatabase to accept a filename.
         // *Self-correction*: I will update DiscordModDatabase to take a filename in constructor in Step 4 below to support this properly.
         this.storeModDatabase = new DiscordModDatabase(plugin, "store_moderation.db");
+        this.ticketSystem = new TicketSystem(plugin, this.discordLinking, this.ticketDatabase, this.rankManager, this.storeModDatabase);
+    }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String storeBotToken = plugin.getConfig().getString("store-bot-token");
-                String mainBotToken = plugin.getConfig().getString("bot-token");
-
-                if (isConfigValueInvalid(storeBotToken, "YOUR_STORE_BOT_TOKEN_HERE") || storeBotToken.equals(mainBotToken)) {
-                    plugin.getLogger().warning("Store Bot Token invalid or duplicate. Store system disabled.");
-                    return;
-                }
-
-                this.ticketSystem = new TicketSystem(plugin, this.discordLinking, this.ticketDatabase, this.rankManager, this.storeModDatabase);
-                this.ticketSystem.startBot(storeBotToken);
-
-            } catch (Exception e) {
-                plugin.getLogger().severe("Async Store Discord startup failed: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+    /**
+     * Hooks the store bot's listeners and commands into its connection once the gateway reports it ready.
+     * The token checks (missing, same as the main bot) are done by {@link me.login.discord.DiscordGateway}.
+     */
+    public void attachBot(JDA jda) {
+        ticketSystem.attachBot(jda);
     }
 
     public void shutdown() {
@@ -69,8 +59,4 @@ public class TicketModule {
         if (ticketDatabase != null) ticketDatabase.disconnect();
         if (storeModDatabase != null) storeModDatabase.disconnect();
     }
-
-    private boolean isConfigValueInvalid(String value, String placeholder) {
-        return value == null || value.isEmpty() || value.equals(placeholder);
-    }
 }
\ No newline at end of file
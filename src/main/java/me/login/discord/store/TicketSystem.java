@@ -8,13 +8,10 @@ import me.login.discord.moderation.discord.DiscordStaffModCommands;
 import me.login.misc.rank.RankManager;
 import me.login.misc.rank.RankModule;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
-import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
-import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.Permission;
 
 import java.util.EnumSet;
@@ -27,6 +24,7 @@ public class TicketSystem {
     private final RankManager rankManager;
     private final DiscordModDatabase storeModDatabase; // NEW
     private JDA jda;
+    private Object[] listeners = new Object[0];
 
     public TicketSystem(Login plugin, DiscordLinking discordLinking, TicketDatabase ticketDatabase, RankManager rankManager, DiscordModDatabase storeModDatabase) {
         this.plugin = plugin;
@@ -36,22 +34,22 @@ public class TicketSystem {
         this.storeModDatabase = storeModDatabase;
     }
 
-    public void startBot(String token) throws InterruptedException {
-        JDABuilder builder = JDABuilder.createDefault(token);
-        builder.enableIntents(GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT);
-        builder.disableIntents(GatewayIntent.GUILD_PRESENCES, GatewayIntent.GUILD_MESSAGE_TYPING);
-        builder.setActivity(Activity.watching("the store"));
-
-        builder.addEventListeners(new TicketListeners(plugin, discordLinking, ticketDatabase, rankManager));
-        DiscordCommandLogger dummyLogger = new DiscordCommandLogger(plugin, null);
-        builder.addEventListeners(new DiscordStaffModCommands(
+    /**
+     * Hooks the store listeners into the store bot's connection. The connection is already ready, so the
+     * ticket panel is posted here instead of from a ReadyEvent.
+     */
+    public void attachBot(JDA jda) {
+        TicketListeners ticketListeners = new TicketListeners(plugin, discordLinking, ticketDatabase, rankManager);
+        DiscordCommandLogger dummyLogger = DiscordCommandLogger.disabled(plugin);
+        this.listeners = new Object[]{ticketListeners, new DiscordStaffModCommands(
                 plugin,
                 plugin.getDiscordModConfig(), // Reuse config structure
                 storeModDatabase, // Use Store DB
                 dummyLogger,
                 discordLinking,
                 null
-        ));
+        )};
+        jda.addEventListener(listeners);
 
         // Note: The previous line requires RankModule.
         // We can get it via `plugin.getRankModule()` if we added a getter or via `new` if strictly necessary,
@@ -63,7 +61,8 @@ public class TicketSystem {
         // Wait, DiscordStaffModCommands requires RankModule.
         // Updated TicketSystem constructor to handle this? No, I'll fetch from plugin.
 
-        this.jda = builder.build().awaitReady();
+        this.jda = jda;
+        ticketListeners.setup(jda);
         plugin.getLogger().info("Store Bot connected successfully!");
 
         registerCommands();
@@ -128,6 +127,7 @@ public class TicketSystem {
     }
 
     public void shutdown() {
-        if (jda != null) jda.shutdown();
+        // Only detach; the gateway closes the connection
+        if (jda != null) jda.removeEventListener(listeners);
     }
 }
\ No newline at end of file
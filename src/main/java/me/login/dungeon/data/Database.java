@@ -1,31 +1,33 @@
 package me.login.dungeon.data;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+
 import java.io.File;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 public class Database {
 
     private final Login plugin;
-    private Connection connection;
+    private final SQLiteDatabase database;
 
     public Database(Login plugin) {
         this.plugin = plugin;
+        // Legacy location: plugins/Login/dungeons.db
+        this.database = plugin.getDatabaseService().open(new File(plugin.getDataFolder(), "dungeons.db"));
         try {
-            Class.forName("org.sqlite.JDBC");
-            File dataFolder = new File(plugin.getDataFolder(), "dungeons.db");
-            if (!dataFolder.getParentFile().exists()) dataFolder.getParentFile().mkdirs();
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dataFolder.getAbsolutePath());
-            createTables();
-        } catch (ClassNotFoundException | SQLException e) {
+            database.withConnection(connection -> {
+                createTables(connection);
+                return null;
+            });
+        } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
-    private void createTables() throws SQLException {
+    private void createTables(Connection connection) throws SQLException {
         try (Statement statement = connection.createStatement()) {
             // dungeons table: added minic_world, minic_x, minic_y, minic_z
             statement.execute("CREATE TABLE IF NOT EXISTS dungeons (" +
@@ -60,17 +62,11 @@ public class Database {
         }
     }
 
-    public Connection getConnection() {
-        return connection;
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        database.close();
     }
 }
\ No newline at end of file
@@ -147,9 +147,10 @@ public class DungeonManager {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
                 String[] qs = { "DELETE FROM dungeons WHERE id = ?", "DELETE FROM dungeon_rooms WHERE dungeon_id = ?", "DELETE FROM dungeon_chests WHERE dungeon_id = ?" };
-                for (String q : qs) {
-                    try (PreparedStatement ps = database.getConnection().prepareStatement(q)) { ps.setInt(1, id); ps.executeUpdate(); }
-                }
+                database.getDatabase().transaction(conn -> {
+                    for (String q : qs) database.getDatabase().update(q, id);
+                    return null;
+                });
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
@@ -174,9 +175,7 @@ public class DungeonManager {
     private void deleteRoomFromDB(int dungeonId, int roomId) {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
-                try (PreparedStatement ps = database.getConnection().prepareStatement("DELETE FROM dungeon_rooms WHERE dungeon_id = ? AND room_id = ?")) {
-                    ps.setInt(1, dungeonId); ps.setInt(2, roomId); ps.executeUpdate();
-                }
+                database.getDatabase().update("DELETE FROM dungeon_rooms WHERE dungeon_id = ? AND room_id = ?", dungeonId, roomId);
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
@@ -186,60 +185,62 @@ public class DungeonManager {
     public void saveDungeon(Dungeon dungeon) {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             try {
-                // Updated SQL to include Mini Chest
-                String sql = "INSERT OR REPLACE INTO dungeons (id, world, spawn_x, spawn_y, spawn_z, spawn_yaw, spawn_pitch, entry_world, entry_min_x, entry_min_y, entry_min_z, entry_max_x, entry_max_y, entry_max_z, boss_world, boss_x, boss_y, boss_z, chest_world, chest_x, chest_y, chest_z, bdoor_world, bdoor_min_x, bdoor_min_y, bdoor_min_z, bdoor_max_x, bdoor_max_y, bdoor_max_z, rdoor_world, rdoor_min_x, rdoor_min_y, rdoor_min_z, rdoor_max_x, rdoor_max_y, rdoor_max_z, minic_world, minic_x, minic_y, minic_z) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement ps = database.getConnection().prepareStatement(sql)) {
-                    ps.setInt(1, dungeon.getId());
-                    Location spawn = dungeon.getSpawnLocation();
-                    ps.setString(2, spawn.getWorld().getName());
-                    ps.setDouble(3, spawn.getX()); ps.setDouble(4, spawn.getY()); ps.setDouble(5, spawn.getZ()); ps.setFloat(6, spawn.getYaw()); ps.setFloat(7, spawn.getPitch());
-                    saveCuboid(ps, 8, dungeon.getEntryDoor());
-                    if (dungeon.getBossSpawnLocation() != null) {
-                        ps.setString(15, dungeon.getBossSpawnLocation().getWorld().getName()); ps.setDouble(16, dungeon.getBossSpawnLocation().getX()); ps.setDouble(17, dungeon.getBossSpawnLocation().getY()); ps.setDouble(18, dungeon.getBossSpawnLocation().getZ());
-                    } else { ps.setString(15, null); ps.setDouble(16,0); ps.setDouble(17,0); ps.setDouble(18,0); }
-                    if (dungeon.getRewardChestLocation() != null) {
-                        ps.setString(19, dungeon.getRewardChestLocation().getWorld().getName()); ps.setDouble(20, dungeon.getRewardChestLocation().getX()); ps.setDouble(21, dungeon.getRewardChestLocation().getY()); ps.setDouble(22, dungeon.getRewardChestLocation().getZ());
-                    } else { ps.setString(19, null); ps.setDouble(20,0); ps.setDouble(21,0); ps.setDouble(22,0); }
-                    saveCuboid(ps, 23, dungeon.getBossRoomDoor()); saveCuboid(ps, 30, dungeon.getRewardDoor());
-
-                    // Mini Chest
-                    if (dungeon.getMiniRewardChestLocation() != null) {
-                        ps.setString(37, dungeon.getMiniRewardChestLocation().getWorld().getName());
-                        ps.setDouble(38, dungeon.getMiniRewardChestLocation().getX());
-                        ps.setDouble(39, dungeon.getMiniRewardChestLocation().getY());
-                        ps.setDouble(40, dungeon.getMiniRewardChestLocation().getZ());
-                    } else {
-                        ps.setString(37, null); ps.setDouble(38, 0); ps.setDouble(39, 0); ps.setDouble(40, 0);
+                database.getDatabase().transaction(conn -> {
+                    // Updated SQL to include Mini Chest
+                    String sql = "INSERT OR REPLACE INTO dungeons (id, world, spawn_x, spawn_y, spawn_z, spawn_yaw, spawn_pitch, entry_world, entry_min_x, entry_min_y, entry_min_z, entry_max_x, entry_max_y, entry_max_z, boss_world, boss_x, boss_y, boss_z, chest_world, chest_x, chest_y, chest_z, bdoor_world, bdoor_min_x, bdoor_min_y, bdoor_min_z, bdoor_max_x, bdoor_max_y, bdoor_max_z, rdoor_world, rdoor_min_x, rdoor_min_y, rdoor_min_z, rdoor_max_x, rdoor_max_y, rdoor_max_z, minic_world, minic_x, minic_y, minic_z) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setInt(1, dungeon.getId());
+                        Location spawn = dungeon.getSpawnLocation();
+                        ps.setString(2, spawn.getWorld().getName());
+                        ps.setDouble(3, spawn.getX()); ps.setDouble(4, spawn.getY()); ps.setDouble(5, spawn.getZ()); ps.setFloat(6, spawn.getYaw()); ps.setFloat(7, spawn.getPitch());
+                        saveCuboid(ps, 8, dungeon.getEntryDoor());
+                        if (dungeon.getBossSpawnLocation() != null) {
+                            ps.setString(15, dungeon.getBossSpawnLocation().getWorld().getName()); ps.setDouble(16, dungeon.getBossSpawnLocation().getX()); ps.setDouble(17, dungeon.getBossSpawnLocation().getY()); ps.setDouble(18, dungeon.getBossSpawnLocation().getZ());
+                        } else { ps.setString(15, null); ps.setDouble(16,0); ps.setDouble(17,0); ps.setDouble(18,0); }
+                        if (dungeon.getRewardChestLocation() != null) {
+                            ps.setString(19, dungeon.getRewardChestLocation().getWorld().getName()); ps.setDouble(20, dungeon.getRewardChestLocation().getX()); ps.setDouble(21, dungeon.getRewardChestLocation().getY()); ps.setDouble(22, dungeon.getRewardChestLocation().getZ());
+                        } else { ps.setString(19, null); ps.setDouble(20,0); ps.setDouble(21,0); ps.setDouble(22,0); }
+                        saveCuboid(ps, 23, dungeon.getBossRoomDoor()); saveCuboid(ps, 30, dungeon.getRewardDoor());
+
+                        // Mini Chest
+                        if (dungeon.getMiniRewardChestLocation() != null) {
+                            ps.setString(37, dungeon.getMiniRewardChestLocation().getWorld().getName());
+                            ps.setDouble(38, dungeon.getMiniRewardChestLocation().getX());
+                            ps.setDouble(39, dungeon.getMiniRewardChestLocation().getY());
+                            ps.setDouble(40, dungeon.getMiniRewardChestLocation().getZ());
+                        } else {
+                            ps.setString(37, null); ps.setDouble(38, 0); ps.setDouble(39, 0); ps.setDouble(40, 0);
+                        }
+
+                        ps.executeUpdate();
                     }
 
-                    ps.executeUpdate();
-                }
-
-                String roomSql = "INSERT OR REPLACE INTO dungeon_rooms (dungeon_id, room_id, door_min_x, door_min_y, door_min_z, door_max_x, door_max_y, door_max_z, door_world) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement ps = database.getConnection().prepareStatement(roomSql)) {
-                    for (DungeonRoom room : dungeon.getRooms().values()) {
-                        ps.setInt(1, dungeon.getId()); ps.setInt(2, room.getRoomId());
-                        Cuboid d = room.getDoorRegion();
-                        if (d!=null) { ps.setDouble(3, d.getMinX()); ps.setDouble(4, d.getMinY()); ps.setDouble(5, d.getMinZ()); ps.setDouble(6, d.getMaxX()); ps.setDouble(7, d.getMaxY()); ps.setDouble(8, d.getMaxZ()); ps.setString(9, d.getWorld().getName()); }
-                        else { ps.setDouble(3,0); ps.setDouble(4,0); ps.setDouble(5,0); ps.setDouble(6,0); ps.setDouble(7,0); ps.setDouble(8,0); ps.setString(9, null); }
-                        ps.addBatch();
+                    String roomSql = "INSERT OR REPLACE INTO dungeon_rooms (dungeon_id, room_id, door_min_x, door_min_y, door_min_z, door_max_x, door_max_y, door_max_z, door_world) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                    try (PreparedStatement ps = conn.prepareStatement(roomSql)) {
+                        for (DungeonRoom room : dungeon.getRooms().values()) {
+                            ps.setInt(1, dungeon.getId()); ps.setInt(2, room.getRoomId());
+                            Cuboid d = room.getDoorRegion();
+                            if (d!=null) { ps.setDouble(3, d.getMinX()); ps.setDouble(4, d.getMinY()); ps.setDouble(5, d.getMinZ()); ps.setDouble(6, d.getMaxX()); ps.setDouble(7, d.getMaxY()); ps.setDouble(8, d.getMaxZ()); ps.setString(9, d.getWorld().getName()); }
+                            else { ps.setDouble(3,0); ps.setDouble(4,0); ps.setDouble(5,0); ps.setDouble(6,0); ps.setDouble(7,0); ps.setDouble(8,0); ps.setString(9, null); }
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
                     }
-                    ps.executeBatch();
-                }
 
-                try (PreparedStatement ps = database.getConnection().prepareStatement("DELETE FROM dungeon_chests WHERE dungeon_id = ?")) { ps.setInt(1, dungeon.getId()); ps.executeUpdate(); }
-                try (PreparedStatement ps = database.getConnection().prepareStatement("INSERT INTO dungeon_chests (dungeon_id, world, x, y, z) VALUES (?, ?, ?, ?, ?)")) {
-                    for (Location loc : dungeon.getChestLocations()) {
-                        ps.setInt(1, dungeon.getId());
-                        ps.setString(2, loc.getWorld().getName());
-                        ps.setInt(3, loc.getBlockX());
-                        ps.setInt(4, loc.getBlockY());
-                        ps.setInt(5, loc.getBlockZ());
-                        ps.addBatch();
+                    try (PreparedStatement ps = conn.prepareStatement("DELETE FROM dungeon_chests WHERE dungeon_id = ?")) { ps.setInt(1, dungeon.getId()); ps.executeUpdate(); }
+                    try (PreparedStatement ps = conn.prepareStatement("INSERT INTO dungeon_chests (dungeon_id, world, x, y, z) VALUES (?, ?, ?, ?, ?)")) {
+                        for (Location loc : dungeon.getChestLocations()) {
+                            ps.setInt(1, dungeon.getId());
+                            ps.setString(2, loc.getWorld().getName());
+                            ps.setInt(3, loc.getBlockX());
+                            ps.setInt(4, loc.getBlockY());
+                            ps.setInt(5, loc.getBlockZ());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
                     }
-                    ps.executeBatch();
-                }
-
+                    return null;
+                });
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
@@ -255,64 +256,67 @@ public class DungeonManager {
 
     private void loadDungeons() {
         try {
-            Statement st = database.getConnection().createStatement();
-            ResultSet rs = st.executeQuery("SELECT * FROM dungeons");
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                Dungeon dungeon = new Dungeon(id);
-                World w = Bukkit.getWorld(rs.getString("world"));
-                if (w != null) dungeon.setSpawnLocation(new Location(w, rs.getDouble("spawn_x"), rs.getDouble("spawn_y"), rs.getDouble("spawn_z"), rs.getFloat("spawn_yaw"), rs.getFloat("spawn_pitch")));
-                String entryW = rs.getString("entry_world");
-                if (entryW != null) dungeon.setEntryDoor(new Cuboid(entryW, rs.getDouble("entry_min_x"), rs.getDouble("entry_min_y"), rs.getDouble("entry_min_z"), rs.getDouble("entry_max_x"), rs.getDouble("entry_max_y"), rs.getDouble("entry_max_z")));
-                String bossW = rs.getString("boss_world");
-                if (bossW != null && Bukkit.getWorld(bossW) != null) dungeon.setBossSpawnLocation(new Location(Bukkit.getWorld(bossW), rs.getDouble("boss_x"), rs.getDouble("boss_y"), rs.getDouble("boss_z")));
-                String chestW = rs.getString("chest_world");
-                if (chestW != null && Bukkit.getWorld(chestW) != null) dungeon.setRewardChestLocation(new Location(Bukkit.getWorld(chestW), rs.getDouble("chest_x"), rs.getDouble("chest_y"), rs.getDouble("chest_z")));
-                String bDoorW = rs.getString("bdoor_world");
-                if (bDoorW != null) dungeon.setBossRoomDoor(new Cuboid(bDoorW, rs.getDouble("bdoor_min_x"), rs.getDouble("bdoor_min_y"), rs.getDouble("bdoor_min_z"), rs.getDouble("bdoor_max_x"), rs.getDouble("bdoor_max_y"), rs.getDouble("bdoor_max_z")));
-                String rDoorW = rs.getString("rdoor_world");
-                if (rDoorW != null) dungeon.setRewardDoor(new Cuboid(rDoorW, rs.getDouble("rdoor_min_x"), rs.getDouble("rdoor_min_y"), rs.getDouble("rdoor_min_z"), rs.getDouble("rdoor_max_x"), rs.getDouble("rdoor_max_y"), rs.getDouble("rdoor_max_z")));
-
-                // Load Mini Chest
-                String minicW = rs.getString("minic_world");
-                if (minicW != null && Bukkit.getWorld(minicW) != null) {
-                    dungeon.setMiniRewardChestLocation(new Location(Bukkit.getWorld(minicW), rs.getDouble("minic_x"), rs.getDouble("minic_y"), rs.getDouble("minic_z")));
-                }
+            database.getDatabase().withConnection(conn -> {
+                Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT * FROM dungeons");
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    Dungeon dungeon = new Dungeon(id);
+                    World w = Bukkit.getWorld(rs.getString("world"));
+                    if (w != null) dungeon.setSpawnLocation(new Location(w, rs.getDouble("spawn_x"), rs.getDouble("spawn_y"), rs.getDouble("spawn_z"), rs.getFloat("spawn_yaw"), rs.getFloat("spawn_pitch")));
+                    String entryW = rs.getString("entry_world");
+                    if (entryW != null) dungeon.setEntryDoor(new Cuboid(entryW, rs.getDouble("entry_min_x"), rs.getDouble("entry_min_y"), rs.getDouble("entry_min_z"), rs.getDouble("entry_max_x"), rs.getDouble("entry_max_y"), rs.getDouble("entry_max_z")));
+                    String bossW = rs.getString("boss_world");
+                    if (bossW != null && Bukkit.getWorld(bossW) != null) dungeon.setBossSpawnLocation(new Location(Bukkit.getWorld(bossW), rs.getDouble("boss_x"), rs.getDouble("boss_y"), rs.getDouble("boss_z")));
+                    String chestW = rs.getString("chest_world");
+                    if (chestW != null && Bukkit.getWorld(chestW) != null) dungeon.setRewardChestLocation(new Location(Bukkit.getWorld(chestW), rs.getDouble("chest_x"), rs.getDouble("chest_y"), rs.getDouble("chest_z")));
+                    String bDoorW = rs.getString("bdoor_world");
+                    if (bDoorW != null) dungeon.setBossRoomDoor(new Cuboid(bDoorW, rs.getDouble("bdoor_min_x"), rs.getDouble("bdoor_min_y"), rs.getDouble("bdoor_min_z"), rs.getDouble("bdoor_max_x"), rs.getDouble("bdoor_max_y"), rs.getDouble("bdoor_max_z")));
+                    String rDoorW = rs.getString("rdoor_world");
+                    if (rDoorW != null) dungeon.setRewardDoor(new Cuboid(rDoorW, rs.getDouble("rdoor_min_x"), rs.getDouble("rdoor_min_y"), rs.getDouble("rdoor_min_z"), rs.getDouble("rdoor_max_x"), rs.getDouble("rdoor_max_y"), rs.getDouble("rdoor_max_z")));
+
+                    // Load Mini Chest
+                    String minicW = rs.getString("minic_world");
+                    if (minicW != null && Bukkit.getWorld(minicW) != null) {
+                        dungeon.setMiniRewardChestLocation(new Location(Bukkit.getWorld(minicW), rs.getDouble("minic_x"), rs.getDouble("minic_y"), rs.getDouble("minic_z")));
+                    }
 
-                dungeons.put(id, dungeon);
-            }
-            rs.close();
-
-            ResultSet rsRooms = st.executeQuery("SELECT * FROM dungeon_rooms");
-            while (rsRooms.next()) {
-                int dId = rsRooms.getInt("dungeon_id");
-                Dungeon d = dungeons.get(dId);
-                if (d != null) {
-                    int rId = rsRooms.getInt("room_id");
-                    DungeonRoom room = d.getRoom(rId);
-                    if (rsRooms.getDouble("door_min_x") != 0) {
-                        String worldName = rsRooms.getString("door_world");
-                        if (worldName == null) { if (d.getEntryDoor() != null) worldName = d.getEntryDoor().getWorld().getName(); else if (d.getSpawnLocation() != null) worldName = d.getSpawnLocation().getWorld().getName(); }
-                        if (worldName != null) { room.setDoorRegion(new Cuboid(worldName, rsRooms.getDouble("door_min_x"), rsRooms.getDouble("door_min_y"), rsRooms.getDouble("door_min_z"), rsRooms.getDouble("door_max_x"), rsRooms.getDouble("door_max_y"), rsRooms.getDouble("door_max_z"))); }
+                    dungeons.put(id, dungeon);
+                }
+                rs.close();
+
+                ResultSet rsRooms = st.executeQuery("SELECT * FROM dungeon_rooms");
+                while (rsRooms.next()) {
+                    int dId = rsRooms.getInt("dungeon_id");
+                    Dungeon d = dungeons.get(dId);
+                    if (d != null) {
+                        int rId = rsRooms.getInt("room_id");
+                        DungeonRoom room = d.getRoom(rId);
+                        if (rsRooms.getDouble("door_min_x") != 0) {
+                            String worldName = rsRooms.getString("door_world");
+                            if (worldName == null) { if (d.getEntryDoor() != null) worldName = d.getEntryDoor().getWorld().getName(); else if (d.getSpawnLocation() != null) worldName = d.getSpawnLocation().getWorld().getName(); }
+                            if (worldName != null) { room.setDoorRegion(new Cuboid(worldName, rsRooms.getDouble("door_min_x"), rsRooms.getDouble("door_min_y"), rsRooms.getDouble("door_min_z"), rsRooms.getDouble("door_max_x"), rsRooms.getDouble("door_max_y"), rsRooms.getDouble("door_max_z"))); }
+                        }
                     }
                 }
-            }
-            rsRooms.close();
-
-            ResultSet rsChests = st.executeQuery("SELECT * FROM dungeon_chests");
-            while (rsChests.next()) {
-                int dId = rsChests.getInt("dungeon_id");
-                Dungeon d = dungeons.get(dId);
-                if (d != null) {
-                    String wName = rsChests.getString("world");
-                    if (wName != null && Bukkit.getWorld(wName) != null) {
-                        d.addChestLocation(new Location(Bukkit.getWorld(wName), rsChests.getInt("x"), rsChests.getInt("y"), rsChests.getInt("z")));
+                rsRooms.close();
+
+                ResultSet rsChests = st.executeQuery("SELECT * FROM dungeon_chests");
+                while (rsChests.next()) {
+                    int dId = rsChests.getInt("dungeon_id");
+                    Dungeon d = dungeons.get(dId);
+                    if (d != null) {
+                        String wName = rsChests.getString("world");
+                        if (wName != null && Bukkit.getWorld(wName) != null) {
+                            d.addChestLocation(new Location(Bukkit.getWorld(wName), rsChests.getInt("x"), rsChests.getInt("y"), rsChests.getInt("z")));
+                        }
                     }
                 }
-            }
-            rsChests.close();
+                rsChests.close();
 
-            st.close();
+                st.close();
+                return null;
+            });
             plugin.getLogger().info("Loaded " + dungeons.size() + " dungeons.");
         } catch (SQLException e) { e.printStackTrace(); }
     }
@@ -20,8 +20,6 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
 
 import java.io.File;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
@@ -43,7 +41,7 @@ public class DungeonRewardManager {
 
     private void createTables() {
         try {
-            database.getConnection().createStatement().execute("CREATE TABLE IF NOT EXISTS dungeon_player_stats (" +
+            database.getDatabase().update("CREATE TABLE IF NOT EXISTS dungeon_player_stats (" +
                     "uuid VARCHAR(36) PRIMARY KEY, " +
                     "runs INTEGER DEFAULT 0, " +
                     "selected_drop VARCHAR(64)" +
@@ -166,11 +164,10 @@ public class DungeonRewardManager {
     public PlayerStats getPlayerStats(UUID uuid) {
         if (playerStats.containsKey(uuid)) return playerStats.get(uuid);
 
-        try (PreparedStatement ps = database.getConnection().prepareStatement("SELECT * FROM dungeon_player_stats WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString());
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                PlayerStats stats = new PlayerStats(rs.getInt("runs"), rs.getString("selected_drop"));
+        try {
+            PlayerStats stats = database.getDatabase().query("SELECT * FROM dungeon_player_stats WHERE uuid = ?",
+                    rs -> rs.next() ? new PlayerStats(rs.getInt("runs"), rs.getString("selected_drop")) : null, uuid.toString());
+            if (stats != null) {
                 playerStats.put(uuid, stats);
                 return stats;
             }
@@ -185,11 +182,8 @@ public class DungeonRewardManager {
         playerStats.put(uuid, stats);
 
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = database.getConnection().prepareStatement("INSERT OR REPLACE INTO dungeon_player_stats (uuid, runs, selected_drop) VALUES (?, ?, ?)")) {
-                ps.setString(1, uuid.toString());
-                ps.setInt(2, stats.runs);
-                ps.setString(3, stats.selected_drop);
-                ps.executeUpdate();
+            try {
+                database.getDatabase().update("INSERT OR REPLACE INTO dungeon_player_stats (uuid, runs, selected_drop) VALUES (?, ?, ?)", uuid.toString(), stats.runs, stats.selected_drop);
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
@@ -1,26 +1,15 @@
 package me.login.dungeon.utils;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
-import org.bukkit.Bukkit;
 
 public class DungeonLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long adminLogChannelId;
     private final long gameLogChannelId;
 
     public DungeonLogger(Login plugin) {
         this.plugin = plugin;
-        // Assuming getLagClearLogger() is available in main class
-        if (plugin.getLagClearLogger() != null) {
-            this.jda = plugin.getLagClearLogger().getJDA();
-        } else {
-            this.jda = null;
-        }
-
         this.adminLogChannelId = plugin.getConfig().getLong("dungeon-admin-log-channel-id", 0);
         this.gameLogChannelId = plugin.getConfig().getLong("dungeon-game-log-channel-id", 0);
     }
@@ -46,16 +35,7 @@ public class DungeonLogger {
     }
 
     private void sendLog(long channelId, String message) {
-        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED || channelId == 0) {
-            return;
-        }
-
-        // Run async to avoid blocking main thread
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            MessageChannel channel = jda.getTextChannelById(channelId);
-            if (channel != null) {
-                channel.sendMessage(message).queue();
-            }
-        });
+        // Queued; the log bus sends from its own thread
+        plugin.getLogBus().send(channelId, message);
     }
 }
\ No newline at end of file
@@ -1,8 +1,6 @@
 package me.login.items;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 
 public class ArmorLogger {
 
@@ -18,15 +16,7 @@ public class ArmorLogger {
         // Log to console
         plugin.getLogger().info("[ArmorLog] " + message);
 
-        // Log to Discord using shared JDA
-        if (plugin.getLagClearLogger() != null) {
-            JDA jda = plugin.getLagClearLogger().getJDA();
-            if (jda != null) {
-                TextChannel channel = jda.getTextChannelById(channelId);
-                if (channel != null) {
-                    channel.sendMessage(message).queue();
-                }
-            }
-        }
+        // Log to Discord through the shared log bus
+        plugin.getLogBus().send(channelId, message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,455 @@
+package me.login.leaderboards;
+
+import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
+import me.login.scoreboard.SkriptUtils;
+import net.milkbowl.vault.economy.Economy;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Statistic;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerStatisticIncrementEvent;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Level;
+
+/**
+ * Persistent leaderboard index for the categories that used to scan every OfflinePlayer.
+ * <p>
+ * Every known value lives in leaderboards.db (written through a write-behind buffer); in memory each
+ * category only keeps the best {@code index-size} entries in a skip list. Counters the server reports
+ * through {@link PlayerStatisticIncrementEvent} are tracked as they change; the rest (playtime, balance,
+ * lifesteal level) are polled a few players per tick so a full round takes {@code sample-seconds}.
+ * A player's full stats are read once on join; everyone else comes from a one-off background backfill.
+ */
+public class LeaderboardIndex implements Listener {
+
+    public enum Category {
+        KILLS("kills"),
+        DEATHS("deaths"),
+        PLAYTIME("playtime"),
+        MOB_KILLS("mobkills"),
+        BLOCKS_BROKEN("blocksbroken"),
+        BALANCE("balance"),
+        LIFESTEAL("lifesteal");
+
+        private final String key;
+
+        Category(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Category fromStatistic(Statistic statistic) {
+            if (statistic == Statistic.PLAYER_KILLS) return KILLS;
+            if (statistic == Statistic.DEATHS) return DEATHS;
+            if (statistic == Statistic.PLAY_ONE_MINUTE) return PLAYTIME;
+            if (statistic == Statistic.MOB_KILLS) return MOB_KILLS;
+            return null;
+        }
+    }
+
+    private record Entry(UUID uuid, String name, double value, boolean op) {}
+
+    private record StatKey(Category category, UUID uuid) {}
+
+    // Not covered by PlayerStatisticIncrementEvent (playtime is never fired) or not a statistic at all
+    private static final Set<Category> POLLED = EnumSet.of(Category.PLAYTIME, Category.BALANCE, Category.LIFESTEAL);
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::value).reversed()
+            .thenComparing(Entry::uuid);
+
+    // Block materials are resolved once instead of filtering Material.values() per player
+    private static final Material[] BLOCK_MATERIALS = Arrays.stream(Material.values())
+            .filter(m -> m.isBlock() && !m.isLegacy())
+            .toArray(Material[]::new);
+
+    private final Login plugin;
+    private final SQLiteDatabase database;
+    private final WriteBehindBuffer<StatKey, Entry> pendingWrites;
+    private final int indexSize;
+
+    private final Map<Category, NavigableSet<Entry>> top = new EnumMap<>(Category.class);
+    private final Map<Category, Map<UUID, Entry>> members = new EnumMap<>(Category.class);
+    private final Map<Category, Boolean> needsRefill = new ConcurrentHashMap<>();
+
+    // Last value written per online player, so unchanged stats are not re-queued every sample
+    private final Map<UUID, double[]> lastSampled = new HashMap<>();
+
+    // --- Polling (main thread) ---
+    private final Deque<UUID> sampleQueue = new ArrayDeque<>();
+    private long sampleIntervalTicks;
+    private long tick = 0;
+    private int samplesPerTick = 1;
+
+    private volatile boolean backfillRunning = false;
+    private BukkitTask sampleTask;
+
+    public LeaderboardIndex(Login plugin) {
+        this.plugin = plugin;
+        this.indexSize = Math.max(10, plugin.getConfig().getInt("leaderboards.index-size", 50));
+        this.database = plugin.getDatabaseService().open("leaderboards.db");
+        createTables();
+        this.pendingWrites = database.writeBehind("leaderboard_stats",
+                "INSERT INTO leaderboard_stats (category, uuid, name, value, op) VALUES (?, ?, ?, ?, ?) " +
+                        "ON CONFLICT(category, uuid) DO UPDATE SET name = excluded.name, value = excluded.value, op = excluded.op",
+                (ps, key, entry) -> {
+                    ps.setString(1, key.category().getKey());
+                    ps.setString(2, key.uuid().toString());
+                    ps.setString(3, entry.name());
+                    ps.setDouble(4, entry.value());
+                    ps.setInt(5, entry.op() ? 1 : 0);
+                });
+
+        for (Category category : Category.values()) {
+            top.put(category, new ConcurrentSkipListSet<>(ORDER));
+            members.put(category, new ConcurrentHashMap<>());
+        }
+    }
+
+    private void createTables() {
+        try {
+            database.withConnection(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TABLE IF NOT EXISTS leaderboard_stats (" +
+                            "category TEXT NOT NULL, " +
+                            "uuid VARCHAR(36) NOT NULL, " +
+                            "name TEXT NOT NULL, " +
+                            "value DOUBLE NOT NULL DEFAULT 0, " +
+                            "op INTEGER NOT NULL DEFAULT 0, " +
+                            "PRIMARY KEY (category, uuid))");
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_leaderboard_value ON leaderboard_stats (category, value DESC)");
+                    stmt.execute("CREATE TABLE IF NOT EXISTS leaderboard_meta (key TEXT PRIMARY KEY, value TEXT)");
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not create leaderboard index tables!", e);
+        }
+    }
+
+    // --- Lifecycle ---
+
+    public void start() {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+
+        database.runAsync(() -> {
+            for (Category category : Category.values()) {
+                refill(category);
+            }
+            if (plugin.getConfig().getBoolean("leaderboards.rebuild-index-on-start", false) || !isBackfilled()) {
+                startBackfill();
+            }
+        });
+
+        this.sampleIntervalTicks = 20L * Math.max(10, plugin.getConfig().getLong("leaderboards.sample-seconds", 60));
+        this.sampleTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sampleTick, 1L, 1L);
+    }
+
+    public void shutdown() {
+        if (sampleTask != null) sampleTask.cancel();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            sample(player, POLLED);
+        }
+        pendingWrites.flushAll();
+    }
+
+    /**
+     * Starts a polling round every interval and spreads it over the interval, so the work per tick stays
+     * at a handful of players no matter how many are online.
+     */
+    private void sampleTick() {
+        if (++tick % sampleIntervalTicks == 0) {
+            if (sampleQueue.isEmpty()) {
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    sampleQueue.add(player.getUniqueId());
+                }
+                samplesPerTick = (int) Math.max(1, (sampleQueue.size() + sampleIntervalTicks - 1) / sampleIntervalTicks);
+            }
+            refillPending();
+        }
+        for (int i = 0; i < samplesPerTick && !sampleQueue.isEmpty(); i++) {
+            Player player = Bukkit.getPlayer(sampleQueue.poll());
+            if (player != null) sample(player, POLLED);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        sample(event.getPlayer(), EnumSet.allOf(Category.class));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        // Counters are already current from the increment events
+        sample(event.getPlayer(), POLLED);
+        lastSampled.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onStatisticIncrement(PlayerStatisticIncrementEvent event) {
+        Player player = event.getPlayer();
+        double[] previous = lastSampled.get(player.getUniqueId());
+        if (previous == null) return;
+
+        Category category;
+        double value;
+        if (event.getStatistic() == Statistic.MINE_BLOCK) {
+            category = Category.BLOCKS_BROKEN;
+            // The event carries the per-material counter; apply its delta to the running total
+            double total = previous[category.ordinal()];
+            if (Double.isNaN(total)) return;
+            value = total + (event.getNewValue() - event.getPreviousValue());
+        } else {
+            category = Category.fromStatistic(event.getStatistic());
+            if (category == null || POLLED.contains(category)) return;
+            value = event.getNewValue();
+        }
+
+        if (value == previous[category.ordinal()]) return;
+        previous[category.ordinal()] = value;
+        update(category, player.getUniqueId(), player.getName(), value, player.isOp());
+    }
+
+    // --- Reads ---
+
+    /**
+     * Top entries of a category as name -> value, highest first. O(index-size), no I/O.
+     */
+    public Map<String, Double> getTop(Category category, int limit) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        boolean showOps = LeaderboardModule.isShowOps();
+        for (Entry entry : top.get(category)) {
+            if (!showOps && entry.op()) continue;
+            result.put(entry.name(), entry.value());
+            if (result.size() >= limit) break;
+        }
+        return result;
+    }
+
+    public boolean isBackfillRunning() {
+        return backfillRunning;
+    }
+
+    // --- Updates ---
+
+    /**
+     * Reads the given stats of an online player (main thread) and feeds changed values into the index.
+     */
+    private void sample(Player player, Set<Category> categories) {
+        UUID uuid = player.getUniqueId();
+        double[] previous = lastSampled.computeIfAbsent(uuid, id -> {
+            double[] fresh = new double[Category.values().length];
+            Arrays.fill(fresh, Double.NaN);
+            return fresh;
+        });
+
+        Economy economy = getEconomy();
+        boolean skript = Bukkit.getPluginManager().isPluginEnabled("Skript");
+        for (Category category : categories) {
+            double value = read(player, category, economy, skript);
+            if (value == previous[category.ordinal()]) continue;
+            previous[category.ordinal()] = value;
+            update(category, uuid, player.getName(), value, player.isOp());
+        }
+    }
+
+    private void update(Category category, UUID uuid, String name, double value, boolean op) {
+        Entry entry = new Entry(uuid, name, value, op);
+        pendingWrites.put(new StatKey(category, uuid), entry);
+
+        NavigableSet<Entry> set = top.get(category);
+        Map<UUID, Entry> index = members.get(category);
+        synchronized (set) {
+            Entry old = index.get(uuid);
+            if (old != null) {
+                set.remove(old);
+                index.remove(uuid);
+            }
+            if (value <= 0) {
+                if (old != null) needsRefill.put(category, true);
+                return;
+            }
+            if (old != null || set.size() < indexSize || ORDER.compare(entry, set.last()) < 0) {
+                set.add(entry);
+                index.put(uuid, entry);
+                if (set.size() > indexSize) {
+                    Entry evicted = set.pollLast();
+                    if (evicted != null) index.remove(evicted.uuid());
+                }
+                // A member that went down may now rank below someone outside the window
+                if (old != null && value < old.value() && entry.equals(set.last())) {
+                    needsRefill.put(category, true);
+                }
+            }
+        }
+    }
+
+    private void refillPending() {
+        for (Category category : Category.values()) {
+            if (needsRefill.remove(category) != null) {
+                database.runAsync(() -> refill(category));
+            }
+        }
+    }
+
+    /**
+     * Tops a category's window back up from leaderboards.db. Runs on the DB executor.
+     * <p>
+     * Loaded rows are merged into the window rather than replacing it: members already in memory are at
+     * least as new as the database, and values queued since the read win over the stored row.
+     */
+    private void refill(Category category) {
+        pendingWrites.flushIf(key -> key.category() == category);
+        String sql = "SELECT uuid, name, value, op FROM leaderboard_stats WHERE category = ? AND value > 0 ORDER BY value DESC LIMIT ?";
+        try {
+            NavigableSet<Entry> loaded = new TreeSet<>(ORDER);
+            database.query(sql, rs -> {
+                while (rs.next()) {
+                    try {
+                        loaded.add(new Entry(UUID.fromString(rs.getString("uuid")), rs.getString("name"),
+                                rs.getDouble("value"), rs.getInt("op") == 1));
+                    } catch (IllegalArgumentException ignored) {}
+                }
+                return null;
+            }, category.getKey(), indexSize);
+
+            NavigableSet<Entry> set = top.get(category);
+            Map<UUID, Entry> index = members.get(category);
+            synchronized (set) {
+                for (Entry entry : loaded) {
+                    if (index.containsKey(entry.uuid())) continue;
+                    // An update that raced the read is still queued (or in flight) and is newer than the row
+                    Entry queued = pendingWrites.pending(new StatKey(category, entry.uuid()));
+                    Entry current = queued != null ? queued : entry;
+                    if (current.value() <= 0) continue;
+                    set.add(current);
+                    index.put(current.uuid(), current);
+                }
+                while (set.size() > indexSize) {
+                    Entry evicted = set.pollLast();
+                    if (evicted != null) index.remove(evicted.uuid());
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not load leaderboard index for " + category.getKey(), e);
+        }
+    }
+
+    // --- Backfill ---
+
+    private boolean isBackfilled() {
+        try {
+            return database.query("SELECT value FROM leaderboard_meta WHERE key = 'backfilled'", rs -> rs.next());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Seeds the index from every OfflinePlayer exactly once, on its own low-priority thread.
+     */
+    public void startBackfill() {
+        if (backfillRunning) return;
+        backfillRunning = true;
+
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            int processed = 0;
+            try {
+                Economy economy = getEconomy();
+                boolean skript = Bukkit.getPluginManager().isPluginEnabled("Skript");
+                for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
+                    if (player.getName() == null || player.isOnline()) continue;
+                    for (Category category : Category.values()) {
+                        double value = read(player, category, economy, skript);
+                        if (value > 0) {
+                            update(category, player.getUniqueId(), player.getName(), value, player.isOp());
+                        }
+                    }
+                    if (++processed % 500 == 0) {
+                        pendingWrites.flushAll();
+                    }
+                }
+                pendingWrites.flushAll();
+                database.update("INSERT INTO leaderboard_meta (key, value) VALUES ('backfilled', ?) " +
+                        "ON CONFLICT(key) DO UPDATE SET value = excluded.value", String.valueOf(System.currentTimeMillis()));
+                plugin.getLogger().info("Leaderboard index backfilled from " + processed + " players in "
+                        + (System.currentTimeMillis() - start) + "ms.");
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Leaderboard index backfill failed after " + processed + " players", e);
+            } finally {
+                backfillRunning = false;
+            }
+        }, "Login-Leaderboard-Backfill");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    // --- Stat sources ---
+
+    private double read(OfflinePlayer player, Category category, Economy economy, boolean skript) {
+        try {
+            switch (category) {
+                case KILLS: return player.getStatistic(Statistic.PLAYER_KILLS);
+                case DEATHS: return player.getStatistic(Statistic.DEATHS);
+                case PLAYTIME: return player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+                case MOB_KILLS: return player.getStatistic(Statistic.MOB_KILLS);
+                case BLOCKS_BROKEN: {
+                    long total = 0;
+                    for (Material material : BLOCK_MATERIALS) {
+                        total += player.getStatistic(Statistic.MINE_BLOCK, material);
+                    }
+                    return total;
+                }
+                case BALANCE:
+                    if (economy == null || !economy.hasAccount(player)) return 0;
+                    return economy.getBalance(player);
+                case LIFESTEAL: {
+                    if (!skript) return 0;
+                    Object value = SkriptUtils.getVar("lifesteal_level_" + player.getUniqueId());
+                    return value instanceof Number ? ((Number) value).doubleValue() : 0;
+                }
+                default: return 0;
+            }
+        } catch (Exception ignored) {
+            // Stats might not exist for player
+            return 0;
+        }
+    }
+
+    private Economy getEconomy() {
+        if (!plugin.getServer().getPluginManager().isPluginEnabled("Vault")) return null;
+        RegisteredServiceProvider<Economy> rsp = plugin.getServer().getServicesManager().getRegistration(Economy.class);
+        return rsp == null ? null : rsp.getProvider();
+    }
+}
@@ -11,6 +11,8 @@ public class LeaderboardModule {
     private LeaderboardDisplayManager leaderboardManager;
     private LeaderboardGUI leaderboardGUI;
     private StatsFetcher statsFetcher;
+    private PlayerNameCache nameCache;
+    private LeaderboardIndex leaderboardIndex;
     private BukkitTask leaderboardUpdateTask;
     private static boolean showOps = true;
 
@@ -25,8 +27,14 @@ public class LeaderboardModule {
         TokenModule tokenModule = plugin.getTokenModule();
         CreditsModule creditsModule = plugin.getCreditsModule();
 
+        // Precomputed top-N for the OfflinePlayer-based categories
+        this.leaderboardIndex = new LeaderboardIndex(plugin);
+        this.leaderboardIndex.start();
+
+        this.nameCache = new PlayerNameCache();
+
         // Pass them to the fetcher
-        this.statsFetcher = new StatsFetcher(plugin, tokenModule, creditsModule);
+        this.statsFetcher = new StatsFetcher(plugin, tokenModule, creditsModule, leaderboardIndex, nameCache);
 
         this.leaderboardManager = new LeaderboardDisplayManager(plugin, statsFetcher);
         this.leaderboardGUI = new LeaderboardGUI(plugin, statsFetcher, leaderboardManager);
@@ -46,6 +54,12 @@ public class LeaderboardModule {
         if (leaderboardManager != null) {
             leaderboardManager.disable();
         }
+        if (statsFetcher != null) {
+            statsFetcher.shutdown();
+        }
+        if (leaderboardIndex != null) {
+            leaderboardIndex.shutdown();
+        }
         plugin.getLogger().info("LeaderboardModule disabled.");
     }
 
@@ -73,6 +87,7 @@ public class LeaderboardModule {
     private void registerListeners() {
         plugin.getServer().getPluginManager().registerEvents(new LeaderboardProtectionListener(this.leaderboardManager), plugin);
         plugin.getServer().getPluginManager().registerEvents(this.leaderboardGUI, plugin);
+        plugin.getServer().getPluginManager().registerEvents(this.nameCache, plugin);
 
         if (plugin.getServer().getPluginManager().isPluginEnabled("Citizens")) {
             plugin.getServer().getPluginManager().registerEvents(new LeaderboardNPCListener(plugin, this.leaderboardGUI), plugin);
@@ -85,6 +100,8 @@ public class LeaderboardModule {
         this.leaderboardUpdateTask = new LeaderboardUpdateTask(this.leaderboardManager).runTaskTimer(plugin, delay, refreshTicks);
     }
 
+    public LeaderboardIndex getLeaderboardIndex() { return leaderboardIndex; }
+
     public static boolean isShowOps() { return showOps; }
     public static void setShowOps(boolean show) { showOps = show; }
 }
\ No newline at end of file
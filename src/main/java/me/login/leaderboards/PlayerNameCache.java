@@ -0,0 +1,50 @@
+package me.login.leaderboards;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UUID -> name/op lookups for leaderboard rows, so each refresh does not hit
+ * Bukkit.getOfflinePlayer (and its profile/usercache lookups) once per row.
+ */
+public class PlayerNameCache implements Listener {
+
+    private static final long TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
+    public record Profile(String name, boolean op, long loadedAt) {}
+
+    private final Map<UUID, Profile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Cached profile, or null if the player has no known name.
+     */
+    public Profile get(UUID uuid) {
+        Profile cached = profiles.get(uuid);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt() < TTL_MS) {
+            return cached.name() == null ? null : cached;
+        }
+
+        OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
+        Profile loaded = new Profile(player.getName(), player.isOp(), now);
+        profiles.put(uuid, loaded);
+        return loaded.name() == null ? null : loaded;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        // Names can change between sessions; refresh from the live player
+        Player player = event.getPlayer();
+        profiles.put(player.getUniqueId(), new Profile(player.getName(), player.isOp(), System.currentTimeMillis()));
+    }
+}
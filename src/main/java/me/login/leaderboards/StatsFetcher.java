@@ -4,20 +4,19 @@ import me.login.Login;
 import me.login.misc.tokens.TokenModule;
 import me.login.premiumfeatures.credits.CreditsModule;
 import me.login.scoreboard.SkriptUtils;
-import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
-import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.Statistic;
-import org.bukkit.plugin.RegisteredServiceProvider;
 
-import java.io.File;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class StatsFetcher {
@@ -25,16 +24,37 @@ public class StatsFetcher {
     private final Login plugin;
     private final TokenModule tokenModule;
     private final CreditsModule creditsModule;
+    private final LeaderboardIndex index;
+    private final PlayerNameCache nameCache;
 
-    public StatsFetcher(Login plugin, TokenModule tokenModule, CreditsModule creditsModule) {
+    // Small bounded pool so leaderboard refreshes never compete with the common pool or queue without limit
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CompletableFuture<Map<String, Double>>> inFlight = new ConcurrentHashMap<>();
+
+    public StatsFetcher(Login plugin, TokenModule tokenModule, CreditsModule creditsModule, LeaderboardIndex index, PlayerNameCache nameCache) {
         this.plugin = plugin;
         this.tokenModule = tokenModule;
         this.creditsModule = creditsModule;
+        this.index = index;
+        this.nameCache = nameCache;
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(32), r -> {
+            Thread thread = new Thread(r, "Login-Leaderboard-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    // --- GENERIC STATS (Async) ---
+    // --- GENERIC STATS (Indexed) ---
     public CompletableFuture<Map<String, Double>> getTopStats(Statistic statistic, int limit) {
-        return CompletableFuture.supplyAsync(() -> {
+        LeaderboardIndex.Category category = LeaderboardIndex.Category.fromStatistic(statistic);
+        if (category != null) {
+            return CompletableFuture.completedFuture(index.getTop(category, limit));
+        }
+
+        // Statistics without an index category still fall back to a full scan
+        return submit("stat:" + statistic.name() + ":" + limit, () -> {
             Map<String, Double> statsMap = new HashMap<>();
             for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
                 if (player.getName() == null) continue;
@@ -55,139 +75,40 @@ public class StatsFetcher {
         return getTopStats(Statistic.MOB_KILLS, limit);
     }
 
-    // --- BLOCKS BROKEN (Async - Heavy!) ---
+    // --- BLOCKS BROKEN (Indexed) ---
     public CompletableFuture<Map<String, Double>> getTopBlocksBroken(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> statsMap = new HashMap<>();
-            for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
-                if (player.getName() == null) continue;
-                if (!LeaderboardModule.isShowOps() && player.isOp()) continue;
-
-                long totalBroken = 0;
-                for (Material mat : Material.values()) {
-                    if (mat.isBlock()) {
-                        try {
-                            totalBroken += player.getStatistic(Statistic.MINE_BLOCK, mat);
-                        } catch (Exception ignored) {}
-                    }
-                }
-
-                if (totalBroken > 0) statsMap.put(player.getName(), (double) totalBroken);
-            }
-            return sortByValue(statsMap, limit);
-        });
+        return CompletableFuture.completedFuture(index.getTop(LeaderboardIndex.Category.BLOCKS_BROKEN, limit));
     }
 
-    // --- VAULT ECONOMY (Async) ---
+    // --- VAULT ECONOMY (Indexed) ---
     public CompletableFuture<Map<String, Double>> getTopBalances(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> statsMap = new HashMap<>();
-            if (!plugin.getServer().getPluginManager().isPluginEnabled("Vault")) return statsMap;
-
-            RegisteredServiceProvider<Economy> rsp = plugin.getServer().getServicesManager().getRegistration(Economy.class);
-            if (rsp == null) return statsMap;
-            Economy economy = rsp.getProvider();
-
-            for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
-                if (player.getName() == null) continue;
-                if (!LeaderboardModule.isShowOps() && player.isOp()) continue;
-                try {
-                    if (economy.hasAccount(player)) {
-                        double balance = economy.getBalance(player);
-                        if (balance > 0) statsMap.put(player.getName(), balance);
-                    }
-                } catch (Exception ignored) {}
-            }
-            return sortByValue(statsMap, limit);
-        });
+        return CompletableFuture.completedFuture(index.getTop(LeaderboardIndex.Category.BALANCE, limit));
     }
 
-    // --- TOKENS (Async SQL) ---
+    // --- TOKENS (Shared token database) ---
     public CompletableFuture<Map<String, Double>> getTopTokens(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> statsMap = new HashMap<>();
-
-            // We verify the module is active, but we connect to the FILE directly for safety in async threads
-            if (tokenModule == null) return statsMap;
-
-            File dbFile = new File(plugin.getDataFolder(), "database/tokens.db");
-            if (!dbFile.exists()) return statsMap;
-
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-
-            // Query matches your TokenDatabase: table 'player_tokens', column 'tokens'
-            String query = "SELECT player_uuid, tokens FROM player_tokens ORDER BY tokens DESC LIMIT ?";
-
-            try (Connection conn = DriverManager.getConnection(url);
-                 PreparedStatement ps = conn.prepareStatement(query)) {
-
-                ps.setInt(1, limit * 2); // Fetch extra in case of OPs we need to filter
-                ResultSet rs = ps.executeQuery();
-
-                while (rs.next()) {
-                    String uuidStr = rs.getString("player_uuid");
-                    long balance = rs.getLong("tokens");
-                    try {
-                        OfflinePlayer p = Bukkit.getOfflinePlayer(UUID.fromString(uuidStr));
-                        if (p.getName() != null) {
-                            if (!LeaderboardModule.isShowOps() && p.isOp()) continue;
-                            statsMap.put(p.getName(), (double) balance);
-                        }
-                    } catch (IllegalArgumentException ignored) {}
-
-                    if (statsMap.size() >= limit) break;
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Error fetching top tokens: " + e.getMessage());
-            }
-            return sortByValue(statsMap, limit);
-        });
+        if (tokenModule == null || tokenModule.getTokenDatabase() == null) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+        // Fetch extra rows in case of OPs we need to filter
+        return submit("tokens:" + limit, () -> resolveNames(tokenModule.getTokenDatabase().getTopTokens(limit * 2), limit));
     }
 
-    // --- CREDITS (Async SQL) ---
+    // --- CREDITS (Shared credits database) ---
     public CompletableFuture<Map<String, Double>> getTopCredits(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
-            Map<String, Double> statsMap = new HashMap<>();
-
-            if (creditsModule == null) return statsMap;
-
-            File dbFile = new File(plugin.getDataFolder(), "database/credits.db");
-            if (!dbFile.exists()) return statsMap;
-
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-
-            // Query matches your CreditsDatabase: table 'player_credits', columns 'uuid' and 'amount'
-            String query = "SELECT uuid, amount FROM player_credits ORDER BY amount DESC LIMIT ?";
-
-            try (Connection conn = DriverManager.getConnection(url);
-                 PreparedStatement ps = conn.prepareStatement(query)) {
-
-                ps.setInt(1, limit * 2);
-                ResultSet rs = ps.executeQuery();
-
-                while (rs.next()) {
-                    String uuidStr = rs.getString("uuid");
-                    double amount = rs.getDouble("amount");
-                    try {
-                        OfflinePlayer p = Bukkit.getOfflinePlayer(UUID.fromString(uuidStr));
-                        if (p.getName() != null) {
-                            if (!LeaderboardModule.isShowOps() && p.isOp()) continue;
-                            statsMap.put(p.getName(), amount);
-                        }
-                    } catch (IllegalArgumentException ignored) {}
-
-                    if (statsMap.size() >= limit) break;
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Error fetching top credits: " + e.getMessage());
-            }
-            return sortByValue(statsMap, limit);
-        });
+        if (creditsModule == null || creditsModule.getDatabase() == null) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+        return submit("credits:" + limit, () -> resolveNames(creditsModule.getDatabase().getTopCredits(limit * 2), limit));
     }
 
     // --- SKRIPT VARS (Async) ---
     public CompletableFuture<Map<String, Double>> getTopSkriptVar(String varPattern, int limit) {
-        return CompletableFuture.supplyAsync(() -> {
+        if (varPattern.equals("lifesteal_level_%uuid%")) {
+            return CompletableFuture.completedFuture(index.getTop(LeaderboardIndex.Category.LIFESTEAL, limit));
+        }
+
+        return submit("skript:" + varPattern + ":" + limit, () -> {
             Map<String, Double> statsMap = new HashMap<>();
             if (!Bukkit.getPluginManager().isPluginEnabled("Skript")) return statsMap;
 
@@ -211,14 +132,61 @@ public class StatsFetcher {
         });
     }
 
-    // --- PARKOUR (Async SQL) ---
+    // --- PARKOUR (Shared login database) ---
     public CompletableFuture<Map<String, Double>> getTopParkour(int limit) {
-        return CompletableFuture.supplyAsync(() -> {
-            if (plugin.getLoginModule() != null && plugin.getLoginModule().getLoginDatabase() != null) {
-                return plugin.getLoginModule().getLoginDatabase().getTopParkourCompletions(limit);
-            }
-            return new HashMap<>();
-        });
+        if (plugin.getLoginModule() == null || plugin.getLoginModule().getLoginDatabase() == null) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+        return submit("parkour:" + limit, () -> resolveNames(plugin.getLoginModule().getLoginDatabase().getTopParkourCompletions(limit * 2), limit));
+    }
+
+    /**
+     * Runs a leaderboard query on the leaderboard executor. Identical requests that arrive while one is
+     * still running share its result instead of queueing a second query.
+     */
+    private CompletableFuture<Map<String, Double>> submit(String key, Supplier<Map<String, Double>> query) {
+        CompletableFuture<Map<String, Double>> existing = inFlight.get(key);
+        if (existing != null) return existing;
+
+        CompletableFuture<Map<String, Double>> future = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) return existing;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(query.get());
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Error fetching leaderboard '" + key + "': " + e.getMessage());
+                    future.complete(new LinkedHashMap<>());
+                } finally {
+                    inFlight.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down: show an empty board this cycle rather than piling up work
+            inFlight.remove(key, future);
+            future.complete(new LinkedHashMap<>());
+        }
+        return future;
+    }
+
+    private <N extends Number> Map<String, Double> resolveNames(List<Map.Entry<UUID, N>> rows, int limit) {
+        Map<String, Double> statsMap = new LinkedHashMap<>();
+        boolean showOps = LeaderboardModule.isShowOps();
+        for (Map.Entry<UUID, N> row : rows) {
+            PlayerNameCache.Profile profile = nameCache.get(row.getKey());
+            if (profile == null) continue;
+            if (!showOps && profile.op()) continue;
+            statsMap.put(profile.name(), row.getValue().doubleValue());
+            if (statsMap.size() >= limit) break;
+        }
+        return statsMap;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        inFlight.clear();
     }
 
     private Map<String, Double> sortByValue(Map<String, Double> unsortedMap, int limit) {
@@ -1,99 +1,94 @@
 package me.login.level;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
 import org.bukkit.Bukkit;
 
-import java.io.File;
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.UUID;
 import java.util.logging.Level;
 
 public class LevelDatabase {
 
     private final Login plugin;
-    private final String url;
-    private Connection connection;
+    private final SQLiteDatabase database;
+    // XP changes on nearly every block break, so only the latest level/xp per player is kept and flushed in batches.
+    private final WriteBehindBuffer<UUID, LevelSnapshot> pendingSaves;
 
     public LevelDatabase(Login plugin) {
         this.plugin = plugin;
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-        this.url = "jdbc:sqlite:" + dbFolder.getAbsolutePath() + File.separator + "levels.db";
+        this.database = plugin.getDatabaseService().open("levels.db");
+        this.pendingSaves = database.writeBehind("player_levels",
+                "INSERT INTO player_levels (uuid, level, current_xp) VALUES (?, ?, ?) " +
+                        "ON CONFLICT(uuid) DO UPDATE SET level = excluded.level, current_xp = excluded.current_xp",
+                (ps, uuid, snapshot) -> {
+                    ps.setString(1, uuid.toString());
+                    ps.setInt(2, snapshot.level());
+                    ps.setInt(3, snapshot.xp());
+                });
     }
 
     public void connect() {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
-            createTable();
+        if (createTable()) {
             plugin.getLogger().info("Level Database connected.");
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to connect to Level Database!", e);
         }
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        database.close();
+    }
+
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
-    private void createTable() {
+    private boolean createTable() {
         String sql = "CREATE TABLE IF NOT EXISTS player_levels (" +
                 "uuid VARCHAR(36) PRIMARY KEY, " +
                 "level INTEGER DEFAULT 0, " +
                 "current_xp INTEGER DEFAULT 0" +
                 ");";
 
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
+        try {
+            database.update(sql);
+            return true;
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Could not create level table!", e);
+            return false;
         }
     }
 
+    /**
+     * Queues the player's level and xp; written by the next write-behind flush.
+     */
     public void savePlayerData(UUID uuid, int level, int xp) {
-        String sql = "INSERT INTO player_levels (uuid, level, current_xp) VALUES (?, ?, ?) " +
-                "ON CONFLICT(uuid) DO UPDATE SET level = ?, current_xp = ?";
+        pendingSaves.put(uuid, new LevelSnapshot(level, xp));
+    }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.setInt(2, level);
-                ps.setInt(3, xp);
-                ps.setInt(4, level);
-                ps.setInt(5, xp);
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to save level data for " + uuid, e);
-            }
-        });
+    /**
+     * Writes the player's queued data right away (on the DB executor), e.g. on quit.
+     */
+    public void flushPlayerData(UUID uuid) {
+        pendingSaves.flushAsync(uuid);
     }
 
     public void loadPlayerData(UUID uuid, java.util.function.BiConsumer<Integer, Integer> callback) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
+            // A quick rejoin can beat the quit flush; write it first so the load sees it.
+            pendingSaves.flush(uuid);
             String sql = "SELECT level, current_xp FROM player_levels WHERE uuid = ?";
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ResultSet rs = ps.executeQuery();
-
-                if (rs.next()) {
-                    int level = rs.getInt("level");
-                    int xp = rs.getInt("current_xp");
-                    Bukkit.getScheduler().runTask(plugin, () -> callback.accept(level, xp));
-                } else {
-                    Bukkit.getScheduler().runTask(plugin, () -> callback.accept(0, 0));
-                }
+            try {
+                int[] data = database.query(sql, rs -> rs.next()
+                        ? new int[]{rs.getInt("level"), rs.getInt("current_xp")}
+                        : new int[]{0, 0}, uuid.toString());
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(data[0], data[1]));
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to load level data for " + uuid, e);
                 Bukkit.getScheduler().runTask(plugin, () -> callback.accept(0, 0));
             }
         });
     }
-}
\ No newline at end of file
+
+    private record LevelSnapshot(int level, int xp) {}
+}
@@ -1,19 +1,15 @@
 package me.login.level;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 
 public class LevelLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long logChannelId;
     private final long adminLogChannelId;
 
-    public LevelLogger(Login plugin, JDA jda) {
+    public LevelLogger(Login plugin) {
         this.plugin = plugin;
-        this.jda = jda;
         this.logChannelId = plugin.getConfig().getLong("lifesteal-level-log-channel-id", 0);
         this.adminLogChannelId = plugin.getConfig().getLong("lifesteal-level-admin-log-channel-id", 0);
     }
@@ -32,10 +28,6 @@ public class LevelLogger {
     }
 
     private void sendLog(long channelId, String message) {
-        if (jda == null || channelId == 0) return;
-        MessageChannel channel = jda.getTextChannelById(channelId);
-        if (channel != null) {
-            channel.sendMessage(message).queue();
-        }
+        plugin.getLogBus().send(channelId, message);
     }
 }
\ No newline at end of file
@@ -113,14 +113,16 @@ public class LevelManager {
         });
     }
 
+    // Only queues the write; LevelDatabase batches it with everyone else's.
     public void saveData(UUID uuid) {
         if (levelCache.containsKey(uuid)) {
-            database.savePlayerData(uuid, levelCache.get(uuid), xpCache.get(uuid));
+            database.savePlayerData(uuid, levelCache.get(uuid), xpCache.getOrDefault(uuid, 0));
         }
     }
 
     public void unloadData(UUID uuid) {
         saveData(uuid);
+        database.flushPlayerData(uuid);
         levelCache.remove(uuid);
         xpCache.remove(uuid);
     }
@@ -142,10 +144,12 @@ public class LevelManager {
         if (level < 0) level = 0;
         levelCache.put(player.getUniqueId(), level);
         updateTabName(player);
+        saveData(player.getUniqueId());
     }
 
     public void setXp(Player player, int xp) {
         xpCache.put(player.getUniqueId(), xp);
+        saveData(player.getUniqueId());
     }
 
     // --- Utilities ---
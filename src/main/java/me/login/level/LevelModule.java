@@ -41,9 +41,8 @@ public class LevelModule implements Listener {
         this.database = new LevelDatabase(plugin);
         this.database.connect();
 
-        // 2. Logger (Shared JDA)
-        net.dv8tion.jda.api.JDA jda = (plugin.getLagClearLogger() != null) ? plugin.getLagClearLogger().getJDA() : null;
-        this.logger = new LevelLogger(plugin, jda);
+        // 2. Logger (Discord log bus)
+        this.logger = new LevelLogger(plugin);
 
         // 3. Manager
         this.manager = new LevelManager(plugin, database, logger, luckPerms);
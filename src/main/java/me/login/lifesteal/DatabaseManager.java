@@ -1,79 +1,55 @@
 package me.login.lifesteal;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
 import org.bukkit.Bukkit;
 
-import java.io.File;
-import java.io.IOException;
 import java.sql.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 public class DatabaseManager {
 
     private final Login plugin;
-    private Connection connection;
-    private final File dbFile;
+    private final SQLiteDatabase database;
+    // Hearts change on every kill; keep the latest count per player and write them in batches
+    private final WriteBehindBuffer<UUID, Integer> pendingHearts;
 
     private final int DEFAULT_HEARTS = 10;
 
     public DatabaseManager(Login plugin) {
         this.plugin = plugin;
-
-        // Create database subfolder
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-
-        // Set the file path to be inside the database folder
-        this.dbFile = new File(dbFolder, "lifesteal.db");
+        // plugins/Login/database/lifesteal.db
+        this.database = plugin.getDatabaseService().open("lifesteal.db");
+        this.pendingHearts = database.writeBehind("lifesteal_hearts",
+                "INSERT OR REPLACE INTO player_hearts (uuid, hearts) VALUES (?, ?);",
+                (ps, uuid, hearts) -> {
+                    ps.setString(1, uuid.toString());
+                    ps.setInt(2, hearts);
+                });
     }
 
     // --- Connection Management ---
 
-    public synchronized boolean initializeDatabase() {
+    public boolean initializeDatabase() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                return true;
-            }
-
-            if (!dbFile.exists()) {
-                dbFile.createNewFile();
-            }
-
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getPath());
-            plugin.getLogger().info("Lifesteal SQLite database connected successfully (at " + dbFile.getAbsolutePath() + ").");
-
-            return true;
-
-        } catch (SQLException | ClassNotFoundException | IOException e) {
+            // Opens the writer connection up front so a broken file fails the module load
+            database.withConnection(conn -> null);
+        } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to initialize SQLite database connection!", e);
             return false;
         }
+        plugin.getLogger().info("Lifesteal SQLite database connected successfully (at " + database.getFile().getAbsolutePath() + ").");
+        return true;
     }
 
-    public synchronized void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("SQLite database connection closed.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error closing SQLite connection!", e);
-        }
-    }
-
-    private Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            if (!initializeDatabase()) {
-                throw new SQLException("Failed to re-initialize database connection.");
-            }
-        }
-        return connection;
+    public void closeConnection() {
+        database.close();
+        plugin.getLogger().info("SQLite database connection closed.");
     }
 
     public void createTables() {
@@ -93,10 +69,15 @@ public class DatabaseManager {
                 "level INTEGER NOT NULL" +
                 ");";
 
-        try (Statement stmt = getConnection().createStatement()) {
-            stmt.execute(createHeartsTable);
-            stmt.execute(createDeadPlayersTable);
-            stmt.execute(createPrestigeTable);
+        try {
+            database.withConnection(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(createHeartsTable);
+                    stmt.execute(createDeadPlayersTable);
+                    stmt.execute(createPrestigeTable);
+                }
+                return null;
+            });
             plugin.getLogger().info("Lifesteal tables created or verified.");
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Could not create database tables!", e);
@@ -106,63 +87,43 @@ public class DatabaseManager {
     // --- Player Hearts Data (LifestealManager) ---
 
     public void getHearts(UUID uuid, java.util.function.Consumer<Integer> callback) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            String sql = "SELECT hearts FROM player_hearts WHERE uuid = ?;";
-
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                pstmt.setString(1, uuid.toString());
-                ResultSet rs = pstmt.executeQuery();
-
-                int hearts = DEFAULT_HEARTS;
-                if (rs.next()) {
-                    hearts = rs.getInt("hearts");
-                } else {
-                    setHearts(uuid, DEFAULT_HEARTS);
-                }
-
-                final int finalHeartsToCallback = hearts;
-                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(finalHeartsToCallback));
+        loadHeartsAsync(uuid).thenAccept(hearts -> Bukkit.getScheduler().runTask(plugin, () -> callback.accept(hearts)));
+    }
 
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Could not get hearts for " + uuid, e);
-                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(DEFAULT_HEARTS));
-            }
-        });
+    /**
+     * Loads a player's hearts off the main thread (completes on a database thread).
+     */
+    public CompletableFuture<Integer> loadHeartsAsync(UUID uuid) {
+        return database.supplyAsync(() -> getHeartsSync(uuid));
     }
 
+    /**
+     * Reads a player's hearts on the calling thread, seeing queued writes first. Creates the default row for new players.
+     */
     public int getHeartsSync(UUID uuid) {
-        String sql = "SELECT hearts FROM player_hearts WHERE uuid = ?;";
+        Integer pending = pendingHearts.pending(uuid);
+        if (pending != null) return pending;
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, uuid.toString());
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt("hearts");
-            } else {
-                setHeartsSync(uuid, DEFAULT_HEARTS);
-                return DEFAULT_HEARTS;
-            }
+        try {
+            Integer stored = database.query("SELECT hearts FROM player_hearts WHERE uuid = ?;",
+                    rs -> rs.next() ? rs.getInt("hearts") : null, uuid.toString());
+            if (stored != null) return stored;
+            setHearts(uuid, DEFAULT_HEARTS);
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Could not get hearts sync for " + uuid, e);
-            return DEFAULT_HEARTS;
+            plugin.getLogger().log(Level.WARNING, "Could not get hearts for " + uuid, e);
         }
+        return DEFAULT_HEARTS;
     }
 
+    /**
+     * Queues the player's heart count; written by the next write-behind flush.
+     */
     public void setHearts(UUID uuid, int hearts) {
-        setHeartsSync(uuid, hearts);
+        pendingHearts.put(uuid, hearts);
     }
 
-    private void setHeartsSync(UUID uuid, int hearts) {
-        String sql = "INSERT OR REPLACE INTO player_hearts (uuid, hearts) VALUES (?, ?);";
-
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-            pstmt.setString(1, uuid.toString());
-            pstmt.setInt(2, hearts);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Could not set hearts for " + uuid, e);
-        }
+    public void flushHearts(UUID uuid) {
+        pendingHearts.flushAsync(uuid);
     }
 
     // --- Dead Players Data (DeadPlayerManager) ---
@@ -171,18 +132,19 @@ public class DatabaseManager {
         Map<UUID, String> deadPlayers = new HashMap<>();
         String sql = "SELECT uuid, username FROM dead_players;";
 
-        try (PreparedStatement pstmt = getConnection().prepareStatement(sql);
-             ResultSet rs = pstmt.executeQuery()) {
-
-            while (rs.next()) {
-                try {
-                    UUID uuid = UUID.fromString(rs.getString("uuid"));
-                    String username = rs.getString("username");
-                    deadPlayers.put(uuid, username);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid UUID in dead_players table: " + rs.getString("uuid"));
+        try {
+            database.query(sql, rs -> {
+                while (rs.next()) {
+                    try {
+                        UUID uuid = UUID.fromString(rs.getString("uuid"));
+                        String username = rs.getString("username");
+                        deadPlayers.put(uuid, username);
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid UUID in dead_players table: " + rs.getString("uuid"));
+                    }
                 }
-            }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Could not load dead players map!", e);
         }
@@ -190,13 +152,11 @@ public class DatabaseManager {
     }
 
     public void addDeadPlayer(UUID uuid, String username) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
             String sql = "INSERT OR IGNORE INTO dead_players (uuid, username) VALUES (?, ?);";
 
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                pstmt.setString(1, uuid.toString());
-                pstmt.setString(2, username);
-                pstmt.executeUpdate();
+            try {
+                database.update(sql, uuid.toString(), username);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not add dead player " + uuid, e);
             }
@@ -204,12 +164,11 @@ public class DatabaseManager {
     }
 
     public void removeDeadPlayer(UUID uuid) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
             String sql = "DELETE FROM dead_players WHERE uuid = ?;";
 
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                pstmt.setString(1, uuid.toString());
-                pstmt.executeUpdate();
+            try {
+                database.update(sql, uuid.toString());
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not remove dead player " + uuid, e);
             }
@@ -219,18 +178,10 @@ public class DatabaseManager {
     // --- Prestige Data (Heart Prestige) ---
 
     public void getPrestigeLevel(UUID uuid, java.util.function.Consumer<Integer> callback) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
             String sql = "SELECT level FROM player_prestige WHERE uuid = ?;";
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                pstmt.setString(1, uuid.toString());
-                ResultSet rs = pstmt.executeQuery();
-
-                int level = 0;
-                if (rs.next()) {
-                    level = rs.getInt("level");
-                }
-
-                final int finalLevel = level;
+            try {
+                int finalLevel = database.query(sql, rs -> rs.next() ? rs.getInt("level") : 0, uuid.toString());
                 Bukkit.getScheduler().runTask(plugin, () -> callback.accept(finalLevel));
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not get prestige for " + uuid, e);
@@ -242,12 +193,10 @@ public class DatabaseManager {
     public void setPrestigeLevel(UUID uuid, int level) {
         // Runs mostly sync to ensure cache update consistency, but SQL can be async if needed.
         // For safety/consistency like hearts, we keep it simple or async.
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
             String sql = "INSERT OR REPLACE INTO player_prestige (uuid, level) VALUES (?, ?);";
-            try (PreparedStatement pstmt = getConnection().prepareStatement(sql)) {
-                pstmt.setString(1, uuid.toString());
-                pstmt.setInt(2, level);
-                pstmt.executeUpdate();
+            try {
+                database.update(sql, uuid.toString(), level);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not set prestige for " + uuid, e);
             }
@@ -259,12 +259,14 @@ public class LifestealCommands implements CommandExecutor, TabCompleter {
             sender.sendMessage(ItemManager.toLegacy(itemManager.formatMessage("<red>Player '" + args[0] + "' not found.")));
             return true;
         }
-        int hearts = lifestealManager.getHearts(target.getUniqueId());
-        Component message = Component.text(target.getName(), NamedTextColor.YELLOW)
-                .append(Component.text(" currently has ", NamedTextColor.GRAY))
-                .append(Component.text(hearts, NamedTextColor.RED))
-                .append(Component.text(" heart(s).", NamedTextColor.GRAY));
-        sender.sendMessage(itemManager.formatMessage(message));
+        // Offline targets are loaded off the main thread
+        lifestealManager.getHeartsAsync(target.getUniqueId()).thenAccept(hearts -> {
+            Component message = Component.text(target.getName(), NamedTextColor.YELLOW)
+                    .append(Component.text(" currently has ", NamedTextColor.GRAY))
+                    .append(Component.text(hearts, NamedTextColor.RED))
+                    .append(Component.text(" heart(s).", NamedTextColor.GRAY));
+            sender.sendMessage(itemManager.formatMessage(message));
+        });
         return true;
     }
 
@@ -7,10 +7,11 @@ import org.bukkit.Bukkit;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LifestealManager {
 
@@ -19,8 +20,9 @@ public class LifestealManager {
     private final DatabaseManager databaseManager;
     private LifestealLogger logger;
 
-    private final Map<UUID, Integer> heartCache = new HashMap<>();
-    private final Map<UUID, Integer> prestigeCache = new HashMap<>();
+    // Online players only; filled by async loads on join, so both must be concurrent
+    private final Map<UUID, Integer> heartCache = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> prestigeCache = new ConcurrentHashMap<>();
 
     private final int BASE_MAX_HEARTS = 25; // Default max hearts without prestige
     private final int MIN_HEARTS = 1;
@@ -49,7 +51,8 @@ public class LifestealManager {
         // Fetch Hearts
         databaseManager.getHearts(uuid, (hearts) -> {
             if (player.isOnline()) {
-                heartCache.put(uuid, hearts);
+                // A kill or command may already have set a newer value
+                heartCache.putIfAbsent(uuid, hearts);
                 updatePlayerHealth(player);
             }
         });
@@ -57,7 +60,7 @@ public class LifestealManager {
         // Fetch Prestige
         databaseManager.getPrestigeLevel(uuid, (level) -> {
             if (player.isOnline()) {
-                prestigeCache.put(uuid, level);
+                prestigeCache.putIfAbsent(uuid, level);
                 updatePlayerHealth(player); // Update again to adjust max health based on prestige
             }
         });
@@ -65,15 +68,15 @@ public class LifestealManager {
 
     public void savePlayerData(Player player) {
         UUID uuid = player.getUniqueId();
-        if (heartCache.containsKey(uuid)) {
-            databaseManager.setHearts(uuid, heartCache.get(uuid));
-            heartCache.remove(uuid);
-        }
-        if (prestigeCache.containsKey(uuid)) {
-            prestigeCache.remove(uuid);
+        Integer hearts = heartCache.remove(uuid);
+        if (hearts != null) {
+            databaseManager.setHearts(uuid, hearts);
+            databaseManager.flushHearts(uuid);
         }
+        prestigeCache.remove(uuid);
     }
 
+    // Queued only; the buffer is flushed when the database closes
     public void saveAllOnlinePlayerData() {
         plugin.getLogger().info("Saving all online player lifesteal data...");
         for (Map.Entry<UUID, Integer> entry : heartCache.entrySet()) {
@@ -102,8 +105,24 @@ public class LifestealManager {
     }
     // ----------------------
 
+    /**
+     * Hearts of an online player from the cache. Players that are not cached (offline targets, or a join whose
+     * load has not finished) are read on the calling thread; commands should use {@link #getHeartsAsync}.
+     */
     public int getHearts(UUID uuid) {
-        return heartCache.getOrDefault(uuid, databaseManager.getHeartsSync(uuid));
+        Integer cached = heartCache.get(uuid);
+        return cached != null ? cached : databaseManager.getHeartsSync(uuid);
+    }
+
+    /**
+     * Hearts of any player without blocking; completes on the main thread.
+     */
+    public CompletableFuture<Integer> getHeartsAsync(UUID uuid) {
+        Integer cached = heartCache.get(uuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        databaseManager.loadHeartsAsync(uuid).thenAccept(hearts -> Bukkit.getScheduler().runTask(plugin, () -> result.complete(hearts)));
+        return result;
     }
 
     /**
@@ -125,10 +144,12 @@ public class LifestealManager {
             clampedHearts = Math.max(MIN_HEARTS, Math.min(max, hearts));
         }
 
-        heartCache.put(uuid, clampedHearts);
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null && player.isOnline()) {
+            heartCache.put(uuid, clampedHearts);
+        }
         databaseManager.setHearts(uuid, clampedHearts);
 
-        Player player = Bukkit.getPlayer(uuid);
         if (player != null && player.isOnline()) {
             updatePlayerHealth(player);
         }
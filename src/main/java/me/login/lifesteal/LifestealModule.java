@@ -5,7 +5,6 @@ import me.login.lifesteal.prestige.HeartPrestigeGUI;
 import me.login.lifesteal.prestige.HeartPrestigeLogger;
 import me.login.lifesteal.prestige.HeartPrestigeManager;
 import me.login.lifesteal.prestige.HeartPrestigeNPCListener;
-import net.dv8tion.jda.api.JDA;
 import net.luckperms.api.LuckPerms;
 import org.bukkit.command.PluginCommand;
 
@@ -64,8 +63,7 @@ public class LifestealModule {
         this.lifestealListener = new LifestealListener(plugin, itemManager, lifestealManager, deadPlayerManager, reviveMenu, logger);
 
         // --- PRESTIGE INIT ---
-        JDA jda = (logger != null) ? plugin.getJda() : null; // Get JDA safely
-        this.prestigeLogger = new HeartPrestigeLogger(plugin, jda);
+        this.prestigeLogger = new HeartPrestigeLogger(plugin);
         this.prestigeManager = new HeartPrestigeManager(plugin, lifestealManager, itemManager, prestigeLogger);
         this.prestigeGUI = new HeartPrestigeGUI(plugin, prestigeManager, itemManager);
         this.prestigeNPCListener = new HeartPrestigeNPCListener(plugin, prestigeGUI);
@@ -0,0 +1,184 @@
+package me.login.loginsystem;
+
+import me.login.Login;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.Arrays;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size worker pool for password hashing/verification.
+ * <p>
+ * bcrypt is deliberately slow, so a join wave must not turn into hundreds of concurrent hashes on the
+ * shared async scheduler. Jobs are queued by priority (returning players logging in before new
+ * registrations) and rejected outright once {@code auth.queue-size} jobs are waiting.
+ */
+public class AuthExecutor {
+
+    public enum Priority {
+        LOGIN,
+        REGISTER,
+        CHANGE_PASSWORD
+    }
+
+    private static final int TIMING_SAMPLES = 512;
+
+    private final Login plugin;
+    private final ThreadPoolExecutor executor;
+    private final int queueLimit;
+    private final int bcryptCost;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Ring buffer of recent verify durations (nanoseconds) for p50/p99
+    private final long[] verifyTimes = new long[TIMING_SAMPLES];
+    private int verifyIndex;
+    private int verifyCount;
+
+    public AuthExecutor(Login plugin) {
+        this.plugin = plugin;
+        int threads = Math.max(1, plugin.getConfig().getInt("auth.worker-threads", 2));
+        this.queueLimit = Math.max(1, plugin.getConfig().getInt("auth.queue-size", 64));
+        // jBCrypt accepts 4..30; 10 is what gensalt() used before
+        this.bcryptCost = Math.min(30, Math.max(4, plugin.getConfig().getInt("auth.bcrypt-cost", 10)));
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "Login-Auth-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues an auth job. Returns false (and runs nothing) when the queue is full or shutting down.
+     */
+    public boolean submit(Priority priority, Runnable job) {
+        if (executor.isShutdown() || queued.incrementAndGet() > queueLimit) {
+            queued.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        executor.execute(new Job(priority, sequence.getAndIncrement(), () -> {
+            queued.decrementAndGet();
+            try {
+                job.run();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Auth job failed: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                completed.incrementAndGet();
+            }
+        }));
+        return true;
+    }
+
+    // --- bcrypt ---
+
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(bcryptCost));
+    }
+
+    public boolean verify(String password, String hash) {
+        long start = System.nanoTime();
+        try {
+            return BCrypt.checkpw(password, hash);
+        } catch (IllegalArgumentException e) {
+            // Malformed hash in the database
+            return false;
+        } finally {
+            recordVerify(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Whether a stored hash was made with a different cost than configured and should be replaced on login.
+     */
+    public boolean needsRehash(String hash) {
+        // Format: $2a$10$<salt+hash>
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$') return false;
+        try {
+            int costStart = hash.indexOf('$', 1) + 1;
+            return Integer.parseInt(hash.substring(costStart, costStart + 2)) != bcryptCost;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // --- Metrics ---
+
+    private synchronized void recordVerify(long nanos) {
+        verifyTimes[verifyIndex] = nanos;
+        verifyIndex = (verifyIndex + 1) % TIMING_SAMPLES;
+        if (verifyCount < TIMING_SAMPLES) verifyCount++;
+    }
+
+    /**
+     * Verify time percentile over the recent samples, in milliseconds (0 without samples).
+     */
+    public synchronized double getVerifyPercentileMillis(double percentile) {
+        if (verifyCount == 0) return 0;
+        long[] sorted = Arrays.copyOf(verifyTimes, verifyCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(verifyCount - 1, Math.ceil(percentile / 100.0 * verifyCount) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public int getQueueDepth() {
+        return Math.max(0, queued.get());
+    }
+
+    public int getQueueLimit() {
+        return queueLimit;
+    }
+
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    public int getWorkerCount() {
+        return executor.getCorePoolSize();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public int getBcryptCost() {
+        return bcryptCost;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) executor.shutdownNow();
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Job(Priority priority, long order, Runnable task) implements Runnable, Comparable<Job> {
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            int byPriority = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+}
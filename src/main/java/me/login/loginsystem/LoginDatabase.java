@@ -1,189 +1,182 @@
 package me.login.loginsystem;
 
 import me.login.Login;
-import org.bukkit.Bukkit;
+import me.login.database.SQLiteDatabase;
 import org.bukkit.Location;
-import org.bukkit.OfflinePlayer;
 
-import java.io.File;
 import java.sql.*;
+import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 public class LoginDatabase {
 
-    private final String url;
-    private Connection connection;
+    private final SQLiteDatabase database;
     private final Login plugin;
 
     public LoginDatabase(Login plugin) {
         this.plugin = plugin;
-        File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists()) dataFolder.mkdirs();
-        this.url = "jdbc:sqlite:" + dataFolder.getAbsolutePath() + File.separator + "database/login.db";
+        this.database = plugin.getDatabaseService().open("login.db");
     }
 
-    public void connect() {
+    public boolean connect() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
-            try (Statement stmt = connection.createStatement()) {
-                // --- Original Tables ---
-                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_auth (uuid VARCHAR(36) PRIMARY KEY, hashed_password VARCHAR(255) NOT NULL, registration_ip VARCHAR(45), last_login_ip VARCHAR(45), last_login_timestamp BIGINT)");
-                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_parkour_points (id INTEGER PRIMARY KEY AUTOINCREMENT, world VARCHAR(50), x INT, y INT, z INT, type VARCHAR(20), point_index INT)");
-                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_parkour_cooldowns (uuid VARCHAR(36) PRIMARY KEY, last_reward BIGINT)");
-
-                // --- NEW TABLE FOR LEADERBOARD ---
-                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_parkour_completions (uuid VARCHAR(36) PRIMARY KEY, count INTEGER DEFAULT 0)");
-            }
+            database.withConnection(connection -> {
+                try (Statement stmt = connection.createStatement()) {
+                    // --- Original Tables ---
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS player_auth (uuid VARCHAR(36) PRIMARY KEY, hashed_password VARCHAR(255) NOT NULL, registration_ip VARCHAR(45), last_login_ip VARCHAR(45), last_login_timestamp BIGINT)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_parkour_points (id INTEGER PRIMARY KEY AUTOINCREMENT, world VARCHAR(50), x INT, y INT, z INT, type VARCHAR(20), point_index INT)");
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_parkour_cooldowns (uuid VARCHAR(36) PRIMARY KEY, last_reward BIGINT)");
+
+                    // --- NEW TABLE FOR LEADERBOARD ---
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_parkour_completions (uuid VARCHAR(36) PRIMARY KEY, count INTEGER DEFAULT 0)");
+
+                    // --- Trusted sessions (quick reconnects skip /login) ---
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS login_sessions (uuid VARCHAR(36) PRIMARY KEY, ip VARCHAR(45) NOT NULL, client_brand VARCHAR(64), expires_at BIGINT NOT NULL)");
+                }
+                return null;
+            });
             plugin.getLogger().info("Connected to Login SQLite DB (login_data.db)");
+            return true;
         } catch (Exception e) {
-            plugin.getLogger().severe("Failed connect Login SQLite DB!"); e.printStackTrace(); this.connection = null;
+            plugin.getLogger().severe("Failed connect Login SQLite DB!"); e.printStackTrace();
+            return false;
         }
     }
 
-    public Connection getConnection() {
-        try { if (connection == null || connection.isClosed()) connect(); } catch (SQLException e) { e.printStackTrace(); }
-        return connection;
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
     public void disconnect() {
-        try { if (connection != null && !connection.isClosed()) { connection.close(); plugin.getLogger().info("Disconnected Login SQLite DB."); } } catch (SQLException e) { e.printStackTrace(); }
+        database.close();
+        plugin.getLogger().info("Disconnected Login SQLite DB.");
     }
 
     // --- ORIGINAL AUTH METHODS (Restored) ---
 
     public boolean isRegistered(UUID uuid) {
-        if (getConnection() == null) return false;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT 1 FROM player_auth WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString()); try (ResultSet rs = ps.executeQuery()) { return rs.next(); }
+        try {
+            return database.query("SELECT 1 FROM player_auth WHERE uuid = ?", ResultSet::next, uuid.toString());
         } catch (SQLException e) { e.printStackTrace(); return false; }
     }
 
     public void registerPlayer(UUID uuid, String hashedPassword, String ip) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            try (PreparedStatement ps = getConnection().prepareStatement("INSERT INTO player_auth (uuid, hashed_password, registration_ip) VALUES (?, ?, ?)")) {
-                ps.setString(1, uuid.toString()); ps.setString(2, hashedPassword); ps.setString(3, ip); ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update("INSERT INTO player_auth (uuid, hashed_password, registration_ip) VALUES (?, ?, ?)", uuid.toString(), hashedPassword, ip);
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
 
     public String getPasswordHash(UUID uuid) {
-        if (getConnection() == null) return null;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT hashed_password FROM player_auth WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString()); try (ResultSet rs = ps.executeQuery()) { if (rs.next()) return rs.getString("hashed_password"); }
+        try {
+            return database.query("SELECT hashed_password FROM player_auth WHERE uuid = ?",
+                    rs -> rs.next() ? rs.getString("hashed_password") : null, uuid.toString());
         } catch (SQLException e) { e.printStackTrace(); }
         return null;
     }
 
     public void updatePassword(UUID uuid, String newHashedPassword) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            try (PreparedStatement ps = getConnection().prepareStatement("UPDATE player_auth SET hashed_password = ? WHERE uuid = ?")) {
-                ps.setString(1, newHashedPassword); ps.setString(2, uuid.toString()); ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update("UPDATE player_auth SET hashed_password = ? WHERE uuid = ?", newHashedPassword, uuid.toString());
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
 
     public void updateLoginInfo(UUID uuid, String ip, long timestamp) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            try (PreparedStatement ps = getConnection().prepareStatement("UPDATE player_auth SET last_login_ip = ?, last_login_timestamp = ? WHERE uuid = ?")) {
-                ps.setString(1, ip); ps.setLong(2, timestamp); ps.setString(3, uuid.toString()); ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update("UPDATE player_auth SET last_login_ip = ?, last_login_timestamp = ? WHERE uuid = ?", ip, timestamp, uuid.toString());
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
 
     public boolean unregisterPlayer(UUID uuid) {
-        if (getConnection() == null) return false;
-        try (PreparedStatement ps = getConnection().prepareStatement("DELETE FROM player_auth WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString()); return ps.executeUpdate() > 0;
+        try {
+            return database.update("DELETE FROM player_auth WHERE uuid = ?", uuid.toString()) > 0;
         } catch (SQLException e) { e.printStackTrace(); return false; }
     }
 
     public PlayerAuthData getAuthData(UUID uuid) {
-        if (getConnection() == null) return null;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT * FROM player_auth WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString()); try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return new PlayerAuthData(rs.getString("uuid"), rs.getString("hashed_password"), rs.getString("registration_ip"), rs.getString("last_login_ip"), rs.getLong("last_login_timestamp"));
-            }
+        try {
+            return database.query("SELECT * FROM player_auth WHERE uuid = ?",
+                    rs -> rs.next() ? readAuthData(rs) : null, uuid.toString());
         } catch (SQLException e) { e.printStackTrace(); }
         return null;
     }
 
     public List<PlayerAuthData> getPlayersByIp(String ip) {
-        List<PlayerAuthData> accounts = new ArrayList<>(); if (getConnection() == null) return accounts;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT * FROM player_auth WHERE registration_ip = ? OR last_login_ip = ?")) {
-            ps.setString(1, ip); ps.setString(2, ip); try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) accounts.add(new PlayerAuthData(rs.getString("uuid"), rs.getString("hashed_password"), rs.getString("registration_ip"), rs.getString("last_login_ip"), rs.getLong("last_login_timestamp")));
-            }
+        try {
+            return database.query("SELECT * FROM player_auth WHERE registration_ip = ? OR last_login_ip = ?", rs -> {
+                List<PlayerAuthData> accounts = new ArrayList<>();
+                while (rs.next()) accounts.add(readAuthData(rs));
+                return accounts;
+            }, ip, ip);
         } catch (SQLException e) { e.printStackTrace(); }
-        return accounts;
+        return new ArrayList<>();
+    }
+
+    private PlayerAuthData readAuthData(ResultSet rs) throws SQLException {
+        return new PlayerAuthData(rs.getString("uuid"), rs.getString("hashed_password"), rs.getString("registration_ip"), rs.getString("last_login_ip"), rs.getLong("last_login_timestamp"));
     }
 
     // --- ORIGINAL PARKOUR METHODS (Restored) ---
 
     public void addParkourPoint(Location loc, String type, int index) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            try (PreparedStatement ps = getConnection().prepareStatement("INSERT INTO login_parkour_points (world, x, y, z, type, point_index) VALUES (?, ?, ?, ?, ?, ?)")) {
-                ps.setString(1, loc.getWorld().getName()); ps.setInt(2, loc.getBlockX()); ps.setInt(3, loc.getBlockY()); ps.setInt(4, loc.getBlockZ()); ps.setString(5, type); ps.setInt(6, index); ps.executeUpdate();
+        String world = loc.getWorld().getName();
+        database.runAsync(() -> {
+            try {
+                database.update("INSERT INTO login_parkour_points (world, x, y, z, type, point_index) VALUES (?, ?, ?, ?, ?, ?)",
+                        world, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), type, index);
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
 
     public void removeParkourPoint(Location loc) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            try (PreparedStatement ps = getConnection().prepareStatement("DELETE FROM login_parkour_points WHERE world = ? AND x = ? AND y = ? AND z = ?")) {
-                ps.setString(1, loc.getWorld().getName()); ps.setInt(2, loc.getBlockX()); ps.setInt(3, loc.getBlockY()); ps.setInt(4, loc.getBlockZ()); ps.executeUpdate();
+        String world = loc.getWorld().getName();
+        database.runAsync(() -> {
+            try {
+                database.update("DELETE FROM login_parkour_points WHERE world = ? AND x = ? AND y = ? AND z = ?",
+                        world, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
 
-    public ParkourPoint getParkourPoint(Location loc) {
-        if (getConnection() == null) return null;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT type, point_index FROM login_parkour_points WHERE world = ? AND x = ? AND y = ? AND z = ?")) {
-            ps.setString(1, loc.getWorld().getName()); ps.setInt(2, loc.getBlockX()); ps.setInt(3, loc.getBlockY()); ps.setInt(4, loc.getBlockZ());
-            try (ResultSet rs = ps.executeQuery()) { if (rs.next()) return new ParkourPoint(rs.getString("type"), rs.getInt("point_index")); }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return null;
-    }
-
-    public int getParkourPointCount(String type) {
-        if (getConnection() == null) return 0;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT COUNT(*) as count FROM login_parkour_points WHERE type = ?")) {
-            ps.setString(1, type); try (ResultSet rs = ps.executeQuery()) { if (rs.next()) return rs.getInt("count"); }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return 0;
+    public void updateParkourPointIndex(String world, int x, int y, int z, int index) {
+        database.runAsync(() -> {
+            try {
+                database.update("UPDATE login_parkour_points SET point_index = ? WHERE world = ? AND x = ? AND y = ? AND z = ?", index, world, x, y, z);
+            } catch (SQLException e) { e.printStackTrace(); }
+        });
     }
 
     public List<ParkourPointData> getAllParkourPoints() {
-        List<ParkourPointData> points = new ArrayList<>();
-        if (getConnection() == null) return points;
-        try (Statement stmt = getConnection().createStatement(); ResultSet rs = stmt.executeQuery("SELECT * FROM login_parkour_points")) {
-            while (rs.next()) points.add(new ParkourPointData(rs.getString("world"), rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), rs.getString("type"), rs.getInt("point_index")));
+        try {
+            return database.query("SELECT * FROM login_parkour_points", rs -> {
+                List<ParkourPointData> points = new ArrayList<>();
+                while (rs.next()) points.add(new ParkourPointData(rs.getString("world"), rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), rs.getString("type"), rs.getInt("point_index")));
+                return points;
+            });
         } catch (SQLException e) { e.printStackTrace(); }
-        return points;
+        return new ArrayList<>();
     }
 
     public long getLastParkourReward(UUID uuid) {
-        if (getConnection() == null) return 0;
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT last_reward FROM login_parkour_cooldowns WHERE uuid = ?")) {
-            ps.setString(1, uuid.toString()); try (ResultSet rs = ps.executeQuery()) { if (rs.next()) return rs.getLong("last_reward"); }
+        try {
+            return database.query("SELECT last_reward FROM login_parkour_cooldowns WHERE uuid = ?",
+                    rs -> rs.next() ? rs.getLong("last_reward") : 0L, uuid.toString());
         } catch (SQLException e) { e.printStackTrace(); }
         return 0;
     }
 
     public void setLastParkourReward(UUID uuid, long time) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            try (PreparedStatement ps = getConnection().prepareStatement("REPLACE INTO login_parkour_cooldowns (uuid, last_reward) VALUES (?, ?)")) {
-                ps.setString(1, uuid.toString()); ps.setLong(2, time); ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update("REPLACE INTO login_parkour_cooldowns (uuid, last_reward) VALUES (?, ?)", uuid.toString(), time);
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
@@ -191,40 +184,76 @@ public class LoginDatabase {
     // --- NEW PARKOUR LEADERBOARD METHODS ---
 
     public void incrementParkourCompletions(UUID uuid) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            if (getConnection() == null) return;
-            // SQLite upsert to increment count
-            String sql = "INSERT INTO login_parkour_completions (uuid, count) VALUES (?, 1) ON CONFLICT(uuid) DO UPDATE SET count = count + 1";
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                // SQLite upsert to increment count
+                database.update("INSERT INTO login_parkour_completions (uuid, count) VALUES (?, 1) ON CONFLICT(uuid) DO UPDATE SET count = count + 1", uuid.toString());
             } catch (SQLException e) { e.printStackTrace(); }
         });
     }
 
-    public Map<String, Double> getTopParkourCompletions(int limit) {
-        Map<String, Double> results = new LinkedHashMap<>();
-        if (getConnection() == null) return results;
-
-        try (PreparedStatement ps = getConnection().prepareStatement("SELECT uuid, count FROM login_parkour_completions ORDER BY count DESC LIMIT ?")) {
-            ps.setInt(1, limit);
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String uuidStr = rs.getString("uuid");
-                double count = rs.getInt("count");
-                try {
-                    OfflinePlayer p = Bukkit.getOfflinePlayer(UUID.fromString(uuidStr));
-                    if (p.getName() != null) {
-                        results.put(p.getName(), count);
-                    }
-                } catch (Exception ignored) {}
-            }
-        } catch (SQLException e) { e.printStackTrace(); }
-        return results;
+    /**
+     * Most parkour completions first as uuid -> count, read from the read-only pool.
+     */
+    public List<Map.Entry<UUID, Integer>> getTopParkourCompletions(int limit) {
+        String sql = "SELECT uuid, count FROM login_parkour_completions ORDER BY count DESC LIMIT ?";
+        try {
+            return database.query(sql, rs -> {
+                List<Map.Entry<UUID, Integer>> results = new ArrayList<>();
+                while (rs.next()) {
+                    try {
+                        results.add(new AbstractMap.SimpleImmutableEntry<>(UUID.fromString(rs.getString("uuid")), rs.getInt("count")));
+                    } catch (IllegalArgumentException ignored) {}
+                }
+                return results;
+            }, limit);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    // --- SESSION METHODS ---
+
+    public void saveSession(UUID uuid, String ip, String clientBrand, long expiresAt) {
+        database.runAsync(() -> {
+            try {
+                database.update("REPLACE INTO login_sessions (uuid, ip, client_brand, expires_at) VALUES (?, ?, ?, ?)", uuid.toString(), ip, clientBrand, expiresAt);
+            } catch (SQLException e) { e.printStackTrace(); }
+        });
+    }
+
+    public void deleteSession(UUID uuid) {
+        database.runAsync(() -> {
+            try {
+                database.update("DELETE FROM login_sessions WHERE uuid = ?", uuid.toString());
+            } catch (SQLException e) { e.printStackTrace(); }
+        });
+    }
+
+    /**
+     * Deletes expired sessions and returns the rest. Called once on startup.
+     */
+    public List<SessionData> loadSessions(long now) {
+        try {
+            database.update("DELETE FROM login_sessions WHERE expires_at <= ?", now);
+            return database.query("SELECT uuid, ip, client_brand, expires_at FROM login_sessions", rs -> {
+                List<SessionData> sessions = new ArrayList<>();
+                while (rs.next()) {
+                    try {
+                        sessions.add(new SessionData(UUID.fromString(rs.getString("uuid")), rs.getString("ip"), rs.getString("client_brand"), rs.getLong("expires_at")));
+                    } catch (IllegalArgumentException ignored) {}
+                }
+                return sessions;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
     }
 
     // Records
     public record PlayerAuthData(String uuid, String hashedPassword, String registrationIp, String lastLoginIp, long lastLoginTimestamp) {}
-    public record ParkourPoint(String type, int index) {}
     public record ParkourPointData(String world, int x, int y, int z, String type, int index) {}
+    public record SessionData(UUID uuid, String ip, String clientBrand, long expiresAt) {}
 }
\ No newline at end of file
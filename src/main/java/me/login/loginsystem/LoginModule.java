@@ -3,7 +3,6 @@ package me.login.loginsystem;
 import me.login.Login;
 import me.login.discord.linking.DiscordLinkDatabase;
 import me.login.discord.linking.DiscordLinkingModule;
-import net.dv8tion.jda.api.JDA;
 
 public class LoginModule {
 
@@ -12,26 +11,30 @@ public class LoginModule {
     private LoginSystem loginSystem;
     private LoginSystemLogger loginSystemLogger;
     private ParkourManager parkourManager;
+    private AuthExecutor authExecutor;
+    private SessionManager sessionManager;
 
     public LoginModule(Login plugin) {
         this.plugin = plugin;
     }
 
-    public boolean init(DiscordLinkingModule discordLinkingModule, JDA jda) {
+    public boolean init(DiscordLinkingModule discordLinkingModule) {
         try {
             this.loginDatabase = new LoginDatabase(plugin);
-            this.loginDatabase.connect();
-            if (this.loginDatabase.getConnection() == null) {
+            if (!this.loginDatabase.connect()) {
                 plugin.getLogger().severe("Failed to connect to Login Database!");
                 return false;
             }
 
-            // Pass JDA directly to our specific logger
-            this.loginSystemLogger = new LoginSystemLogger(plugin, jda);
+            this.loginSystemLogger = new LoginSystemLogger(plugin);
 
             DiscordLinkDatabase discordLinkDatabase = (discordLinkingModule != null) ? discordLinkingModule.getDiscordLinkDatabase() : null;
-            this.loginSystem = new LoginSystem(plugin, loginDatabase, discordLinkDatabase, loginSystemLogger);
+            this.authExecutor = new AuthExecutor(plugin);
+            this.sessionManager = new SessionManager(plugin, loginDatabase);
+            this.sessionManager.load();
+            this.loginSystem = new LoginSystem(plugin, loginDatabase, discordLinkDatabase, loginSystemLogger, authExecutor, sessionManager);
             plugin.getServer().getPluginManager().registerEvents(loginSystem, plugin);
+            loginSystem.startMaintenanceTask();
 
             // Initialize Parkour Manager with Logger
             this.parkourManager = new ParkourManager(plugin, loginDatabase, loginSystemLogger);
@@ -61,6 +64,7 @@ public class LoginModule {
         setCommandExecutor("loginhistory", adminCmd);
         setCommandExecutor("checkalt", adminCmd);
         setCommandExecutor("adminchangepass", adminCmd);
+        setCommandExecutor("authstats", adminCmd);
     }
 
     private void setCommandExecutor(String commandName, org.bukkit.command.CommandExecutor executor) {
@@ -73,6 +77,9 @@ public class LoginModule {
     }
 
     public void shutdown() {
+        if (authExecutor != null) {
+            authExecutor.shutdown();
+        }
         if (loginDatabase != null) {
             loginDatabase.disconnect();
         }
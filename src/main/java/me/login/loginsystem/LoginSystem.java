@@ -24,7 +24,6 @@ import org.bukkit.inventory.meta.BookMeta;
 import org.bukkit.Material;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.time.Duration;
 import java.util.*;
@@ -39,6 +38,14 @@ public class LoginSystem implements Listener {
     private final LoginDatabase loginDb;
     private final DiscordLinkDatabase discordLinkDb;
     private final LoginSystemLogger logger;
+    private final AuthExecutor authExecutor;
+    private final SessionManager sessionManager;
+    // Online players whose trust was revoked (admin unregister/password reset): no session on quit
+    private final Set<UUID> sessionRevoked = ConcurrentHashMap.newKeySet();
+    // Resumed sessions waiting for the client brand to arrive before the player is trusted
+    private final Map<UUID, BukkitTask> brandChecks = new HashMap<>();
+    private static final long BRAND_CHECK_INTERVAL_TICKS = 5L;
+    private static final int BRAND_CHECK_ATTEMPTS = 20; // ~5 seconds
 
     public final Set<UUID> unloggedInPlayers = new HashSet<>();
     private final Map<UUID, Boolean> needsRegistration = new HashMap<>();
@@ -66,19 +73,31 @@ public class LoginSystem implements Listener {
             "/unregister", "/loginhistory", "/checkalt", "/adminchangepass"
     ));
 
-    private final Map<UUID, Integer> loginAttempts = new HashMap<>();
-    private final Map<UUID, Long> loginLockouts = new HashMap<>();
+    // Read from AsyncPlayerPreLoginEvent, so these must be concurrent
+    private final Map<UUID, Integer> loginAttempts = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> loginLockouts = new ConcurrentHashMap<>();
     private final int MAX_LOGIN_ATTEMPTS = 3;
     private final long LOCKOUT_DURATION_MINUTES = 1;
     private final long LOGIN_TIMEOUT_SECONDS = 300; // 5 Minutes
 
+    // --- Per-IP rate limiting ---
+    private final Map<String, Deque<Long>> ipAuthRequests = new ConcurrentHashMap<>();
+    private final Map<String, Integer> ipFailures = new ConcurrentHashMap<>();
+    private final Map<String, Long> ipLockouts = new ConcurrentHashMap<>();
+    private final int ipRequestsPerMinute;
+    private final int ipMaxFailures;
+
     final Pattern passPattern = Pattern.compile("^[a-zA-Z0-9@#_.%&*]{4,20}$");
 
-    public LoginSystem(Login plugin, LoginDatabase loginDb, DiscordLinkDatabase discordLinkDb, LoginSystemLogger logger) {
+    public LoginSystem(Login plugin, LoginDatabase loginDb, DiscordLinkDatabase discordLinkDb, LoginSystemLogger logger, AuthExecutor authExecutor, SessionManager sessionManager) {
         this.plugin = plugin;
         this.loginDb = loginDb;
         this.discordLinkDb = discordLinkDb;
         this.logger = logger;
+        this.authExecutor = authExecutor;
+        this.sessionManager = sessionManager;
+        this.ipRequestsPerMinute = Math.max(1, plugin.getConfig().getInt("auth.ip-requests-per-minute", 10));
+        this.ipMaxFailures = Math.max(1, plugin.getConfig().getInt("auth.ip-max-failures", 6));
 
         String prefixString = plugin.getConfig().getString("server_prefix", "<b><gradient:#47F0DE:#42ACF1:#0986EF>ᴍɪɴᴇᴀᴜʀᴏʀᴀ</gradient></b><white>:");
         this.serverPrefixComponent = mm.deserialize(prefixString + " ");
@@ -118,23 +137,146 @@ public class LoginSystem implements Listener {
     public void sendPrefixedMessage(Player player, String message) { player.sendMessage(serverPrefixComponent.append(mm.deserialize(message))); }
     public boolean isUnloggedIn(UUID uuid) { return unloggedInPlayers.contains(uuid); }
     public void sendLog(String message) { logger.logLogin(message); } // Use specific login log
+    public AuthExecutor getAuthExecutor() { return authExecutor; }
+    public SessionManager getSessionManager() { return sessionManager; }
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
         UUID uuid = event.getUniqueId();
-        long lockoutExpiry = loginLockouts.getOrDefault(uuid, 0L);
+        long lockoutExpiry = Math.max(loginLockouts.getOrDefault(uuid, 0L), ipLockouts.getOrDefault(event.getAddress().getHostAddress(), 0L));
         if (System.currentTimeMillis() < lockoutExpiry) {
             long rem = TimeUnit.MILLISECONDS.toSeconds(lockoutExpiry - System.currentTimeMillis());
             event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, mm.deserialize("<red>Max login attempts.\n<gray>Try again in " + rem + "s.\n\n<aqua>Alpha Mc</aqua>"));
         }
     }
 
+    // --- Rate limiting & lockouts ---
+
+    /**
+     * Sliding one-minute window of /login and /register requests per IP.
+     */
+    private boolean allowAuthRequest(String ip) {
+        long now = System.currentTimeMillis();
+        if (now < ipLockouts.getOrDefault(ip, 0L)) return false;
+
+        Deque<Long> requests = ipAuthRequests.computeIfAbsent(ip, k -> new ArrayDeque<>());
+        synchronized (requests) {
+            while (!requests.isEmpty() && now - requests.peekFirst() > 60_000L) requests.pollFirst();
+            if (requests.size() >= ipRequestsPerMinute) return false;
+            requests.addLast(now);
+            return true;
+        }
+    }
+
+    /**
+     * Counts a wrong password against the player and their IP; locks out and kicks at the limit.
+     */
+    private void registerFailedLogin(Player player, String ip) {
+        UUID uuid = player.getUniqueId();
+        int attempts = loginAttempts.merge(uuid, 1, Integer::sum);
+        int failuresFromIp = ipFailures.merge(ip, 1, Integer::sum);
+        long lockoutUntil = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(LOCKOUT_DURATION_MINUTES);
+
+        if (failuresFromIp >= ipMaxFailures) {
+            ipLockouts.put(ip, lockoutUntil);
+            ipFailures.remove(ip);
+        }
+        if (attempts >= MAX_LOGIN_ATTEMPTS || failuresFromIp >= ipMaxFailures) {
+            loginLockouts.put(uuid, lockoutUntil);
+            loginAttempts.remove(uuid);
+            sendLog("Lockout: " + player.getName() + " (IP: " + ip + ") after failed logins");
+            player.kick(mm.deserialize("<red>Max login attempts.\n<gray>Try again in " + TimeUnit.MINUTES.toSeconds(LOCKOUT_DURATION_MINUTES) + "s.\n\n<aqua>Alpha Mc</aqua>"));
+            return;
+        }
+        sendPrefixedMessage(player, "<red>Incorrect password.</red> <white>You have <yellow>" + (MAX_LOGIN_ATTEMPTS - attempts) + "</yellow> attempts left.</white>");
+    }
+
+    private void rejectBusy(Player player) {
+        // Queue saturated (join storm / bot wave): fail fast instead of piling up bcrypt work
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (player.isOnline()) {
+                player.kick(titlePrefixComponent.append(mm.deserialize("\n\n<red>The server is busy authenticating players.\n<gray>Please rejoin in a moment.</red>")));
+            }
+        });
+    }
+
+    /**
+     * Drops expired lockouts and idle rate-limit windows; runs once a minute.
+     */
+    public void startMaintenanceTask() {
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            long now = System.currentTimeMillis();
+            loginLockouts.values().removeIf(expiry -> expiry <= now);
+            ipLockouts.values().removeIf(expiry -> expiry <= now);
+            ipAuthRequests.entrySet().removeIf(entry -> {
+                synchronized (entry.getValue()) {
+                    Long last = entry.getValue().peekLast();
+                    return last == null || now - last > 60_000L;
+                }
+            });
+            // Failure counts only matter within the lockout window
+            ipFailures.clear();
+            sessionManager.purgeExpired();
+        }, 1200L, 1200L);
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player p = event.getPlayer();
+
+        // Quick reconnect from the same IP/client: skip /login once the client brand is confirmed
+        String ip = p.getAddress() != null ? p.getAddress().getAddress().getHostAddress() : null;
+        String expectedBrand = ip != null ? sessionManager.resume(p.getUniqueId(), ip) : null;
+        if (expectedBrand != null) {
+            verifySessionBrand(p, ip, expectedBrand);
+            return;
+        }
+
+        requireLogin(p);
+    }
+
+    /**
+     * Holds a resumed player as unlogged until their client brand arrives. A matching brand completes the resume;
+     * a different or missing brand sends them through /login like any other join.
+     */
+    private void verifySessionBrand(Player p, String ip, String expectedBrand) {
         UUID uuid = p.getUniqueId();
         unloggedInPlayers.add(uuid);
 
+        BukkitTask task = new BukkitRunnable() {
+            private int attempts = 0;
+
+            @Override
+            public void run() {
+                if (!p.isOnline()) {
+                    cancel();
+                    brandChecks.remove(uuid);
+                    return;
+                }
+                String brand = p.getClientBrandName();
+                if (brand == null && ++attempts < BRAND_CHECK_ATTEMPTS) return;
+
+                cancel();
+                brandChecks.remove(uuid);
+                if (SessionManager.brandMatches(expectedBrand, brand)) {
+                    unloggedInPlayers.remove(uuid);
+                    loginDb.updateLoginInfo(uuid, ip, System.currentTimeMillis());
+                    sendPrefixedMessage(p, "<green>Welcome back! Your session was resumed.</green>");
+                    sendLog("Session resume: " + p.getName() + " (IP: " + ip + ")");
+                } else {
+                    sendLog("Session rejected (client mismatch): " + p.getName() + " (IP: " + ip + ", expected " + expectedBrand + ", got " + brand + ")");
+                    requireLogin(p);
+                }
+            }
+        }.runTaskTimer(plugin, 0L, BRAND_CHECK_INTERVAL_TICKS);
+        brandChecks.put(uuid, task);
+    }
+
+    private void requireLogin(Player p) {
+        UUID uuid = p.getUniqueId();
+
+        unloggedInPlayers.add(uuid);
+
         if (loginLocation != null) {
             p.teleport(loginLocation);
         }
@@ -143,8 +285,7 @@ public class LoginSystem implements Listener {
             if (p.isOnline() && unloggedInPlayers.contains(uuid)) applyLoginRestrictions(p);
         }, 1L);
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            boolean isReg = loginDb.isRegistered(uuid);
+        loginDb.getDatabase().supplyAsync(() -> loginDb.isRegistered(uuid)).thenAccept(isReg -> {
             plugin.getServer().getScheduler().runTask(plugin, () -> {
                 if (!p.isOnline() || !unloggedInPlayers.contains(uuid)) return;
                 needsRegistration.put(uuid, !isReg);
@@ -172,12 +313,18 @@ public class LoginSystem implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         UUID uuid = event.getPlayer().getUniqueId();
+        BukkitTask brandCheck = brandChecks.remove(uuid);
+        if (brandCheck != null) brandCheck.cancel();
         if (unloggedInPlayers.remove(uuid)) {
             needsRegistration.remove(uuid);
             loginAttempts.remove(uuid);
             cancelKickTimer(uuid);
             stopBossbarTask(uuid);
             loginTimeLeft.remove(uuid);
+        } else if (!sessionRevoked.remove(uuid)) {
+            Player quitting = event.getPlayer();
+            String ip = quitting.getAddress() != null ? quitting.getAddress().getAddress().getHostAddress() : null;
+            sessionManager.create(uuid, ip, quitting.getClientBrandName());
         }
         Player p = event.getPlayer();
         for (Player otherPlayer : Bukkit.getOnlinePlayers()) {
@@ -348,7 +495,11 @@ public class LoginSystem implements Listener {
     }
 
     public void handleRegister(Player player, String pass1, String pass2, String ip) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        if (!allowAuthRequest(ip)) {
+            sendPrefixedMessage(player, "<red>Too many attempts. Please wait a minute.</red>");
+            return;
+        }
+        boolean accepted = authExecutor.submit(AuthExecutor.Priority.REGISTER, () -> {
             UUID uuid = player.getUniqueId();
             if (!isUnloggedIn(uuid)) return;
             if (loginDb.isRegistered(uuid)) {
@@ -363,7 +514,7 @@ public class LoginSystem implements Listener {
                 sendPrefixedMessage(player, "<red>Invalid password format!</red>");
                 return;
             }
-            String hashed = BCrypt.hashpw(pass1, BCrypt.gensalt());
+            String hashed = authExecutor.hash(pass1);
             loginDb.registerPlayer(uuid, hashed, ip);
             plugin.getServer().getScheduler().runTask(plugin, () -> {
                 unloggedInPlayers.remove(uuid);
@@ -380,10 +531,15 @@ public class LoginSystem implements Listener {
                 }
             });
         });
+        if (!accepted) rejectBusy(player);
     }
 
     public void handleLogin(Player player, String password, String ip) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        if (!allowAuthRequest(ip)) {
+            sendPrefixedMessage(player, "<red>Too many attempts. Please wait a minute.</red>");
+            return;
+        }
+        boolean accepted = authExecutor.submit(AuthExecutor.Priority.LOGIN, () -> {
             UUID uuid = player.getUniqueId();
             if (!isUnloggedIn(uuid)) return;
             String hash = loginDb.getPasswordHash(uuid);
@@ -391,13 +547,18 @@ public class LoginSystem implements Listener {
                 sendPrefixedMessage(player, "<red>You are not registered yet! use /register</red>");
                 return;
             }
-            if (BCrypt.checkpw(password, hash)) {
+            if (authExecutor.verify(password, hash)) {
                 long ts = System.currentTimeMillis();
                 loginDb.updateLoginInfo(uuid, ip, ts);
+                // Bcrypt cost changed in config: upgrade the stored hash while we have the plain password
+                if (authExecutor.needsRehash(hash)) {
+                    loginDb.updatePassword(uuid, authExecutor.hash(password));
+                }
                 plugin.getServer().getScheduler().runTask(plugin, () -> {
                     unloggedInPlayers.remove(uuid);
                     removeLoginRestrictions(player);
                     needsRegistration.remove(uuid);
+                    loginAttempts.remove(uuid);
                     cancelKickTimer(uuid);
                     stopBossbarTask(uuid);
                     loginTimeLeft.remove(uuid);
@@ -409,10 +570,12 @@ public class LoginSystem implements Listener {
                     }
                 });
             } else {
-                sendPrefixedMessage(player, "<red>Incorrect password.</red>");
-                // Optional: Log failed attempt?
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    if (player.isOnline()) registerFailedLogin(player, ip);
+                });
             }
         });
+        if (!accepted) rejectBusy(player);
     }
 
     private void giveWelcomeBook(Player player) {
@@ -432,8 +595,16 @@ public class LoginSystem implements Listener {
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> player.getInventory().remove(Material.WRITTEN_BOOK), 2L);
     }
 
+    /**
+     * Drops the player's trusted session and, if online, keeps one from being created when they leave.
+     */
+    public void revokeSession(UUID uuid) {
+        sessionManager.invalidate(uuid);
+        if (Bukkit.getPlayer(uuid) != null) sessionRevoked.add(uuid);
+    }
+
     public void handleChangePassword(Player player, String oldPass, String newPass) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        boolean accepted = authExecutor.submit(AuthExecutor.Priority.CHANGE_PASSWORD, () -> {
             UUID uuid = player.getUniqueId();
             if (isUnloggedIn(uuid)) {
                 sendPrefixedMessage(player, "<red>Must be logged in.</red>");
@@ -444,14 +615,17 @@ public class LoginSystem implements Listener {
                 sendPrefixedMessage(player, "<red>You are not registered.</red>");
                 return;
             }
-            if (!BCrypt.checkpw(oldPass, hash)) {
+            if (!authExecutor.verify(oldPass, hash)) {
                 sendPrefixedMessage(player, "<red>Old password is incorrect.</red>");
                 return;
             }
-            String newHashed = BCrypt.hashpw(newPass, BCrypt.gensalt());
+            String newHashed = authExecutor.hash(newPass);
             loginDb.updatePassword(uuid, newHashed);
             sendPrefixedMessage(player, "<green><bold>Password Changed successfully!</bold></green>");
             logger.logAdmin("Password change: " + player.getName()); // Log to admin channel
         });
+        if (!accepted) {
+            sendPrefixedMessage(player, "<red>The server is busy. Please try again in a moment.</red>");
+        }
     }
 }
\ No newline at end of file
@@ -13,7 +13,6 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.awt.Color;
 import java.security.SecureRandom;
@@ -61,6 +60,8 @@ public class LoginSystemAdminCmd implements CommandExecutor {
                 return handleCheckAlt(sender, args);
             case "adminchangepass":
                 return handleAdminChangePass(sender, args);
+            case "authstats":
+                return handleAuthStats(sender);
             default:
                 return false;
         }
@@ -77,6 +78,7 @@ public class LoginSystemAdminCmd implements CommandExecutor {
         }
         runAdminTask(sender, args[0], (targetUUID, targetName) -> {
             if (loginDb.unregisterPlayer(targetUUID)) {
+                loginSystem.revokeSession(targetUUID);
                 sender.sendMessage(serverPrefix.append(mm.deserialize("<green>Unregistered " + targetName + "</green>")));
                 logger.logAdmin("Admin: " + sender.getName() + " unregistered " + targetName);
                 Player targetPlayer = Bukkit.getPlayer(targetUUID);
@@ -181,9 +183,10 @@ public class LoginSystemAdminCmd implements CommandExecutor {
             }
 
             String newPassword = generateRandomPassword();
-            String newHashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt());
+            String newHashedPassword = loginSystem.getAuthExecutor().hash(newPassword);
 
             loginDb.updatePassword(targetUUID, newHashedPassword);
+            loginSystem.revokeSession(targetUUID);
 
             Long discordId = discordLinkDb.getLinkedDiscordId(targetUUID);
             if (discordId != null && plugin.getDiscordLinking() != null && plugin.getDiscordLinking().getJDA() != null) {
@@ -237,6 +240,21 @@ public class LoginSystemAdminCmd implements CommandExecutor {
         return true;
     }
 
+    private boolean handleAuthStats(CommandSender sender) {
+        if (!sender.hasPermission("logincore.admin")) {
+            sender.sendMessage(serverPrefix.append(Component.text("No permission!", NamedTextColor.RED)));
+            return true;
+        }
+        AuthExecutor auth = loginSystem.getAuthExecutor();
+        sender.sendMessage(serverPrefix.append(mm.deserialize("<gold>Auth pipeline</gold> <gray>(bcrypt cost " + auth.getBcryptCost() + ")</gray>")));
+        sender.sendMessage(mm.deserialize("<gray>Queue: <white>" + auth.getQueueDepth() + "/" + auth.getQueueLimit()
+                + "</white>  Workers busy: <white>" + auth.getActiveWorkers() + "/" + auth.getWorkerCount() + "</white></gray>"));
+        sender.sendMessage(mm.deserialize("<gray>Completed: <white>" + auth.getCompletedCount() + "</white>  Rejected: <white>" + auth.getRejectedCount() + "</white></gray>"));
+        sender.sendMessage(mm.deserialize(String.format("<gray>Verify time: <white>p50 %.1fms</white>  <white>p99 %.1fms</white></gray>",
+                auth.getVerifyPercentileMillis(50), auth.getVerifyPercentileMillis(99))));
+        return true;
+    }
+
     private String generateRandomPassword() {
         StringBuilder sb = new StringBuilder(NEW_PASSWORD_LENGTH);
         for (int i = 0; i < NEW_PASSWORD_LENGTH; i++) sb.append(PASSWORD_CHARS.charAt(RANDOM.nextInt(PASSWORD_CHARS.length())));
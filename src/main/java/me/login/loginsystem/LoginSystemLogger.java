@@ -1,20 +1,16 @@
 package me.login.loginsystem;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 
 public class LoginSystemLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long loginChannelId;
     private final long adminLoginChannelId;
     private final long parkourChannelId;
 
-    public LoginSystemLogger(Login plugin, JDA jda) {
+    public LoginSystemLogger(Login plugin) {
         this.plugin = plugin;
-        this.jda = jda;
 
         this.loginChannelId = plugin.getConfig().getLong("login-log-channel-id", 0L);
         this.adminLoginChannelId = plugin.getConfig().getLong("admin-login-log-channel-id", 0L);
@@ -37,19 +33,6 @@ public class LoginSystemLogger {
         // Always log to console as fallback
         plugin.getLogger().info(message);
 
-        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED) {
-            return;
-        }
-
-        if (channelId == 0) {
-            return;
-        }
-
-        TextChannel channel = jda.getTextChannelById(channelId);
-        if (channel != null) {
-            channel.sendMessage(message).queue();
-        } else {
-            plugin.getLogger().warning("Could not find Discord channel with ID: " + channelId);
-        }
+        plugin.getLogBus().send(channelId, message);
     }
 }
\ No newline at end of file
@@ -35,14 +35,57 @@ public class ParkourManager implements Listener {
 
     private final Map<UUID, Integer> activeSessions = new ConcurrentHashMap<>();
 
+    // (world, packed block position) -> parkour point; the database is only written, never read per touch
+    private final Map<PointKey, ParkourPoint> points = new HashMap<>();
+    private int checkpointCount;
+
     public ParkourManager(Login plugin, LoginDatabase database, LoginSystemLogger logger) {
         this.plugin = plugin;
         this.database = database;
         this.logger = logger; // Inject Logger
+        loadPoints();
         Bukkit.getPluginManager().registerEvents(this, plugin);
         startIntegrityTask();
     }
 
+    // --- Point Index ---
+
+    private void loadPoints() {
+        for (LoginDatabase.ParkourPointData data : database.getAllParkourPoints()) {
+            indexPoint(new ParkourPoint(data.world(), data.x(), data.y(), data.z(), data.type(), data.index()));
+        }
+        plugin.getLogger().info("Loaded " + points.size() + " login parkour points.");
+    }
+
+    private void indexPoint(ParkourPoint point) {
+        ParkourPoint previous = points.put(PointKey.of(point.world, point.x, point.y, point.z), point);
+        if (previous != null && previous.type.equals("CHECKPOINT")) checkpointCount--;
+        if (point.type.equals("CHECKPOINT")) checkpointCount++;
+    }
+
+    private ParkourPoint getPoint(Block block) {
+        return points.get(PointKey.of(block.getWorld().getName(), block.getX(), block.getY(), block.getZ()));
+    }
+
+    private ParkourPoint unindexPoint(Block block) {
+        ParkourPoint point = getPoint(block);
+        if (point == null) return null;
+        points.remove(PointKey.of(point.world, point.x, point.y, point.z));
+        if (point.type.equals("CHECKPOINT")) checkpointCount--;
+        return point;
+    }
+
+    private record PointKey(String world, long position) {
+        static PointKey of(String world, int x, int y, int z) {
+            return new PointKey(world, pack(x, y, z));
+        }
+    }
+
+    // Same layout as Minecraft's BlockPos.asLong: 26 bits x, 26 bits z, 12 bits y
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
     // ... (Rest of the class logic remains the same, only logToDiscord changes) ...
 
     @EventHandler
@@ -53,7 +96,7 @@ public class ParkourManager implements Listener {
         if (event.getAction() == Action.PHYSICAL && event.getClickedBlock() != null) {
             Block b = event.getClickedBlock();
             if (b.getType() == Material.HEAVY_WEIGHTED_PRESSURE_PLATE || b.getType() == Material.LIGHT_WEIGHTED_PRESSURE_PLATE) {
-                LoginDatabase.ParkourPoint point = database.getParkourPoint(b.getLocation());
+                ParkourPoint point = getPoint(b);
                 if (point != null) {
                     handlePointTouch(player, point);
                 }
@@ -69,41 +112,41 @@ public class ParkourManager implements Listener {
         }
     }
 
-    private void handlePointTouch(Player player, LoginDatabase.ParkourPoint point) {
+    private void handlePointTouch(Player player, ParkourPoint point) {
         UUID uuid = player.getUniqueId();
 
-        if (point.type().equals("START")) {
+        if (point.type.equals("START")) {
             if (activeSessions.containsKey(uuid)) {
                 player.sendMessage(mm.deserialize("<red>You have already started parkour! Use the <bold>Red Concrete</bold> to cancel first if you want to restart.</red>"));
                 return;
             }
             startParkour(player);
 
-        } else if (point.type().equals("CHECKPOINT")) {
+        } else if (point.type.equals("CHECKPOINT")) {
             if (!activeSessions.containsKey(uuid)) {
                 player.sendMessage(mm.deserialize("<red>You must start the parkour first at the Start Point!</red>"));
                 return;
             }
 
             int current = activeSessions.get(uuid);
-            if (point.index() == current + 1) {
-                activeSessions.put(uuid, point.index());
-                player.sendMessage(mm.deserialize("<yellow>Checkpoint <gold>#" + point.index() + "</gold> reached!</yellow>"));
+            if (point.index == current + 1) {
+                activeSessions.put(uuid, point.index);
+                player.sendMessage(mm.deserialize("<yellow>Checkpoint <gold>#" + point.index + "</gold> reached!</yellow>"));
                 player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1f, 1f);
-            } else if (point.index() <= current) {
+            } else if (point.index <= current) {
                 // Silent
             } else {
                 player.sendMessage(mm.deserialize("<red>You skipped a checkpoint! Go back to <gold>#" + (current + 1) + "</gold>.</red>"));
             }
 
-        } else if (point.type().equals("FINAL")) {
+        } else if (point.type.equals("FINAL")) {
             if (!activeSessions.containsKey(uuid)) {
                 player.sendMessage(mm.deserialize("<red>You must start the parkour first!</red>"));
                 return;
             }
 
             int current = activeSessions.get(uuid);
-            int total = database.getParkourPointCount("CHECKPOINT");
+            int total = checkpointCount;
 
             if (current == total) {
                 finishParkour(player);
@@ -207,55 +250,59 @@ public class ParkourManager implements Listener {
         Location loc = event.getBlock().getLocation();
 
         if (name.contains("Parkour Checkpoint")) {
-            int index = database.getParkourPointCount("CHECKPOINT") + 1;
-            database.addParkourPoint(loc, "CHECKPOINT", index);
-            spawnHologram(loc, "<yellow>Checkpoint " + index + "</yellow>");
+            int index = checkpointCount + 1;
+            addPoint(loc, "CHECKPOINT", index);
             event.getPlayer().sendMessage(mm.deserialize("<green>Checkpoint #" + index + " placed!</green>"));
 
         } else if (name.contains("Parkour Final Point")) {
-            database.addParkourPoint(loc, "FINAL", 0);
-            spawnHologram(loc, "<gold>Final Point</gold>");
+            addPoint(loc, "FINAL", 0);
             event.getPlayer().sendMessage(mm.deserialize("<green>Final Point placed!</green>"));
 
         } else if (name.contains("Parkour Start Point")) {
-            database.addParkourPoint(loc, "START", 0);
-            spawnHologram(loc, "<green>Start Parkour</green>");
+            addPoint(loc, "START", 0);
             event.getPlayer().sendMessage(mm.deserialize("<green>Start Point placed!</green>"));
         }
     }
 
+    private void addPoint(Location loc, String type, int index) {
+        ParkourPoint point = new ParkourPoint(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), type, index);
+        indexPoint(point);
+        database.addParkourPoint(loc, type, index);
+        point.displayId = spawnHologram(loc, point.hologramText()).getUniqueId();
+    }
+
     @EventHandler
     public void onBreak(BlockBreakEvent event) {
         if (!event.getPlayer().getWorld().getName().equals("login")) return;
         if (!event.getPlayer().isOp()) {
-            if (database.getParkourPoint(event.getBlock().getLocation()) != null) {
+            if (getPoint(event.getBlock()) != null) {
                 event.setCancelled(true);
             }
             return;
         }
 
-        LoginDatabase.ParkourPoint point = database.getParkourPoint(event.getBlock().getLocation());
+        ParkourPoint point = unindexPoint(event.getBlock());
         if (point != null) {
             database.removeParkourPoint(event.getBlock().getLocation());
-            removeHologram(event.getBlock().getLocation());
+            removeHologram(point);
 
-            if (point.type().equals("CHECKPOINT")) {
-                reorderCheckpoints(point.index());
+            if (point.type.equals("CHECKPOINT")) {
+                reorderCheckpoints(point.index);
             }
             event.getPlayer().sendMessage(mm.deserialize("<red>Parkour point removed.</red>"));
         }
     }
 
     private void reorderCheckpoints(int deletedIndex) {
-        List<LoginDatabase.ParkourPointData> points = database.getAllParkourPoints();
-        for (LoginDatabase.ParkourPointData p : points) {
-            if (p.type().equals("CHECKPOINT") && p.index() > deletedIndex) {
-                Location loc = new Location(Bukkit.getWorld(p.world()), p.x(), p.y(), p.z());
-                database.removeParkourPoint(loc);
-                removeHologram(loc);
-                int newIndex = p.index() - 1;
-                database.addParkourPoint(loc, "CHECKPOINT", newIndex);
-                spawnHologram(loc, "<yellow>Checkpoint " + newIndex + "</yellow>");
+        for (ParkourPoint p : points.values()) {
+            if (p.type.equals("CHECKPOINT") && p.index > deletedIndex) {
+                p.index--;
+                database.updateParkourPointIndex(p.world, p.x, p.y, p.z, p.index);
+                // Relabel the existing display instead of respawning it
+                Entity display = p.displayId != null ? Bukkit.getEntity(p.displayId) : null;
+                if (display instanceof TextDisplay textDisplay) {
+                    textDisplay.text(mm.deserialize(p.hologramText()));
+                }
             }
         }
     }
@@ -267,7 +314,7 @@ public class ParkourManager implements Listener {
         return display != null && mm.serialize(display).contains("Cancel Parkour");
     }
 
-    private void spawnHologram(Location plateLoc, String text) {
+    private TextDisplay spawnHologram(Location plateLoc, String text) {
         Location holoLoc = plateLoc.clone().add(0.5, 1.5, 0.5);
         TextDisplay display = (TextDisplay) holoLoc.getWorld().spawnEntity(holoLoc, EntityType.TEXT_DISPLAY);
         display.text(mm.deserialize(text));
@@ -275,11 +322,21 @@ public class ParkourManager implements Listener {
         display.setBackgroundColor(Color.fromARGB(0, 0, 0, 0));
         display.addScoreboardTag("login_parkour");
         display.setPersistent(true);
+        return display;
     }
 
-    private void removeHologram(Location plateLoc) {
-        Location holoLoc = plateLoc.clone().add(0.5, 1.5, 0.5);
-        holoLoc.getWorld().getNearbyEntities(holoLoc, 0.5, 0.5, 0.5).forEach(e -> {
+    private void removeHologram(ParkourPoint point) {
+        Entity tracked = point.displayId != null ? Bukkit.getEntity(point.displayId) : null;
+        if (tracked != null) {
+            tracked.remove();
+            point.displayId = null;
+            return;
+        }
+        // Display spawned before its UUID was known (e.g. previous server run)
+        World world = Bukkit.getWorld(point.world);
+        if (world == null) return;
+        Location holoLoc = new Location(world, point.x + 0.5, point.y + 1.5, point.z + 0.5);
+        world.getNearbyEntities(holoLoc, 0.5, 0.5, 0.5).forEach(e -> {
             if (e instanceof TextDisplay && e.getScoreboardTags().contains("login_parkour")) {
                 e.remove();
             }
@@ -296,6 +353,7 @@ public class ParkourManager implements Listener {
                 }
             }
         }
+        for (ParkourPoint point : points.values()) point.displayId = null;
         admin.sendMessage(mm.deserialize("<green>Removed " + count + " parkour displays.</green>"));
     }
 
@@ -348,27 +406,60 @@ public class ParkourManager implements Listener {
                 World loginWorld = Bukkit.getWorld("login");
                 if (loginWorld == null) return;
 
-                List<LoginDatabase.ParkourPointData> points = database.getAllParkourPoints();
-                for (LoginDatabase.ParkourPointData p : points) {
-                    Location displayLoc = new Location(Bukkit.getWorld(p.world()), p.x() + 0.5, p.y() + 1.5, p.z() + 0.5);
-                    boolean exists = false;
-                    if (displayLoc.getWorld() != null) {
-                        for (Entity e : displayLoc.getWorld().getNearbyEntities(displayLoc, 0.2, 0.2, 0.2)) {
-                            if (e instanceof TextDisplay && e.getScoreboardTags().contains("login_parkour")) {
-                                exists = true;
-                                break;
-                            }
-                        }
-                        if (!exists) {
-                            String text;
-                            if (p.type().equals("CHECKPOINT")) text = "<yellow>Checkpoint " + p.index() + "</yellow>";
-                            else if (p.type().equals("START")) text = "<green>Start Parkour</green>";
-                            else text = "<gold>Final Point</gold>";
-                            spawnHologram(new Location(Bukkit.getWorld(p.world()), p.x(), p.y(), p.z()), text);
+                for (ParkourPoint p : points.values()) {
+                    // Tracked display still alive: nothing to do, no entity scan
+                    if (p.displayId != null) {
+                        Entity tracked = Bukkit.getEntity(p.displayId);
+                        if (tracked != null && tracked.isValid()) continue;
+                    }
+
+                    World world = Bukkit.getWorld(p.world);
+                    if (world == null || !world.isChunkLoaded(p.x >> 4, p.z >> 4)) continue;
+
+                    // Adopt a display left from a previous run before spawning a new one
+                    Location displayLoc = new Location(world, p.x + 0.5, p.y + 1.5, p.z + 0.5);
+                    TextDisplay found = null;
+                    for (Entity e : world.getNearbyEntities(displayLoc, 0.2, 0.2, 0.2)) {
+                        if (e instanceof TextDisplay textDisplay && e.getScoreboardTags().contains("login_parkour")) {
+                            found = textDisplay;
+                            break;
                         }
                     }
+                    if (found != null) {
+                        // Its label may predate a reorder that ran while it was untracked
+                        found.text(mm.deserialize(p.hologramText()));
+                    } else {
+                        found = spawnHologram(new Location(world, p.x, p.y, p.z), p.hologramText());
+                    }
+                    p.displayId = found.getUniqueId();
                 }
             }
         }.runTaskTimer(plugin, 100L, 600L);
     }
-}
\ No newline at end of file
+
+    /**
+     * A parkour plate kept in memory, with the UUID of its hologram once known.
+     */
+    private static final class ParkourPoint {
+        private final String world;
+        private final int x, y, z;
+        private final String type;
+        private int index;
+        private UUID displayId;
+
+        private ParkourPoint(String world, int x, int y, int z, String type, int index) {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.type = type;
+            this.index = index;
+        }
+
+        private String hologramText() {
+            if (type.equals("CHECKPOINT")) return "<yellow>Checkpoint " + index + "</yellow>";
+            if (type.equals("START")) return "<green>Start Parkour</green>";
+            return "<gold>Final Point</gold>";
+        }
+    }
+}
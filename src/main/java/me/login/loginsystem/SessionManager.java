@@ -0,0 +1,102 @@
+package me.login.loginsystem;
+
+import me.login.Login;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trusted sessions: when an authenticated player leaves, their (IP, client brand) is remembered for
+ * {@code auth.session-minutes}. Rejoining from the same IP and client within that window skips /login
+ * (no bcrypt, no login-world teleport, no timers). Sessions are single use and live in memory;
+ * the database copy only exists so they survive a restart.
+ * <p>
+ * The client sends its brand after the join event, so {@link #resume} only checks the IP and hands back
+ * the brand the caller has to verify once it arrives.
+ */
+public class SessionManager {
+
+    private record Session(String ip, String clientBrand, long expiresAt) {}
+
+    private final Login plugin;
+    private final LoginDatabase loginDb;
+    private final long sessionMillis;
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+
+    public SessionManager(Login plugin, LoginDatabase loginDb) {
+        this.plugin = plugin;
+        this.loginDb = loginDb;
+        this.sessionMillis = TimeUnit.MINUTES.toMillis(Math.max(0, plugin.getConfig().getInt("auth.session-minutes", 5)));
+    }
+
+    public boolean isEnabled() {
+        return sessionMillis > 0;
+    }
+
+    /**
+     * Loads sessions left over from before a restart (off the main thread).
+     */
+    public void load() {
+        if (!isEnabled()) return;
+        loginDb.getDatabase().runAsync(() -> {
+            long now = System.currentTimeMillis();
+            int loaded = 0;
+            for (LoginDatabase.SessionData data : loginDb.loadSessions(now)) {
+                // Anything created since startup is newer than the stored copy
+                sessions.putIfAbsent(data.uuid(), new Session(data.ip(), data.clientBrand(), data.expiresAt()));
+                loaded++;
+            }
+            if (loaded > 0) plugin.getLogger().info("Restored " + loaded + " login sessions.");
+        });
+    }
+
+    /**
+     * Opens a session for a player who was authenticated when they left.
+     */
+    public void create(UUID uuid, String ip, String clientBrand) {
+        // Without a brand there is nothing to bind the session to the client
+        if (!isEnabled() || ip == null || clientBrand == null) return;
+        long expiresAt = System.currentTimeMillis() + sessionMillis;
+        sessions.put(uuid, new Session(ip, clientBrand, expiresAt));
+        loginDb.saveSession(uuid, ip, clientBrand, expiresAt);
+    }
+
+    /**
+     * Consumes the player's session. Returns the client brand it was bound to if it is still valid
+     * for this IP, or null if there is no usable session. The caller must check the returned brand with
+     * {@link #brandMatches} before trusting the player.
+     */
+    public String resume(UUID uuid, String ip) {
+        Session session = sessions.remove(uuid);
+        if (session == null) return null;
+        loginDb.deleteSession(uuid);
+
+        if (System.currentTimeMillis() >= session.expiresAt()) return null;
+        if (!session.ip().equals(ip)) return null;
+        // Sessions stored before brands were required cannot be verified
+        return session.clientBrand();
+    }
+
+    /**
+     * An unknown brand never matches.
+     */
+    public static boolean brandMatches(String expected, String actual) {
+        return expected != null && expected.equals(actual);
+    }
+
+    /**
+     * Drops a session, e.g. after a password change or unregister.
+     */
+    public void invalidate(UUID uuid) {
+        if (sessions.remove(uuid) != null) {
+            loginDb.deleteSession(uuid);
+        }
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.expiresAt() <= now);
+    }
+}
@@ -2,6 +2,7 @@ package me.login.misc.dailyquests;
 
 import me.login.Login;
 import me.login.misc.tokens.TokenManager;
+import me.login.utility.PlayerObjectiveTracker;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.milkbowl.vault.economy.Economy;
@@ -9,9 +10,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.time.LocalDate;
-import java.time.Instant;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,11 +24,20 @@ public class QuestManager {
     private final QuestsDatabase database;
     private final Map<QuestType, List<Quest>> allQuests = new EnumMap<>(QuestType.class);
     private final Map<UUID, PlayerQuestData> playerQuestDataCache = new ConcurrentHashMap<>();
+    // Which online players have an active quest on which objective/target
+    private final PlayerObjectiveTracker<QuestObjective> objectiveTracker = new PlayerObjectiveTracker<>(QuestObjective.class);
     private final Random random = new Random();
     private Economy economy;
     private TokenManager tokenManager;
     private Component serverPrefix;
     private final ZoneId serverZoneId = ZoneId.systemDefault(); // For 24:00 reset
+    // Start of the current day and of the next one, recomputed only when the day rolls over
+    private long dayStartMillis;
+    private long nextDayStartMillis;
+
+    // Players whose quest state changed since the last flush (main thread only)
+    private final Set<UUID> dirtyPlayers = new HashSet<>();
+    private BukkitTask flushTask;
 
     public QuestManager(QuestsModule module) {
         this.module = module;
@@ -156,35 +166,108 @@ public class QuestManager {
     }
 
     public void loadPlayerData(Player p) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.getDatabase().runAsync(() -> {
             PlayerQuestData data = database.loadPlayerQuests(p.getUniqueId());
-            playerQuestDataCache.put(p.getUniqueId(), data);
+            // The objective tracker is only ever changed on the main thread
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // Player may have left while loading
+                if (p.isOnline()) {
+                    playerQuestDataCache.put(p.getUniqueId(), data);
+                    refreshTracking(data);
+                }
+            });
             // We now check for reset when GUI is opened, not on login.
         });
     }
 
     public void unloadPlayerData(Player p) {
         PlayerQuestData data = playerQuestDataCache.remove(p.getUniqueId());
-        if (data != null && data.getActiveQuest() != null) {
+        objectiveTracker.untrack(p.getUniqueId());
+        if (data != null && dirtyPlayers.remove(p.getUniqueId())) {
             // Save progress on quit
             database.savePlayerQuests(data);
         }
+        database.flushPlayerQuests(p.getUniqueId());
+    }
+
+    // --- Objective Tracking ---
+
+    /**
+     * Re-registers the player's active quest objective. Call whenever the active quest changes.
+     */
+    private void refreshTracking(PlayerQuestData data) {
+        objectiveTracker.untrack(data.getPlayerUUID());
+        Quest quest = data.getActiveQuest();
+        if (quest == null) return;
+
+        Enum<?> target = quest.getObjectiveMaterial() != null ? quest.getObjectiveMaterial() : quest.getObjectiveEntity();
+        objectiveTracker.track(data.getPlayerUUID(), trackedObjective(quest.getObjective()), target);
+    }
+
+    /**
+     * MINE and BREAK_BLOCK are interchangeable, so both are tracked (and dispatched) as BREAK_BLOCK.
+     */
+    private static QuestObjective trackedObjective(QuestObjective objective) {
+        return objective == QuestObjective.MINE ? QuestObjective.BREAK_BLOCK : objective;
+    }
+
+    public PlayerObjectiveTracker<QuestObjective> getObjectiveTracker() {
+        return objectiveTracker;
+    }
+
+    // --- Persistence ---
+
+    /**
+     * Marks a player's quest state for the next batched flush instead of writing it now.
+     */
+    public void markDirty(PlayerQuestData data) {
+        dirtyPlayers.add(data.getPlayerUUID());
+    }
+
+    /**
+     * Queues the state of every dirty player into the database's write-behind buffer.
+     */
+    public void flushDirty() {
+        if (dirtyPlayers.isEmpty()) return;
+        for (UUID uuid : dirtyPlayers) {
+            PlayerQuestData data = playerQuestDataCache.get(uuid);
+            if (data != null) database.savePlayerQuests(data);
+        }
+        dirtyPlayers.clear();
+    }
+
+    public void startFlushTask() {
+        long interval = Math.max(20L, plugin.getConfig().getLong("quests-progress-flush-ticks", 100L));
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flushDirty, interval, interval);
+    }
+
+    public void shutdown() {
+        if (flushTask != null) flushTask.cancel();
+        flushDirty();
+        objectiveTracker.clear();
     }
 
     /**
-     * This is the new reset logic. It's called when the GUI is opened.
+     * This is the new reset logic. It's called when the GUI is opened and before progress is counted.
      * It checks if the last reset was on a previous day (global 24:00 reset).
      */
     public void checkAndResetDailies(PlayerQuestData data) {
         long lastReset = data.getLastQuestResetTimestamp();
-        LocalDate today = LocalDate.now(serverZoneId);
-        LocalDate lastResetDate = LocalDate.ofInstant(Instant.ofEpochMilli(lastReset), serverZoneId);
-
-        if (lastReset == 0 || lastResetDate.isBefore(today)) {
+        if (lastReset == 0 || lastReset < currentDayStart()) {
             assignNewDailyQuests(data);
         }
     }
 
+    private long currentDayStart() {
+        long now = System.currentTimeMillis();
+        if (now >= nextDayStartMillis || now < dayStartMillis) {
+            LocalDate today = LocalDate.now(serverZoneId);
+            dayStartMillis = today.atStartOfDay(serverZoneId).toInstant().toEpochMilli();
+            nextDayStartMillis = today.plusDays(1).atStartOfDay(serverZoneId).toInstant().toEpochMilli();
+        }
+        return dayStartMillis;
+    }
+
     private void assignNewDailyQuests(PlayerQuestData data) {
         Quest easy = getRandomQuest(QuestType.EASY, data.getDailyEasyQuest());
         Quest hard = getRandomQuest(QuestType.HARD, data.getDailyHardQuest());
@@ -194,8 +277,9 @@ public class QuestManager {
         data.setDailyHardQuest(hard);
         data.setDailyExtremeQuest(extreme);
         data.resetDailyData(); // Clears active quest, progress, and completed list
+        refreshTracking(data);
 
-        database.savePlayerQuests(data); // Save the new daily state
+        markDirty(data); // Save the new daily state
 
         Player p = Bukkit.getPlayer(data.getPlayerUUID());
         if (p != null && p.isOnline()) {
@@ -251,7 +335,8 @@ public class QuestManager {
 
         data.setActiveQuest(questToAccept);
         data.setActiveQuestProgress(0);
-        database.savePlayerQuests(data); // Save the newly accepted quest
+        refreshTracking(data);
+        markDirty(data); // Save the newly accepted quest
 
         p.sendMessage(serverPrefix.append(MiniMessage.miniMessage().deserialize(
                 "<green>Quest Accepted: <white>" + questToAccept.getObjectiveDescription() + "</white></green>"
@@ -280,61 +365,76 @@ public class QuestManager {
         data.getCompletedQuestTypes().add(activeType);
         data.setActiveQuest(null);
         data.setActiveQuestProgress(0);
+        refreshTracking(data);
 
         // Save the updated state to the DB
-        database.savePlayerQuests(data);
+        markDirty(data);
 
         p.sendMessage(serverPrefix.append(MiniMessage.miniMessage().deserialize("<green>Your active quest has been reset. You can now choose a different quest type for today (if available).</green>")));
     }
 
     /**
      * Called by progress listener when an action is performed.
+     * Returns immediately unless the player's active quest tracks this objective and target.
      */
     public void handleProgress(Player p, QuestObjective objective, Material material, EntityType entityType) {
-        PlayerQuestData data = getPlayerQuestData(p);
-        if (data == null || data.getActiveQuest() == null) {
-            return; // No active quest, do nothing
+        Enum<?> target = material != null ? material : entityType;
+        if (!objectiveTracker.isTracking(p.getUniqueId(), trackedObjective(objective), target)) {
+            return; // No active quest on this objective, do nothing
         }
 
-        Quest quest = data.getActiveQuest();
-        boolean match = false;
-
-        if (quest.getObjective() == objective) {
-            if (quest.getObjectiveMaterial() != null && quest.getObjectiveMaterial() == material) {
-                match = true;
-            } else if (quest.getObjectiveEntity() != null && quest.getObjectiveEntity() == entityType) {
-                match = true;
-            }
-        }
-
-        if (!match && (quest.getObjective() == QuestObjective.MINE || quest.getObjective() == QuestObjective.BREAK_BLOCK)
-                && (objective == QuestObjective.MINE || objective == QuestObjective.BREAK_BLOCK) // <-- 'action' changed to 'objective'
-                && quest.getObjectiveMaterial() == material) {
-            match = true;
+        PlayerQuestData data = getPlayerQuestData(p);
+        if (data == null || data.getActiveQuest() == null) {
+            return;
         }
 
-        if (!match && quest.getObjective() == QuestObjective.PLANT && objective == QuestObjective.PLANT // <-- 'action' changed to 'objective'
-                && quest.getObjectiveMaterial() == material) {
-            match = true;
+        // Yesterday's quest must not keep counting after the daily reset
+        if (data.getLastQuestResetTimestamp() < currentDayStart()) {
+            checkAndResetDailies(data);
+            if (data.getActiveQuest() == null) return;
         }
 
-        if (match) {
-            int newProgress = data.getActiveQuestProgress() + 1;
-            data.setActiveQuestProgress(newProgress);
+        Quest quest = data.getActiveQuest();
+        int newProgress = data.getActiveQuestProgress() + 1;
+        data.setActiveQuestProgress(newProgress);
 
-            if (newProgress >= quest.getRequiredAmount()) {
-                completeQuest(p, quest);
-            } else {
-                // Save progress to DB
-                database.updateActiveQuestProgress(p.getUniqueId(), newProgress);
-            }
+        if (newProgress >= quest.getRequiredAmount()) {
+            completeQuest(p, quest);
+        } else {
+            // Kept in memory; written with the next batched flush
+            markDirty(data);
         }
     }
 
+    /**
+     * Marks the quest completed and writes that straight away; rewards are only paid once the completion
+     * is committed, so a crash can neither lose a paid completion nor pay the same quest twice.
+     */
     private void completeQuest(Player p, Quest quest) {
         PlayerQuestData data = getPlayerQuestData(p);
         if (data == null) return;
 
+        // Update data first so no further progress counts towards this quest
+        data.getCompletedQuestTypes().add(quest.getType());
+        data.setActiveQuest(null);
+        data.setActiveQuestProgress(0);
+        refreshTracking(data);
+
+        // The completion supersedes any batched progress
+        dirtyPlayers.remove(p.getUniqueId());
+        database.savePlayerQuestsNow(data).thenAccept(saved -> Bukkit.getScheduler().runTask(plugin, () -> {
+            if (!saved) {
+                plugin.getLogger().severe("Could not save quest completion of " + p.getName() + " (" + quest.getId() + "); reward of $"
+                        + quest.getRewardCash() + " and " + quest.getRewardTokens() + " tokens was not paid.");
+                p.sendMessage(serverPrefix.append(MiniMessage.miniMessage().deserialize(
+                        "<red>Your quest completion could not be saved, so no reward was paid. Please contact staff.")));
+                return;
+            }
+            giveRewards(p, quest);
+        }));
+    }
+
+    private void giveRewards(Player p, Quest quest) {
         // Give Rewards
         if (economy != null && quest.getRewardCash() > 0) {
             economy.depositPlayer(p, quest.getRewardCash());
@@ -355,14 +455,6 @@ public class QuestManager {
         if (module.getQuestsLogger() != null) {
             module.getQuestsLogger().logQuestCompletion(p, quest, quest.getRewardCash(), quest.getRewardTokens());
         }
-
-        // Update data
-        data.getCompletedQuestTypes().add(quest.getType());
-        data.setActiveQuest(null);
-        data.setActiveQuestProgress(0);
-
-        // Save final state to DB
-        database.savePlayerQuests(data);
     }
 
     public Map<QuestType, List<Quest>> getAllQuests() {
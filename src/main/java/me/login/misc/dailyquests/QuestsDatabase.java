@@ -1,16 +1,13 @@
 package me.login.misc.dailyquests;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
 
-import java.io.File;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.EnumSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.Arrays;
 
@@ -18,7 +15,12 @@ public class QuestsDatabase {
 
     private final QuestsModule module;
     private final Login plugin;
-    private Connection connection;
+    private SQLiteDatabase database;
+
+    // Latest quest state per player, written in batches by the shared write-behind flush
+    private record QuestSnapshot(long lastReset, String easyId, String hardId, String extremeId,
+                                 String activeId, int progress, String completedTypes) {}
+    private WriteBehindBuffer<UUID, QuestSnapshot> pendingSaves;
 
     public QuestsDatabase(QuestsModule module) {
         this.module = module;
@@ -26,32 +28,42 @@ public class QuestsDatabase {
     }
 
     public void connect() {
+        database = plugin.getDatabaseService().open("Quests.db");
         try {
-            File dbFile = new File(plugin.getDataFolder(), "database/Quests.db");
-            if (!dbFile.getParentFile().exists()) {
-                dbFile.getParentFile().mkdirs();
-            }
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
-            plugin.getLogger().info("Connected to Quests SQLite database.");
             createTables();
         } catch (SQLException e) {
-            plugin.getLogger().severe("Could not connect to Quests SQLite database: " + e.getMessage());
+            plugin.getLogger().severe("Could not create Quests database table: " + e.getMessage());
+            return;
         }
+        plugin.getLogger().info("Connected to Quests SQLite database.");
+
+        pendingSaves = database.writeBehind("player_quests",
+                "INSERT OR REPLACE INTO player_quests (uuid, last_reset, daily_easy_id, daily_hard_id, daily_extreme_id, active_quest_id, active_quest_progress, completed_types) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                (pstmt, uuid, snapshot) -> {
+                    pstmt.setString(1, uuid.toString());
+                    pstmt.setLong(2, snapshot.lastReset());
+                    pstmt.setString(3, snapshot.easyId());
+                    pstmt.setString(4, snapshot.hardId());
+                    pstmt.setString(5, snapshot.extremeId());
+                    pstmt.setString(6, snapshot.activeId());
+                    pstmt.setInt(7, snapshot.progress());
+                    pstmt.setString(8, snapshot.completedTypes());
+                });
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Disconnected from Quests SQLite database.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error disconnecting from Quests SQLite database: " + e.getMessage());
+        if (database != null) {
+            database.close();
+            plugin.getLogger().info("Disconnected from Quests SQLite database.");
         }
     }
 
-    private void createTables() {
+    public SQLiteDatabase getDatabase() {
+        return database;
+    }
+
+    private void createTables() throws SQLException {
         String sql = "CREATE TABLE IF NOT EXISTS player_quests ("
                 + "uuid TEXT PRIMARY KEY NOT NULL,"
                 + "last_reset INTEGER DEFAULT 0,"
@@ -62,76 +74,86 @@ public class QuestsDatabase {
                 + "active_quest_progress INTEGER DEFAULT 0,"
                 + "completed_types TEXT"
                 + ");";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Could not create Quests database table: " + e.getMessage());
-        }
+        database.update(sql);
     }
 
+    /**
+     * Loads a player's quest state. Call off the main thread.
+     */
     public PlayerQuestData loadPlayerQuests(UUID uuid) {
+        // A quick rejoin may still have unflushed state queued
+        pendingSaves.flush(uuid);
+
         PlayerQuestData data = new PlayerQuestData(uuid);
         String sql = "SELECT * FROM player_quests WHERE uuid = ?";
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, uuid.toString());
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                data.setLastQuestResetTimestamp(rs.getLong("last_reset"));
-                data.setDailyEasyQuest(module.getQuestManager().getQuestById(rs.getString("daily_easy_id")));
-                data.setDailyHardQuest(module.getQuestManager().getQuestById(rs.getString("daily_hard_id")));
-                data.setDailyExtremeQuest(module.getQuestManager().getQuestById(rs.getString("daily_extreme_id")));
-                data.setActiveQuest(module.getQuestManager().getQuestById(rs.getString("active_quest_id")));
-                data.setActiveQuestProgress(rs.getInt("active_quest_progress"));
-
-                String completed = rs.getString("completed_types");
-                if (completed != null && !completed.isEmpty()) {
-                    EnumSet<QuestType> completedSet = EnumSet.noneOf(QuestType.class);
-                    Arrays.stream(completed.split(","))
-                            .map(QuestType::valueOf)
-                            .forEach(completedSet::add);
-                    data.setCompletedQuestTypes(completedSet);
+        try {
+            database.query(sql, rs -> {
+                if (rs.next()) {
+                    data.setLastQuestResetTimestamp(rs.getLong("last_reset"));
+                    data.setDailyEasyQuest(module.getQuestManager().getQuestById(rs.getString("daily_easy_id")));
+                    data.setDailyHardQuest(module.getQuestManager().getQuestById(rs.getString("daily_hard_id")));
+                    data.setDailyExtremeQuest(module.getQuestManager().getQuestById(rs.getString("daily_extreme_id")));
+                    data.setActiveQuest(module.getQuestManager().getQuestById(rs.getString("active_quest_id")));
+                    data.setActiveQuestProgress(rs.getInt("active_quest_progress"));
+
+                    String completed = rs.getString("completed_types");
+                    if (completed != null && !completed.isEmpty()) {
+                        EnumSet<QuestType> completedSet = EnumSet.noneOf(QuestType.class);
+                        Arrays.stream(completed.split(","))
+                                .map(QuestType::valueOf)
+                                .forEach(completedSet::add);
+                        data.setCompletedQuestTypes(completedSet);
+                    }
                 }
-            }
+                return null;
+            }, uuid.toString());
         } catch (SQLException e) {
             plugin.getLogger().severe("Error loading player quest data: " + e.getMessage());
         }
         return data;
     }
 
+    /**
+     * Queues the player's current quest state. Only the latest state per player is written;
+     * the buffer is flushed on the write-behind interval, on quit and on shutdown.
+     */
     public void savePlayerQuests(PlayerQuestData data) {
-        String sql = "INSERT OR REPLACE INTO player_quests (uuid, last_reset, daily_easy_id, daily_hard_id, daily_extreme_id, active_quest_id, active_quest_progress, completed_types) "
-                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, data.getPlayerUUID().toString());
-            pstmt.setLong(2, data.getLastQuestResetTimestamp());
-            pstmt.setString(3, data.getDailyEasyQuest() != null ? data.getDailyEasyQuest().getId() : null);
-            pstmt.setString(4, data.getDailyHardQuest() != null ? data.getDailyHardQuest().getId() : null);
-            pstmt.setString(5, data.getDailyExtremeQuest() != null ? data.getDailyExtremeQuest().getId() : null);
-            pstmt.setString(6, data.getActiveQuest() != null ? data.getActiveQuest().getId() : null);
-            pstmt.setInt(7, data.getActiveQuestProgress());
-
-            String completed = data.getCompletedQuestTypes().stream()
-                    .map(Enum::name)
-                    .collect(Collectors.joining(","));
-            pstmt.setString(8, completed);
-
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error saving player quest data: " + e.getMessage());
-        }
+        pendingSaves.put(data.getPlayerUUID(), snapshot(data));
     }
 
-    public void updateActiveQuestProgress(UUID uuid, int progress) {
-        String sql = "UPDATE player_quests SET active_quest_progress = ? WHERE uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, progress);
-            pstmt.setString(2, uuid.toString());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Error updating active quest progress: " + e.getMessage());
-        }
+    /**
+     * Writes the player's current state now (through the same buffer, so it can never be overtaken by an older
+     * queued snapshot). Completes with true once it is committed, false if the write failed; the state then
+     * stays queued for the next flush.
+     */
+    public CompletableFuture<Boolean> savePlayerQuestsNow(PlayerQuestData data) {
+        UUID uuid = data.getPlayerUUID();
+        QuestSnapshot snapshot = snapshot(data);
+        pendingSaves.put(uuid, snapshot);
+        return database.supplyAsync(() -> {
+            pendingSaves.flush(uuid);
+            // A failed write puts this exact snapshot back; a newer one replacing it already includes this state
+            return pendingSaves.pending(uuid) != snapshot;
+        });
+    }
+
+    private QuestSnapshot snapshot(PlayerQuestData data) {
+        String completed = data.getCompletedQuestTypes().stream()
+                .map(Enum::name)
+                .collect(Collectors.joining(","));
+
+        return new QuestSnapshot(
+                data.getLastQuestResetTimestamp(),
+                data.getDailyEasyQuest() != null ? data.getDailyEasyQuest().getId() : null,
+                data.getDailyHardQuest() != null ? data.getDailyHardQuest().getId() : null,
+                data.getDailyExtremeQuest() != null ? data.getDailyExtremeQuest().getId() : null,
+                data.getActiveQuest() != null ? data.getActiveQuest().getId() : null,
+                data.getActiveQuestProgress(),
+                completed);
+    }
+
+    public void flushPlayerQuests(UUID uuid) {
+        pendingSaves.flushAsync(uuid);
     }
-}
\ No newline at end of file
+}
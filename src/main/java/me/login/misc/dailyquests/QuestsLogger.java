@@ -1,10 +1,7 @@
 package me.login.misc.dailyquests;
 
-import me.login.clearlag.LagClearLogger; // <-- IMPORT FIXED
-import me.login.clearlag.LagClearModule;
+import me.login.Login;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import org.bukkit.entity.Player;
 
 import java.awt.Color;
@@ -12,27 +9,16 @@ import java.time.Instant;
 
 public class QuestsLogger {
 
-    private final LagClearLogger lagClearLogger; // <-- TYPE CHANGED
+    private final Login plugin;
     private final String channelId;
 
-    public QuestsLogger(LagClearLogger lagClearLogger, String channelId) { // <-- CONSTRUCTOR CHANGED
-        this.lagClearLogger = lagClearLogger;
+    public QuestsLogger(Login plugin, String channelId) {
+        this.plugin = plugin;
         this.channelId = channelId;
     }
 
     public void logQuestCompletion(Player player, Quest quest, double cash, int tokens) {
-        if (lagClearLogger == null || lagClearLogger.getJDA() == null) return; // <-- FIXED
-        JDA jda = lagClearLogger.getJDA(); // <-- FIXED
-        if (jda == null) {
-            return; // JDA not ready
-        }
-
         try {
-            TextChannel channel = jda.getTextChannelById(channelId);
-            if (channel == null) {
-                return; // Channel not found
-            }
-
             EmbedBuilder embed = new EmbedBuilder()
                     .setTitle("Quest Completed!")
                     .setColor(Color.GREEN)
@@ -47,7 +33,7 @@ public class QuestsLogger {
                     .setTimestamp(Instant.now())
                     .setFooter("MineAurora Quests");
 
-            channel.sendMessageEmbeds(embed.build()).queue();
+            plugin.getLogBus().sendEmbed(channelId, embed.build());
 
         } catch (Exception e) {
             // Don't spam console, just in case
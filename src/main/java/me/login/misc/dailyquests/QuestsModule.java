@@ -37,13 +37,11 @@ public class QuestsModule {
 
         // 2. Initialize Logger
         String channelId = plugin.getConfig().getString("quests-log-channel-id", "");
-        if (channelId.isEmpty() || plugin.getLagClearLogger() == null) { // <-- Safety check added
-            plugin.getLogger().warning("Quests log channel ID not set or LagClearLogger not ready! Discord logging will be disabled.");
+        if (channelId.isEmpty()) {
+            plugin.getLogger().warning("Quests log channel ID not set! Discord logging will be disabled.");
             this.questsLogger = null;
         } else {
-            // JDA is retrieved from lagClearModule inside the logger itself.
-            // THIS IS THE FIX: Use plugin.getLagClearLogger()
-            this.questsLogger = new QuestsLogger(plugin.getLagClearLogger(), channelId);
+            this.questsLogger = new QuestsLogger(plugin, channelId);
         }
 
         // 3. Load quests.yml
@@ -52,6 +50,7 @@ public class QuestsModule {
         // 4. Initialize Manager
         this.questManager = new QuestManager(this);
         this.questManager.loadQuests();
+        this.questManager.startFlushTask();
 
         // 5. Initialize GUI
         this.questsGui = new QuestsGui(this);
@@ -75,6 +74,10 @@ public class QuestsModule {
     }
 
     public void disable() {
+        // Queue unsaved progress before the database flushes and closes
+        if (this.questManager != null) {
+            this.questManager.shutdown();
+        }
         if (this.questsDatabase != null) {
             this.questsDatabase.disconnect();
         }
@@ -3,6 +3,7 @@ package me.login.misc.dailyquests.listeners;
 import me.login.misc.dailyquests.QuestManager;
 import me.login.misc.dailyquests.QuestObjective;
 import me.login.misc.dailyquests.QuestsModule;
+import me.login.utility.PlayerObjectiveTracker;
 import org.bukkit.Material;
 import org.bukkit.block.data.Ageable;
 import org.bukkit.entity.EntityType;
@@ -23,6 +24,7 @@ import java.util.Set;
 public class QuestProgressListener implements Listener {
 
     private final QuestManager questManager;
+    private final PlayerObjectiveTracker<QuestObjective> tracker;
 
     private static final Set<Material> HARVESTABLE_CROPS = EnumSet.of(
             Material.WHEAT, Material.CARROTS, Material.POTATOES, Material.BEETROOTS,
@@ -31,6 +33,7 @@ public class QuestProgressListener implements Listener {
 
     public QuestProgressListener(QuestsModule module) {
         this.questManager = module.getQuestManager();
+        this.tracker = questManager.getObjectiveTracker();
     }
 
     @EventHandler
@@ -46,6 +49,8 @@ public class QuestProgressListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent e) {
         Player p = e.getPlayer();
+        if (!tracker.isTracking(p.getUniqueId())) return; // No active quest
+
         Material mat = e.getBlock().getType();
 
         // Handle Harvest
@@ -57,13 +62,13 @@ public class QuestProgressListener implements Listener {
             }
         }
 
-        // Handle Break / Mine
+        // Handle Break / Mine (MINE is dispatched as BREAK_BLOCK, so one call counts once)
         questManager.handleProgress(p, QuestObjective.BREAK_BLOCK, mat, null);
-        questManager.handleProgress(p, QuestObjective.MINE, mat, null);
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent e) {
+        if (!tracker.isTracking(e.getPlayer().getUniqueId())) return;
         Material placedMaterial = e.getItemInHand().getType();
 
         // Handle planting seeds (e.g., WHEAT_SEEDS)
@@ -72,8 +77,8 @@ public class QuestProgressListener implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityDeath(EntityDeathEvent e) {
-        if (e.getEntity().getKiller() != null) {
-            Player killer = e.getEntity().getKiller();
+        Player killer = e.getEntity().getKiller();
+        if (killer != null && tracker.isTracked(QuestObjective.KILL_MOB, e.getEntityType())) {
             questManager.handleProgress(killer, QuestObjective.KILL_MOB, null, e.getEntityType());
         }
     }
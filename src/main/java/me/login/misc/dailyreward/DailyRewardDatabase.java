@@ -1,8 +1,8 @@
 package me.login.misc.dailyreward;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
 
-import java.io.File;
 import java.sql.*;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -10,8 +10,7 @@ import java.util.logging.Level;
 
 public class DailyRewardDatabase {
 
-    private final String url;
-    private Connection connection;
+    private final SQLiteDatabase database;
     private final Login plugin;
 
     // Record to hold claim data
@@ -20,45 +19,17 @@ public class DailyRewardDatabase {
     public DailyRewardDatabase(Login plugin) {
         this.plugin = plugin;
         // Requirement 5: Ensure DB is in plugins/Login/database
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-        this.url = "jdbc:sqlite:" + dbFolder.getAbsolutePath() + File.separator + "dailyrewards.db";
+        this.database = plugin.getDatabaseService().open("dailyrewards.db");
     }
 
     public void connect() {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
-            plugin.getLogger().info("Connecting DailyReward DB...");
-            createTables(); // Ensure tables exist on connect
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to connect DailyReward DB!", e);
-            this.connection = null;
-        }
-    }
-
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connect();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error getting DailyReward DB connection", e);
-        }
-        return connection;
+        plugin.getLogger().info("Connecting DailyReward DB...");
+        createTables(); // Ensure tables exist on connect
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("DailyReward DB Disconnected.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error disconnecting DailyReward DB", e);
-        }
+        database.close();
+        plugin.getLogger().info("DailyReward DB Disconnected.");
     }
 
     public void createTables() {
@@ -71,17 +42,21 @@ public class DailyRewardDatabase {
                 PRIMARY KEY (player_uuid, rank_key)
             );""";
 
-        try (Statement stmt = getConnection().createStatement()) {
-            stmt.executeUpdate(dailyRewardsTable);
-
-            // Attempt to add column if it doesn't exist (for migration)
-            try {
-                stmt.executeUpdate("ALTER TABLE daily_reward_claims ADD COLUMN current_streak INTEGER NOT NULL DEFAULT 0;");
-                plugin.getLogger().info("Added current_streak column to daily_reward_claims.");
-            } catch (SQLException ignored) {
-                // Column likely already exists
-            }
-
+        try {
+            database.withConnection(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(dailyRewardsTable);
+
+                    // Attempt to add column if it doesn't exist (for migration)
+                    try {
+                        stmt.executeUpdate("ALTER TABLE daily_reward_claims ADD COLUMN current_streak INTEGER NOT NULL DEFAULT 0;");
+                        plugin.getLogger().info("Added current_streak column to daily_reward_claims.");
+                    } catch (SQLException ignored) {
+                        // Column likely already exists
+                    }
+                }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Could not create DailyReward tables!", e);
         }
@@ -90,18 +65,16 @@ public class DailyRewardDatabase {
     public CompletableFuture<ClaimData> getClaimData(UUID uuid, String rankKey) {
         return CompletableFuture.supplyAsync(() -> {
             String sql = "SELECT last_claim_time, current_streak FROM daily_reward_claims WHERE player_uuid = ? AND rank_key = ?";
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.setString(2, rankKey);
-                ResultSet rs = ps.executeQuery();
-                if (rs.next()) {
-                    return new ClaimData(rs.getLong("last_claim_time"), rs.getInt("current_streak"));
-                }
+            try {
+                ClaimData data = database.query(sql,
+                        rs -> rs.next() ? new ClaimData(rs.getLong("last_claim_time"), rs.getInt("current_streak")) : null,
+                        uuid.toString(), rankKey);
+                if (data != null) return data;
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not get claim data for " + uuid, e);
             }
             return new ClaimData(0L, 0);
-        }, runnable -> plugin.getServer().getScheduler().runTaskAsynchronously(plugin, runnable));
+        }, plugin.getDatabaseService().getExecutor());
     }
 
     // Kept for compatibility if needed, but getClaimData is preferred
@@ -110,18 +83,12 @@ public class DailyRewardDatabase {
     }
 
     public void saveClaim(UUID uuid, String rankKey, long time, int streak) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
             String sql = "INSERT INTO daily_reward_claims (player_uuid, rank_key, last_claim_time, current_streak) VALUES (?, ?, ?, ?) " +
                     "ON CONFLICT(player_uuid, rank_key) DO UPDATE SET last_claim_time = ?, current_streak = ?";
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.setString(2, rankKey);
-                ps.setLong(3, time);
-                ps.setInt(4, streak);
-                // Update part
-                ps.setLong(5, time);
-                ps.setInt(6, streak);
-                ps.executeUpdate();
+            try {
+                // Insert values, then the update part
+                database.update(sql, uuid.toString(), rankKey, time, streak, time, streak);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not save claim for " + uuid, e);
             }
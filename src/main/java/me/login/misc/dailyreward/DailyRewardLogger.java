@@ -1,24 +1,14 @@
 package me.login.misc.dailyreward;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 
 public class DailyRewardLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long logChannelId;
 
     public DailyRewardLogger(Login plugin) {
         this.plugin = plugin;
-        if (plugin.getLagClearLogger() != null) {
-            this.jda = plugin.getLagClearLogger().getJDA();
-        } else {
-            this.jda = null;
-            plugin.getLogger().warning("LagClearLogger not found. DailyReward Discord logging disabled.");
-        }
-
         this.logChannelId = plugin.getConfig().getLong("dailyreward-log-channel-id", 0);
 
         if (logChannelId == 0) {
@@ -28,7 +18,7 @@ public class DailyRewardLogger {
 
     // FIXED: Added shutdown method required by Module
     public void shutdown() {
-        // No specific shutdown needed for JDA as it's shared, but method is required by Module contract
+        // Nothing to close; the log bus is shared, but method is required by Module contract
     }
 
     public void logDefault(String playerName, int coins, int tokens, int streak) {
@@ -52,13 +42,6 @@ public class DailyRewardLogger {
 
         plugin.getLogger().info(consoleMessage);
 
-        if (jda != null && jda.getStatus() == JDA.Status.CONNECTED && logChannelId != 0) {
-            MessageChannel channel = jda.getTextChannelById(logChannelId);
-            if (channel != null) {
-                channel.sendMessage(message).queue(null, error ->
-                        plugin.getLogger().warning("Failed to send DailyReward log: " + error.getMessage())
-                );
-            }
-        }
+        plugin.getLogBus().send(logChannelId, message);
     }
 }
\ No newline at end of file
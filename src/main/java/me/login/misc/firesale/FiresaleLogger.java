@@ -1,11 +1,10 @@
 package me.login.misc.firesale;
 
+import me.login.Login;
 import me.login.misc.firesale.model.Firesale;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.User;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
@@ -14,27 +13,16 @@ import java.time.Instant;
 
 public class FiresaleLogger {
 
-    private final JDA jda;
+    private final Login plugin;
     private final String channelId;
 
-    public FiresaleLogger(JDA jda, String channelId) {
-        this.jda = jda;
+    public FiresaleLogger(Login plugin, String channelId) {
+        this.plugin = plugin;
         this.channelId = channelId;
     }
 
     private void sendLog(MessageEmbed embed) {
-        if (jda == null || channelId.isEmpty()) {
-            return; // Logging disabled
-        }
-        try {
-            TextChannel channel = jda.getTextChannelById(channelId);
-            if (channel != null) {
-                channel.sendMessageEmbeds(embed).queue();
-            }
-        } catch (Exception e) {
-            // Log error
-            System.err.println("Failed to send Firesale Discord log: " + e.getMessage());
-        }
+        plugin.getLogBus().sendEmbed(channelId, embed); // Empty ID disables logging
     }
 
     public void logSaleCreated(Player creator, Firesale sale) {
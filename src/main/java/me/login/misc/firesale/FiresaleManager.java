@@ -15,13 +15,15 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
@@ -38,8 +40,18 @@ public class FiresaleManager {
     private NPC npc;
 
     private final ConcurrentHashMap<Integer, Firesale> activeSales = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<Integer, BukkitTask> saleTasks = new ConcurrentHashMap<>();
-    private BukkitTask globalUpdateTask;
+    // Sales whose insert is still on the DB executor; they count towards the limit (main thread only)
+    private int pendingCreates;
+
+    // --- Lifecycle schedule (main thread only) ---
+    // Next start/end of every sale ordered by time; one task is armed for the head only.
+    private record Transition(Instant at, int saleId, SaleStatus from) {}
+    private final PriorityQueue<Transition> transitions = new PriorityQueue<>(Comparator.comparing(Transition::at));
+    private BukkitTask transitionTask;
+    private Instant transitionTaskAt;
+
+    // Notified when a sale is created, starts, ends or sells a unit (e.g. the NPC hologram)
+    private final List<Runnable> changeListeners = new ArrayList<>();
 
     private static final int MAX_ACTIVE_SALES = 4;
     private static final Pattern TIME_PATTERN = Pattern.compile("(\\d+)([smhd])");
@@ -57,10 +69,12 @@ public class FiresaleManager {
 
     public void loadSales() {
         activeSales.clear();
+        transitions.clear();
         for (Firesale sale : database.loadActiveSales()) {
             activeSales.put(sale.getSaleId(), sale);
-            scheduleSaleTasks(sale);
+            scheduleTransition(sale);
         }
+        fireSaleChanged();
     }
 
     public void setNpc(NPC npc) {
@@ -71,78 +85,99 @@ public class FiresaleManager {
         return npc;
     }
 
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    private void fireSaleChanged() {
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Arms the lifecycle schedule. Sales whose start or end passed while the server was down fire on the next tick.
+     */
     public void startScheduler() {
-        this.globalUpdateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                Instant now = Instant.now();
-                for (Firesale sale : getActiveSales()) {
-                    if (sale.getStatus() == SaleStatus.ACTIVE && sale.getEndTime().isBefore(now)) {
-                        new BukkitRunnable() {
-                            @Override
-                            public void run() {
-                                endSale(sale, SaleStatus.EXPIRED, "Time expired");
-                            }
-                        }.runTask(plugin);
-                    }
-                }
-            }
-        }.runTaskTimerAsynchronously(plugin, 20L, 20L);
+        armTransitionTask();
     }
 
-    private void scheduleSaleTasks(Firesale sale) {
-        Instant now = Instant.now();
-        cancelSaleTask(sale.getSaleId());
-
-        if (sale.getStatus() == SaleStatus.PENDING && sale.getStartTime().isAfter(now)) {
-            long delayTicks = (sale.getStartTime().toEpochMilli() - now.toEpochMilli()) / 50;
-            BukkitTask startTask = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    startSale(sale);
-                }
-            }.runTaskLater(plugin, Math.max(0, delayTicks));
-            saleTasks.put(sale.getSaleId(), startTask);
-
-        } else if (sale.getStatus() == SaleStatus.ACTIVE && sale.getEndTime().isAfter(now)) {
-            long delayTicks = (sale.getEndTime().toEpochMilli() - now.toEpochMilli()) / 50;
-            BukkitTask endTask = new BukkitRunnable() {
-                @Override
-                public void run() {
-                    endSale(sale, SaleStatus.EXPIRED, "Time expired");
-                }
-            }.runTaskLater(plugin, Math.max(0, delayTicks));
-            saleTasks.put(sale.getSaleId(), endTask);
-        } else if (sale.getStatus() == SaleStatus.PENDING && sale.getStartTime().isBefore(now)) {
-            startSale(sale);
+    /**
+     * Queues the sale's next transition: its start while pending, its end while active.
+     */
+    private void scheduleTransition(Firesale sale) {
+        if (sale.getStatus() == SaleStatus.PENDING) {
+            transitions.add(new Transition(sale.getStartTime(), sale.getSaleId(), SaleStatus.PENDING));
+        } else if (sale.getStatus() == SaleStatus.ACTIVE) {
+            transitions.add(new Transition(sale.getEndTime(), sale.getSaleId(), SaleStatus.ACTIVE));
+        } else {
+            return;
         }
+        armTransitionTask();
     }
 
-    private void cancelSaleTask(int saleId) {
-        if (saleTasks.containsKey(saleId)) {
-            saleTasks.get(saleId).cancel();
-            saleTasks.remove(saleId);
+    private void armTransitionTask() {
+        Transition head = transitions.peek();
+        if (head == null) {
+            cancelTransitionTask();
+            return;
         }
+        if (transitionTask != null && head.at().equals(transitionTaskAt)) return;
+
+        cancelTransitionTask();
+        long delayTicks = Math.max(1L, (head.at().toEpochMilli() - System.currentTimeMillis()) / 50L);
+        transitionTaskAt = head.at();
+        transitionTask = plugin.getServer().getScheduler().runTaskLater(plugin, this::runDueTransitions, delayTicks);
+    }
+
+    private void cancelTransitionTask() {
+        if (transitionTask != null) transitionTask.cancel();
+        transitionTask = null;
+        transitionTaskAt = null;
     }
 
-    public Component createSale(Player creator, ItemStack item, double price, String startIn, int quantity, String duration) {
-        if (getActiveSales().size() >= MAX_ACTIVE_SALES) {
-            return serverPrefix.append(miniMessage.deserialize("<red>Cannot create sale: Maximum number of active sales (4) reached."));
+    private void runDueTransitions() {
+        transitionTask = null;
+        transitionTaskAt = null;
+        Instant now = Instant.now();
+
+        while (!transitions.isEmpty() && !transitions.peek().at().isAfter(now)) {
+            Transition due = transitions.poll();
+            Firesale sale = activeSales.get(due.saleId());
+            // Removed, sold out or already moved on: the entry is stale
+            if (sale == null || sale.getStatus() != due.from()) continue;
+
+            if (due.from() == SaleStatus.PENDING) {
+                startSale(sale);
+            } else {
+                endSale(sale, SaleStatus.EXPIRED, "Time expired");
+            }
+        }
+        armTransitionTask();
+    }
+
+    /**
+     * Validates and stores a new sale. The insert runs on the DB executor; the returned future completes on the
+     * main thread with the reply for the creator once the sale is saved and scheduled.
+     */
+    public CompletableFuture<Component> createSale(Player creator, ItemStack item, double price, String startIn, int quantity, String duration) {
+        if (activeSales.size() + pendingCreates >= MAX_ACTIVE_SALES) {
+            return reply("<red>Cannot create sale: Maximum number of active sales (4) reached.");
         }
 
         if (item == null || item.getType() == Material.AIR) {
-            return serverPrefix.append(miniMessage.deserialize("<red>Cannot create sale: Invalid item."));
+            return reply("<red>Cannot create sale: Invalid item.");
         }
 
         if (item.getType() == Material.PLAYER_HEAD && item.getItemMeta().hasCustomModelData()) {
-            return serverPrefix.append(miniMessage.deserialize("<red>Cannot create sale: Custom player heads from hand are not supported. Please use an item from items.yml."));
+            return reply("<red>Cannot create sale: Custom player heads from hand are not supported. Please use an item from items.yml.");
         }
 
         long startMillis = parseTime(startIn);
         long durationMillis = parseTime(duration);
 
         if (startMillis == -1 || durationMillis == -1) {
-            return serverPrefix.append(miniMessage.deserialize("<red>Invalid time format. Use s, m, h, or d (e.g., 10m, 1h)."));
+            return reply("<red>Invalid time format. Use s, m, h, or d (e.g., 10m, 1h).");
         }
 
         Instant now = Instant.now();
@@ -163,9 +198,22 @@ public class FiresaleManager {
                 0
         );
 
-        Firesale savedSale = database.saveSale(sale);
+        pendingCreates++;
+        CompletableFuture<Component> result = new CompletableFuture<>();
+        database.getDatabase().supplyAsync(() -> database.saveSale(sale)).whenComplete((savedSale, error) ->
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    pendingCreates--;
+                    result.complete(savedSale != null
+                            ? addSavedSale(creator, savedSale, item, startMillis)
+                            : serverPrefix.append(miniMessage.deserialize("<red>Could not save the sale. Check the console for details.")));
+                }));
+        return result;
+    }
+
+    private Component addSavedSale(Player creator, Firesale savedSale, ItemStack item, long startMillis) {
         activeSales.put(savedSale.getSaleId(), savedSale);
-        scheduleSaleTasks(savedSale);
+        scheduleTransition(savedSale);
+        fireSaleChanged();
 
         logger.logSaleCreated(creator, savedSale);
 
@@ -178,6 +226,10 @@ public class FiresaleManager {
         ).replaceText(config -> config.match("%nl%").replacement(Component.newline())));
     }
 
+    private CompletableFuture<Component> reply(String message) {
+        return CompletableFuture.completedFuture(serverPrefix.append(miniMessage.deserialize(message)));
+    }
+
     public Component removeSale(Player admin, int saleId) {
         Firesale sale = activeSales.get(saleId);
         if (sale == null) {
@@ -188,11 +240,21 @@ public class FiresaleManager {
         return serverPrefix.append(miniMessage.deserialize("<green>Firesale <yellow>" + saleId + "</yellow> has been removed."));
     }
 
+    /**
+     * Writes the new status on the DB executor, then activates the sale and announces it on the main thread.
+     */
     public void startSale(Firesale sale) {
+        database.getDatabase().runAsync(() -> database.updateSaleStatus(sale.getSaleId(), SaleStatus.ACTIVE))
+                .whenComplete((ignored, error) -> plugin.getServer().getScheduler().runTask(plugin, () -> activateSale(sale)));
+    }
+
+    private void activateSale(Firesale sale) {
+        // Removed while the write was in flight
+        if (activeSales.get(sale.getSaleId()) != sale || sale.getStatus() != SaleStatus.PENDING) return;
         sale.setStatus(SaleStatus.ACTIVE);
-        database.updateSaleStatus(sale.getSaleId(), SaleStatus.ACTIVE);
-        scheduleSaleTasks(sale);
+        scheduleTransition(sale);
         logger.logSaleStart(sale);
+        fireSaleChanged();
 
         String messageTemplate = plugin.getConfig().getString("firesale.join-message",
                 "<green>A firesale is now active!%nl%<aqua><item_name></aqua> (<white>x<quantity></white>)%nl%Price: <gold><price> Credits</gold>%nl%Time Left: <yellow><time></yellow>");
@@ -214,47 +276,53 @@ public class FiresaleManager {
     }
 
     private void endSale(Firesale sale, SaleStatus endStatus, String reason) {
-        activeSales.remove(sale.getSaleId());
-        cancelSaleTask(sale.getSaleId());
+        // Several buyers can hit the last unit in the same tick; only the first ends the sale
+        if (activeSales.remove(sale.getSaleId()) == null) return;
+        // Its queued transition is skipped as stale when it comes due
         sale.setStatus(endStatus);
         if (endStatus == SaleStatus.EXPIRED) {
             sale.setEndTime(Instant.now());
         }
-        database.archiveSale(sale);
-        logger.logSaleEnd(sale, reason);
+        // Claimed above so buyers stop at once; the archive row is written from the final state on the DB executor
+        database.getDatabase().runAsync(() -> database.archiveSale(sale))
+                .whenComplete((ignored, error) -> plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    logger.logSaleEnd(sale, reason);
+                    fireSaleChanged();
+                }));
     }
 
-    public synchronized void attemptPurchase(Player player, Firesale sale) {
+    /**
+     * Buys one unit. Stock is claimed with a CAS on the sale (no manager lock) and handed back if
+     * the credit debit fails; the new counts are persisted by the database's write-behind flush.
+     */
+    public void attemptPurchase(Player player, Firesale sale) {
         if (sale.getStatus() != SaleStatus.ACTIVE) {
             player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>This sale is no longer active.")));
             player.closeInventory();
             return;
         }
 
-        if (sale.getRemainingQuantity() <= 0) {
+        if (player.getInventory().firstEmpty() == -1) {
+            player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>Your inventory is full!")));
+            return;
+        }
+
+        int remaining = sale.reserveUnit();
+        if (remaining < 0) {
             player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>This item is sold out!")));
             endSale(sale, SaleStatus.COMPLETED, "Sold out");
             player.closeInventory();
             return;
         }
 
-        double playerCredits = getCredits(player);
-        if (playerCredits < sale.getPrice()) {
+        if (!debitCredits(player, sale.getPrice())) {
+            sale.releaseUnit();
             player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>You do not have enough credits.")));
             return;
         }
 
-        if (player.getInventory().firstEmpty() == -1) {
-            player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>Your inventory is full!")));
-            return;
-        }
-
-        setCredits(player, playerCredits - sale.getPrice());
-        sale.setRemainingQuantity(sale.getRemainingQuantity() - 1);
-        sale.setTotalSold(sale.getTotalSold() + 1);
-
-        // Sync update to database to prevent race conditions
-        database.updateSaleQuantity(sale.getSaleId(), sale.getRemainingQuantity(), sale.getTotalSold());
+        database.queueSaleQuantity(sale);
+        fireSaleChanged();
 
         player.getInventory().addItem(sale.getItem().clone());
         logger.logPurchase(player, sale, 1);
@@ -265,7 +333,7 @@ public class FiresaleManager {
                 Placeholder.component("price", Component.text(sale.getPrice()))
         )));
 
-        if (sale.getRemainingQuantity() <= 0) {
+        if (remaining == 0) {
             // FIXED: Added message informing player that sale ended
             player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>The firesale has just ended (Sold Out)!")));
             endSale(sale, SaleStatus.COMPLETED, "Sold out");
@@ -299,15 +367,17 @@ public class FiresaleManager {
         return this.logger;
     }
 
-    private double getCredits(Player player) {
+    /**
+     * Takes the price from the player's credits in one read-check-write; false if they cannot afford it.
+     * Skript keeps variables in memory, so this is a map lookup rather than storage I/O.
+     */
+    private boolean debitCredits(Player player, double price) {
         String varName = SkriptVarParse.parse(player, SKRIPT_CURRENCY_VAR);
         Object value = SkriptUtils.getVar(varName);
-        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
-    }
-
-    private void setCredits(Player player, double amount) {
-        String varName = SkriptVarParse.parse(player, SKRIPT_CURRENCY_VAR);
-        SkriptUtils.setVar(varName, amount);
+        double balance = value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+        if (balance < price) return false;
+        SkriptUtils.setVar(varName, balance - price);
+        return true;
     }
 
     public long parseTime(String timeString) {
@@ -343,8 +413,8 @@ public class FiresaleManager {
     }
 
     public void shutdown() {
-        if (globalUpdateTask != null) globalUpdateTask.cancel();
-        saleTasks.values().forEach(BukkitTask::cancel);
-        saleTasks.clear();
+        cancelTransitionTask();
+        transitions.clear();
+        changeListeners.clear();
     }
 }
\ No newline at end of file
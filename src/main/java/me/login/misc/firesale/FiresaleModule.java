@@ -41,7 +41,7 @@ public class FiresaleModule {
             firesaleItemManager = new FiresaleItemManager(plugin);
 
             // 3. Logger
-            firesaleLogger = new FiresaleLogger(plugin.getJda(), plugin.getConfig().getString("firesale.log-channel-id", ""));
+            firesaleLogger = new FiresaleLogger(plugin, plugin.getConfig().getString("firesale.log-channel-id", ""));
 
             // 4. Manager
             firesaleManager = new FiresaleManager(plugin, firesaleDatabase, firesaleLogger, firesaleItemManager);
@@ -73,7 +73,9 @@ public class FiresaleModule {
                                     this.firesaleNpc,
                                     plugin.getComponentSerializer()
                             );
-                            this.hologramUpdater.runTaskTimer(plugin, 0L, 20L * 5); // Run every 5 seconds
+                            firesaleManager.addChangeListener(this.hologramUpdater::markDirty);
+                            // Cheap when idle: only rebuilds after a sale change or NPC spawn change
+                            this.hologramUpdater.runTaskTimer(plugin, 0L, 20L);
 
                             plugin.getLogger().info("Firesale NPC linked to ID " + npcId);
                         } else {
@@ -151,8 +151,7 @@ public class FiresaleCommand implements CommandExecutor, TabCompleter {
                 return;
             }
 
-            Component result = manager.createSale(player, itemToSell, price, startIn, quantity, duration);
-            player.sendMessage(result);
+            manager.createSale(player, itemToSell, price, startIn, quantity, duration).thenAccept(player::sendMessage);
 
         } catch (NumberFormatException e) {
             player.sendMessage(serverPrefix.append(miniMessage.deserialize("<red>Invalid number for price or quantity.")));
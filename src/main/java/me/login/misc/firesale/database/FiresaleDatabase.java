@@ -1,6 +1,8 @@
 package me.login.misc.firesale.database;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
 import me.login.misc.firesale.model.Firesale;
 import me.login.misc.firesale.model.SaleStatus;
 import org.bukkit.inventory.ItemStack;
@@ -10,7 +12,6 @@ import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.sql.*;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -19,21 +20,24 @@ import java.util.List;
 public class FiresaleDatabase {
 
     private final Login plugin;
-    private Connection connection;
+    private final SQLiteDatabase database;
+    // Stock changes per sale; the binder reads the live counters, so a flush always writes the latest state.
+    private final WriteBehindBuffer<Integer, Firesale> pendingQuantities;
 
     public FiresaleDatabase(Login plugin) {
         this.plugin = plugin;
+        this.database = plugin.getDatabaseService().open("firesale.db");
+        this.pendingQuantities = database.writeBehind("sale_quantities",
+                "UPDATE active_sales SET remaining_quantity = ?, total_sold = ? WHERE sale_id = ?",
+                (ps, saleId, sale) -> {
+                    ps.setInt(1, sale.getRemainingQuantity());
+                    ps.setInt(2, sale.getTotalSold());
+                    ps.setInt(3, saleId);
+                });
     }
 
-    // Synchronize getting connection to be safe
-    private synchronized Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            File dbFile = new File(plugin.getDataFolder(), "database/firesale.db");
-            dbFile.getParentFile().mkdirs(); // Ensure directory exists
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
-        }
-        return connection;
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
     public void init() {
@@ -41,47 +45,49 @@ public class FiresaleDatabase {
         String createActiveTable = "CREATE TABLE IF NOT EXISTS active_sales (sale_id INTEGER PRIMARY KEY AUTOINCREMENT, item_stack TEXT NOT NULL, price DOUBLE NOT NULL, initial_quantity INTEGER NOT NULL, remaining_quantity INTEGER NOT NULL, start_time_epoch BIGINT NOT NULL, end_time_epoch BIGINT NOT NULL, creator_uuid TEXT NOT NULL, creator_name TEXT NOT NULL, status TEXT NOT NULL, total_sold INTEGER NOT NULL);";
         String createHistoryTable = "CREATE TABLE IF NOT EXISTS sales_history (sale_id INTEGER PRIMARY KEY, item_stack TEXT NOT NULL, price DOUBLE NOT NULL, initial_quantity INTEGER NOT NULL, remaining_quantity INTEGER NOT NULL, start_time_epoch BIGINT NOT NULL, end_time_epoch BIGINT NOT NULL, creator_uuid TEXT NOT NULL, creator_name TEXT NOT NULL, status TEXT NOT NULL, total_sold INTEGER NOT NULL);";
 
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            stmt.execute(createActiveTable);
-            stmt.execute(createHistoryTable);
+        try {
+            database.withConnection(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(createActiveTable);
+                    stmt.execute(createHistoryTable);
+                }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to initialize Firesale database: " + e.getMessage());
         }
     }
 
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to close Firesale database connection: " + e.getMessage());
-        }
+        database.close();
     }
 
     // FIX: Synchronized to prevent async task and main thread colliding
     public synchronized Firesale saveSale(Firesale sale) {
         String sql = "INSERT INTO active_sales (item_stack, price, initial_quantity, remaining_quantity, start_time_epoch, end_time_epoch, creator_uuid, creator_name, status, total_sold) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            // ... (set params)
-            pstmt.setString(1, serializeItemStack(sale.getItem()));
-            pstmt.setDouble(2, sale.getPrice());
-            pstmt.setInt(3, sale.getInitialQuantity());
-            pstmt.setInt(4, sale.getRemainingQuantity());
-            pstmt.setLong(5, sale.getStartTime().toEpochMilli());
-            pstmt.setLong(6, sale.getEndTime().toEpochMilli());
-            pstmt.setString(7, sale.getCreatorUuid().toString());
-            pstmt.setString(8, sale.getCreatorName());
-            pstmt.setString(9, sale.getStatus().toString());
-            pstmt.setInt(10, sale.getTotalSold());
-
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) sale.setSaleId(rs.getInt(1));
+        String item = serializeItemStack(sale.getItem());
+        try {
+            return database.withConnection(conn -> {
+                PreparedStatement pstmt = database.prepare(sql);
+                pstmt.setString(1, item);
+                pstmt.setDouble(2, sale.getPrice());
+                pstmt.setInt(3, sale.getInitialQuantity());
+                pstmt.setInt(4, sale.getRemainingQuantity());
+                pstmt.setLong(5, sale.getStartTime().toEpochMilli());
+                pstmt.setLong(6, sale.getEndTime().toEpochMilli());
+                pstmt.setString(7, sale.getCreatorUuid().toString());
+                pstmt.setString(8, sale.getCreatorName());
+                pstmt.setString(9, sale.getStatus().toString());
+                pstmt.setInt(10, sale.getTotalSold());
+
+                int affectedRows = pstmt.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                        if (rs.next()) sale.setSaleId(rs.getInt(1));
+                    }
                 }
-            }
-            return sale;
+                return sale;
+            });
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to save sale: " + e.getMessage());
             return null;
@@ -89,29 +95,29 @@ public class FiresaleDatabase {
     }
 
     public synchronized void archiveSale(Firesale sale) {
+        // The history row carries the final counts; a late quantity flush would only hit a deleted row
+        pendingQuantities.discard(sale.getSaleId());
         String deleteSql = "DELETE FROM active_sales WHERE sale_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(deleteSql)) {
-            pstmt.setInt(1, sale.getSaleId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to delete sale from active: " + e.getMessage());
-        }
-
         String insertSql = "INSERT INTO sales_history (sale_id, item_stack, price, initial_quantity, remaining_quantity, start_time_epoch, end_time_epoch, creator_uuid, creator_name, status, total_sold) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
-            // ... (set params exactly as before)
-            pstmt.setInt(1, sale.getSaleId());
-            pstmt.setString(2, serializeItemStack(sale.getItem()));
-            pstmt.setDouble(3, sale.getPrice());
-            pstmt.setInt(4, sale.getInitialQuantity());
-            pstmt.setInt(5, sale.getRemainingQuantity());
-            pstmt.setLong(6, sale.getStartTime().toEpochMilli());
-            pstmt.setLong(7, sale.getEndTime().toEpochMilli());
-            pstmt.setString(8, sale.getCreatorUuid().toString());
-            pstmt.setString(9, sale.getCreatorName());
-            pstmt.setString(10, sale.getStatus().toString());
-            pstmt.setInt(11, sale.getTotalSold());
-            pstmt.executeUpdate();
+        String item = serializeItemStack(sale.getItem());
+        try {
+            // Move the row in one transaction so a failure never leaves the sale in neither table
+            database.transaction(conn -> {
+                database.update(deleteSql, sale.getSaleId());
+                database.update(insertSql,
+                        sale.getSaleId(),
+                        item,
+                        sale.getPrice(),
+                        sale.getInitialQuantity(),
+                        sale.getRemainingQuantity(),
+                        sale.getStartTime().toEpochMilli(),
+                        sale.getEndTime().toEpochMilli(),
+                        sale.getCreatorUuid().toString(),
+                        sale.getCreatorName(),
+                        sale.getStatus().toString(),
+                        sale.getTotalSold());
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to archive sale: " + e.getMessage());
         }
@@ -121,8 +127,11 @@ public class FiresaleDatabase {
         // ... (same code)
         List<Firesale> sales = new ArrayList<>();
         String sql = "SELECT * FROM active_sales";
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) sales.add(deserializeFiresale(rs));
+        try {
+            database.query(sql, rs -> {
+                while (rs.next()) sales.add(deserializeFiresale(rs));
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed load active: " + e.getMessage());
         }
@@ -133,12 +142,11 @@ public class FiresaleDatabase {
         // ... (same code)
         List<Firesale> sales = new ArrayList<>();
         String sql = "SELECT * FROM sales_history ORDER BY start_time_epoch DESC LIMIT ? OFFSET ?";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, itemsPerPage);
-            pstmt.setInt(2, page * itemsPerPage);
-            try (ResultSet rs = pstmt.executeQuery()) {
+        try {
+            database.query(sql, rs -> {
                 while (rs.next()) sales.add(deserializeFiresale(rs));
-            }
+                return null;
+            }, itemsPerPage, page * itemsPerPage);
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed load history: " + e.getMessage());
         }
@@ -148,33 +156,29 @@ public class FiresaleDatabase {
     public synchronized int getHistoryPageCount(int itemsPerPage) {
         // ... (same code)
         String sql = "SELECT COUNT(*) FROM sales_history";
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                int total = rs.getInt(1);
-                return (int) Math.ceil((double) total / itemsPerPage);
-            }
+        try {
+            return database.query(sql, rs -> {
+                if (rs.next()) {
+                    int total = rs.getInt(1);
+                    return (int) Math.ceil((double) total / itemsPerPage);
+                }
+                return 0;
+            });
         } catch (SQLException e) { }
         return 0;
     }
 
-    public synchronized void updateSaleQuantity(int saleId, int newQuantity, int newTotalSold) {
-        String sql = "UPDATE active_sales SET remaining_quantity = ?, total_sold = ? WHERE sale_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, newQuantity);
-            pstmt.setInt(2, newTotalSold);
-            pstmt.setInt(3, saleId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().severe("Failed to update quantity: " + e.getMessage());
-        }
+    /**
+     * Marks the sale's stock as changed; written with the next batch flush (and on shutdown).
+     */
+    public void queueSaleQuantity(Firesale sale) {
+        pendingQuantities.put(sale.getSaleId(), sale);
     }
 
     public synchronized void updateSaleStatus(int saleId, SaleStatus status) {
         String sql = "UPDATE active_sales SET status = ? WHERE sale_id = ?";
-        try (Connection conn = getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, status.toString());
-            pstmt.setInt(2, saleId);
-            pstmt.executeUpdate();
+        try {
+            database.update(sql, status.toString(), saleId);
         } catch (SQLException e) {
             plugin.getLogger().severe("Failed to update status: " + e.getMessage());
         }
@@ -4,6 +4,7 @@ import org.bukkit.inventory.ItemStack;
 
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a single firesale instance (active, pending, or historical).
@@ -14,13 +15,14 @@ public class Firesale {
     private final ItemStack item;
     private final double price;
     private final int initialQuantity;
-    private int remainingQuantity;
+    // Stock is claimed with CAS so concurrent buyers can never take the last unit twice
+    private final AtomicInteger remainingQuantity;
     private final Instant startTime;
     private Instant endTime;
     private final UUID creatorUuid;
     private final String creatorName;
-    private SaleStatus status;
-    private int totalSold;
+    private volatile SaleStatus status;
+    private final AtomicInteger totalSold;
 
     public Firesale(int saleId, ItemStack item, double price, int initialQuantity, int remainingQuantity,
                     Instant startTime, Instant endTime, UUID creatorUuid, String creatorName,
@@ -29,13 +31,13 @@ public class Firesale {
         this.item = item;
         this.price = price;
         this.initialQuantity = initialQuantity;
-        this.remainingQuantity = remainingQuantity;
+        this.remainingQuantity = new AtomicInteger(remainingQuantity);
         this.startTime = startTime;
         this.endTime = endTime;
         this.creatorUuid = creatorUuid;
         this.creatorName = creatorName;
         this.status = status;
-        this.totalSold = totalSold;
+        this.totalSold = new AtomicInteger(totalSold);
     }
 
     // Getters
@@ -43,13 +45,13 @@ public class Firesale {
     public ItemStack getItem() { return item; }
     public double getPrice() { return price; }
     public int getInitialQuantity() { return initialQuantity; }
-    public int getRemainingQuantity() { return remainingQuantity; }
+    public int getRemainingQuantity() { return remainingQuantity.get(); }
     public Instant getStartTime() { return startTime; }
     public Instant getEndTime() { return endTime; }
     public UUID getCreatorUuid() { return creatorUuid; }
     public String getCreatorName() { return creatorName; }
     public SaleStatus getStatus() { return status; }
-    public int getTotalSold() { return totalSold; }
+    public int getTotalSold() { return totalSold.get(); }
 
     public long getTimeRemainingMillis() {
         if (status != SaleStatus.ACTIVE) return 0;
@@ -57,10 +59,34 @@ public class Firesale {
         return Math.max(0, remaining);
     }
 
+    // --- Stock reservation ---
+
+    /**
+     * Claims one unit. Returns the stock left after the claim, or -1 if the sale is sold out.
+     */
+    public int reserveUnit() {
+        while (true) {
+            int current = remainingQuantity.get();
+            if (current <= 0) return -1;
+            if (remainingQuantity.compareAndSet(current, current - 1)) {
+                totalSold.incrementAndGet();
+                return current - 1;
+            }
+        }
+    }
+
+    /**
+     * Gives back a unit claimed by {@link #reserveUnit()} when the purchase could not be completed.
+     */
+    public void releaseUnit() {
+        totalSold.decrementAndGet();
+        remainingQuantity.incrementAndGet();
+    }
+
     // Setters
     public void setSaleId(int saleId) { this.saleId = saleId; }
-    public void setRemainingQuantity(int remainingQuantity) { this.remainingQuantity = remainingQuantity; }
+    public void setRemainingQuantity(int remainingQuantity) { this.remainingQuantity.set(remainingQuantity); }
     public void setEndTime(Instant endTime) { this.endTime = endTime; }
     public void setStatus(SaleStatus status) { this.status = status; }
-    public void setTotalSold(int totalSold) { this.totalSold = totalSold; }
+    public void setTotalSold(int totalSold) { this.totalSold.set(totalSold); }
 }
\ No newline at end of file
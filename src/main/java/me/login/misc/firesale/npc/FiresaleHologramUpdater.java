@@ -23,6 +23,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Keeps the firesale NPC's hologram in step with the current sale. The text is only rebuilt when
+ * the manager reports a sale change or the NPC spawns/despawns; the periodic run is otherwise a no-op.
+ */
 public class FiresaleHologramUpdater extends BukkitRunnable {
 
     private final FiresaleManager firesaleManager;
@@ -30,6 +34,8 @@ public class FiresaleHologramUpdater extends BukkitRunnable {
     private final NPC npc;
     private final MiniMessage miniMessage;
     private String lastText = "";
+    private boolean dirty = true;
+    private boolean wasSpawned;
     private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM dd HH:mm").withZone(ZoneId.systemDefault());
 
     // List to manage hologram lines
@@ -47,6 +53,13 @@ public class FiresaleHologramUpdater extends BukkitRunnable {
         this.HOLOGRAM_TAG_KEY = new NamespacedKey(plugin, "firesale_hologram");
     }
 
+    /**
+     * Requests a rebuild on the next run. Called by the manager on any sale change.
+     */
+    public void markDirty() {
+        dirty = true;
+    }
+
     @Override
     public void run() {
         // 1. Validation Check
@@ -55,8 +68,14 @@ public class FiresaleHologramUpdater extends BukkitRunnable {
             return;
         }
 
+        // Nothing changed and the NPC is where it was: skip the rebuild
+        boolean spawned = npc.isSpawned();
+        if (!dirty && spawned == wasSpawned) return;
+        dirty = false;
+        wasSpawned = spawned;
+
         // 2. Spawn Check
-        if (!npc.isSpawned()) {
+        if (!spawned) {
             if (!lastText.isEmpty()) {
                 plugin.getLogger().info("[Firesale] NPC " + npc.getId() + " is not spawned. Hiding hologram.");
                 fullReset();
@@ -120,8 +139,8 @@ public class FiresaleHologramUpdater extends BukkitRunnable {
 
         String newText = newName.toString();
 
-        // 3. Change Check
-        if (newText.equals(lastText)) {
+        // 3. Change Check (respawned NPCs need their displays back even if the text is unchanged)
+        if (newText.equals(lastText) && !hologramLines.isEmpty()) {
             return; // Text hasn't changed, do nothing
         }
 
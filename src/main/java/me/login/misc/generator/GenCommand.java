@@ -32,7 +32,18 @@ public class GenCommand implements CommandExecutor, TabCompleter {
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
         if (args.length == 0) {
-            sender.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>Usage: /generator <check|remove|give|setlimit>"));
+            sender.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>Usage: /generator <collect|check|remove|give|setlimit>"));
+            return true;
+        }
+
+        // /generator collect
+        if (args[0].equalsIgnoreCase("collect")) {
+            if (!(sender instanceof Player player)) return true;
+            if (!manager.isVirtualDrops()) {
+                sender.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>Generator drops are not stored on this server."));
+                return true;
+            }
+            manager.takeVirtualDrops(player.getUniqueId()).thenAccept(stored -> plugin.getServer().getScheduler().runTask(plugin, () -> collect(player, stored)));
             return true;
         }
 
@@ -75,11 +86,9 @@ public class GenCommand implements CommandExecutor, TabCompleter {
             StringBuilder sb = new StringBuilder();
             sb.append("<yellow>Generators for ").append(targetName).append(":%nl%");
 
-            for (GenManager.GenInstance gen : manager.getActiveGenerators().values()) {
-                if (gen.ownerUUID.equals(t.getUniqueId().toString())) {
-                    sb.append(" <gray>- ").append(gen.tierId).append(" at ").append(gen.world).append(" ").append(gen.x).append(",").append(gen.y).append(",").append(gen.z).append("%nl%");
-                    count++;
-                }
+            for (GenManager.GenInstance gen : manager.getGenerators(t.getUniqueId().toString())) {
+                sb.append(" <gray>- ").append(gen.tierId).append(" at ").append(gen.world).append(" ").append(gen.x).append(",").append(gen.y).append(",").append(gen.z).append("%nl%");
+                count++;
             }
             sb.append("<yellow>Total: ").append(count);
             sender.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + sb.toString()));
@@ -101,14 +110,12 @@ public class GenCommand implements CommandExecutor, TabCompleter {
             String uuid = target.getUniqueId().toString();
             int removed = 0;
 
-            // Create a copy of entries to avoid ConcurrentModificationException
-            for (Map.Entry<String, GenManager.GenInstance> entry : new java.util.HashMap<>(manager.getActiveGenerators()).entrySet()) {
-                if (entry.getValue().ownerUUID.equals(uuid)) {
-                    Location loc = new Location(plugin.getServer().getWorld(entry.getValue().world), entry.getValue().x, entry.getValue().y, entry.getValue().z);
-                    loc.getBlock().setType(Material.AIR);
-                    manager.breakGenerator(target, loc);
-                    removed++;
-                }
+            // getGenerators returns a copy, so breaking while iterating is safe
+            for (GenManager.GenInstance gen : manager.getGenerators(uuid)) {
+                Location loc = new Location(plugin.getServer().getWorld(gen.world), gen.x, gen.y, gen.z);
+                loc.getBlock().setType(Material.AIR);
+                manager.breakGenerator(target, loc);
+                removed++;
             }
             sender.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<green>Removed " + removed + " generators."));
             return true;
@@ -142,6 +149,37 @@ public class GenCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private void collect(Player player, Map<String, Long> stored) {
+        long collected = 0;
+        for (Map.Entry<String, Long> entry : stored.entrySet()) {
+            ItemStack drop = itemManager.getDropItem(entry.getKey());
+            if (drop == null || !player.isOnline()) {
+                manager.returnVirtualDrops(player.getUniqueId(), entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            long remaining = entry.getValue();
+            while (remaining > 0) {
+                ItemStack stack = drop.clone();
+                int amount = (int) Math.min(remaining, stack.getMaxStackSize());
+                stack.setAmount(amount);
+                Map<Integer, ItemStack> leftover = player.getInventory().addItem(stack);
+                int notAdded = leftover.values().stream().mapToInt(ItemStack::getAmount).sum();
+                collected += amount - notAdded;
+                remaining -= amount - notAdded;
+                if (notAdded > 0) break; // Inventory full
+            }
+            // Whatever did not fit stays in storage
+            if (remaining > 0) manager.returnVirtualDrops(player.getUniqueId(), entry.getKey(), remaining);
+        }
+
+        if (collected == 0) {
+            player.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>Nothing collected. Storage empty or inventory full."));
+            return;
+        }
+        player.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<green>Collected <white>" + collected + " <green>generator drops."));
+    }
+
     private boolean noPerm(CommandSender sender) {
         sender.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>No Permission."));
         return true;
@@ -152,6 +190,7 @@ public class GenCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
+            completions.add("collect");
             if (sender.hasPermission("admin.gengive")) completions.add("give");
             if (sender.hasPermission("admin.gencheck")) completions.add("check");
             if (sender.hasPermission("admin.genremove")) completions.add("remove");
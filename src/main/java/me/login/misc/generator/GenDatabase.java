@@ -1,76 +1,81 @@
 package me.login.misc.generator;
 
 import me.login.Login;
-import java.io.File;
-import java.io.IOException;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
+
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 public class GenDatabase {
     private final Login plugin;
-    private Connection connection;
-    private final String dbPath;
+    private final SQLiteDatabase database;
+
+    // Drops stored per owner + tier instead of spawned, merged as deltas until flushed
+    public record DropKey(String ownerUUID, String tierId) {}
+    public record StoredGenerator(String ownerUUID, String world, int x, int y, int z, String tierId) {}
+    private final WriteBehindBuffer<DropKey, Long> pendingDrops;
+    private final long virtualStorageCap;
 
     public GenDatabase(Login plugin) {
         this.plugin = plugin;
 
-        File databaseDir = new File(plugin.getDataFolder(), "database");
-        if (!databaseDir.exists()) {
-            databaseDir.mkdirs(); // This creates the directory if it doesn't exist
-        }
-
-        this.dbPath = databaseDir.getAbsolutePath() + File.separator + "generators.db";
+        this.database = plugin.getDatabaseService().open("generators.db");
         initializeDatabase();
+
+        this.virtualStorageCap = Math.max(1L, plugin.getConfig().getLong("generator.virtual-storage-cap", 100000L));
+        this.pendingDrops = database.writeBehind("virtual_drops",
+                "INSERT INTO gen_virtual_drops(owner_uuid, tier_id, amount) VALUES(?, ?, MIN(?, ?)) " +
+                        "ON CONFLICT(owner_uuid, tier_id) DO UPDATE SET amount = MIN(amount + excluded.amount, ?)",
+                (ps, key, amount) -> {
+                    ps.setString(1, key.ownerUUID());
+                    ps.setString(2, key.tierId());
+                    ps.setLong(3, amount);
+                    ps.setLong(4, virtualStorageCap);
+                    ps.setLong(5, virtualStorageCap);
+                },
+                Long::sum);
     }
 
-    private Connection getSQLConnection() {
-        File dataFolder = new File(dbPath);
-        if (!dataFolder.exists()) {
-            try {
-                if (!dataFolder.createNewFile()) {
-                    plugin.getLogger().severe("Could not create generators.db file!");
-                    return null;
-                }
-            } catch (IOException e) {
-                plugin.getLogger().severe("IO Exception creating generators.db");
-                return null;
-            }
-        }
-        try {
-            if (connection != null && !connection.isClosed()) {
-                return connection;
-            }
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
-            return connection;
-        } catch (SQLException | ClassNotFoundException ex) {
-            plugin.getLogger().log(Level.SEVERE, "SQLite exception", ex);
-        }
-        return null;
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
     private void initializeDatabase() {
-        connection = getSQLConnection();
         try {
-            Statement s = connection.createStatement();
-            // Generators table
-            s.executeUpdate("CREATE TABLE IF NOT EXISTS generators (" +
-                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "`owner_uuid` VARCHAR(36) NOT NULL," +
-                    "`world` VARCHAR(50) NOT NULL," +
-                    "`x` INTEGER NOT NULL," +
-                    "`y` INTEGER NOT NULL," +
-                    "`z` INTEGER NOT NULL," +
-                    "`tier_id` VARCHAR(32) NOT NULL" +
-                    ");");
-
-            // Limits table
-            s.executeUpdate("CREATE TABLE IF NOT EXISTS gen_limits (" +
-                    "`player_uuid` VARCHAR(36) PRIMARY KEY," +
-                    "`limit_amount` INTEGER NOT NULL" +
-                    ");");
-
-            s.close();
+            database.withConnection(conn -> {
+                try (Statement s = conn.createStatement()) {
+                    // Generators table
+                    s.executeUpdate("CREATE TABLE IF NOT EXISTS generators (" +
+                            "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "`owner_uuid` VARCHAR(36) NOT NULL," +
+                            "`world` VARCHAR(50) NOT NULL," +
+                            "`x` INTEGER NOT NULL," +
+                            "`y` INTEGER NOT NULL," +
+                            "`z` INTEGER NOT NULL," +
+                            "`tier_id` VARCHAR(32) NOT NULL" +
+                            ");");
+
+                    // Limits table
+                    s.executeUpdate("CREATE TABLE IF NOT EXISTS gen_limits (" +
+                            "`player_uuid` VARCHAR(36) PRIMARY KEY," +
+                            "`limit_amount` INTEGER NOT NULL" +
+                            ");");
+
+                    // Virtual drop storage (generator.drop-mode: virtual)
+                    s.executeUpdate("CREATE TABLE IF NOT EXISTS gen_virtual_drops (" +
+                            "`owner_uuid` VARCHAR(36) NOT NULL," +
+                            "`tier_id` VARCHAR(32) NOT NULL," +
+                            "`amount` INTEGER NOT NULL DEFAULT 0," +
+                            "PRIMARY KEY (`owner_uuid`, `tier_id`)" +
+                            ");");
+                }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error creating generator tables", e);
         }
@@ -79,14 +84,8 @@ public class GenDatabase {
     // --- Generator Methods ---
     public void addGenerator(String ownerUUID, String world, int x, int y, int z, String tierId) {
         String sql = "INSERT INTO generators(owner_uuid, world, x, y, z, tier_id) VALUES(?,?,?,?,?,?)";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, ownerUUID);
-            ps.setString(2, world);
-            ps.setInt(3, x);
-            ps.setInt(4, y);
-            ps.setInt(5, z);
-            ps.setString(6, tierId);
-            ps.executeUpdate();
+        try {
+            database.update(sql, ownerUUID, world, x, y, z, tierId);
         } catch (SQLException ex) {
             plugin.getLogger().severe("Error adding generator: " + ex.getMessage());
         }
@@ -94,12 +93,8 @@ public class GenDatabase {
 
     public void removeGenerator(String world, int x, int y, int z) {
         String sql = "DELETE FROM generators WHERE world = ? AND x = ? AND y = ? AND z = ?";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, world);
-            ps.setInt(2, x);
-            ps.setInt(3, y);
-            ps.setInt(4, z);
-            ps.executeUpdate();
+        try {
+            database.update(sql, world, x, y, z);
         } catch (SQLException ex) {
             plugin.getLogger().severe("Error removing generator: " + ex.getMessage());
         }
@@ -107,35 +102,85 @@ public class GenDatabase {
 
     public void updateGeneratorTier(String world, int x, int y, int z, String newTierId) {
         String sql = "UPDATE generators SET tier_id = ? WHERE world = ? AND x = ? AND y = ? AND z = ?";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, newTierId);
-            ps.setString(2, world);
-            ps.setInt(3, x);
-            ps.setInt(4, y);
-            ps.setInt(5, z);
-            ps.executeUpdate();
+        try {
+            database.update(sql, newTierId, world, x, y, z);
         } catch (SQLException ex) {
             plugin.getLogger().severe("Error updating generator tier: " + ex.getMessage());
         }
     }
 
-    public ResultSet getAllGenerators() {
+    public List<StoredGenerator> getAllGenerators() {
         try {
-            return getSQLConnection().createStatement().executeQuery("SELECT * FROM generators");
+            return database.query("SELECT * FROM generators", rs -> {
+                List<StoredGenerator> generators = new ArrayList<>();
+                while (rs.next()) {
+                    generators.add(new StoredGenerator(rs.getString("owner_uuid"), rs.getString("world"),
+                            rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), rs.getString("tier_id")));
+                }
+                return generators;
+            });
         } catch (SQLException ex) {
             plugin.getLogger().severe("Error fetching generators: " + ex.getMessage());
-            return null;
+            return new ArrayList<>();
+        }
+    }
+
+    // --- Virtual Drop Methods ---
+
+    /**
+     * Queues drops for an owner's virtual storage. Written in batches by the write-behind buffer.
+     */
+    public void addVirtualDrops(String ownerUUID, String tierId, long amount) {
+        if (amount <= 0) return;
+        pendingDrops.put(new DropKey(ownerUUID, tierId), amount);
+    }
+
+    /**
+     * Stored drops per tier for an owner, including drops not yet flushed. Call off the main thread.
+     */
+    public Map<String, Long> getVirtualDrops(String ownerUUID) {
+        pendingDrops.flushIf(key -> key.ownerUUID().equals(ownerUUID));
+        try {
+            return database.query("SELECT tier_id, amount FROM gen_virtual_drops WHERE owner_uuid = ? AND amount > 0", rs -> {
+                Map<String, Long> drops = new HashMap<>();
+                while (rs.next()) drops.put(rs.getString("tier_id"), rs.getLong("amount"));
+                return drops;
+            }, ownerUUID);
+        } catch (SQLException ex) {
+            plugin.getLogger().severe("Error fetching virtual drops: " + ex.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Removes and returns all stored drops of an owner in one transaction. Call off the main thread.
+     */
+    public Map<String, Long> takeVirtualDrops(String ownerUUID) {
+        pendingDrops.flushIf(key -> key.ownerUUID().equals(ownerUUID));
+        try {
+            return database.transaction(conn -> {
+                Map<String, Long> drops = new HashMap<>();
+                PreparedStatement select = database.prepare("SELECT tier_id, amount FROM gen_virtual_drops WHERE owner_uuid = ? AND amount > 0");
+                select.setString(1, ownerUUID);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) drops.put(rs.getString("tier_id"), rs.getLong("amount"));
+                }
+                PreparedStatement delete = database.prepare("DELETE FROM gen_virtual_drops WHERE owner_uuid = ?");
+                delete.setString(1, ownerUUID);
+                delete.executeUpdate();
+                return drops;
+            });
+        } catch (SQLException ex) {
+            plugin.getLogger().severe("Error taking virtual drops: " + ex.getMessage());
+            return new HashMap<>();
         }
     }
 
     // --- Limit Methods ---
     public void setPlayerLimit(String uuid, int limit) {
         String sql = "INSERT INTO gen_limits(player_uuid, limit_amount) VALUES(?,?) ON CONFLICT(player_uuid) DO UPDATE SET limit_amount = ?";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, uuid);
-            ps.setInt(2, limit);
-            ps.setInt(3, limit);
-            ps.executeUpdate();
+        try {
+            database.update(sql, uuid, limit, limit);
         } catch (SQLException ex) {
             plugin.getLogger().severe("Error setting player limit: " + ex.getMessage());
         }
@@ -143,23 +188,16 @@ public class GenDatabase {
 
     public Integer getPlayerLimit(String uuid) {
         String sql = "SELECT limit_amount FROM gen_limits WHERE player_uuid = ?";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, uuid);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("limit_amount");
-            }
+        try {
+            // Return null if no custom limit set
+            return database.query(sql, rs -> rs.next() ? rs.getInt("limit_amount") : null, uuid);
         } catch (SQLException ex) {
             plugin.getLogger().severe("Error fetching player limit: " + ex.getMessage());
         }
-        return null; // Return null if no custom limit set
+        return null;
     }
 
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) connection.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        database.close();
     }
 }
\ No newline at end of file
@@ -2,11 +2,18 @@ package me.login.misc.generator;
 
 import me.login.Login;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Chunk;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.EquipmentSlot;
 
 public class GenListener implements Listener {
@@ -28,9 +35,15 @@ public class GenListener implements Listener {
 
         org.bukkit.entity.Player p = event.getPlayer();
 
+        // Limits cannot be checked until the stored generators are counted
+        if (!manager.isLoaded()) {
+            p.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>Generators are still loading, try again in a moment."));
+            event.setCancelled(true);
+            return;
+        }
+
         // Check Limits
-        int currentPlaced = (int) manager.getActiveGenerators().values().stream()
-                .filter(g -> g.ownerUUID.equals(p.getUniqueId().toString())).count();
+        int currentPlaced = manager.getGeneratorCount(p.getUniqueId().toString());
         int limit = manager.getPlayerLimit(p);
 
         if (currentPlaced >= limit) {
@@ -68,6 +81,37 @@ public class GenListener implements Listener {
         manager.upgradeGenerator(event.getPlayer(), event.getClickedBlock().getLocation());
     }
 
+    // --- Limits are preloaded so placement never waits on SQLite ---
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        manager.loadPlayerLimit(event.getPlayer().getUniqueId().toString());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        manager.unloadPlayerLimit(event.getPlayer().getUniqueId().toString());
+    }
+
+    // --- Chunk activation: only generators in loaded chunks tick ---
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        manager.activateChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        manager.deactivateChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        manager.deactivateWorld(event.getWorld());
+    }
+
     private void sendGenTitle(org.bukkit.entity.Player player, String subtitleMinimessage) {
         net.kyori.adventure.title.Title title = net.kyori.adventure.title.Title.title(
                 LegacyComponentSerializer.legacyAmpersand().deserialize(plugin.getConfig().getString("server_prefix_2")),
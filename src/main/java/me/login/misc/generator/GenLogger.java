@@ -1,19 +1,15 @@
 package me.login.misc.generator;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 
 public class GenLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long logChannelId;
     private final long adminLogChannelId;
 
-    public GenLogger(Login plugin, JDA jda) {
+    public GenLogger(Login plugin) {
         this.plugin = plugin;
-        this.jda = jda;
         // Load channels from config
         this.logChannelId = plugin.getConfig().getLong("generator.log-channel-id", 0);
         this.adminLogChannelId = plugin.getConfig().getLong("generator.admin-log-channel-id", 0);
@@ -36,10 +32,6 @@ public class GenLogger {
     }
 
     private void logToDiscord(long channelId, String message) {
-        if (jda == null || channelId == 0) return;
-        MessageChannel channel = jda.getTextChannelById(channelId);
-        if (channel != null) {
-            channel.sendMessage(message).queue();
-        }
+        plugin.getLogBus().send(channelId, message);
     }
 }
\ No newline at end of file
@@ -7,13 +7,19 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Item;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
-import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class GenManager {
@@ -25,42 +31,66 @@ public class GenManager {
 
     // Active generators cache: Location (as string) -> GenInstance
     private final Map<String, GenInstance> activeGenerators = new ConcurrentHashMap<>();
+    // Owner UUID -> that owner's generators, kept in step with activeGenerators
+    private final Map<String, Set<GenInstance>> ownerIndex = new ConcurrentHashMap<>();
     // Custom player limits cache: UUID -> Limit
     private final Map<String, Integer> customLimits = new ConcurrentHashMap<>();
+    // Players whose custom limit lookup finished (with or without a custom limit)
+    private final Set<String> loadedLimits = ConcurrentHashMap.newKeySet();
+
+    // World name -> chunk key -> generators in that chunk (main thread only)
+    private final Map<String, Map<Long, List<GenInstance>>> chunkIndex = new HashMap<>();
+    // Drop schedule for generators in loaded chunks (main thread only)
+    private final GenScheduler scheduler = new GenScheduler();
+
+    // Drop handling: "stack" keeps one item entity per generator, "virtual" stores drops per owner
+    private final boolean virtualDrops;
+    private final int stackCap;
 
     private BukkitRunnable task;
+    // Owner counts are only known once every stored generator is indexed
+    private volatile boolean generatorsLoaded = false;
 
     public GenManager(Login plugin, GenDatabase database, GenItemManager itemManager, GenLogger logger) {
         this.plugin = plugin;
         this.database = database;
         this.itemManager = itemManager;
         this.logger = logger;
+        this.virtualDrops = plugin.getConfig().getString("generator.drop-mode", "stack").equalsIgnoreCase("virtual");
+        this.stackCap = Math.max(1, plugin.getConfig().getInt("generator.stack-cap", 64));
     }
 
     public void loadGenerators() {
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<GenInstance> loaded = new ArrayList<>();
             // Load Generators
-            try (ResultSet rs = database.getAllGenerators()) {
-                while (rs != null && rs.next()) {
-                    String worldName = rs.getString("world");
-                    int x = rs.getInt("x");
-                    int y = rs.getInt("y");
-                    int z = rs.getInt("z");
-                    String tierId = rs.getString("tier_id");
-                    String owner = rs.getString("owner_uuid");
-
-                    String locKey = locToString(worldName, x, y, z);
-
-                    // Validate tier exists
-                    if (itemManager.getGenInfo(tierId) != null) {
-                        activeGenerators.put(locKey, new GenInstance(owner, worldName, x, y, z, tierId));
-                    }
+            for (GenDatabase.StoredGenerator stored : database.getAllGenerators()) {
+                // Validate tier exists
+                if (itemManager.getGenInfo(stored.tierId()) != null) {
+                    loaded.add(new GenInstance(stored.ownerUUID(), stored.world(), stored.x(), stored.y(), stored.z(), stored.tierId()));
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
             }
-            // Start task after loading
-            startTask();
+
+            // Index and schedule on the main thread, then start ticking
+            plugin.getServer().getScheduler().runTask(plugin, () -> {
+                for (GenInstance gen : loaded) {
+                    // A generator placed while loading already owns its spot
+                    if (activeGenerators.putIfAbsent(locToString(gen.world, gen.x, gen.y, gen.z), gen) == null) {
+                        index(gen);
+                    }
+                }
+                generatorsLoaded = true;
+                for (Map.Entry<String, Map<Long, List<GenInstance>>> worldEntry : chunkIndex.entrySet()) {
+                    World world = Bukkit.getWorld(worldEntry.getKey());
+                    if (world == null) continue;
+                    for (long chunkKey : worldEntry.getValue().keySet()) {
+                        if (world.isChunkLoaded(chunkX(chunkKey), chunkZ(chunkKey))) {
+                            activateChunk(world, chunkX(chunkKey), chunkZ(chunkKey));
+                        }
+                    }
+                }
+                startTask();
+            });
         });
     }
 
@@ -68,26 +98,126 @@ public class GenManager {
         task = new BukkitRunnable() {
             @Override
             public void run() {
-                for (GenInstance gen : activeGenerators.values()) {
-                    gen.secondsElapsed++; // Now counting seconds
+                scheduler.tick(gen -> {
                     GenItemManager.GenInfo info = itemManager.getGenInfo(gen.tierId);
-                    if (info == null) continue;
-
-                    if (gen.secondsElapsed >= info.speed) {
-                        gen.secondsElapsed = 0;
-                        spawnDrop(gen, info);
-                    }
-                }
+                    return info == null ? 0 : Math.max(1, info.speed);
+                }, gen -> spawnDrop(gen, itemManager.getGenInfo(gen.tierId)));
             }
         };
-        // FIX: Run every 20 ticks (1 second) so speed is interpreted as seconds
+        // Run every 20 ticks (1 second) so speed is interpreted as seconds
         task.runTaskTimer(plugin, 20L, 20L);
     }
 
+    // --- Chunk Index ---
+
+    /**
+     * Schedules every generator in a chunk that just loaded.
+     */
+    public void activateChunk(World world, int chunkX, int chunkZ) {
+        Map<Long, List<GenInstance>> chunks = chunkIndex.get(world.getName());
+        if (chunks == null) return;
+        List<GenInstance> gens = chunks.get(chunkKey(chunkX, chunkZ));
+        if (gens == null) return;
+        for (GenInstance gen : gens) {
+            activate(world, gen);
+        }
+    }
+
+    /**
+     * Stops ticking every generator in a chunk that is unloading.
+     */
+    public void deactivateChunk(World world, int chunkX, int chunkZ) {
+        Map<Long, List<GenInstance>> chunks = chunkIndex.get(world.getName());
+        if (chunks == null) return;
+        List<GenInstance> gens = chunks.get(chunkKey(chunkX, chunkZ));
+        if (gens == null) return;
+        for (GenInstance gen : gens) {
+            deactivate(gen);
+        }
+    }
+
+    public void deactivateWorld(World world) {
+        Map<Long, List<GenInstance>> chunks = chunkIndex.get(world.getName());
+        if (chunks == null) return;
+        for (List<GenInstance> gens : chunks.values()) {
+            for (GenInstance gen : gens) deactivate(gen);
+        }
+    }
+
+    private void activate(World world, GenInstance gen) {
+        if (gen.loadedWorld != null) return;
+        GenItemManager.GenInfo info = itemManager.getGenInfo(gen.tierId);
+        if (info == null) return;
+        gen.loadedWorld = world;
+        scheduler.schedule(gen, info.speed);
+    }
+
+    private void deactivate(GenInstance gen) {
+        gen.loadedWorld = null;
+        gen.dropEntity = null;
+        scheduler.cancel(gen);
+    }
+
+    private void index(GenInstance gen) {
+        ownerIndex.computeIfAbsent(gen.ownerUUID, o -> ConcurrentHashMap.newKeySet()).add(gen);
+        chunkIndex.computeIfAbsent(gen.world, w -> new HashMap<>())
+                .computeIfAbsent(chunkKey(gen.x >> 4, gen.z >> 4), k -> new ArrayList<>(4))
+                .add(gen);
+    }
+
+    private void unindex(GenInstance gen) {
+        deactivate(gen);
+        ownerIndex.computeIfPresent(gen.ownerUUID, (owner, gens) -> {
+            gens.remove(gen);
+            return gens.isEmpty() ? null : gens;
+        });
+        Map<Long, List<GenInstance>> chunks = chunkIndex.get(gen.world);
+        if (chunks == null) return;
+        long key = chunkKey(gen.x >> 4, gen.z >> 4);
+        List<GenInstance> gens = chunks.get(key);
+        if (gens == null) return;
+        gens.remove(gen);
+        if (gens.isEmpty()) chunks.remove(key);
+        if (chunks.isEmpty()) chunkIndex.remove(gen.world);
+    }
+
+    public int getTickingCount() {
+        return scheduler.size();
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long chunkKey) {
+        return (int) (chunkKey >> 32);
+    }
+
+    private static int chunkZ(long chunkKey) {
+        return (int) chunkKey;
+    }
+
     private void spawnDrop(GenInstance gen, GenItemManager.GenInfo info) {
-        World world = Bukkit.getWorld(gen.world);
-        if (world == null) return;
-        if (!world.isChunkLoaded(gen.x >> 4, gen.z >> 4)) return;
+        // Only generators in loaded chunks are scheduled, so no world/chunk lookups here
+        World world = gen.loadedWorld;
+        if (world == null || info == null) return;
+
+        if (virtualDrops) {
+            database.addVirtualDrops(gen.ownerUUID, gen.tierId, 1);
+            return;
+        }
+
+        // Grow the generator's existing drop entity instead of spawning another one
+        Item stacked = resolveDropEntity(gen);
+        if (stacked != null) {
+            // The merged stack would otherwise despawn 5 minutes after its first item; its size is capped, so keep it alive
+            stacked.setTicksLived(1);
+            ItemStack stack = stacked.getItemStack();
+            if (stack.getAmount() >= Math.min(stackCap, stack.getMaxStackSize())) return; // Full: idle until collected
+            stack.setAmount(stack.getAmount() + 1);
+            stacked.setItemStack(stack);
+            return;
+        }
 
         Location loc = new Location(world, gen.x + 0.5, gen.y + 2.0, gen.z + 0.5); // 2 blocks above
         ItemStack drop = itemManager.getDropItem(gen.tierId);
@@ -96,12 +226,53 @@ public class GenManager {
             world.spawnParticle(Particle.POOF, loc, 5, 0.1, 0.1, 0.1, 0.05);
             Item itemEntity = world.dropItem(loc, drop);
             itemEntity.setVelocity(new Vector(0, 0.1, 0));
+            gen.dropEntity = itemEntity;
+            gen.dropEntityId = itemEntity.getUniqueId();
         }
     }
 
+    private Item resolveDropEntity(GenInstance gen) {
+        if (gen.dropEntity != null && gen.dropEntity.isValid()) return gen.dropEntity;
+        gen.dropEntity = null;
+        if (gen.dropEntityId == null) return null;
+
+        // The entity object is replaced when its chunk reloads; find it again by UUID
+        Entity entity = Bukkit.getEntity(gen.dropEntityId);
+        if (entity instanceof Item item && item.isValid() && itemManager.getDropValue(item.getItemStack()) != null) {
+            gen.dropEntity = item;
+            return item;
+        }
+        gen.dropEntityId = null;
+        return null;
+    }
+
+    // --- Virtual Drops ---
+
+    public boolean isVirtualDrops() {
+        return virtualDrops;
+    }
+
+    /**
+     * Removes and returns an owner's stored drops (tier id -> amount). Completes off the main thread.
+     */
+    public CompletableFuture<Map<String, Long>> takeVirtualDrops(UUID owner) {
+        return database.getDatabase().supplyAsync(() -> database.takeVirtualDrops(owner.toString()));
+    }
+
+    /**
+     * Puts drops back into an owner's storage, e.g. what did not fit into the inventory.
+     */
+    public void returnVirtualDrops(UUID owner, String tierId, long amount) {
+        database.addVirtualDrops(owner.toString(), tierId, amount);
+    }
+
     public void placeGenerator(org.bukkit.entity.Player player, Location loc, String tierId) {
         String locKey = locToString(loc);
-        activeGenerators.put(locKey, new GenInstance(player.getUniqueId().toString(), loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), tierId));
+        GenInstance gen = new GenInstance(player.getUniqueId().toString(), loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), tierId);
+        GenInstance replaced = activeGenerators.put(locKey, gen);
+        if (replaced != null) unindex(replaced);
+        index(gen);
+        activate(loc.getWorld(), gen);
 
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
             database.addGenerator(player.getUniqueId().toString(), loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), tierId);
@@ -119,6 +290,7 @@ public class GenManager {
             activeGenerators.put(locKey, gen);
             return false;
         }
+        unindex(gen);
 
         ItemStack item = itemManager.getGeneratorItem(gen.tierId);
         if (item != null) {
@@ -181,6 +353,9 @@ public class GenManager {
 
         // Update logic
         gen.tierId = nextInfo.id;
+        if (scheduler.isScheduled(gen)) {
+            scheduler.schedule(gen, nextInfo.speed);
+        }
         Material newMat = nextInfo.genItem.getType();
         loc.getBlock().setType(newMat);
 
@@ -201,20 +376,53 @@ public class GenManager {
         loc.getWorld().spawnParticle(Particle.COMPOSTER, loc.clone().add(0.5, 1, 0.5), 10);
     }
 
+    // --- Owners & Limits ---
+
+    /**
+     * False until the startup load has indexed every stored generator; owner counts read low before that.
+     */
+    public boolean isLoaded() {
+        return generatorsLoaded;
+    }
+
+    public int getGeneratorCount(String ownerUUID) {
+        Set<GenInstance> gens = ownerIndex.get(ownerUUID);
+        return gens == null ? 0 : gens.size();
+    }
+
+    public Set<GenInstance> getGenerators(String ownerUUID) {
+        Set<GenInstance> gens = ownerIndex.get(ownerUUID);
+        return gens == null ? Set.of() : Set.copyOf(gens);
+    }
+
+    /**
+     * Loads a player's custom limit on the DB executor (called on join).
+     */
+    public void loadPlayerLimit(String uuid) {
+        if (loadedLimits.contains(uuid)) return;
+        database.getDatabase().runAsync(() -> {
+            Integer dbLimit = database.getPlayerLimit(uuid);
+            // A limit set by command while loading wins over the stored one
+            if (dbLimit != null) customLimits.putIfAbsent(uuid, dbLimit);
+            loadedLimits.add(uuid);
+        });
+    }
+
+    public void unloadPlayerLimit(String uuid) {
+        customLimits.remove(uuid);
+        loadedLimits.remove(uuid);
+    }
+
     public int getPlayerLimit(org.bukkit.entity.Player player) {
         String uuid = player.getUniqueId().toString();
 
-        // Check cache first
-        if (customLimits.containsKey(uuid)) {
-            return customLimits.get(uuid);
+        // Custom limits are preloaded on join; never query SQLite from here
+        Integer custom = customLimits.get(uuid);
+        if (custom != null) {
+            return custom;
         }
-
-        // Check DB (sync for first load if not in cache? Or just fallback to permission for now)
-        // Ideally, limits are loaded on join. For this implementation, we check DB or perm.
-        Integer dbLimit = database.getPlayerLimit(uuid);
-        if (dbLimit != null) {
-            customLimits.put(uuid, dbLimit);
-            return dbLimit;
+        if (!loadedLimits.contains(uuid)) {
+            loadPlayerLimit(uuid);
         }
 
         // Permissions
@@ -237,8 +445,13 @@ public class GenManager {
 
     public void shutdown() {
         if (task != null) task.cancel();
+        generatorsLoaded = false;
+        scheduler.clear();
+        chunkIndex.clear();
+        ownerIndex.clear();
         activeGenerators.clear();
         customLimits.clear();
+        loadedLimits.clear();
         database.close();
     }
 
@@ -257,7 +470,14 @@ public class GenManager {
         public String world;
         public int x, y, z;
         public String tierId;
-        public int secondsElapsed = 0;
+
+        // Set while the generator's chunk is loaded and it is on a timing wheel
+        World loadedWorld;
+        int wheelSpeed;
+        int wheelSlot;
+        // Stacked drop entity above the generator ("stack" drop mode)
+        Item dropEntity;
+        UUID dropEntityId;
 
         public GenInstance(String ownerUUID, String world, int x, int y, int z, String tierId) {
             this.ownerUUID = ownerUUID;
@@ -0,0 +1,120 @@
+package me.login.misc.generator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Timing wheels for generator drops, one wheel per drop speed (in seconds).
+ * <p>
+ * A generator with speed S sits in one of the S slots of the S-second wheel; each tick only the
+ * current slot of every wheel is visited, so a tick costs the number of due generators rather than
+ * the number of active ones. Only generators in loaded chunks are scheduled. Main thread only.
+ */
+class GenScheduler {
+
+    private final Map<Integer, Wheel> wheels = new HashMap<>();
+    private long tick;
+    private int scheduled;
+
+    /**
+     * Schedules the generator to fire every {@code speed} seconds, starting {@code speed} seconds from now.
+     */
+    void schedule(GenManager.GenInstance gen, int speed) {
+        cancel(gen);
+        int size = Math.max(1, speed);
+        Wheel wheel = wheels.computeIfAbsent(size, Wheel::new);
+        int slot = (int) (tick % size);
+        wheel.slot(slot).add(gen);
+        gen.wheelSpeed = size;
+        gen.wheelSlot = slot;
+        scheduled++;
+    }
+
+    void cancel(GenManager.GenInstance gen) {
+        if (gen.wheelSpeed == 0) return;
+        Wheel wheel = wheels.get(gen.wheelSpeed);
+        if (wheel != null && wheel.slots[gen.wheelSlot] != null && wheel.slots[gen.wheelSlot].remove(gen)) {
+            scheduled--;
+        }
+        gen.wheelSpeed = 0;
+    }
+
+    boolean isScheduled(GenManager.GenInstance gen) {
+        return gen.wheelSpeed != 0;
+    }
+
+    /**
+     * Advances one second and fires every generator due in this slot.
+     *
+     * @param speedOf current speed of a generator's tier, or a value below 1 if the tier is unknown (skipped)
+     */
+    void tick(ToIntFunction<GenManager.GenInstance> speedOf, Consumer<GenManager.GenInstance> fire) {
+        tick++;
+        List<GenManager.GenInstance> moved = null;
+
+        for (Wheel wheel : wheels.values()) {
+            Set<GenManager.GenInstance> due = wheel.slots[(int) (tick % wheel.size)];
+            if (due == null || due.isEmpty()) continue;
+
+            Iterator<GenManager.GenInstance> it = due.iterator();
+            while (it.hasNext()) {
+                GenManager.GenInstance gen = it.next();
+                int speed = speedOf.applyAsInt(gen);
+                if (speed < 1) continue;
+
+                // Tier changed speed (upgrade or item reload): move it to the right wheel
+                if (speed != wheel.size) {
+                    it.remove();
+                    scheduled--;
+                    gen.wheelSpeed = 0;
+                    if (moved == null) moved = new ArrayList<>();
+                    moved.add(gen);
+                    continue;
+                }
+                fire.accept(gen);
+            }
+        }
+
+        if (moved != null) {
+            for (GenManager.GenInstance gen : moved) {
+                schedule(gen, speedOf.applyAsInt(gen));
+            }
+        }
+    }
+
+    int size() {
+        return scheduled;
+    }
+
+    void clear() {
+        wheels.clear();
+        scheduled = 0;
+    }
+
+    private static final class Wheel {
+        private final int size;
+        private final Set<GenManager.GenInstance>[] slots;
+
+        @SuppressWarnings("unchecked")
+        private Wheel(int size) {
+            this.size = size;
+            this.slots = new Set[size];
+        }
+
+        private Set<GenManager.GenInstance> slot(int index) {
+            Set<GenManager.GenInstance> slot = slots[index];
+            if (slot == null) {
+                slot = new LinkedHashSet<>();
+                slots[index] = slot;
+            }
+            return slot;
+        }
+    }
+}
@@ -10,14 +10,18 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+
 public class SellGenDropCommand implements CommandExecutor {
 
     private final Login plugin;
     private final GenItemManager itemManager;
+    private final GenManager manager;
 
-    public SellGenDropCommand(Login plugin, GenItemManager itemManager) {
+    public SellGenDropCommand(Login plugin, GenItemManager itemManager, GenManager manager) {
         this.plugin = plugin;
         this.itemManager = itemManager;
+        this.manager = manager;
     }
 
     @Override
@@ -39,9 +43,43 @@ public class SellGenDropCommand implements CommandExecutor {
             }
         }
 
+        if (!manager.isVirtualDrops()) {
+            finishSale(player, count, totalValue);
+            return true;
+        }
+
+        // Virtual storage is read and cleared on the DB thread; pay out back on the main thread
+        final int inventoryCount = count;
+        final double inventoryValue = totalValue;
+        manager.takeVirtualDrops(player.getUniqueId()).thenAccept(stored -> plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (!player.isOnline()) {
+                // Put the stored drops back; the inventory drops were already removed, so still pay for those
+                stored.forEach((tier, amount) -> manager.returnVirtualDrops(player.getUniqueId(), tier, amount));
+                if (inventoryValue > 0) plugin.getVaultEconomy().depositPlayer(player, inventoryValue);
+                return;
+            }
+
+            int soldCount = inventoryCount;
+            double soldValue = inventoryValue;
+            for (Map.Entry<String, Long> entry : stored.entrySet()) {
+                GenItemManager.GenInfo info = itemManager.getGenInfo(entry.getKey());
+                if (info == null) {
+                    // Unknown tier (removed from config): keep it stored rather than losing it
+                    manager.returnVirtualDrops(player.getUniqueId(), entry.getKey(), entry.getValue());
+                    continue;
+                }
+                soldCount += entry.getValue().intValue();
+                soldValue += info.itemValue * entry.getValue();
+            }
+            finishSale(player, soldCount, soldValue);
+        }));
+        return true;
+    }
+
+    private void finishSale(Player player, int count, double totalValue) {
         if (count == 0) {
             player.sendMessage(plugin.getComponentSerializer().deserialize(plugin.getConfig().getString("server_prefix") + "<red>No generator drops found to sell."));
-            return true;
+            return;
         }
 
         // Give Money (Vault)
@@ -56,7 +94,5 @@ public class SellGenDropCommand implements CommandExecutor {
                 plugin.getComponentSerializer().deserialize(message)
         );
         player.showTitle(title);
-
-        return true;
     }
 }
\ No newline at end of file
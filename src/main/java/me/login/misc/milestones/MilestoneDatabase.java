@@ -1,8 +1,8 @@
 package me.login.misc.milestones;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
 
-import java.io.File;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -10,22 +10,15 @@ import java.util.logging.Level;
 public class MilestoneDatabase {
 
     private final Login plugin;
-    private final String url;
-    private Connection connection;
+    private final SQLiteDatabase database;
 
     public MilestoneDatabase(Login plugin) {
         this.plugin = plugin;
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-        this.url = "jdbc:sqlite:" + dbFolder.getAbsolutePath() + File.separator + "milestones.db";
+        this.database = plugin.getDatabaseService().open("milestones.db");
     }
 
     public void connect() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
             createTable();
             plugin.getLogger().info("Milestone Database connected.");
         } catch (Exception e) {
@@ -34,13 +27,7 @@ public class MilestoneDatabase {
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        database.close();
     }
 
     private void createTable() {
@@ -50,8 +37,8 @@ public class MilestoneDatabase {
                 "claimed_milestones TEXT" + // Stored as "1,2,3"
                 ");";
 
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
+        try {
+            database.update(sql);
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Could not create milestone table!", e);
         }
@@ -62,14 +49,9 @@ public class MilestoneDatabase {
         String sql = "INSERT INTO player_milestones (uuid, current_streak, claimed_milestones) VALUES (?, ?, ?) " +
                 "ON CONFLICT(uuid) DO UPDATE SET current_streak = ?, claimed_milestones = ?";
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.setInt(2, streak);
-                ps.setString(3, claimedStr);
-                ps.setInt(4, streak);
-                ps.setString(5, claimedStr);
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update(sql, uuid.toString(), streak, claimedStr, streak, claimedStr);
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to save milestone data for " + uuid, e);
             }
@@ -77,15 +59,16 @@ public class MilestoneDatabase {
     }
 
     public void loadPlayerData(UUID uuid, MilestoneManager manager) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+        database.runAsync(() -> {
             String sql = "SELECT current_streak, claimed_milestones FROM player_milestones WHERE uuid = ?";
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ResultSet rs = ps.executeQuery();
+            try {
+                String[] row = database.query(sql,
+                        rs -> rs.next() ? new String[]{String.valueOf(rs.getInt("current_streak")), rs.getString("claimed_milestones")} : null,
+                        uuid.toString());
 
-                if (rs.next()) {
-                    int streak = rs.getInt("current_streak");
-                    String claimedStr = rs.getString("claimed_milestones");
+                if (row != null) {
+                    int streak = Integer.parseInt(row[0]);
+                    String claimedStr = row[1];
                     Set<Integer> claimed = new HashSet<>();
                     if (claimedStr != null && !claimedStr.isEmpty()) {
                         for (String s : claimedStr.split(",")) {
@@ -21,12 +21,8 @@ public class MilestoneModule {
         this.database = new MilestoneDatabase(plugin);
         this.database.connect();
 
-        // 2. Logger (Get JDA from LagClearLogger)
-        net.dv8tion.jda.api.JDA jda = null;
-        if (plugin.getLagClearLogger() != null) {
-            jda = plugin.getLagClearLogger().getJDA();
-        }
-        MilestoneLogger logger = new MilestoneLogger(plugin, jda);
+        // 2. Logger (Discord log bus)
+        MilestoneLogger logger = new MilestoneLogger(plugin);
 
         // 3. Manager (Needs TokenManager)
         TokenManager tokenManager = plugin.getTokenManager();
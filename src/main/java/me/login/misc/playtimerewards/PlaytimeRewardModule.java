@@ -33,13 +33,8 @@ public class PlaytimeRewardModule {
             // createTables is called inside connect(), so this is redundant but safe
             // this.database.createTables();
 
-            // 2. Initialize Logger (shares JDA)
-            if (plugin.getLagClearLogger() == null || plugin.getLagClearLogger().getJDA() == null) {
-                plugin.getLogger().warning("LagClearLogger JDA not ready. PlaytimeReward logging will be disabled.");
-                this.logger = new PlaytimeRewardLogger(plugin, null); // Run without logging
-            } else {
-                this.logger = new PlaytimeRewardLogger(plugin, plugin.getLagClearLogger().getJDA());
-            }
+            // 2. Initialize Logger (Discord log bus)
+            this.logger = new PlaytimeRewardLogger(plugin);
 
             // 3. Verify TokenManager (The fix for "[Login]: TokenManager is not initialized!")
             // In the previous error log, it seems this check failed.
@@ -1,8 +1,8 @@
 package me.login.misc.rank;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
 
-import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,7 +12,7 @@ import java.util.logging.Level;
 public class RankDatabase {
 
     private final Login plugin;
-    private Connection connection;
+    private SQLiteDatabase database;
 
     public RankDatabase(Login plugin) {
         this.plugin = plugin;
@@ -23,16 +23,8 @@ public class RankDatabase {
      * @return true if connection was successful.
      */
     public boolean connect() {
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-        File dbFile = new File(dbFolder, "ranks.db");
-
         try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:" + dbFile.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
+            database = plugin.getDatabaseService().open("ranks.db");
             plugin.getLogger().info("Connecting Rank DB...");
             createTables();
             plugin.getLogger().info("Rank DB Connected.");
@@ -47,43 +39,37 @@ public class RankDatabase {
      * Disconnects from the database.
      */
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Rank DB Disconnected.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error disconnecting Rank DB", e);
+        if (database != null) {
+            database.close();
+            plugin.getLogger().info("Rank DB Disconnected.");
         }
     }
 
     private void createTables() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // Stores active temporary ranks and permanent ranks set by this system
-            stmt.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS temp_ranks (
-                    player_uuid TEXT PRIMARY KEY NOT NULL,
-                    player_name TEXT NOT NULL,
-                    rank_name TEXT NOT NULL,
-                    setter_uuid TEXT NOT NULL,
-                    setter_name TEXT NOT NULL,
-                    previous_rank TEXT NOT NULL,
-                    expiry_time BIGINT NOT NULL
-                )""");
+        // Stores active temporary ranks and permanent ranks set by this system
+        database.update("""
+            CREATE TABLE IF NOT EXISTS temp_ranks (
+                player_uuid TEXT PRIMARY KEY NOT NULL,
+                player_name TEXT NOT NULL,
+                rank_name TEXT NOT NULL,
+                setter_uuid TEXT NOT NULL,
+                setter_name TEXT NOT NULL,
+                previous_rank TEXT NOT NULL,
+                expiry_time BIGINT NOT NULL
+            )""");
 
-            // Stores a log of all rank changes made by this system
-            stmt.executeUpdate("""
-                CREATE TABLE IF NOT EXISTS rank_history (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    player_uuid TEXT NOT NULL,
-                    player_name TEXT NOT NULL,
-                    rank_name TEXT NOT NULL,
-                    duration_ms BIGINT NOT NULL,
-                    setter_uuid TEXT NOT NULL,
-                    setter_name TEXT NOT NULL,
-                    timestamp BIGINT NOT NULL
-                )""");
-        }
+        // Stores a log of all rank changes made by this system
+        database.update("""
+            CREATE TABLE IF NOT EXISTS rank_history (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                player_uuid TEXT NOT NULL,
+                player_name TEXT NOT NULL,
+                rank_name TEXT NOT NULL,
+                duration_ms BIGINT NOT NULL,
+                setter_uuid TEXT NOT NULL,
+                setter_name TEXT NOT NULL,
+                timestamp BIGINT NOT NULL
+            )""");
     }
 
     /**
@@ -95,16 +81,10 @@ public class RankDatabase {
             (player_uuid, player_name, rank_name, setter_uuid, setter_name, previous_rank, expiry_time) 
             VALUES (?, ?, ?, ?, ?, ?, ?)
             """;
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, data.playerUuid().toString());
-                ps.setString(2, data.playerName());
-                ps.setString(3, data.rankName());
-                ps.setString(4, data.setterUuid().toString());
-                ps.setString(5, data.setterName());
-                ps.setString(6, data.previousRank());
-                ps.setLong(7, data.expiryTime());
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update(sql, data.playerUuid().toString(), data.playerName(), data.rankName(),
+                        data.setterUuid().toString(), data.setterName(), data.previousRank(), data.expiryTime());
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to save rank data for " + data.playerName(), e);
             }
@@ -116,10 +96,9 @@ public class RankDatabase {
      */
     public void removeRankData(UUID playerUuid) {
         String sql = "DELETE FROM temp_ranks WHERE player_uuid = ?";
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, playerUuid.toString());
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update(sql, playerUuid.toString());
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to remove rank data for " + playerUuid, e);
             }
@@ -131,21 +110,8 @@ public class RankDatabase {
      */
     public RankData getRankData(UUID playerUuid) {
         String sql = "SELECT * FROM temp_ranks WHERE player_uuid = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, playerUuid.toString());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return new RankData(
-                            UUID.fromString(rs.getString("player_uuid")),
-                            rs.getString("player_name"),
-                            rs.getString("rank_name"),
-                            UUID.fromString(rs.getString("setter_uuid")),
-                            rs.getString("setter_name"),
-                            rs.getString("previous_rank"),
-                            rs.getLong("expiry_time")
-                    );
-                }
-            }
+        try {
+            return database.query(sql, rs -> rs.next() ? readRankData(rs) : null, playerUuid.toString());
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to get rank data for " + playerUuid, e);
         }
@@ -160,25 +126,31 @@ public class RankDatabase {
         List<RankData> ranks = new ArrayList<>();
         // Get all ranks that are not permanent
         String sql = "SELECT * FROM temp_ranks WHERE expiry_time != -1";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                ranks.add(new RankData(
-                        UUID.fromString(rs.getString("player_uuid")),
-                        rs.getString("player_name"),
-                        rs.getString("rank_name"),
-                        UUID.fromString(rs.getString("setter_uuid")),
-                        rs.getString("setter_name"),
-                        rs.getString("previous_rank"),
-                        rs.getLong("expiry_time")
-                ));
-            }
+        try {
+            database.query(sql, rs -> {
+                while (rs.next()) {
+                    ranks.add(readRankData(rs));
+                }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to load active temp ranks", e);
         }
         return ranks;
     }
 
+    private RankData readRankData(ResultSet rs) throws SQLException {
+        return new RankData(
+                UUID.fromString(rs.getString("player_uuid")),
+                rs.getString("player_name"),
+                rs.getString("rank_name"),
+                UUID.fromString(rs.getString("setter_uuid")),
+                rs.getString("setter_name"),
+                rs.getString("previous_rank"),
+                rs.getLong("expiry_time")
+        );
+    }
+
     /**
      * Logs a rank change to the history table.
      */
@@ -188,16 +160,10 @@ public class RankDatabase {
             (player_uuid, player_name, rank_name, duration_ms, setter_uuid, setter_name, timestamp) 
             VALUES (?, ?, ?, ?, ?, ?, ?)
             """;
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try (PreparedStatement ps = connection.prepareStatement(sql)) {
-                ps.setString(1, data.playerUuid().toString());
-                ps.setString(2, data.playerName());
-                ps.setString(3, data.rankName());
-                ps.setLong(4, durationMs);
-                ps.setString(5, data.setterUuid().toString());
-                ps.setString(6, data.setterName());
-                ps.setLong(7, System.currentTimeMillis());
-                ps.executeUpdate();
+        database.runAsync(() -> {
+            try {
+                database.update(sql, data.playerUuid().toString(), data.playerName(), data.rankName(), durationMs,
+                        data.setterUuid().toString(), data.setterName(), System.currentTimeMillis());
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to log rank history for " + data.playerName(), e);
             }
@@ -1,7 +1,6 @@
 package me.login.misc.rank;
 
 import me.login.Login;
-import me.login.clearlag.LagClearLogger;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.luckperms.api.LuckPerms;
@@ -32,11 +31,10 @@ public class RankModule {
 
     /**
      * Initializes the Rank Module.
-     * @param lagClearLogger The shared JDA logger.
      * @param luckPerms The LuckPerms API instance.
      * @return true if initialization was successful.
      */
-    public boolean init(LagClearLogger lagClearLogger, LuckPerms luckPerms) {
+    public boolean init(LuckPerms luckPerms) {
         try {
             plugin.getLogger().info("Initializing RankModule...");
 
@@ -46,15 +44,7 @@ public class RankModule {
                 return false;
             }
 
-            // 2. Initialize the Discord logger
-            if (lagClearLogger != null && lagClearLogger.getJDA() != null) {
-                this.logger.init(lagClearLogger.getJDA());
-                plugin.getLogger().info("Rank Logger initialized.");
-            } else {
-                plugin.getLogger().warning("RankModule JDA instance is null! Discord logging will be disabled.");
-            }
-
-            // 3. Pass LuckPerms to the manager and load tasks
+            // 2. Pass LuckPerms to the manager and load tasks
             this.manager.init(luckPerms);
             this.manager.loadScheduledTasks(); // Reschedule temporary ranks
 
@@ -6,6 +6,7 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer; // Corrected: Import for legacy colors
 import net.kyori.adventure.title.Title;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -110,14 +111,18 @@ public class RTPCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        player.sendMessage(prefix.append(Component.text(" Searching for a safe location in the " + worldAlias + "...").color(NamedTextColor.GRAY)));
+        // Pre-validated location ready: teleport straight away
+        Location pooled = module.getLocationPool().poll(world);
+        if (pooled != null) {
+            completeTeleport(player, pooled, module, prefix);
+            return;
+        }
 
-        // Get the finder from the module
-        RTPLocationFinder locationFinder = module.getLocationFinder();
+        player.sendMessage(prefix.append(Component.text(" Searching for a safe location in the " + worldAlias + "...").color(NamedTextColor.GRAY)));
 
-        // Run the async location finder with a 5-second timeout
-        locationFinder.findSafeLocationAsync(world)
-                .orTimeout(5, TimeUnit.SECONDS) // Added 5-second timeout
+        // Pool ran dry: search now, with a 5-second timeout
+        module.getLocationFinder().findSafeLocationAsync(world)
+                .orTimeout(5, TimeUnit.SECONDS)
                 .whenComplete((safeLocation, ex) -> {
                     // Bridge to main thread to send messages and teleport
                     new BukkitRunnable() {
@@ -142,32 +147,38 @@ public class RTPCommand implements CommandExecutor, TabCompleter {
                                 return;
                             }
 
-                            // Success! Teleport on main thread.
-                            player.teleportAsync(safeLocation);
-
-                            // Give 3 seconds of darkness (60 ticks)
-                            player.addPotionEffect(new PotionEffect(PotionEffectType.DARKNESS, 60, 1));
-
-                            // Send the title using the correct legacy serializer
-                            final Title.Times times = Title.Times.times(Duration.ofMillis(500), Duration.ofSeconds(2), Duration.ofMillis(500));
-                            final Title title = Title.title(
-                                    // Corrected: Use LegacyComponentSerializer for server_prefix_2
-                                    LegacyComponentSerializer.legacyAmpersand().deserialize(module.getServerPrefix2()),
-                                    Component.text("You have been teleported!").color(NamedTextColor.WHITE),
-                                    times
-                            );
-                            player.showTitle(title);
-
-                            // Set cooldown on success
-                            module.getCooldownManager().setCooldown(player); // <-- ADDED
-
-                            // Log to Discord
-                            module.getLogger().logRTP(player.getName(), safeLocation);
+                            completeTeleport(player, safeLocation, module, prefix);
                         }
                     }.runTask(module.getPlugin());
                 });
     }
 
+    /**
+     * Teleports to a location already known to be safe. Server thread only.
+     */
+    private static void completeTeleport(Player player, Location safeLocation, RTPModule module, Component prefix) {
+        player.teleportAsync(safeLocation);
+
+        // Give 3 seconds of darkness (60 ticks)
+        player.addPotionEffect(new PotionEffect(PotionEffectType.DARKNESS, 60, 1));
+
+        // Send the title using the correct legacy serializer
+        final Title.Times times = Title.Times.times(Duration.ofMillis(500), Duration.ofSeconds(2), Duration.ofMillis(500));
+        final Title title = Title.title(
+                // Corrected: Use LegacyComponentSerializer for server_prefix_2
+                LegacyComponentSerializer.legacyAmpersand().deserialize(module.getServerPrefix2()),
+                Component.text("You have been teleported!").color(NamedTextColor.WHITE),
+                times
+        );
+        player.showTitle(title);
+
+        // Set cooldown on success
+        module.getCooldownManager().setCooldown(player); // <-- ADDED
+
+        // Log to Discord
+        module.getLogger().logRTP(player.getName(), safeLocation);
+    }
+
 
     @Nullable
     @Override
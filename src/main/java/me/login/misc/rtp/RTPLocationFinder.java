@@ -7,19 +7,23 @@ import com.sk89q.worldguard.protection.ApplicableRegionSet;
 import com.sk89q.worldguard.protection.managers.RegionManager;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import org.bukkit.*;
-import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.EnumSet;
-import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Finds safe random locations without blocking the server thread.
+ * <p>
+ * Each try loads (or generates) one random chunk with {@code getChunkAtAsync}, copies it into a {@link ChunkSnapshot}
+ * and scans a few columns of that copy off the server thread. Only the WorldGuard check, which needs the live
+ * world, runs back on the server thread. Call from the server thread; the future also completes there.
+ */
 public class RTPLocationFinder {
 
     private final RTPModule module;
-    private final Random random = ThreadLocalRandom.current();
+    private final Executor mainThread;
     // Added more unsafe blocks
     private final EnumSet<Material> unsafeBlocks = EnumSet.of(
             Material.LAVA, Material.WATER, Material.CACTUS, Material.FIRE, Material.MAGMA_BLOCK,
@@ -29,140 +33,122 @@ public class RTPLocationFinder {
     private static final int MIN_RANGE = 300;
     private static final int MAX_RANGE = 3000;
     public static final int MAX_TRIES = 25; // Made public for command message
+    private static final int COLUMNS_PER_CHUNK = 4; // Columns checked in each loaded chunk before moving on
     private static final int NETHER_MAX_Y = 120; // Search from just below nether roof
 
     public RTPLocationFinder(RTPModule module) {
         this.module = module;
+        this.mainThread = task -> Bukkit.getScheduler().runTask(module.getPlugin(), task);
     }
 
     public CompletableFuture<Location> findSafeLocationAsync(World world) {
-        // Uses default Java async pool
-        return CompletableFuture.supplyAsync(() -> {
-            if (world.getEnvironment() == World.Environment.NETHER) {
-                return findSafeLocationNether(world);
-            } else {
-                return findSafeLocationSurface(world); // Overworld and End logic
-            }
-        });
+        return findSafeLocationAsync(world, MAX_TRIES);
+    }
+
+    /**
+     * Tries up to {@code tries} random chunks, one at a time. Completes with null if none had a safe spot.
+     */
+    public CompletableFuture<Location> findSafeLocationAsync(World world, int tries) {
+        if (tries <= 0) return CompletableFuture.completedFuture(null);
+
+        int chunkX = getRandomCoordinate() >> 4;
+        int chunkZ = getRandomCoordinate() >> 4;
+
+        // Paper completes chunk futures on the server thread, where the snapshot has to be taken
+        return world.getChunkAtAsync(chunkX, chunkZ, true)
+                .thenApply(chunk -> chunk.getChunkSnapshot(true, false, false))
+                .thenApplyAsync(snapshot -> world.getEnvironment() == World.Environment.NETHER
+                        ? findSafeLocationNether(world, snapshot)
+                        : findSafeLocationSurface(world, snapshot)) // Overworld and End logic
+                .thenApplyAsync(loc -> loc != null && isSafeWorldGuard(loc) ? loc : null, mainThread)
+                .thenCompose(loc -> loc != null ? CompletableFuture.completedFuture(loc) : findSafeLocationAsync(world, tries - 1));
     }
 
-    private Location findSafeLocationSurface(World world) {
-        for (int i = 0; i < MAX_TRIES; i++) {
-            int x = getRandomCoordinate();
-            int z = getRandomCoordinate();
+    private Location findSafeLocationSurface(World world, ChunkSnapshot snapshot) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < COLUMNS_PER_CHUNK; i++) {
+            int x = random.nextInt(16);
+            int z = random.nextInt(16);
 
-            Block groundBlock = world.getHighestBlockAt(x, z, HeightMap.MOTION_BLOCKING);
-            Block blockFeet = groundBlock.getRelative(BlockFace.UP);
+            int groundY = snapshot.getHighestBlockYAt(x, z);
+            int feetY = groundY + 1;
+            // Empty columns (End islands' void) have no ground at all
+            if (groundY < world.getMinHeight() || feetY + 1 >= world.getMaxHeight()) continue;
 
-            if (isSafeBlock(blockFeet)) {
-                Location potentialLoc = blockFeet.getLocation().add(0.5, 0, 0.5);
-                if (isSafeWorldGuardSync(potentialLoc)) {
-                    return potentialLoc;
-                }
+            if (isSafeColumn(snapshot, x, feetY, z)) {
+                return toLocation(world, snapshot, x, feetY, z);
             }
         }
         return null;
     }
 
-    private Location findSafeLocationNether(World world) {
-        for (int i = 0; i < MAX_TRIES; i++) {
-            int x = getRandomCoordinate();
-            int z = getRandomCoordinate();
-
-            for (int y = NETHER_MAX_Y; y >= world.getMinHeight(); y--) {
-                Block blockFeet = world.getBlockAt(x, y, z);
-
-                // Use the improved safety check
-                if (isSafeBlock(blockFeet)) {
-                    Location potentialLoc = blockFeet.getLocation().add(0.5, 0, 0.5);
-                    if (isSafeWorldGuardSync(potentialLoc)) {
-                        return potentialLoc;
-                    }
-                    // Skip a few blocks down to speed up search
-                    y -= 5;
+    private Location findSafeLocationNether(World world, ChunkSnapshot snapshot) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int topY = Math.min(NETHER_MAX_Y, world.getMaxHeight() - 2);
+        for (int i = 0; i < COLUMNS_PER_CHUNK; i++) {
+            int x = random.nextInt(16);
+            int z = random.nextInt(16);
+
+            for (int y = topY; y > world.getMinHeight(); y--) {
+                if (isSafeColumn(snapshot, x, y, z)) {
+                    return toLocation(world, snapshot, x, y, z);
                 }
             }
         }
         return null;
     }
 
+    private Location toLocation(World world, ChunkSnapshot snapshot, int x, int y, int z) {
+        return new Location(world, (snapshot.getX() << 4) + x + 0.5, y, (snapshot.getZ() << 4) + z + 0.5);
+    }
+
     private int getRandomCoordinate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         int coord = random.nextInt(MAX_RANGE - MIN_RANGE + 1) + MIN_RANGE;
         return random.nextBoolean() ? coord : -coord;
     }
 
     /**
-     * Improved safety check
+     * Solid, safe ground with two free, safe blocks above it. Works on the snapshot, so any thread may call it.
      */
-    private boolean isSafeBlock(Block blockFeet) {
-        Block blockHead = blockFeet.getRelative(BlockFace.UP);
-        Block blockGround = blockFeet.getRelative(BlockFace.DOWN);
+    private boolean isSafeColumn(ChunkSnapshot snapshot, int x, int feetY, int z) {
+        Material feet = snapshot.getBlockType(x, feetY, z);
+        Material head = snapshot.getBlockType(x, feetY + 1, z);
+        Material ground = snapshot.getBlockType(x, feetY - 1, z);
 
-        // **CRITICAL FIX:** Check if the block at foot level is unsafe (e.g., lava)
-        if (unsafeBlocks.contains(blockFeet.getType())) {
-            return false;
-        }
-        // Check if head block is unsafe (e.g., lava)
-        if (unsafeBlocks.contains(blockHead.getType())) {
+        // **CRITICAL FIX:** Check if the block at foot level or head level is unsafe (e.g., lava)
+        if (unsafeBlocks.contains(feet) || unsafeBlocks.contains(head)) {
             return false;
         }
-        // Check for solid ground
-        if (blockGround.isPassable()) {
+        // Check for solid ground that is not itself unsafe
+        if (!ground.isSolid() || unsafeBlocks.contains(ground)) {
             return false;
         }
-        // Check if the solid ground is an unsafe block
-        if (unsafeBlocks.contains(blockGround.getType())) {
-            return false;
-        }
-        // Check if feet and head space are passable
-        if (!blockFeet.isPassable() || !blockHead.isPassable()) {
-            return false;
-        }
-
-        return true;
+        // Check if feet and head space are free
+        return !feet.isSolid() && !head.isSolid();
     }
 
-    private boolean isSafeWorldGuardSync(Location loc) {
+    private boolean isSafeWorldGuard(Location loc) {
         if (!module.isWorldGuardEnabled()) {
             return true;
         }
 
-        CompletableFuture<Boolean> wgCheck = new CompletableFuture<>();
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                try {
-                    // Ensure chunk is loaded before checking
-                    if (!loc.getWorld().isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) {
-                        loc.getWorld().loadChunk(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
-                    }
-
-                    // This is the correct WorldGuard 7 API
-                    RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
-                    RegionManager regions = container.get(BukkitAdapter.adapt(loc.getWorld()));
-
-                    if (regions == null) {
-                        wgCheck.complete(true); // No region manager, assume safe
-                        return;
-                    }
-
-                    // Use BlockVector3 as required by WG7
-                    BlockVector3 locVector = BlockVector3.at(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-                    ApplicableRegionSet set = regions.getApplicableRegions(locVector);
-                    wgCheck.complete(set.size() == 0); // Safe if no regions apply
-                } catch (Exception e) {
-                    module.getLogger().log("Error checking WorldGuard region: " + e.getMessage());
-                    wgCheck.complete(false); // Assume unsafe on error
-                }
+        try {
+            // This is the correct WorldGuard 7 API
+            RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+            RegionManager regions = container.get(BukkitAdapter.adapt(loc.getWorld()));
+
+            if (regions == null) {
+                return true; // No region manager, assume safe
             }
-        }.runTask(module.getPlugin());
 
-        try {
-            // Wait for the main thread check to complete
-            return wgCheck.get();
+            // Use BlockVector3 as required by WG7
+            BlockVector3 locVector = BlockVector3.at(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+            ApplicableRegionSet set = regions.getApplicableRegions(locVector);
+            return set.size() == 0; // Safe if no regions apply
         } catch (Exception e) {
-            module.getLogger().log("Error getting WorldGuard check result: " + e.getMessage());
-            return false;
+            module.getLogger().log("Error checking WorldGuard region: " + e.getMessage());
+            return false; // Assume unsafe on error
         }
     }
-}
\ No newline at end of file
+}
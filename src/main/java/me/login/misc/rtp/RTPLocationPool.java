@@ -0,0 +1,134 @@
+package me.login.misc.rtp;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps a few pre-validated RTP locations ready per RTP world so /rtp can teleport instantly.
+ * <p>
+ * A timer refills the pools in the background under a budget: a limited number of new searches per run and in
+ * flight at once, paused while TPS is low. Locations are dropped once they are older than the max age, since the
+ * terrain can change. All state is touched on the server thread only.
+ */
+public class RTPLocationPool {
+
+    private static final String[] WORLD_ALIASES = {"overworld", "nether", "end"};
+    private static final int TRIES_PER_SEARCH = 3; // Low on purpose; a failed search is simply retried next run
+
+    private final RTPModule module;
+    private final RTPLocationFinder finder;
+    private final Map<String, Deque<PooledLocation>> pools = new HashMap<>();
+    private final Map<String, Integer> pending = new HashMap<>();
+
+    private final int poolSize;
+    private final int searchesPerRun;
+    private final int maxPending;
+    private final long maxAgeMillis;
+    private final double minTps;
+    private final long intervalTicks;
+
+    private BukkitTask refillTask;
+    private int nextWorld; // Round-robin so one world can't starve the others
+
+    private record PooledLocation(Location location, long createdAt) {}
+
+    public RTPLocationPool(RTPModule module, RTPLocationFinder finder) {
+        this.module = module;
+        this.finder = finder;
+
+        FileConfiguration config = module.getPlugin().getConfig();
+        this.poolSize = Math.max(0, config.getInt("rtp.pool.size", 10));
+        this.searchesPerRun = Math.max(1, config.getInt("rtp.pool.searches-per-run", 1));
+        this.maxPending = Math.max(1, config.getInt("rtp.pool.max-pending", 3));
+        this.maxAgeMillis = config.getLong("rtp.pool.max-age-seconds", 600) * 1000L;
+        this.minTps = config.getDouble("rtp.pool.min-tps", 18.0);
+        this.intervalTicks = Math.max(1, config.getLong("rtp.pool.refill-interval-ticks", 20));
+    }
+
+    public void start() {
+        if (poolSize == 0) {
+            module.getLogger().log("RTP location pool disabled (rtp.pool.size is 0).");
+            return;
+        }
+        this.refillTask = Bukkit.getScheduler().runTaskTimer(module.getPlugin(), this::refill, 40L, intervalTicks);
+    }
+
+    public void stop() {
+        if (refillTask != null) {
+            refillTask.cancel();
+            refillTask = null;
+        }
+        pools.clear();
+        pending.clear();
+    }
+
+    /**
+     * Takes a ready location for this world, or null if its pool is empty. Server thread only.
+     */
+    public Location poll(World world) {
+        Deque<PooledLocation> pool = pools.get(world.getName());
+        if (pool == null) return null;
+
+        long now = System.currentTimeMillis();
+        PooledLocation next;
+        while ((next = pool.pollFirst()) != null) {
+            if (now - next.createdAt() <= maxAgeMillis) {
+                return next.location();
+            }
+        }
+        return null;
+    }
+
+    private void refill() {
+        // Generating chunks is what hurts; back off while the server is already struggling
+        if (Bukkit.getServer().getTPS()[0] < minTps) return;
+
+        long now = System.currentTimeMillis();
+        int started = 0;
+        int inFlight = pending.values().stream().mapToInt(Integer::intValue).sum();
+
+        for (int i = 0; i < WORLD_ALIASES.length && started < searchesPerRun && inFlight < maxPending; i++) {
+            String alias = WORLD_ALIASES[(nextWorld + i) % WORLD_ALIASES.length];
+            World world = Bukkit.getWorld(module.getPlugin().getConfig().getString("worlds." + alias, alias));
+            if (world == null) continue;
+
+            Deque<PooledLocation> pool = pools.computeIfAbsent(world.getName(), k -> new ArrayDeque<>());
+            pool.removeIf(entry -> now - entry.createdAt() > maxAgeMillis);
+
+            int worldPending = pending.getOrDefault(world.getName(), 0);
+            if (pool.size() + worldPending >= poolSize) continue;
+
+            search(world);
+            started++;
+            inFlight++;
+        }
+        nextWorld = (nextWorld + 1) % WORLD_ALIASES.length;
+    }
+
+    private void search(World world) {
+        String worldName = world.getName();
+        pending.merge(worldName, 1, Integer::sum);
+
+        finder.findSafeLocationAsync(world, TRIES_PER_SEARCH).whenComplete((location, ex) -> {
+            // The finder completes on the server thread
+            pending.computeIfPresent(worldName, (k, count) -> count > 1 ? count - 1 : null);
+            if (refillTask == null) return; // Stopped while searching
+
+            if (ex != null) {
+                module.getPlugin().getLogger().warning("[RTP] Pool search failed in " + worldName + ": " + ex.getMessage());
+                return;
+            }
+            if (location != null) {
+                pools.computeIfAbsent(worldName, k -> new ArrayDeque<>()).addLast(new PooledLocation(location, System.currentTimeMillis()));
+            }
+        });
+    }
+}
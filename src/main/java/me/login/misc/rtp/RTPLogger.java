@@ -1,9 +1,6 @@
 package me.login.misc.rtp;
 
 import me.login.Login;
-import net.dv8tion.jda.api.JDA;
-// Correct Import: Matches your LagClearLogger
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 
@@ -13,7 +10,6 @@ import java.time.format.DateTimeFormatter;
 public class RTPLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long generalLogChannelId; // For general info like module startup
     private final long rtpLogChannelId; // For specific RTP events
 
@@ -21,9 +17,6 @@ public class RTPLogger {
         this.plugin = plugin;
         FileConfiguration config = plugin.getConfig();
 
-        // Get JDA from the main plugin's LagClearLogger instance
-        this.jda = (plugin.getLagClearLogger() != null) ? plugin.getLagClearLogger().getJDA() : null;
-
         // Use lagclear channel for general module logs (enable/disable)
         this.generalLogChannelId = config.getLong("lagclear-log-channel-id", 0L);
         // Use rtp channel for specific teleport logs (as requested)
@@ -44,14 +37,7 @@ public class RTPLogger {
         plugin.getLogger().info("[RTP] " + message);
 
         // Log to Discord
-        if (jda == null || generalLogChannelId == 0L || jda.getStatus() != JDA.Status.CONNECTED) {
-            return;
-        }
-        // Correct Type: Matches your LagClearLogger
-        MessageChannel channel = jda.getTextChannelById(generalLogChannelId);
-        if (channel != null) {
-            channel.sendMessage("`[" + getTimestamp() + "]` **[RTP]** " + message).queue();
-        }
+        plugin.getLogBus().send(generalLogChannelId, "`[" + getTimestamp() + "]` **[RTP]** " + message);
     }
 
     /**
@@ -61,22 +47,18 @@ public class RTPLogger {
      * @param loc        The safe location they were teleported to.
      */
     public void logRTP(String playerName, Location loc) {
-        if (jda == null || rtpLogChannelId == 0L || jda.getStatus() != JDA.Status.CONNECTED) {
+        if (rtpLogChannelId == 0L) {
             return; // RTP logging disabled or not configured
         }
-        // Correct Type: Matches your LagClearLogger
-        MessageChannel channel = jda.getTextChannelById(rtpLogChannelId);
-        if (channel != null) {
-            String worldName = loc.getWorld() != null ? loc.getWorld().getName() : "unknown";
-            String message = String.format("`[%s]` **RTP:** Player `%s` teleported to `%s` [X: %d, Y: %d, Z: %d]",
-                    getTimestamp(),
-                    playerName,
-                    worldName,
-                    loc.getBlockX(),
-                    loc.getBlockY(),
-                    loc.getBlockZ()
-            );
-            channel.sendMessage(message).queue();
-        }
+        String worldName = loc.getWorld() != null ? loc.getWorld().getName() : "unknown";
+        String message = String.format("`[%s]` **RTP:** Player `%s` teleported to `%s` [X: %d, Y: %d, Z: %d]",
+                getTimestamp(),
+                playerName,
+                worldName,
+                loc.getBlockX(),
+                loc.getBlockY(),
+                loc.getBlockZ()
+        );
+        plugin.getLogBus().send(rtpLogChannelId, message);
     }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ public class RTPModule {
     private String serverPrefix2;
 
     private RTPLocationFinder locationFinder;
+    private RTPLocationPool locationPool;
     private RTPMenu rtpMenu;
     private RTPCooldownManager cooldownManager; // <-- ADDED
 
@@ -31,6 +32,7 @@ public class RTPModule {
 
         // Initialize components
         this.locationFinder = new RTPLocationFinder(this);
+        this.locationPool = new RTPLocationPool(this, locationFinder);
         this.rtpMenu = new RTPMenu(this);
         this.cooldownManager = new RTPCooldownManager(); // <-- ADDED
 
@@ -42,6 +44,9 @@ public class RTPModule {
         // Register the GUI listener
         Bukkit.getPluginManager().registerEvents(rtpMenu, plugin);
 
+        // Start filling the ready-location pools in the background
+        locationPool.start();
+
         logger.log("RTP module enabled successfully.");
         if (worldGuardEnabled) {
             logger.log("Successfully hooked into WorldGuard for RTP safety checks.");
@@ -50,6 +55,10 @@ public class RTPModule {
         }
     }
 
+    public void disable() {
+        if (locationPool != null) locationPool.stop();
+    }
+
     private void setupWorldGuard() {
         if (Bukkit.getPluginManager().getPlugin("WorldGuard") != null) {
             try {
@@ -75,6 +84,10 @@ public class RTPModule {
         return locationFinder;
     }
 
+    public RTPLocationPool getLocationPool() {
+        return locationPool;
+    }
+
     public RTPCooldownManager getCooldownManager() { // <-- ADDED
         return cooldownManager;
     }
@@ -17,28 +17,20 @@ public class TabListener implements Listener {
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         // Immediate update to hide/show correct players
-        tabManager.updateAllPlayers();
+        tabManager.handleJoin(event.getPlayer());
+        tabManager.getPlugin().getServer().getScheduler().runTaskLater(tabManager.getPlugin(), () -> {
+            // StaffManager restores the vanish metadata of rejoining staff one tick after join
+            tabManager.refreshPlayer(event.getPlayer());
+        }, 2L);
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        tabManager.getPlugin().getServer().getScheduler().runTaskLater(tabManager.getPlugin(), () -> {
-            tabManager.updateAllPlayers();
-        }, 1L);
+        tabManager.handleQuit(event.getPlayer());
     }
 
     @EventHandler
     public void onWorldChange(PlayerChangedWorldEvent event) {
-        boolean wasManaged = tabManager.isManagedWorld(event.getFrom());
-        boolean isManaged = tabManager.isManagedWorld(event.getPlayer().getWorld());
-
-        // If player moved FROM Hub/Login TO Lifesteal/etc.
-        if (wasManaged && !isManaged) {
-            // We must RESET them so they can see players again (and let TAB take over)
-            tabManager.resetTabList(event.getPlayer());
-        }
-
-        // Update everyone else (e.g., remove this player from Hub tablist)
-        tabManager.updateAllPlayers();
+        tabManager.handleWorldChange(event.getPlayer(), event.getFrom());
     }
-}
\ No newline at end of file
+}
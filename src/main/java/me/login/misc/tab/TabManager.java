@@ -3,22 +3,63 @@ package me.login.misc.tab;
 import me.login.Login;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.plugin.RegisteredServiceProvider;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class TabManager {
 
+    /**
+     * Worlds are grouped once into visibility groups; "can A see B" is then a table lookup.
+     */
+    enum VisibilityGroup {
+        ISOLATED, // login: sees nobody, seen by nobody
+        HUB,      // hub: only sees hub
+        DEFAULT;  // everything else: sees everyone that is not isolated
+
+        boolean canSee(VisibilityGroup other) {
+            if (this == ISOLATED || other == ISOLATED) return false;
+            if (this == HUB) return other == HUB;
+            return true;
+        }
+    }
+
     private final Login plugin;
     private final MiniMessage miniMessage;
-    private BukkitTask tabUpdaterTask;
+    private EventSubscription<UserDataRecalculateEvent> permissionSubscription;
 
     private String hubHeaderRaw;
     private String hubFooterRaw;
+    private Set<String> isolatedWorlds = new HashSet<>();
+    private Set<String> hubWorlds = new HashSet<>();
+    private final Map<String, VisibilityGroup> worldGroups = new HashMap<>();
+
+    // --- Per-player state, only recomputed when something about that player changes ---
+    private final Map<UUID, VisibilityGroup> playerGroups = new HashMap<>();
+    private final Set<UUID> vanished = new HashSet<>();
+    private final Set<UUID> canSeeVanished = new HashSet<>();
+
+    // --- Header/footer cache, rebuilt only when the counts change ---
+    private int hubOnline = 0;
+    private Component cachedHeader = Component.empty();
+    private Component cachedFooter = Component.empty();
+    private int cachedHubOnline = -1;
+    private int cachedGlobalOnline = -1;
 
     private final Pattern legacyPattern = Pattern.compile("&([0-9a-fk-or])");
 
@@ -34,124 +75,200 @@ public class TabManager {
         FileConfiguration config = plugin.getConfig();
         this.hubHeaderRaw = String.join("<newline>", config.getStringList("tablist.hub.header"));
         this.hubFooterRaw = String.join("<newline>", config.getStringList("tablist.hub.footer"));
+        this.isolatedWorlds = lower(config.getStringList("tablist.isolated-worlds"), "login");
+        this.hubWorlds = lower(config.getStringList("tablist.hub-worlds"), "hub");
+        worldGroups.clear();
+        cachedHubOnline = -1;
+        if (!playerGroups.isEmpty()) {
+            // World lists may have changed on /reload
+            refreshAll();
+        }
     }
 
+    private Set<String> lower(List<String> names, String fallback) {
+        if (names.isEmpty()) names = List.of(fallback);
+        return names.stream().map(String::toLowerCase).collect(Collectors.toSet());
+    }
+
+    /**
+     * Builds the state for everyone online (startup and /reload) and hooks permission changes.
+     */
     public void startUpdater() {
-        if (this.tabUpdaterTask != null && !this.tabUpdaterTask.isCancelled()) {
-            this.tabUpdaterTask.cancel();
+        refreshAll();
+        if (permissionSubscription == null) {
+            RegisteredServiceProvider<LuckPerms> provider = Bukkit.getServicesManager().getRegistration(LuckPerms.class);
+            if (provider != null) {
+                // LuckPerms fires this off the main thread whenever a user's permissions are recalculated
+                permissionSubscription = provider.getProvider().getEventBus().subscribe(plugin, UserDataRecalculateEvent.class,
+                        event -> Bukkit.getScheduler().runTask(plugin, () -> {
+                            Player player = Bukkit.getPlayer(event.getUser().getUniqueId());
+                            if (player != null) onPermissionsChanged(player);
+                        }));
+            }
         }
-        // Runs every 20 ticks (1 second)
-        this.tabUpdaterTask = new TabUpdater(this).runTaskTimer(plugin, 0L, 20L);
     }
 
     public void stopUpdater() {
-        if (this.tabUpdaterTask != null && !this.tabUpdaterTask.isCancelled()) {
-            this.tabUpdaterTask.cancel();
-            this.tabUpdaterTask = null;
+        if (permissionSubscription != null) {
+            permissionSubscription.close();
+            permissionSubscription = null;
         }
     }
 
-    public void updateAllPlayers() {
-        int hubOnline = 0;
-        int globalOnline = Bukkit.getOnlinePlayers().size();
+    // --- Event entry points (called from TabListener / StaffManager) ---
 
-        for (Player p : Bukkit.getOnlinePlayers()) {
-            if (p.getWorld().getName().equalsIgnoreCase("hub")) {
-                hubOnline++;
-            }
+    public void handleJoin(Player player) {
+        refreshPlayer(player);
+        updateHeaderFooter();
+        sendHeaderFooter(player);
+    }
+
+    public void handleQuit(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (playerGroups.remove(uuid) == VisibilityGroup.HUB) hubOnline--;
+        vanished.remove(uuid);
+        canSeeVanished.remove(uuid);
+        // Quitter is still in getOnlinePlayers() during the event
+        updateHeaderFooter(Bukkit.getOnlinePlayers().size() - 1);
+    }
+
+    public void handleWorldChange(Player player, World from) {
+        boolean wasManaged = isManagedWorld(from);
+        boolean isManaged = isManagedWorld(player.getWorld());
+
+        // If player moved FROM Hub/Login TO Lifesteal/etc., clear our header so TAB can take over
+        if (wasManaged && !isManaged) {
+            player.sendPlayerListHeaderAndFooter(Component.empty(), Component.empty());
         }
 
-        String finalFooterString = hubFooterRaw
-                .replace("%hub_online%", String.valueOf(hubOnline))
-                .replace("%global_online%", String.valueOf(globalOnline));
+        refreshPlayer(player);
+        updateHeaderFooter();
+        if (isManaged) {
+            sendHeaderFooter(player);
+        }
+    }
 
-        Component finalHeaderComp = parseMixedContent(hubHeaderRaw);
-        Component finalFooterComp = parseMixedContent(finalFooterString);
+    public void handleVanishChanged(Player player) {
+        refreshPlayer(player);
+    }
 
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (!player.isOnline()) continue;
+    public void onPermissionsChanged(Player player) {
+        boolean before = canSeeVanished.contains(player.getUniqueId());
+        boolean after = player.hasPermission("staff.vanish.see");
+        if (before == after) return;
+        refreshPlayer(player);
+    }
 
-            // 1. Set Header/Footer
-            if (isManagedWorld(player.getWorld())) {
-                updatePlayerHeaderFooter(player, finalHeaderComp, finalFooterComp);
-            }
+    // --- Visibility ---
 
-            // 2. Visibility Logic
-            for (Player other : Bukkit.getOnlinePlayers()) {
-                if (!other.isOnline()) continue;
-                if (player.equals(other)) continue;
-
-                boolean shouldSee = shouldPlayerSeeOther(player, other);
-                boolean canSee = player.canSee(other); // Check current state
-
-                // Only change visibility if the state is different (Prevents Flickering)
-                if (shouldSee) {
-                    if (!canSee) {
-                        player.showPlayer(plugin, other);
-                    }
-                } else {
-                    if (canSee) {
-                        player.hidePlayer(plugin, other);
-                    }
-                }
-            }
+    /**
+     * Recomputes one player's state and re-applies visibility between them and everyone else: O(n).
+     */
+    public void refreshPlayer(Player player) {
+        if (!player.isOnline()) return;
+        UUID uuid = player.getUniqueId();
+
+        VisibilityGroup newGroup = groupOf(player.getWorld());
+        VisibilityGroup oldGroup = playerGroups.put(uuid, newGroup);
+        if (oldGroup == VisibilityGroup.HUB) hubOnline--;
+        if (newGroup == VisibilityGroup.HUB) hubOnline++;
+
+        if (player.hasMetadata("vanished")) vanished.add(uuid); else vanished.remove(uuid);
+        if (player.hasPermission("staff.vanish.see")) canSeeVanished.add(uuid); else canSeeVanished.remove(uuid);
+
+        for (Player other : Bukkit.getOnlinePlayers()) {
+            if (other.equals(player) || !playerGroups.containsKey(other.getUniqueId())) continue;
+            applyVisibility(player, other);
+            applyVisibility(other, player);
         }
     }
 
-    private void updatePlayerHeaderFooter(Player player, Component header, Component footer) {
-        String playerWorld = player.getWorld().getName();
-        if (playerWorld.equalsIgnoreCase("login")) {
-            player.sendPlayerListHeaderAndFooter(Component.empty(), Component.empty());
-        } else if (playerWorld.equalsIgnoreCase("hub")) {
-            player.sendPlayerListHeaderAndFooter(header, footer);
+    private void refreshAll() {
+        playerGroups.clear();
+        vanished.clear();
+        canSeeVanished.clear();
+        hubOnline = 0;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refreshPlayer(player);
         }
+        cachedHubOnline = -1;
+        updateHeaderFooter();
     }
 
-    public boolean isManagedWorld(org.bukkit.World world) {
-        String name = world.getName();
-        return name.equalsIgnoreCase("hub") || name.equalsIgnoreCase("login");
-    }
+    private void applyVisibility(Player viewer, Player target) {
+        boolean shouldSee = shouldPlayerSeeOther(viewer, target);
+        boolean canSee = viewer.canSee(target);
 
-    public void resetTabList(Player player) {
-        player.sendPlayerListHeaderAndFooter(Component.empty(), Component.empty());
-        for (Player other : Bukkit.getOnlinePlayers()) {
-            if (other.isOnline() && !other.equals(player)) {
-                // Respect vanish even on reset
-                if (shouldPlayerSeeOther(player, other)) {
-                    player.showPlayer(plugin, other);
-                } else {
-                    player.hidePlayer(plugin, other);
-                }
-            }
+        // Only change visibility if the state is different (Prevents Flickering)
+        if (shouldSee && !canSee) {
+            viewer.showPlayer(plugin, target);
+        } else if (!shouldSee && canSee) {
+            viewer.hidePlayer(plugin, target);
         }
     }
 
     /**
-     * Determines if 'player' should see 'other'.
-     * Checks World isolation AND Vanish metadata.
+     * Determines if 'player' should see 'other' from the cached groups and vanish state.
      */
     private boolean shouldPlayerSeeOther(Player player, Player other) {
-        // 1. Login World Isolation (Login sees nobody, nobody sees Login)
-        String playerWorld = player.getWorld().getName();
-        String otherWorld = other.getWorld().getName();
+        VisibilityGroup playerGroup = playerGroups.getOrDefault(player.getUniqueId(), VisibilityGroup.DEFAULT);
+        VisibilityGroup otherGroup = playerGroups.getOrDefault(other.getUniqueId(), VisibilityGroup.DEFAULT);
+
+        // Vanish Check (metadata from StaffManager, cached on refresh)
+        if (vanished.contains(other.getUniqueId()) && !canSeeVanished.contains(player.getUniqueId())) {
+            return false;
+        }
+        return playerGroup.canSee(otherGroup);
+    }
+
+    private VisibilityGroup groupOf(World world) {
+        return worldGroups.computeIfAbsent(world.getName().toLowerCase(), name -> {
+            if (isolatedWorlds.contains(name)) return VisibilityGroup.ISOLATED;
+            if (hubWorlds.contains(name)) return VisibilityGroup.HUB;
+            return VisibilityGroup.DEFAULT;
+        });
+    }
 
-        if (playerWorld.equalsIgnoreCase("login")) return false;
-        if (otherWorld.equalsIgnoreCase("login")) return false;
+    public boolean isManagedWorld(World world) {
+        return groupOf(world) != VisibilityGroup.DEFAULT;
+    }
 
-        // 2. Vanish Check (Metadata from StaffManager)
-        if (other.hasMetadata("vanished")) {
-            if (!player.hasPermission("staff.vanish.see")) {
-                return false; // Force hide if they don't have permission
+    public void resetTabList(Player player) {
+        player.sendPlayerListHeaderAndFooter(Component.empty(), Component.empty());
+        refreshPlayer(player);
+    }
+
+    // --- Header / Footer ---
+
+    private void updateHeaderFooter() {
+        updateHeaderFooter(Bukkit.getOnlinePlayers().size());
+    }
+
+    private void updateHeaderFooter(int globalOnline) {
+        if (hubOnline == cachedHubOnline && globalOnline == cachedGlobalOnline) return;
+        cachedHubOnline = hubOnline;
+        cachedGlobalOnline = globalOnline;
+
+        String finalFooterString = hubFooterRaw
+                .replace("%hub_online%", String.valueOf(hubOnline))
+                .replace("%global_online%", String.valueOf(globalOnline));
+        cachedHeader = parseMixedContent(hubHeaderRaw);
+        cachedFooter = parseMixedContent(finalFooterString);
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (playerGroups.get(player.getUniqueId()) == VisibilityGroup.HUB) {
+                player.sendPlayerListHeaderAndFooter(cachedHeader, cachedFooter);
             }
         }
+    }
 
-        // 3. Hub Isolation (Hub only sees Hub)
-        if (playerWorld.equalsIgnoreCase("hub")) {
-            return otherWorld.equalsIgnoreCase("hub");
+    private void sendHeaderFooter(Player player) {
+        VisibilityGroup group = playerGroups.get(player.getUniqueId());
+        if (group == VisibilityGroup.ISOLATED) {
+            player.sendPlayerListHeaderAndFooter(Component.empty(), Component.empty());
+        } else if (group == VisibilityGroup.HUB) {
+            player.sendPlayerListHeaderAndFooter(cachedHeader, cachedFooter);
         }
-
-        // 4. Default: See everyone (unless vanished logic above triggered)
-        return true;
     }
 
     private Component parseMixedContent(String text) {
@@ -1,61 +1,53 @@
 package me.login.misc.tokens;
 
 import me.login.Login;
+import me.login.database.BalanceChange;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
 
-import java.io.File;
 import java.sql.*;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 public class TokenDatabase {
 
-    private final String url;
-    private Connection connection;
+    private final SQLiteDatabase database;
     private final Login plugin;
+    // Token rewards (quests, parkour, playtime...) and admin sets are merged per player and applied in one batch.
+    private final WriteBehindBuffer<UUID, BalanceChange> pendingDeposits;
 
     public TokenDatabase(Login plugin) {
         this.plugin = plugin;
         // Requirement 6: Ensure DB is in plugins/Login/database
-        File dbFolder = new File(plugin.getDataFolder(), "database");
-        if (!dbFolder.exists()) {
-            dbFolder.mkdirs();
-        }
-        this.url = "jdbc:sqlite:" + dbFolder.getAbsolutePath() + File.separator + "tokens.db";
+        this.database = plugin.getDatabaseService().open("tokens.db");
+        this.pendingDeposits = database.writeBehind("token_deposits",
+                "INSERT INTO player_tokens (player_uuid, tokens) VALUES (?, ?) " +
+                        "ON CONFLICT(player_uuid) DO UPDATE SET tokens = CASE WHEN ? THEN excluded.tokens ELSE tokens + excluded.tokens END",
+                (ps, uuid, change) -> {
+                    ps.setString(1, uuid.toString());
+                    ps.setLong(2, change.amount());
+                    ps.setBoolean(3, change.absolute());
+                },
+                BalanceChange::merge);
     }
 
     public void connect() {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
-            plugin.getLogger().info("Connecting Token DB...");
-            createTables();
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to connect Token DB!", e);
-            this.connection = null;
-        }
+        plugin.getLogger().info("Connecting Token DB...");
+        createTables();
     }
 
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connect();
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error getting Token DB connection", e);
-        }
-        return connection;
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Token DB Disconnected.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error disconnecting Token DB", e);
-        }
+        database.close();
+        plugin.getLogger().info("Token DB Disconnected.");
     }
 
     public void createTables() {
@@ -65,16 +57,21 @@ public class TokenDatabase {
                 tokens BIGINT NOT NULL DEFAULT 0
             );""";
 
-        try (Statement stmt = getConnection().createStatement()) {
-            stmt.executeUpdate(tokensTable);
-
-            // FIX: Attempt to add column if it's missing (solves SQLITE_ERROR if table existed but column didn't)
-            try {
-                stmt.executeUpdate("ALTER TABLE player_tokens ADD COLUMN tokens BIGINT NOT NULL DEFAULT 0;");
-                plugin.getLogger().info("Added 'tokens' column to player_tokens table.");
-            } catch (SQLException ignored) {
-                // Column likely already exists, ignore
-            }
+        try {
+            database.withConnection(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(tokensTable);
+
+                    // FIX: Attempt to add column if it's missing (solves SQLITE_ERROR if table existed but column didn't)
+                    try {
+                        stmt.executeUpdate("ALTER TABLE player_tokens ADD COLUMN tokens BIGINT NOT NULL DEFAULT 0;");
+                        plugin.getLogger().info("Added 'tokens' column to player_tokens table.");
+                    } catch (SQLException ignored) {
+                        // Column likely already exists, ignore
+                    }
+                }
+                return null;
+            });
 
             plugin.getLogger().info("Token table created or verified.");
         } catch (SQLException e) {
@@ -83,66 +80,71 @@ public class TokenDatabase {
     }
 
     public CompletableFuture<Long> getTokenBalance(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
+        return database.supplyAsync(() -> {
+            pendingDeposits.flush(uuid);
             String sql = "SELECT tokens FROM player_tokens WHERE player_uuid = ?";
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ResultSet rs = ps.executeQuery();
-                if (rs.next()) {
-                    return rs.getLong("tokens");
-                }
+            try {
+                return database.query(sql, rs -> rs.next() ? rs.getLong("tokens") : 0L, uuid.toString());
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Could not get token balance for " + uuid, e);
             }
             return 0L;
-        }, runnable -> plugin.getServer().getScheduler().runTaskAsynchronously(plugin, runnable));
+        });
     }
 
+    /**
+     * Queues a deposit; it is merged with other pending deposits and written on the next flush.
+     */
     public void addTokens(UUID uuid, long amount) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            String sql = "INSERT INTO player_tokens (player_uuid, tokens) VALUES (?, ?) " +
-                    "ON CONFLICT(player_uuid) DO UPDATE SET tokens = tokens + ?";
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.setLong(2, amount);
-                ps.setLong(3, amount);
-                ps.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Could not add tokens for " + uuid, e);
-            }
-        });
+        pendingDeposits.put(uuid, BalanceChange.add(amount));
     }
 
-    public CompletableFuture<Boolean> removeTokens(UUID uuid, long amount) {
-        return getTokenBalance(uuid).thenApply(balance -> {
-            if (balance < amount) return false;
-
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                String sql = "UPDATE player_tokens SET tokens = tokens - ? WHERE player_uuid = ?";
-                try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                    ps.setLong(1, amount);
-                    ps.setString(2, uuid.toString());
-                    ps.executeUpdate();
-                } catch (SQLException e) {
-                    plugin.getLogger().log(Level.WARNING, "Could not remove tokens for " + uuid, e);
-                }
-            });
-            return true;
-        });
+    public void flushTokens(UUID uuid) {
+        pendingDeposits.flushAsync(uuid);
     }
 
-    public void setTokens(UUID uuid, long amount) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            String sql = "INSERT INTO player_tokens (player_uuid, tokens) VALUES (?, ?) " +
-                    "ON CONFLICT(player_uuid) DO UPDATE SET tokens = ?";
-            try (PreparedStatement ps = getConnection().prepareStatement(sql)) {
-                ps.setString(1, uuid.toString());
-                ps.setLong(2, amount);
-                ps.setLong(3, amount);
-                ps.executeUpdate();
+    public CompletableFuture<Boolean> removeTokens(UUID uuid, long amount) {
+        return database.supplyAsync(() -> {
+            // Conditional UPDATE keeps the balance check and the write atomic.
+            String sql = "UPDATE player_tokens SET tokens = tokens - ? WHERE player_uuid = ? AND tokens >= ?";
+            // Pending deposits count towards the balance check; if they cannot be written the check would be wrong.
+            if (!pendingDeposits.flush(uuid)) return false;
+            try {
+                return database.update(sql, amount, uuid.toString(), amount) > 0;
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Could not set tokens for " + uuid, e);
+                plugin.getLogger().log(Level.WARNING, "Could not remove tokens for " + uuid, e);
             }
+            return false;
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Queued behind any pending deposits for the player so an earlier deposit can never land after the set.
+     */
+    public void setTokens(UUID uuid, long amount) {
+        pendingDeposits.put(uuid, BalanceChange.set(amount));
+        pendingDeposits.flushAsync(uuid);
+    }
+
+    /**
+     * Highest balances first, read from the read-only pool. Blocking; call from a worker thread.
+     */
+    public List<Map.Entry<UUID, Long>> getTopTokens(int limit) {
+        pendingDeposits.flushAll();
+        String sql = "SELECT player_uuid, tokens FROM player_tokens WHERE tokens > 0 ORDER BY tokens DESC LIMIT ?";
+        try {
+            return database.query(sql, rs -> {
+                List<Map.Entry<UUID, Long>> top = new ArrayList<>();
+                while (rs.next()) {
+                    try {
+                        top.add(new AbstractMap.SimpleImmutableEntry<>(UUID.fromString(rs.getString("player_uuid")), rs.getLong("tokens")));
+                    } catch (IllegalArgumentException ignored) {}
+                }
+                return top;
+            }, limit);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not fetch top token balances", e);
+            return new ArrayList<>();
+        }
+    }
+}
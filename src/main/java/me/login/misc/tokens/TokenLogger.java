@@ -2,8 +2,6 @@ package me.login.misc.tokens;
 
 import me.login.Login;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 
 import java.awt.Color;
 import java.time.Instant;
@@ -11,19 +9,13 @@ import java.time.Instant;
 public class TokenLogger {
 
     private final Login plugin;
-    private final JDA jda;
     private final long shopChannelId;
     private final long adminChannelId;
 
-    public TokenLogger(Login plugin, JDA jda) {
+    public TokenLogger(Login plugin) {
         this.plugin = plugin;
-        this.jda = jda;
         this.shopChannelId = plugin.getConfig().getLong("token-shop-channel-id", 0);
         this.adminChannelId = plugin.getConfig().getLong("token-admin-channel-id", 0);
-
-        if (this.jda == null) {
-            plugin.getLogger().warning("TokenLogger: JDA is null. Discord logging will be disabled.");
-        }
     }
 
     public void logShop(String message) {
@@ -37,40 +29,28 @@ public class TokenLogger {
         // Console Log (Stripped)
         plugin.getLogger().info("[TokenAdmin Log] " + adminName + " " + action + " " + amount + " tokens to/from/of " + targetName);
 
-        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED || adminChannelId == 0) return;
+        if (adminChannelId == 0) return;
 
         try {
-            MessageChannel channel = jda.getTextChannelById(adminChannelId);
-            if (channel != null) {
-                EmbedBuilder embed = new EmbedBuilder();
-                embed.setTitle("Token Admin Action");
-                embed.setColor(Color.decode("#f1c40f")); // Gold/Yellow color
+            EmbedBuilder embed = new EmbedBuilder();
+            embed.setTitle("Token Admin Action");
+            embed.setColor(Color.decode("#f1c40f")); // Gold/Yellow color
 
-                embed.addField("Administrator", "`" + adminName + "`", true);
-                embed.addField("Action", action, true);
-                embed.addField("User", "`" + targetName + "`", true);
-                embed.addField("Amount", "`" + amount + "`", true);
+            embed.addField("Administrator", "`" + adminName + "`", true);
+            embed.addField("Action", action, true);
+            embed.addField("User", "`" + targetName + "`", true);
+            embed.addField("Amount", "`" + amount + "`", true);
 
-                embed.setTimestamp(Instant.now());
-                embed.setFooter("MineAurora Token System");
+            embed.setTimestamp(Instant.now());
+            embed.setFooter("MineAurora Token System");
 
-                channel.sendMessageEmbeds(embed.build()).queue();
-            }
+            plugin.getLogBus().sendEmbed(adminChannelId, embed.build());
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to send Token Admin Embed: " + e.getMessage());
         }
     }
 
     private void logToChannel(long channelId, String message) {
-        if (jda == null || jda.getStatus() != JDA.Status.CONNECTED || channelId == 0) return;
-
-        try {
-            MessageChannel channel = jda.getTextChannelById(channelId);
-            if (channel != null) {
-                channel.sendMessage(message).queue();
-            }
-        } catch (Exception e) {
-            plugin.getLogger().warning("Error sending Token log: " + e.getMessage());
-        }
+        plugin.getLogBus().send(channelId, message);
     }
 }
\ No newline at end of file
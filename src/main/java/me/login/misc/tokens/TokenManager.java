@@ -13,9 +13,12 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Optional;
+import java.util.function.LongUnaryOperator;
 
 public class TokenManager {
     private final Login plugin;
@@ -26,6 +29,11 @@ public class TokenManager {
     private final MiniMessage mm;
     private final Component prefix;
 
+    // Balances of online players, kept in step with every mutation so readers never touch SQLite.
+    private final Map<UUID, Long> balanceCache = new ConcurrentHashMap<>();
+    // Join loads in flight; a load only fills the cache if its token is still the current one
+    private final Map<UUID, Object> pendingLoads = new ConcurrentHashMap<>();
+
     public TokenManager(Login plugin, TokenDatabase database, TokenLogger logger, LuckPerms luckPerms, ItemManager itemManager) {
         this.plugin = plugin;
         this.database = database;
@@ -76,12 +84,55 @@ public class TokenManager {
     public TokenDatabase getDatabase() { return database; }
 
     public CompletableFuture<Long> getTokenBalance(UUID uuid) {
+        Long cached = balanceCache.get(uuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
         return database.getTokenBalance(uuid);
     }
 
+    // --- Balance Cache ---
+
+    /**
+     * Cached balance of an online player; 0 until the join load has finished. Never does I/O.
+     */
+    public long getCachedBalance(UUID uuid) {
+        return balanceCache.getOrDefault(uuid, 0L);
+    }
+
+    /**
+     * Reads the balance into the cache. The result is dropped if the player has left, or if another load
+     * or a balance change started after this read (that one reloads with the newer value).
+     */
+    public void loadBalance(UUID uuid) {
+        Object token = new Object();
+        pendingLoads.put(uuid, token);
+        database.getTokenBalance(uuid).thenAccept(balance -> {
+            if (!pendingLoads.remove(uuid, token)) return;
+            if (Bukkit.getPlayer(uuid) == null) return;
+            balanceCache.putIfAbsent(uuid, balance);
+        });
+    }
+
+    public void unloadBalance(UUID uuid) {
+        pendingLoads.remove(uuid);
+        balanceCache.remove(uuid);
+    }
+
+    private void adjustCachedBalance(UUID uuid, long delta) {
+        updateCachedBalance(uuid, balance -> Math.max(0L, balance + delta));
+    }
+
+    // Applies a change to a cached balance; while the join load is still running it is restarted instead,
+    // since its read may predate the change.
+    private void updateCachedBalance(UUID uuid, LongUnaryOperator change) {
+        if (balanceCache.computeIfPresent(uuid, (id, balance) -> change.applyAsLong(balance)) == null && pendingLoads.containsKey(uuid)) {
+            loadBalance(uuid);
+        }
+    }
+
     public void addTokens(UUID uuid, int amount) {
         if (amount <= 0) return;
         database.addTokens(uuid, amount);
+        adjustCachedBalance(uuid, amount);
 
         Player targetPlayer = Bukkit.getPlayer(uuid);
         if (targetPlayer != null && targetPlayer.isOnline()) {
@@ -92,10 +143,12 @@ public class TokenManager {
     public void purchaseItem(Player player, String itemKey, long cost, TokenShopGUI guiToUpdate) {
         database.removeTokens(player.getUniqueId(), cost).thenAccept(success -> {
             if (success) {
+                adjustCachedBalance(player.getUniqueId(), -cost);
                 ItemStack item = itemManager.getItem(itemKey);
                 if (item == null) {
                     sendMsg(player, "<red>Error: The item '"+itemKey+"' is not configured in items.yml! Refunding tokens.</red>");
                     database.addTokens(player.getUniqueId(), (int) cost);
+                    adjustCachedBalance(player.getUniqueId(), cost);
 
                     // FIX: Updated to match the 4-argument signature of logAdmin
                     logger.logAdmin("System", "Refund (Item Missing: " + itemKey + ")", player.getName(), cost);
@@ -130,6 +183,7 @@ public class TokenManager {
                 return;
             }
             database.addTokens(uuid, (int) amount);
+            adjustCachedBalance(uuid, amount);
             sendMsg(sender, "<green>Added <white>" + amount + "</white> tokens to <white>" + targetName + "</white>.</green>");
 
             logger.logAdmin(sender.getName(), "Added", targetName, amount);
@@ -149,6 +203,7 @@ public class TokenManager {
             }
             database.removeTokens(uuid, amount).thenAccept(success -> {
                 if (success) {
+                    adjustCachedBalance(uuid, -amount);
                     sendMsg(sender, "<green>Removed <white>" + amount + "</white> tokens from <white>" + targetName + "</white>.</green>");
 
                     logger.logAdmin(sender.getName(), "Removed", targetName, amount);
@@ -180,6 +235,7 @@ public class TokenManager {
                     return;
                 }
                 database.setTokens(targetUUID, amount);
+                updateCachedBalance(targetUUID, balance -> amount);
                 sendMsg(sender, "<green>Set <white>" + targetName + "</white>'s token balance to <white>" + amount + "</white>.</green>");
 
                 logger.logAdmin(sender.getName(), "Set", targetName, amount);
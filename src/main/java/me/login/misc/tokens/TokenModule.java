@@ -2,8 +2,13 @@ package me.login.misc.tokens;
 
 import me.login.Login;
 import net.luckperms.api.LuckPerms;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-public class TokenModule {
+public class TokenModule implements Listener {
     private final Login plugin;
     private final LuckPerms luckPerms;
     private TokenDatabase tokenDatabase; // Created internally
@@ -28,13 +33,8 @@ public class TokenModule {
             this.tokenDatabase.connect();
             this.tokenDatabase.createTables();
 
-            // 2. Initialize Logger (shares JDA from LagClearLogger)
-            if (plugin.getLagClearLogger() == null || plugin.getLagClearLogger().getJDA() == null) {
-                plugin.getLogger().warning("TokenModule: LagClearLogger JDA not ready. Token logging will be disabled.");
-                this.tokenLogger = new TokenLogger(plugin, null);
-            } else {
-                this.tokenLogger = new TokenLogger(plugin, plugin.getLagClearLogger().getJDA());
-            }
+            // 2. Initialize Logger (Discord log bus)
+            this.tokenLogger = new TokenLogger(plugin);
 
             // 3. Initialize ItemManager
             this.itemManager = new ItemManager(plugin);
@@ -63,6 +63,12 @@ public class TokenModule {
                 plugin.getLogger().warning("TokenShop: Citizens not found, NPC trigger will not work.");
             }
 
+            // 8. Load cached balances on join, flush queued deposits on quit
+            plugin.getServer().getPluginManager().registerEvents(this, plugin);
+
+            // Covers /reload: players already online never fire a join event
+            plugin.getServer().getOnlinePlayers().forEach(p -> tokenManager.loadBalance(p.getUniqueId()));
+
             plugin.getLogger().info("TokenModule has been enabled successfully.");
             return true;
         } catch (Exception e) {
@@ -79,6 +85,17 @@ public class TokenModule {
         plugin.getLogger().info("TokenModule has been disabled.");
     }
 
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        tokenManager.loadBalance(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        tokenManager.unloadBalance(event.getPlayer().getUniqueId());
+        tokenDatabase.flushTokens(event.getPlayer().getUniqueId());
+    }
+
     public TokenManager getTokenManager() {
         return tokenManager;
     }
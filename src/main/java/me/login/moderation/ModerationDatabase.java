@@ -1,8 +1,8 @@
 package me.login.moderation;
 
 import me.login.Login;
-import java.io.File;
-import java.io.IOException;
+import me.login.database.SQLiteDatabase;
+
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Level;
@@ -10,91 +10,124 @@ import java.util.logging.Level;
 public class ModerationDatabase {
 
     private final Login plugin;
-    private Connection connection;
-    private final String dbPath;
+    private final SQLiteDatabase database;
+    // Active mutes/bans; every check reads this, the tables are only written
+    private final PunishmentCache punishments = new PunishmentCache();
 
     public ModerationDatabase(Login plugin) {
         this.plugin = plugin;
-        this.dbPath = new File(plugin.getDataFolder(), "database").getAbsolutePath() + File.separator + "moderation.db";
+        this.database = plugin.getDatabaseService().open("moderation.db");
         initializeDatabase();
+        loadActivePunishments();
     }
 
-    private Connection getSQLConnection() {
-        File dbFile = new File(dbPath);
-        if (!dbFile.getParentFile().exists()) {
-            dbFile.getParentFile().mkdirs();
-        }
+    public SQLiteDatabase getDatabase() {
+        return database;
+    }
 
-        if (!dbFile.exists()) {
-            try {
-                if (!dbFile.createNewFile()) {
-                    plugin.getLogger().severe("Could not create moderation database file!");
-                    return null;
+    public void initializeDatabase() {
+        try {
+            database.withConnection(conn -> {
+                try (Statement s = conn.createStatement()) {
+                    // Mutes table
+                    s.executeUpdate("CREATE TABLE IF NOT EXISTS mutes (" +
+                            "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "`player_uuid` VARCHAR(36) NOT NULL," +
+                            "`player_name` VARCHAR(16) NOT NULL," +
+                            "`staff_uuid` VARCHAR(36) NOT NULL," +
+                            "`staff_name` VARCHAR(16) NOT NULL," +
+                            "`reason` TEXT NOT NULL," +
+                            "`start_time` BIGINT NOT NULL," +
+                            "`end_time` BIGINT NOT NULL," +
+                            "`active` BOOLEAN DEFAULT 1" +
+                            ");");
+
+                    // Bans table
+                    s.executeUpdate("CREATE TABLE IF NOT EXISTS bans (" +
+                            "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "`player_uuid` VARCHAR(36)," +
+                            "`player_name` VARCHAR(16)," +
+                            "`ip_address` VARCHAR(45)," +
+                            "`staff_uuid` VARCHAR(36) NOT NULL," +
+                            "`staff_name` VARCHAR(16) NOT NULL," +
+                            "`reason` TEXT NOT NULL," +
+                            "`start_time` BIGINT NOT NULL," +
+                            "`end_time` BIGINT NOT NULL," +
+                            "`type` VARCHAR(10) NOT NULL," +
+                            "`active` BOOLEAN DEFAULT 1" +
+                            ");");
+
+                    // Reports Table (THIS IS WHAT WAS MISSING)
+                    s.executeUpdate("CREATE TABLE IF NOT EXISTS reports (" +
+                            "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
+                            "`reporter_uuid` VARCHAR(36) NOT NULL," +
+                            "`reporter_name` VARCHAR(16) NOT NULL," +
+                            "`reported_uuid` VARCHAR(36) NOT NULL," +
+                            "`reported_name` VARCHAR(16) NOT NULL," +
+                            "`reason` TEXT NOT NULL," +
+                            "`timestamp` BIGINT NOT NULL" +
+                            ");");
                 }
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.SEVERE, "IO Exception while creating database file.", e);
                 return null;
-            }
+            });
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error creating database tables", e);
         }
+    }
+
+    // --- Punishment Cache ---
+
+    private void loadActivePunishments() {
+        punishments.clear();
+        long now = System.currentTimeMillis();
         try {
-            if (connection != null && !connection.isClosed()) {
-                return connection;
-            }
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
-            return connection;
-        } catch (SQLException | ClassNotFoundException ex) {
-            plugin.getLogger().log(Level.SEVERE, "SQLite exception on initialize", ex);
+            // Oldest first so the latest punishment per player wins
+            database.query("SELECT * FROM mutes WHERE active = 1 ORDER BY start_time", rs -> {
+                while (rs.next()) {
+                    cachePunishment(PunishmentCache.Kind.MUTE, rs.getString("player_uuid"), rs, now);
+                }
+                return null;
+            });
+            database.query("SELECT * FROM bans WHERE active = 1 ORDER BY start_time", rs -> {
+                while (rs.next()) {
+                    if ("IPBAN".equals(rs.getString("type"))) {
+                        cachePunishment(PunishmentCache.Kind.IPBAN, rs.getString("ip_address"), rs, now);
+                    } else {
+                        cachePunishment(PunishmentCache.Kind.BAN, rs.getString("player_uuid"), rs, now);
+                    }
+                }
+                return null;
+            });
+            plugin.getLogger().info("Loaded " + punishments.size(PunishmentCache.Kind.MUTE) + " mutes, "
+                    + punishments.size(PunishmentCache.Kind.BAN) + " bans and " + punishments.size(PunishmentCache.Kind.IPBAN) + " IP bans.");
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not load active punishments", e);
         }
-        return null;
+        deactivateExpired(now);
     }
 
-    public void initializeDatabase() {
-        connection = getSQLConnection();
+    private void cachePunishment(PunishmentCache.Kind kind, String key, ResultSet rs, long now) throws SQLException {
+        long endTime = rs.getLong("end_time");
+        if (key == null || (endTime != -1 && now > endTime)) return;
+        punishments.put(kind, key, rs.getString("staff_name"), rs.getString("reason"), rs.getLong("start_time"), endTime);
+    }
+
+    /**
+     * Drops expired punishments from the cache and clears their active flag. Safe to call off the main thread.
+     */
+    public void purgeExpiredPunishments() {
+        long now = System.currentTimeMillis();
+        if (punishments.purgeExpired(now) > 0) {
+            deactivateExpired(now);
+        }
+    }
+
+    private void deactivateExpired(long now) {
         try {
-            Statement s = connection.createStatement();
-            // Mutes table
-            s.executeUpdate("CREATE TABLE IF NOT EXISTS mutes (" +
-                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "`player_uuid` VARCHAR(36) NOT NULL," +
-                    "`player_name` VARCHAR(16) NOT NULL," +
-                    "`staff_uuid` VARCHAR(36) NOT NULL," +
-                    "`staff_name` VARCHAR(16) NOT NULL," +
-                    "`reason` TEXT NOT NULL," +
-                    "`start_time` BIGINT NOT NULL," +
-                    "`end_time` BIGINT NOT NULL," +
-                    "`active` BOOLEAN DEFAULT 1" +
-                    ");");
-
-            // Bans table
-            s.executeUpdate("CREATE TABLE IF NOT EXISTS bans (" +
-                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "`player_uuid` VARCHAR(36)," +
-                    "`player_name` VARCHAR(16)," +
-                    "`ip_address` VARCHAR(45)," +
-                    "`staff_uuid` VARCHAR(36) NOT NULL," +
-                    "`staff_name` VARCHAR(16) NOT NULL," +
-                    "`reason` TEXT NOT NULL," +
-                    "`start_time` BIGINT NOT NULL," +
-                    "`end_time` BIGINT NOT NULL," +
-                    "`type` VARCHAR(10) NOT NULL," +
-                    "`active` BOOLEAN DEFAULT 1" +
-                    ");");
-
-            // Reports Table (THIS IS WHAT WAS MISSING)
-            s.executeUpdate("CREATE TABLE IF NOT EXISTS reports (" +
-                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "`reporter_uuid` VARCHAR(36) NOT NULL," +
-                    "`reporter_name` VARCHAR(16) NOT NULL," +
-                    "`reported_uuid` VARCHAR(36) NOT NULL," +
-                    "`reported_name` VARCHAR(16) NOT NULL," +
-                    "`reason` TEXT NOT NULL," +
-                    "`timestamp` BIGINT NOT NULL" +
-                    ");");
-
-            s.close();
+            database.update("UPDATE mutes SET active = 0 WHERE active = 1 AND end_time != -1 AND end_time < ?", now);
+            database.update("UPDATE bans SET active = 0 WHERE active = 1 AND end_time != -1 AND end_time < ?", now);
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error creating database tables", e);
+            plugin.getLogger().log(Level.WARNING, "Could not deactivate expired punishments", e);
         }
     }
 
@@ -115,18 +148,19 @@ public class ModerationDatabase {
             sql = "SELECT * FROM bans WHERE player_uuid = ? AND type = 'BAN' ORDER BY start_time DESC LIMIT 10";
         }
 
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, uuid.toString());
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                Map<String, Object> entry = new HashMap<>();
-                entry.put("staff_name", rs.getString("staff_name"));
-                entry.put("reason", rs.getString("reason"));
-                entry.put("start_time", rs.getLong("start_time"));
-                entry.put("end_time", rs.getLong("end_time"));
-                entry.put("active", rs.getBoolean("active"));
-                history.add(entry);
-            }
+        try {
+            database.query(sql, rs -> {
+                while (rs.next()) {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("staff_name", rs.getString("staff_name"));
+                    entry.put("reason", rs.getString("reason"));
+                    entry.put("start_time", rs.getLong("start_time"));
+                    entry.put("end_time", rs.getLong("end_time"));
+                    entry.put("active", rs.getBoolean("active"));
+                    history.add(entry);
+                }
+                return null;
+            }, uuid.toString());
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
@@ -139,11 +173,11 @@ public class ModerationDatabase {
         deactivatePastMutes(playerUUID);
 
         String sql = "INSERT INTO mutes(player_uuid, player_name, staff_uuid, staff_name, reason, start_time, end_time, active) VALUES(?,?,?,?,?,?,?,1)";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, playerUUID.toString()); ps.setString(2, playerName); ps.setString(3, staffUUID.toString());
-            ps.setString(4, staffName); ps.setString(5, reason); ps.setLong(6, startTime); ps.setLong(7, endTime);
-            return ps.executeUpdate() > 0;
+        try {
+            if (database.update(sql, playerUUID.toString(), playerName, staffUUID.toString(), staffName, reason, startTime, endTime) == 0) return false;
         } catch (SQLException ex) { return false; }
+        punishments.put(PunishmentCache.Kind.MUTE, playerUUID.toString(), staffName, reason, startTime, endTime);
+        return true;
     }
 
     public boolean banPlayer(UUID playerUUID, String playerName, UUID staffUUID, String staffName, String reason, long duration) {
@@ -152,11 +186,11 @@ public class ModerationDatabase {
         deactivatePastBans(playerUUID);
 
         String sql = "INSERT INTO bans(player_uuid, player_name, staff_uuid, staff_name, reason, start_time, end_time, type, active) VALUES(?,?,?,?,?,?,?,'BAN',1)";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, playerUUID.toString()); ps.setString(2, playerName); ps.setString(3, staffUUID.toString());
-            ps.setString(4, staffName); ps.setString(5, reason); ps.setLong(6, startTime); ps.setLong(7, endTime);
-            return ps.executeUpdate() > 0;
+        try {
+            if (database.update(sql, playerUUID.toString(), playerName, staffUUID.toString(), staffName, reason, startTime, endTime) == 0) return false;
         } catch (SQLException ex) { return false; }
+        punishments.put(PunishmentCache.Kind.BAN, playerUUID.toString(), staffName, reason, startTime, endTime);
+        return true;
     }
 
     public boolean ipBanPlayer(String ip, UUID staffUUID, String staffName, String reason, long duration, UUID playerUUID, String playerName) {
@@ -164,74 +198,41 @@ public class ModerationDatabase {
         long endTime = (duration == -1) ? -1 : startTime + duration;
         deactivatePastIpBans(ip);
         String sql = "INSERT INTO bans(ip_address, staff_uuid, staff_name, reason, start_time, end_time, type, active, player_uuid, player_name) VALUES(?,?,?,?,?,?,'IPBAN',1,?,?)";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, ip); ps.setString(2, staffUUID.toString()); ps.setString(3, staffName);
-            ps.setString(4, reason); ps.setLong(5, startTime); ps.setLong(6, endTime);
-            ps.setString(7, playerUUID != null ? playerUUID.toString() : null); ps.setString(8, playerName);
-            return ps.executeUpdate() > 0;
+        try {
+            if (database.update(sql, ip, staffUUID.toString(), staffName, reason, startTime, endTime,
+                    playerUUID != null ? playerUUID.toString() : null, playerName) == 0) return false;
         } catch (SQLException ex) { return false; }
+        punishments.put(PunishmentCache.Kind.IPBAN, ip, staffName, reason, startTime, endTime);
+        return true;
     }
 
-    public Map<String, Object> getActiveMuteInfo(UUID uuid) { return getActiveInfo("mutes", uuid, null); }
-    public Map<String, Object> getActiveBanInfo(UUID uuid) { return getActiveInfo("bans", uuid, "BAN"); }
-    public Map<String, Object> getActiveIpBanInfo(String ip) {
-        try(PreparedStatement ps=getSQLConnection().prepareStatement("SELECT * FROM bans WHERE ip_address=? AND type='IPBAN' AND active=1")){
-            ps.setString(1,ip); return processResultSet(ps);
-        }catch(SQLException e){return null;}
-    }
+    // Served from the cache; no I/O, so safe on the chat and pre-login threads
+    public Map<String, Object> getActiveMuteInfo(UUID uuid) { return activeInfo(PunishmentCache.Kind.MUTE, uuid.toString()); }
+    public Map<String, Object> getActiveBanInfo(UUID uuid) { return activeInfo(PunishmentCache.Kind.BAN, uuid.toString()); }
+    public Map<String, Object> getActiveIpBanInfo(String ip) { return activeInfo(PunishmentCache.Kind.IPBAN, ip); }
 
-    private Map<String, Object> getActiveInfo(String table, UUID uuid, String type) {
-        String sql = "SELECT * FROM " + table + " WHERE player_uuid = ? AND active = 1" + (type != null ? " AND type = ?" : "");
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, uuid.toString());
-            if (type != null) ps.setString(2, type);
-            return processResultSet(ps);
-        } catch (SQLException ex) { return null; }
-    }
-
-    private Map<String, Object> processResultSet(PreparedStatement ps) throws SQLException {
-        ResultSet rs = ps.executeQuery();
-        if (rs.next()) {
-            long endTime = rs.getLong("end_time");
-            if (endTime != -1 && System.currentTimeMillis() > endTime) {
-                try(PreparedStatement up = getSQLConnection().prepareStatement("UPDATE " + rs.getMetaData().getTableName(1) + " SET active=0 WHERE id=?")) {
-                    up.setInt(1, rs.getInt("id")); up.executeUpdate();
-                }
-                return null;
-            }
-            Map<String, Object> info = new HashMap<>();
-            info.put("staff_name", rs.getString("staff_name"));
-            info.put("reason", rs.getString("reason"));
-            info.put("end_time", endTime);
-            info.put("start_time", rs.getLong("start_time"));
-            return info;
-        }
-        return null;
+    private Map<String, Object> activeInfo(PunishmentCache.Kind kind, String key) {
+        PunishmentCache.Punishment punishment = punishments.get(kind, key);
+        return punishment == null ? null : punishment.toInfo();
     }
 
     public boolean unmutePlayer(UUID uuid) { return deactivatePastMutes(uuid); }
     public boolean unbanPlayer(UUID uuid) { return deactivatePastBans(uuid); }
     public boolean unbanIp(String ip) { return deactivatePastIpBans(ip); }
 
-    private boolean deactivatePastMutes(UUID uuid) { return executeUpdate("UPDATE mutes SET active=0 WHERE player_uuid=?", uuid.toString()); }
-    private boolean deactivatePastBans(UUID uuid) { return executeUpdate("UPDATE bans SET active=0 WHERE player_uuid=? AND type='BAN'", uuid.toString()); }
-    private boolean deactivatePastIpBans(String ip) { return executeUpdate("UPDATE bans SET active=0 WHERE ip_address=? AND type='IPBAN'", ip); }
+    private boolean deactivatePastMutes(UUID uuid) { punishments.remove(PunishmentCache.Kind.MUTE, uuid.toString()); return executeUpdate("UPDATE mutes SET active=0 WHERE player_uuid=?", uuid.toString()); }
+    private boolean deactivatePastBans(UUID uuid) { punishments.remove(PunishmentCache.Kind.BAN, uuid.toString()); return executeUpdate("UPDATE bans SET active=0 WHERE player_uuid=? AND type='BAN'", uuid.toString()); }
+    private boolean deactivatePastIpBans(String ip) { punishments.remove(PunishmentCache.Kind.IPBAN, ip); return executeUpdate("UPDATE bans SET active=0 WHERE ip_address=? AND type='IPBAN'", ip); }
     private boolean executeUpdate(String sql, String arg) {
-        try(PreparedStatement ps = getSQLConnection().prepareStatement(sql)){ ps.setString(1,arg); return ps.executeUpdate()>0; }catch(SQLException e){return false;}
+        try { return database.update(sql, arg) > 0; } catch (SQLException e) { return false; }
     }
 
     // --- REPORT SYSTEM METHODS (THESE WERE MISSING) ---
 
     public void addReport(UUID reporterId, String reporterName, UUID reportedId, String reportedName, String reason) {
         String sql = "INSERT INTO reports(reporter_uuid, reporter_name, reported_uuid, reported_name, reason, timestamp) VALUES(?,?,?,?,?,?)";
-        try (PreparedStatement ps = getSQLConnection().prepareStatement(sql)) {
-            ps.setString(1, reporterId.toString());
-            ps.setString(2, reporterName);
-            ps.setString(3, reportedId.toString());
-            ps.setString(4, reportedName);
-            ps.setString(5, reason);
-            ps.setLong(6, System.currentTimeMillis());
-            ps.executeUpdate();
+        try {
+            database.update(sql, reporterId.toString(), reporterName, reportedId.toString(), reportedName, reason, System.currentTimeMillis());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -239,11 +240,13 @@ public class ModerationDatabase {
 
     public List<Map<String, Object>> getAllReports() {
         List<Map<String, Object>> list = new ArrayList<>();
-        try (Statement s = getSQLConnection().createStatement();
-             ResultSet rs = s.executeQuery("SELECT * FROM reports ORDER BY timestamp DESC")) {
-            while (rs.next()) {
-                list.add(mapReport(rs));
-            }
+        try {
+            database.query("SELECT * FROM reports ORDER BY timestamp DESC", rs -> {
+                while (rs.next()) {
+                    list.add(mapReport(rs));
+                }
+                return null;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -252,12 +255,13 @@ public class ModerationDatabase {
 
     public List<Map<String, Object>> getReportsForPlayer(UUID reportedUuid) {
         List<Map<String, Object>> list = new ArrayList<>();
-        try (PreparedStatement ps = getSQLConnection().prepareStatement("SELECT * FROM reports WHERE reported_uuid = ? ORDER BY timestamp DESC")) {
-            ps.setString(1, reportedUuid.toString());
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                list.add(mapReport(rs));
-            }
+        try {
+            database.query("SELECT * FROM reports WHERE reported_uuid = ? ORDER BY timestamp DESC", rs -> {
+                while (rs.next()) {
+                    list.add(mapReport(rs));
+                }
+                return null;
+            }, reportedUuid.toString());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -265,10 +269,8 @@ public class ModerationDatabase {
     }
 
     public boolean deleteReport(UUID reportedUuid, int id) {
-        try (PreparedStatement ps = getSQLConnection().prepareStatement("DELETE FROM reports WHERE id = ? AND reported_uuid = ?")) {
-            ps.setInt(1, id);
-            ps.setString(2, reportedUuid.toString());
-            return ps.executeUpdate() > 0;
+        try {
+            return database.update("DELETE FROM reports WHERE id = ? AND reported_uuid = ?", id, reportedUuid.toString()) > 0;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -286,6 +288,6 @@ public class ModerationDatabase {
     }
 
     public void closeConnection() {
-        try { if (connection != null && !connection.isClosed()) connection.close(); } catch (SQLException e) {}
+        database.close();
     }
 }
\ No newline at end of file
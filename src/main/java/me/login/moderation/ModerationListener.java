@@ -15,7 +15,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
-import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
@@ -58,10 +58,12 @@ public class ModerationListener implements Listener {
         }
     }
 
+    // Checked before the login reaches the main thread; both lookups are served from the punishment cache
     @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerLogin(PlayerLoginEvent event) {
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
         Component prefix = Utils.getServerPrefix(plugin);
-        UUID playerUUID = event.getPlayer().getUniqueId();
+        UUID playerUUID = event.getUniqueId();
         String ipAddress = event.getAddress().getHostAddress();
 
         // 1. Check for UUID Ban
@@ -76,7 +78,7 @@ public class ModerationListener implements Listener {
                     .append(Component.newline())
                     .append(Component.text("Expires: ", NamedTextColor.RED).append(Component.text(Utils.formatTimeLeft(endTime), NamedTextColor.WHITE)));
 
-            event.disallow(PlayerLoginEvent.Result.KICK_BANNED, kickMessage);
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, kickMessage);
             return;
         }
 
@@ -92,7 +94,7 @@ public class ModerationListener implements Listener {
                     .append(Component.newline())
                     .append(Component.text("Expires: ", NamedTextColor.RED).append(Component.text(Utils.formatTimeLeft(endTime), NamedTextColor.WHITE)));
 
-            event.disallow(PlayerLoginEvent.Result.KICK_BANNED, kickMessage);
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, kickMessage);
         }
     }
 
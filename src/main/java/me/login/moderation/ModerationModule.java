@@ -3,6 +3,7 @@ package me.login.moderation;
 import me.login.Login;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.CommandExecutor;
+import org.bukkit.scheduler.BukkitTask;
 import me.login.moderation.staff.StaffModule;
 
 public class ModerationModule {
@@ -11,6 +12,7 @@ public class ModerationModule {
     private ModerationDatabase database;
     private ModerationLogger logger;
     private ModerationTabCompleter tabCompleter;
+    private BukkitTask expiryTask;
 
     public ModerationModule(Login plugin) {
         this.plugin = plugin;
@@ -55,9 +57,15 @@ public class ModerationModule {
 
         // Listener
         plugin.getServer().getPluginManager().registerEvents(new ModerationListener(plugin, database), plugin);
+
+        // Expired mutes/bans already read as inactive; this drops them and clears their active flag
+        this.expiryTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, database::purgeExpiredPunishments, 1200L, 1200L);
     }
 
     public void disable() {
+        if (expiryTask != null) {
+            expiryTask.cancel();
+        }
         if (database != null) {
             database.closeConnection();
         }
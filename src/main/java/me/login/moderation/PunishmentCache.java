@@ -0,0 +1,107 @@
+package me.login.moderation;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every active mute, ban and IP ban, so chat and login checks never touch the database.
+ * <p>
+ * Entries are keyed by player UUID (or IP for IP bans). Timed entries are also kept ordered by expiry,
+ * so a sweep only looks at the ones that are due. Lookups treat an expired entry as absent even before
+ * the sweep has removed it. Safe to use from the chat and pre-login threads.
+ */
+class PunishmentCache {
+
+    enum Kind { MUTE, BAN, IPBAN }
+
+    record Punishment(Kind kind, String key, String staffName, String reason, long startTime, long endTime, long sequence) {
+
+        boolean isPermanent() {
+            return endTime == -1;
+        }
+
+        boolean isExpired(long now) {
+            return !isPermanent() && now > endTime;
+        }
+
+        /**
+         * Same shape the database lookups have always returned.
+         */
+        Map<String, Object> toInfo() {
+            Map<String, Object> info = new HashMap<>();
+            info.put("staff_name", staffName);
+            info.put("reason", reason);
+            info.put("end_time", endTime);
+            info.put("start_time", startTime);
+            return info;
+        }
+    }
+
+    private static final Comparator<Punishment> BY_EXPIRY = Comparator.comparingLong(Punishment::endTime)
+            .thenComparingLong(Punishment::sequence);
+
+    private final Map<Kind, Map<String, Punishment>> active = new EnumMap<>(Kind.class);
+    private final ConcurrentSkipListSet<Punishment> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final AtomicLong sequence = new AtomicLong();
+
+    PunishmentCache() {
+        // Every key present up front so the outer map is never written after construction
+        for (Kind kind : Kind.values()) {
+            active.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Records a punishment, replacing any earlier one of the same kind for the same key.
+     */
+    void put(Kind kind, String key, String staffName, String reason, long startTime, long endTime) {
+        Punishment punishment = new Punishment(kind, key, staffName, reason, startTime, endTime, sequence.incrementAndGet());
+        Punishment previous = active.get(kind).put(key, punishment);
+        if (previous != null) byExpiry.remove(previous);
+        if (!punishment.isPermanent()) byExpiry.add(punishment);
+    }
+
+    void remove(Kind kind, String key) {
+        Punishment removed = active.get(kind).remove(key);
+        if (removed != null) byExpiry.remove(removed);
+    }
+
+    /**
+     * The active punishment, or null if there is none or it has run out.
+     */
+    Punishment get(Kind kind, String key) {
+        if (key == null) return null;
+        Punishment punishment = active.get(kind).get(key);
+        return punishment == null || punishment.isExpired(System.currentTimeMillis()) ? null : punishment;
+    }
+
+    /**
+     * Drops every punishment that ran out before {@code now}. Returns how many were dropped.
+     */
+    int purgeExpired(long now) {
+        int removed = 0;
+        while (!byExpiry.isEmpty()) {
+            Punishment head = byExpiry.first();
+            if (!head.isExpired(now)) break;
+            if (byExpiry.remove(head)) {
+                active.get(head.kind()).remove(head.key(), head);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    void clear() {
+        active.values().forEach(Map::clear);
+        byExpiry.clear();
+    }
+
+    int size(Kind kind) {
+        return active.get(kind).size();
+    }
+}
@@ -103,6 +103,11 @@ public class StaffManager implements Listener {
                 other.showPlayer(plugin, player);
             }
 
+            // Re-apply world isolation (login/hub) that the blanket showPlayer above ignores
+            if (plugin.getTabManager() != null) {
+                plugin.getTabManager().handleVanishChanged(player);
+            }
+
             player.sendMessage(Component.text("You are now visible.", NamedTextColor.RED));
 
         } else {
@@ -118,6 +123,9 @@ public class StaffManager implements Listener {
 
             // Force update visibility immediately
             refreshVisibilityFor(player);
+            if (plugin.getTabManager() != null) {
+                plugin.getTabManager().handleVanishChanged(player);
+            }
 
             player.sendMessage(Component.text("You are now vanished.", NamedTextColor.GREEN));
         }
@@ -84,7 +84,7 @@ public class OrderModule {
         this.orderManage = new OrderManage(plugin, orderSystem, ordersDatabase, messageHandler, orderLogger, offlineDeliveryManager);
 
         // (Point 4 & 5) Admin/Alert menus need OfflineDeliveryManager
-        this.orderAlertMenu = new OrderAlertMenu(plugin, ordersDatabase, messageHandler, orderLogger, offlineDeliveryManager);
+        this.orderAlertMenu = new OrderAlertMenu(plugin, ordersDatabase, messageHandler, orderLogger, offlineDeliveryManager, orderSystem.getOrderBook());
         this.orderAdminMenu = new OrderAdminMenu(plugin, orderSystem, ordersDatabase, messageHandler, orderLogger, offlineDeliveryManager);
 
         // 6. Register Central GUI Listener (Point 10)
@@ -102,6 +102,9 @@ public class OrderModule {
     }
 
     public void disable() {
+        if (orderSystem != null) {
+            orderSystem.shutdown();
+        }
         if (ordersDatabase != null) {
             ordersDatabase.disconnect();
         }
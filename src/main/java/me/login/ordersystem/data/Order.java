@@ -1,5 +1,6 @@
 package me.login.ordersystem.data;
 
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -16,10 +17,12 @@ public class Order {
     private final ItemStack item;
     private final int totalAmount;
     private final double pricePerItem;
-    private int amountDelivered;
+    private volatile int amountDelivered;
     private final long creationTimestamp;
     private final long expiryTimestamp;
-    private OrderStatus status;
+    private volatile OrderStatus status;
+    // Claimed by fills whose database commit is still in flight
+    private int amountReserved;
 
     public enum OrderStatus { ACTIVE, FILLED, EXPIRED, CANCELLED }
 
@@ -57,6 +60,7 @@ public class Order {
     public UUID getPlacerUUID() { return placerUUID; }
     public String getPlacerName() { return placerName; }
     public ItemStack getItem() { return item.clone(); }
+    public Material getMaterial() { return item.getType(); }
     public int getTotalAmount() { return totalAmount; }
     public double getPricePerItem() { return pricePerItem; }
     public int getAmountDelivered() { return amountDelivered; }
@@ -83,6 +87,35 @@ public class Order {
     }
     public void setStatus(OrderStatus status) { this.status = status; }
 
+    // --- Fill Reservations ---
+
+    /**
+     * Claims up to {@code wanted} of the amount not yet delivered or claimed by another fill.
+     * Returns how many were claimed (0 if the order is not active or fully claimed).
+     */
+    public synchronized int reserve(int wanted) {
+        if (status != OrderStatus.ACTIVE || wanted <= 0) return 0;
+        int claimed = Math.min(wanted, totalAmount - amountDelivered - amountReserved);
+        if (claimed <= 0) return 0;
+        amountReserved += claimed;
+        return claimed;
+    }
+
+    /**
+     * Gives back a claim whose fill did not go through.
+     */
+    public synchronized void release(int amount) {
+        amountReserved = Math.max(0, amountReserved - amount);
+    }
+
+    /**
+     * Turns a claim into delivered items once the fill is committed; marks the order FILLED when complete.
+     */
+    public synchronized void commitReserved(int amount) {
+        amountReserved = Math.max(0, amountReserved - amount);
+        setAmountDelivered(amountDelivered + amount);
+    }
+
     // --- Convenience Methods ---
 
     /**
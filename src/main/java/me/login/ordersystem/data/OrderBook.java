@@ -0,0 +1,271 @@
+package me.login.ordersystem.data;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory book of all ACTIVE orders, updated on create/fill/cancel/expire instead of re-read from SQLite.
+ * <p>
+ * Orders are kept in sorted indexes (newest first, highest price first, by material, by expiry) and in an
+ * n-gram index over their item names for search. Each sort has a snapshot array that is only rebuilt after
+ * a change, so paging is a sub-list of it. Safe to use from the main thread and database callbacks.
+ * <p>
+ * Callers remove an order only after its status change is committed, so the book never hides an order
+ * the database still treats as active.
+ */
+public class OrderBook {
+
+    public enum Sort {
+        NEWEST("Newest"),
+        PRICE("Highest Price"),
+        MATERIAL("Item Type");
+
+        private final String displayName;
+
+        Sort(String displayName) { this.displayName = displayName; }
+
+        public String getDisplayName() { return displayName; }
+
+        public Sort next() { return values()[(ordinal() + 1) % values().length]; }
+    }
+
+    /**
+     * One page of results plus the totals a GUI needs for its title and arrows.
+     */
+    public record Page(List<Order> orders, int page, int totalPages, int totalOrders) {}
+
+    // Longest gram indexed; shorter queries look up their own gram directly
+    private static final int GRAM_SIZE = 3;
+
+    private static final Comparator<Order> BY_ID = Comparator.comparingLong(Order::getOrderId);
+    private static final Comparator<Order> NEWEST_FIRST = Comparator.comparingLong(Order::getCreationTimestamp).reversed().thenComparing(BY_ID);
+    private static final Comparator<Order> PRICE_FIRST = Comparator.comparingDouble(Order::getPricePerItem).reversed().thenComparing(NEWEST_FIRST);
+    private static final Comparator<Order> BY_MATERIAL = Comparator.<Order, String>comparing(o -> o.getMaterial().name()).thenComparing(NEWEST_FIRST);
+    private static final Comparator<Order> BY_EXPIRY = Comparator.comparingLong(Order::getExpiryTimestamp).thenComparing(BY_ID);
+
+    private final Map<Long, Order> byId = new ConcurrentHashMap<>();
+    private final Map<Sort, ConcurrentSkipListSet<Order>> sorted = new EnumMap<>(Sort.class);
+    private final ConcurrentSkipListSet<Order> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final Map<Material, Set<Long>> byMaterial = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+    private final Map<Long, String> searchNames = new ConcurrentHashMap<>();
+
+    // Snapshot per sort; null once a change invalidates it
+    private final Map<Sort, List<Order>> snapshots = new ConcurrentHashMap<>();
+
+    public OrderBook() {
+        sorted.put(Sort.NEWEST, new ConcurrentSkipListSet<>(NEWEST_FIRST));
+        sorted.put(Sort.PRICE, new ConcurrentSkipListSet<>(PRICE_FIRST));
+        sorted.put(Sort.MATERIAL, new ConcurrentSkipListSet<>(BY_MATERIAL));
+    }
+
+    // --- Mutations ---
+
+    /**
+     * Replaces the whole book, e.g. on startup or an admin resync.
+     */
+    public synchronized void loadAll(List<Order> orders) {
+        byId.clear();
+        sorted.values().forEach(Set::clear);
+        byExpiry.clear();
+        byMaterial.clear();
+        grams.clear();
+        searchNames.clear();
+        for (Order order : orders) {
+            addInternal(order);
+        }
+        snapshots.clear();
+    }
+
+    /**
+     * Adds a newly created (or reloaded) active order. Ignored if it is not active or has no id yet.
+     */
+    public synchronized void add(Order order) {
+        if (order.getOrderId() <= 0 || order.getStatus() != Order.OrderStatus.ACTIVE) return;
+        remove(order.getOrderId());
+        addInternal(order);
+        snapshots.clear();
+    }
+
+    /**
+     * Removes an order that was filled, cancelled or expired. Returns the removed order, or null.
+     */
+    public synchronized Order remove(long orderId) {
+        Order order = byId.remove(orderId);
+        if (order == null) return null;
+
+        sorted.values().forEach(index -> index.remove(order));
+        byExpiry.remove(order);
+        Set<Long> sameMaterial = byMaterial.get(order.getMaterial());
+        if (sameMaterial != null) {
+            sameMaterial.remove(orderId);
+            if (sameMaterial.isEmpty()) byMaterial.remove(order.getMaterial());
+        }
+
+        String name = searchNames.remove(orderId);
+        if (name != null) {
+            for (String gram : gramsOf(name)) {
+                Set<Long> posting = grams.get(gram);
+                if (posting != null) {
+                    posting.remove(orderId);
+                    if (posting.isEmpty()) grams.remove(gram);
+                }
+            }
+        }
+        snapshots.clear();
+        return order;
+    }
+
+    /**
+     * Called after an order's delivered amount changed; drops it once it is no longer active.
+     * Sort keys never change, so an active order stays where it is.
+     */
+    public void updated(Order order) {
+        if (order.getStatus() != Order.OrderStatus.ACTIVE) {
+            remove(order.getOrderId());
+        }
+    }
+
+    /**
+     * Removes orders whose expiry is at or before {@code now}, the same boundary OrdersDatabase.expireOrders uses.
+     * Returns how many were dropped.
+     */
+    public synchronized int removeExpired(long now) {
+        int removed = 0;
+        while (true) {
+            Order head = byExpiry.isEmpty() ? null : byExpiry.first();
+            if (head == null || head.getExpiryTimestamp() > now) return removed;
+            remove(head.getOrderId());
+            removed++;
+        }
+    }
+
+    private void addInternal(Order order) {
+        if (order.getOrderId() <= 0 || order.getStatus() != Order.OrderStatus.ACTIVE) return;
+        long id = order.getOrderId();
+        byId.put(id, order);
+        sorted.values().forEach(index -> index.add(order));
+        byExpiry.add(order);
+        byMaterial.computeIfAbsent(order.getMaterial(), m -> ConcurrentHashMap.newKeySet()).add(id);
+
+        String name = normalize(order.getFormattedItemName());
+        searchNames.put(id, name);
+        for (String gram : gramsOf(name)) {
+            grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    // --- Reads ---
+
+    public Order get(long orderId) {
+        return byId.get(orderId);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public int countByMaterial(Material material) {
+        Set<Long> ids = byMaterial.get(material);
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * All active orders in the given order. The list is a shared snapshot; do not modify it.
+     */
+    public synchronized List<Order> list(Sort sort) {
+        List<Order> snapshot = snapshots.get(sort);
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(new ArrayList<>(sorted.get(sort)));
+            snapshots.put(sort, snapshot);
+        }
+        return snapshot;
+    }
+
+    public Page page(Sort sort, int page, int pageSize) {
+        return paginate(list(sort), page, pageSize);
+    }
+
+    /**
+     * Active orders whose item name contains the query (case and colour insensitive), newest first.
+     * Candidates come from the n-gram postings; only those are checked with a substring match.
+     */
+    public List<Order> search(String query) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) return list(Sort.NEWEST);
+
+        Set<Long> candidates = null;
+        for (String gram : queryGrams(needle)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null) return List.of();
+            if (candidates == null || posting.size() < candidates.size()) {
+                Set<Long> smaller = new HashSet<>(posting);
+                if (candidates != null) smaller.retainAll(candidates);
+                candidates = smaller;
+            } else {
+                candidates.retainAll(posting);
+            }
+            if (candidates.isEmpty()) return List.of();
+        }
+
+        List<Order> results = new ArrayList<>();
+        for (Long id : candidates) {
+            Order order = byId.get(id);
+            String name = searchNames.get(id);
+            if (order != null && name != null && name.contains(needle)) results.add(order);
+        }
+        results.sort(NEWEST_FIRST);
+        return results;
+    }
+
+    public static Page paginate(List<Order> orders, int page, int pageSize) {
+        int total = orders.size();
+        int totalPages = (int) Math.ceil((double) total / pageSize);
+        int finalPage = Math.max(0, Math.min(page, totalPages > 0 ? totalPages - 1 : 0));
+        int start = Math.min(finalPage * pageSize, total);
+        int end = Math.min(start + pageSize, total);
+        return new Page(orders.subList(start, end), finalPage, totalPages, total);
+    }
+
+    // --- n-grams ---
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = ChatColor.stripColor(text);
+        return (stripped == null ? "" : stripped).toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Every substring of length 1..GRAM_SIZE, so queries shorter than a full gram still have a posting list.
+     */
+    private static Set<String> gramsOf(String name) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= GRAM_SIZE; length++) {
+            for (int i = 0; i + length <= name.length(); i++) {
+                result.add(name.substring(i, i + length));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> queryGrams(String needle) {
+        if (needle.length() <= GRAM_SIZE) return Set.of(needle);
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= needle.length(); i++) {
+            result.add(needle.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+}
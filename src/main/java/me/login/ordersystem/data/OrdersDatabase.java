@@ -1,13 +1,10 @@
 package me.login.ordersystem.data;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.utility.ItemCodec;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
-import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.sql.*;
@@ -15,130 +12,133 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 
 public class OrdersDatabase {
 
-    private final String url;
-    private Connection connection;
+    private final SQLiteDatabase database;
     private final Login plugin;
 
     public OrdersDatabase(Login plugin) {
         this.plugin = plugin;
-        File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists()) dataFolder.mkdirs();
-        this.url = "jdbc:sqlite:" + dataFolder.getAbsolutePath() + File.separator + "orders_data.db";
+        // Legacy location: plugins/Login/orders_data.db
+        this.database = plugin.getDatabaseService().open(new File(plugin.getDataFolder(), "orders_data.db"));
     }
 
     public void connect() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection(url);
             plugin.getLogger().info("Connecting Orders DB...");
-            try (Statement stmt = connection.createStatement()) {
-                // Main orders table
-                stmt.executeUpdate("""
-                        CREATE TABLE IF NOT EXISTS player_orders (
-                            order_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            placer_uuid VARCHAR(36) NOT NULL, placer_name VARCHAR(16) NOT NULL,
-                            item_stack TEXT NOT NULL, total_amount INTEGER NOT NULL, price_per_item REAL NOT NULL,
-                            amount_delivered INTEGER DEFAULT 0,
-                            creation_timestamp BIGINT NOT NULL, expiry_timestamp BIGINT NOT NULL,
-                            status VARCHAR(20) NOT NULL
-                        )""");
-                // Storage for filled items
-                stmt.executeUpdate("""
-                        CREATE TABLE IF NOT EXISTS order_storage (
-                            storage_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            order_id INTEGER NOT NULL,
-                            placer_uuid VARCHAR(36) NOT NULL,
-                            item_stack TEXT NOT NULL,
-                            FOREIGN KEY(order_id) REFERENCES player_orders(order_id) ON DELETE CASCADE
-                        )""");
-                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_order_storage_order_id ON order_storage (order_id)");
-
-                // (Points 4, 5) New tables for offline delivery
-                stmt.executeUpdate("""
-                        CREATE TABLE IF NOT EXISTS offline_delivery (
-                            delivery_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            player_uuid VARCHAR(36) NOT NULL,
-                            refund_amount REAL DEFAULT 0
-                        )""");
-                stmt.executeUpdate("""
-                        CREATE TABLE IF NOT EXISTS offline_delivery_items (
-                            item_id INTEGER PRIMARY KEY AUTOINCREMENT,
-                            delivery_id INTEGER NOT NULL,
-                            item_stack TEXT NOT NULL,
-                            FOREIGN KEY(delivery_id) REFERENCES offline_delivery(delivery_id) ON DELETE CASCADE
-                        )""");
-                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_offline_delivery_uuid ON offline_delivery (player_uuid)");
-            }
+            database.withConnection(connection -> {
+                createTables(connection);
+                return null;
+            });
+            migrateItemColumns();
             plugin.getLogger().info("Orders DB Connected.");
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed connect Orders DB!", e);
-            this.connection = null;
         }
     }
 
-    public Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) connect();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error getting DB connection", e);
+    private void createTables(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // Main orders table
+            stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS player_orders (
+                        order_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        placer_uuid VARCHAR(36) NOT NULL, placer_name VARCHAR(16) NOT NULL,
+                        item_stack BLOB NOT NULL, total_amount INTEGER NOT NULL, price_per_item REAL NOT NULL,
+                        amount_delivered INTEGER DEFAULT 0,
+                        creation_timestamp BIGINT NOT NULL, expiry_timestamp BIGINT NOT NULL,
+                        status VARCHAR(20) NOT NULL
+                    )""");
+            // Storage for filled items
+            stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS order_storage (
+                        storage_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        order_id INTEGER NOT NULL,
+                        placer_uuid VARCHAR(36) NOT NULL,
+                        item_stack BLOB NOT NULL,
+                        FOREIGN KEY(order_id) REFERENCES player_orders(order_id) ON DELETE CASCADE
+                    )""");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_order_storage_order_id ON order_storage (order_id)");
+
+            // (Points 4, 5) New tables for offline delivery
+            stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS offline_delivery (
+                        delivery_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        player_uuid VARCHAR(36) NOT NULL,
+                        refund_amount REAL DEFAULT 0
+                    )""");
+            stmt.executeUpdate("""
+                    CREATE TABLE IF NOT EXISTS offline_delivery_items (
+                        item_id INTEGER PRIMARY KEY AUTOINCREMENT,
+                        delivery_id INTEGER NOT NULL,
+                        item_stack BLOB NOT NULL,
+                        FOREIGN KEY(delivery_id) REFERENCES offline_delivery(delivery_id) ON DELETE CASCADE
+                    )""");
+            stmt.executeUpdate("CREATE INDEX IF NOT EXISTS idx_offline_delivery_uuid ON offline_delivery (player_uuid)");
         }
-        return connection;
+    }
+
+    /**
+     * One-shot conversion of Base64 object-stream rows to binary items. Older databases keep their TEXT
+     * column declarations; SQLite stores the BLOB values in them unchanged.
+     */
+    private void migrateItemColumns() throws SQLException {
+        int migrated = ItemCodec.migrateColumn(database, "player_orders", "order_id", "item_stack", ItemCodec.LegacyConverter.ITEM, plugin.getLogger())
+                + ItemCodec.migrateColumn(database, "order_storage", "storage_id", "item_stack", ItemCodec.LegacyConverter.ITEM, plugin.getLogger())
+                + ItemCodec.migrateColumn(database, "offline_delivery_items", "item_id", "item_stack", ItemCodec.LegacyConverter.ITEM, plugin.getLogger());
+        if (migrated > 0) plugin.getLogger().info("Converted " + migrated + " stored order items to binary.");
+    }
+
+    public SQLiteDatabase getDatabase() {
+        return database;
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Orders DB Disconnected.");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error disconnecting DB", e);
-        }
+        database.close();
+        plugin.getLogger().info("Orders DB Disconnected.");
     }
 
     // --- Order Methods ---
 
     public CompletableFuture<Long> saveOrder(Order order) {
         CompletableFuture<Long> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
+        byte[] itemData = ItemCodec.encode(order.getItem());
+        database.runAsync(() -> {
             String query = "INSERT INTO player_orders (placer_uuid, placer_name, item_stack, total_amount, price_per_item, amount_delivered, creation_timestamp, expiry_timestamp, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            try (PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setString(1, order.getPlacerUUID().toString()); ps.setString(2, order.getPlacerName());
-                ps.setString(3, itemStackToBase64(order.getItem())); ps.setInt(4, order.getTotalAmount()); ps.setDouble(5, order.getPricePerItem());
-                ps.setInt(6, order.getAmountDelivered());
-                ps.setLong(7, order.getCreationTimestamp());
-                ps.setLong(8, order.getExpiryTimestamp());
-                ps.setString(9, order.getStatus().name());
-                int affectedRows = ps.executeUpdate();
-                if (affectedRows == 0) { throw new SQLException("Creating order failed, no rows affected."); }
-                try (ResultSet generatedKeys = ps.getGeneratedKeys()) { if (generatedKeys.next()) { future.complete(generatedKeys.getLong(1)); } else { throw new SQLException("Creating order failed, no ID obtained."); } }
-            } catch (SQLException | IOException e) { future.completeExceptionally(e); }
+            try {
+                future.complete(database.withConnection(conn -> {
+                    PreparedStatement ps = database.prepare(query);
+                    ps.setString(1, order.getPlacerUUID().toString()); ps.setString(2, order.getPlacerName());
+                    ps.setBytes(3, itemData); ps.setInt(4, order.getTotalAmount()); ps.setDouble(5, order.getPricePerItem());
+                    ps.setInt(6, order.getAmountDelivered());
+                    ps.setLong(7, order.getCreationTimestamp());
+                    ps.setLong(8, order.getExpiryTimestamp());
+                    ps.setString(9, order.getStatus().name());
+                    int affectedRows = ps.executeUpdate();
+                    if (affectedRows == 0) { throw new SQLException("Creating order failed, no rows affected."); }
+                    try (ResultSet generatedKeys = ps.getGeneratedKeys()) { if (generatedKeys.next()) { return generatedKeys.getLong(1); } else { throw new SQLException("Creating order failed, no ID obtained."); } }
+                }));
+            } catch (SQLException e) { future.completeExceptionally(e); }
         });
         return future;
     }
 
     public CompletableFuture<Order> loadOrderById(long orderId) {
         CompletableFuture<Order> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(null); return; }
+        database.runAsync(() -> {
             updateExpiredOrdersSync();
-            String query = "SELECT * FROM player_orders WHERE order_id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setLong(1, orderId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        future.complete(parseOrderFromResult(rs));
-                    } else {
-                        future.complete(null);
+            try {
+                future.complete(database.query("SELECT * FROM player_orders WHERE order_id = ?", rs -> {
+                    if (!rs.next()) return null;
+                    try {
+                        return parseOrderFromResult(rs);
+                    } catch (IOException e) {
+                        throw new SQLException("Could not deserialize order " + orderId, e);
                     }
-                }
+                }, orderId));
             } catch (Exception e) {
                 future.completeExceptionally(e);
             }
@@ -146,69 +146,43 @@ public class OrdersDatabase {
         return future;
     }
 
-
-    public CompletableFuture<Boolean> addItemsToStorage(long orderId, UUID placerUUID, ItemStack items) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
-            String query = "INSERT INTO order_storage (order_id, placer_uuid, item_stack) VALUES (?, ?, ?)";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setLong(1, orderId);
-                ps.setString(2, placerUUID.toString());
-                ps.setString(3, itemStackToBase64(items));
-                future.complete(ps.executeUpdate() > 0);
-            } catch (SQLException | IOException e) {
-                future.completeExceptionally(e);
-            }
-        });
-        return future;
-    }
-
     public CompletableFuture<List<ItemStack>> loadAndRemoveStoredItems(long orderId) {
         CompletableFuture<List<ItemStack>> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            List<ItemStack> items = new ArrayList<>();
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
-            String selectQuery = "SELECT storage_id, item_stack FROM order_storage WHERE order_id = ?";
-            List<Integer> idsToDelete = new ArrayList<>();
-            try (PreparedStatement psSelect = conn.prepareStatement(selectQuery)) {
-                psSelect.setLong(1, orderId);
-                try (ResultSet rs = psSelect.executeQuery()) {
-                    while (rs.next()) {
-                        try {
-                            items.add(itemStackFromBase64(rs.getString("item_stack")));
-                            idsToDelete.add(rs.getInt("storage_id"));
-                        } catch (IOException | ClassNotFoundException e) {
-                            plugin.getLogger().warning("Failed to parse stored item for order " + orderId + ": " + e.getMessage());
+        database.runAsync(() -> {
+            try {
+                // Select and delete together so the same items can never be claimed twice
+                future.complete(database.transaction(conn -> {
+                    List<ItemStack> items = new ArrayList<>();
+                    List<Integer> idsToDelete = new ArrayList<>();
+                    PreparedStatement psSelect = database.prepare("SELECT storage_id, item_stack FROM order_storage WHERE order_id = ?");
+                    psSelect.setLong(1, orderId);
+                    try (ResultSet rs = psSelect.executeQuery()) {
+                        while (rs.next()) {
+                            try {
+                                items.add(ItemCodec.decodeColumn(rs, "item_stack"));
+                                idsToDelete.add(rs.getInt("storage_id"));
+                            } catch (IOException | IllegalArgumentException e) {
+                                plugin.getLogger().warning("Failed to parse stored item for order " + orderId + ": " + e.getMessage());
+                            }
                         }
                     }
-                }
-            } catch (SQLException e) { future.completeExceptionally(e); return; }
-            if (!idsToDelete.isEmpty()) {
-                String deleteQuery = "DELETE FROM order_storage WHERE storage_id = ?";
-                try (PreparedStatement psDelete = conn.prepareStatement(deleteQuery)) {
-                    for (Integer storageId : idsToDelete) { psDelete.setInt(1, storageId); psDelete.addBatch(); }
-                    psDelete.executeBatch();
-                } catch (SQLException e) { plugin.getLogger().log(Level.SEVERE,"Failed to delete stored items for order " + orderId + " after loading!", e); }
-            }
-            future.complete(items);
+                    if (!idsToDelete.isEmpty()) {
+                        PreparedStatement psDelete = database.prepare("DELETE FROM order_storage WHERE storage_id = ?");
+                        for (Integer storageId : idsToDelete) { psDelete.setInt(1, storageId); psDelete.addBatch(); }
+                        psDelete.executeBatch();
+                    }
+                    return items;
+                }));
+            } catch (SQLException e) { future.completeExceptionally(e); }
         });
         return future;
     }
 
     public CompletableFuture<Boolean> hasStoredItems(long orderId) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.completeExceptionally(new SQLException("DB not connected")); return; }
-            String query = "SELECT 1 FROM order_storage WHERE order_id = ? LIMIT 1";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setLong(1, orderId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    future.complete(rs.next());
-                }
+        database.runAsync(() -> {
+            try {
+                future.complete(database.query("SELECT 1 FROM order_storage WHERE order_id = ? LIMIT 1", ResultSet::next, orderId));
             } catch (SQLException e) {
                 future.completeExceptionally(e);
             }
@@ -218,16 +192,11 @@ public class OrdersDatabase {
 
     public CompletableFuture<List<Order>> loadActiveOrders() {
         CompletableFuture<List<Order>> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            List<Order> orders = new ArrayList<>();
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(orders); return; }
+        database.runAsync(() -> {
             updateExpiredOrdersSync();
-            String query = "SELECT * FROM player_orders WHERE status = ? AND expiry_timestamp > ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, Order.OrderStatus.ACTIVE.name()); ps.setLong(2, System.currentTimeMillis());
-                try (ResultSet rs = ps.executeQuery()) { while (rs.next()) { try { orders.add(parseOrderFromResult(rs)); } catch (Exception e) { plugin.getLogger().warning("Failed parse active order ID " + rs.getLong("order_id") + ": " + e.getMessage()); }}}
-                future.complete(orders);
+            try {
+                future.complete(database.query("SELECT * FROM player_orders WHERE status = ? AND expiry_timestamp > ?",
+                        rs -> parseOrders(rs, "active"), Order.OrderStatus.ACTIVE.name(), System.currentTimeMillis()));
             } catch (SQLException e) { future.completeExceptionally(e); }
         });
         return future;
@@ -235,77 +204,128 @@ public class OrdersDatabase {
 
     public CompletableFuture<List<Order>> loadPlayerOrders(UUID playerUUID) {
         CompletableFuture<List<Order>> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            List<Order> orders = new ArrayList<>();
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(orders); return; }
+        database.runAsync(() -> {
             updateExpiredOrdersSync();
-            String query = "SELECT * FROM player_orders WHERE placer_uuid = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, playerUUID.toString());
-                try (ResultSet rs = ps.executeQuery()) { while (rs.next()) { try { orders.add(parseOrderFromResult(rs)); } catch (Exception e) { plugin.getLogger().warning("Failed parse player order ID " + rs.getLong("order_id") + ": " + e.getMessage()); }}}
-                future.complete(orders);
+            try {
+                future.complete(database.query("SELECT * FROM player_orders WHERE placer_uuid = ?",
+                        rs -> parseOrders(rs, "player"), playerUUID.toString()));
             } catch (SQLException e) { future.completeExceptionally(e); }
         });
         return future;
     }
 
-    public CompletableFuture<Boolean> updateOrderAmountAndStatus(long orderId, int newAmountDelivered, Order.OrderStatus newStatus) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(false); return; }
-            String query = "UPDATE player_orders SET amount_delivered = ?, status = ? WHERE order_id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setInt(1, newAmountDelivered); ps.setString(2, newStatus.name()); ps.setLong(3, orderId);
-                future.complete(ps.executeUpdate() > 0);
-            } catch (SQLException e) { future.completeExceptionally(e); }
+    private List<Order> parseOrders(ResultSet rs, String kind) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        while (rs.next()) {
+            try { orders.add(parseOrderFromResult(rs)); } catch (Exception e) { plugin.getLogger().warning("Failed parse " + kind + " order ID " + rs.getLong("order_id") + ": " + e.getMessage()); }
+        }
+        return orders;
+    }
+
+    /**
+     * Records a fill in one transaction: bumps the delivered amount (marking the order FILLED when complete)
+     * and stores the items for the placer. Completes with false, writing nothing, if the order is no longer
+     * active or the fill would exceed its total.
+     */
+    public CompletableFuture<Boolean> commitFill(long orderId, UUID placerUUID, ItemStack items, int amount) {
+        byte[] itemData = ItemCodec.encode(items);
+        return database.supplyAsync(() -> {
+            try {
+                return database.transaction(conn -> {
+                    PreparedStatement psOrder = database.prepare("""
+                            UPDATE player_orders
+                            SET amount_delivered = amount_delivered + ?,
+                                status = CASE WHEN amount_delivered + ? >= total_amount THEN ? ELSE status END
+                            WHERE order_id = ? AND status = ? AND amount_delivered + ? <= total_amount""");
+                    psOrder.setInt(1, amount);
+                    psOrder.setInt(2, amount);
+                    psOrder.setString(3, Order.OrderStatus.FILLED.name());
+                    psOrder.setLong(4, orderId);
+                    psOrder.setString(5, Order.OrderStatus.ACTIVE.name());
+                    psOrder.setInt(6, amount);
+                    if (psOrder.executeUpdate() == 0) return false;
+
+                    PreparedStatement psStorage = database.prepare("INSERT INTO order_storage (order_id, placer_uuid, item_stack) VALUES (?, ?, ?)");
+                    psStorage.setLong(1, orderId);
+                    psStorage.setString(2, placerUUID.toString());
+                    psStorage.setBytes(3, itemData);
+                    psStorage.executeUpdate();
+                    return true;
+                });
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to commit fill for order " + orderId, e);
+            }
         });
-        return future;
     }
 
-    public CompletableFuture<Boolean> updateOrderStatus(long orderId, Order.OrderStatus newStatus) {
+    /**
+     * Cancels an order in one transaction. The row is re-read under the write lock and only updated while its
+     * status and delivered amount are unchanged. Completes with the order as it was cancelled, or null if it is
+     * gone or not {@code cancellable}; refunds must be computed from the returned order and only when non-null.
+     */
+    public CompletableFuture<Order> cancelOrder(long orderId, Predicate<Order> cancellable) {
+        return database.supplyAsync(() -> {
+            try {
+                return database.transaction(conn -> {
+                    PreparedStatement select = database.prepare("SELECT * FROM player_orders WHERE order_id = ?");
+                    select.setLong(1, orderId);
+                    Order order;
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next()) return null;
+                        order = parseOrderFromResult(rs);
+                    } catch (IOException e) {
+                        throw new SQLException("Could not deserialize order " + orderId, e);
+                    }
+                    if (!cancellable.test(order)) return null;
+
+                    int updated = database.update("UPDATE player_orders SET status = ? WHERE order_id = ? AND status = ? AND amount_delivered = ?",
+                            Order.OrderStatus.CANCELLED.name(), orderId, order.getStatus().name(), order.getAmountDelivered());
+                    if (updated != 1) return null;
+                    order.setStatus(Order.OrderStatus.CANCELLED);
+                    return order;
+                });
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to cancel order " + orderId, e);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteOrder(long orderId) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(false); return; }
-            String query = "UPDATE player_orders SET status = ? WHERE order_id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setString(1, newStatus.name()); ps.setLong(2, orderId);
-                future.complete(ps.executeUpdate() > 0);
+        database.runAsync(() -> {
+            try {
+                future.complete(database.update("DELETE FROM player_orders WHERE order_id = ?", orderId) > 0);
             } catch (SQLException e) { future.completeExceptionally(e); }
         });
         return future;
     }
 
-    public CompletableFuture<Boolean> deleteOrder(long orderId) {
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            Connection conn = getConnection();
-            if (conn == null) { future.complete(false); return; }
-            String query = "DELETE FROM player_orders WHERE order_id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setLong(1, orderId);
-                future.complete(ps.executeUpdate() > 0);
+    /**
+     * Flags every active order that expired before {@code now}; completes once that is committed.
+     */
+    public CompletableFuture<Void> expireOrders(long now) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        database.runAsync(() -> {
+            try {
+                database.update("UPDATE player_orders SET status = ? WHERE status = ? AND expiry_timestamp <= ?",
+                        Order.OrderStatus.EXPIRED.name(), Order.OrderStatus.ACTIVE.name(), now);
+                future.complete(null);
             } catch (SQLException e) { future.completeExceptionally(e); }
         });
         return future;
     }
 
     private void updateExpiredOrdersSync() {
-        Connection conn = getConnection();
-        if (conn == null) return;
-        String query = "UPDATE player_orders SET status = ? WHERE status = ? AND expiry_timestamp <= ?";
-        try (PreparedStatement ps = conn.prepareStatement(query)) {
-            ps.setString(1, Order.OrderStatus.EXPIRED.name()); ps.setString(2, Order.OrderStatus.ACTIVE.name()); ps.setLong(3, System.currentTimeMillis());
-            ps.executeUpdate();
+        try {
+            database.update("UPDATE player_orders SET status = ? WHERE status = ? AND expiry_timestamp <= ?",
+                    Order.OrderStatus.EXPIRED.name(), Order.OrderStatus.ACTIVE.name(), System.currentTimeMillis());
         } catch (SQLException e) { plugin.getLogger().log(Level.SEVERE, "Failed update expired orders", e); }
     }
 
-    private Order parseOrderFromResult(ResultSet rs) throws SQLException, IOException, ClassNotFoundException {
+    private Order parseOrderFromResult(ResultSet rs) throws SQLException, IOException {
         return new Order(
                 rs.getLong("order_id"), UUID.fromString(rs.getString("placer_uuid")), rs.getString("placer_name"),
-                itemStackFromBase64(rs.getString("item_stack")), rs.getInt("total_amount"), rs.getDouble("price_per_item"),
+                ItemCodec.decodeColumn(rs, "item_stack"), rs.getInt("total_amount"), rs.getDouble("price_per_item"),
                 rs.getInt("amount_delivered"),
                 rs.getLong("creation_timestamp"), rs.getLong("expiry_timestamp"), Order.OrderStatus.valueOf(rs.getString("status"))
         );
@@ -314,100 +334,92 @@ public class OrdersDatabase {
     // --- (Points 4, 5) New Offline Delivery Methods ---
 
     public CompletableFuture<Void> saveOfflineDelivery(UUID playerUUID, double refundAmount, List<ItemStack> items) {
-        // --- FIX: Use correct async executor ---
-        return CompletableFuture.runAsync(() -> {
-            Connection conn = getConnection();
-            if (conn == null) { throw new RuntimeException("DB not connected"); }
+        return database.runAsync(() -> {
             String insertDelivery = "INSERT INTO offline_delivery (player_uuid, refund_amount) VALUES (?, ?)";
             String insertItem = "INSERT INTO offline_delivery_items (delivery_id, item_stack) VALUES (?, ?)";
 
-            try (PreparedStatement psDelivery = conn.prepareStatement(insertDelivery, Statement.RETURN_GENERATED_KEYS)) {
-                conn.setAutoCommit(false); // Start transaction
-
-                psDelivery.setString(1, playerUUID.toString());
-                psDelivery.setDouble(2, refundAmount);
-                psDelivery.executeUpdate();
-
-                long deliveryId;
-                try (ResultSet generatedKeys = psDelivery.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        deliveryId = generatedKeys.getLong(1);
-                    } else {
-                        throw new SQLException("Creating delivery failed, no ID obtained.");
+            try {
+                database.transaction(conn -> {
+                    PreparedStatement psDelivery = database.prepare(insertDelivery);
+                    psDelivery.setString(1, playerUUID.toString());
+                    psDelivery.setDouble(2, refundAmount);
+                    psDelivery.executeUpdate();
+
+                    long deliveryId;
+                    try (ResultSet generatedKeys = psDelivery.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            deliveryId = generatedKeys.getLong(1);
+                        } else {
+                            throw new SQLException("Creating delivery failed, no ID obtained.");
+                        }
                     }
-                }
 
-                if (items != null && !items.isEmpty()) {
-                    try (PreparedStatement psItem = conn.prepareStatement(insertItem)) {
+                    if (items != null && !items.isEmpty()) {
+                        PreparedStatement psItem = database.prepare(insertItem);
                         for (ItemStack item : items) {
                             psItem.setLong(1, deliveryId);
-                            psItem.setString(2, itemStackToBase64(item));
+                            psItem.setBytes(2, ItemCodec.encode(item));
                             psItem.addBatch();
                         }
                         psItem.executeBatch();
                     }
-                }
-                conn.commit(); // Commit transaction
-            } catch (Exception e) {
-                try { conn.rollback(); } catch (SQLException ex) { plugin.getLogger().log(Level.SEVERE, "Failed to rollback delivery transaction", ex); }
+                    return null;
+                });
+            } catch (SQLException e) {
                 throw new RuntimeException("Failed to save offline delivery", e);
-            } finally {
-                try { conn.setAutoCommit(true); } catch (SQLException e) { /* ignored */ }
             }
-        }, runnable -> plugin.getServer().getScheduler().runTaskAsynchronously(plugin, runnable)); // --- FIX: Use correct async executor ---
+        });
     }
 
     public CompletableFuture<OfflineDelivery> loadAndRemoveOfflineDelivery(UUID playerUUID) {
-        // --- FIX: Use correct async executor ---
-        return CompletableFuture.supplyAsync(() -> {
-            Connection conn = getConnection();
-            if (conn == null) { throw new RuntimeException("DB not connected"); }
-
+        return database.supplyAsync(() -> {
             String selectDelivery = "SELECT * FROM offline_delivery WHERE player_uuid = ? LIMIT 1";
             String selectItems = "SELECT item_stack FROM offline_delivery_items WHERE delivery_id = ?";
-            String deleteDelivery = "DELETE FROM offline_delivery WHERE delivery_id = ?"; // Cascade delete handles items
+            String deleteDelivery = "DELETE FROM offline_delivery WHERE delivery_id = ?";
 
-            try (PreparedStatement psSelectDelivery = conn.prepareStatement(selectDelivery)) {
-                psSelectDelivery.setString(1, playerUUID.toString());
+            try {
+                // Select and delete in one transaction so a delivery can never be handed out twice
+                return database.transaction(conn -> {
+                    PreparedStatement psSelectDelivery = database.prepare(selectDelivery);
+                    psSelectDelivery.setString(1, playerUUID.toString());
 
-                long deliveryId;
-                double refundAmount;
-                List<ItemStack> items = new ArrayList<>();
+                    long deliveryId;
+                    double refundAmount;
+                    List<ItemStack> items = new ArrayList<>();
 
-                try (ResultSet rsDelivery = psSelectDelivery.executeQuery()) {
-                    if (!rsDelivery.next()) {
-                        return null; // No delivery found
+                    try (ResultSet rsDelivery = psSelectDelivery.executeQuery()) {
+                        if (!rsDelivery.next()) {
+                            return null; // No delivery found
+                        }
+                        deliveryId = rsDelivery.getLong("delivery_id");
+                        refundAmount = rsDelivery.getDouble("refund_amount");
                     }
-                    deliveryId = rsDelivery.getLong("delivery_id");
-                    refundAmount = rsDelivery.getDouble("refund_amount");
-                }
 
-                try (PreparedStatement psSelectItems = conn.prepareStatement(selectItems)) {
+                    PreparedStatement psSelectItems = database.prepare(selectItems);
                     psSelectItems.setLong(1, deliveryId);
                     try (ResultSet rsItems = psSelectItems.executeQuery()) {
                         while (rsItems.next()) {
-                            items.add(itemStackFromBase64(rsItems.getString("item_stack")));
+                            items.add(ItemCodec.decodeColumn(rsItems, "item_stack"));
                         }
+                    } catch (IOException | IllegalArgumentException e) {
+                        throw new SQLException("Could not deserialize delivery item", e);
                     }
-                }
 
-                // Now delete the delivery
-                try (PreparedStatement psDelete = conn.prepareStatement(deleteDelivery)) {
+                    // Now delete the delivery (and its items explicitly, foreign keys are off by default)
+                    PreparedStatement psDeleteItems = database.prepare("DELETE FROM offline_delivery_items WHERE delivery_id = ?");
+                    psDeleteItems.setLong(1, deliveryId);
+                    psDeleteItems.executeUpdate();
+                    PreparedStatement psDelete = database.prepare(deleteDelivery);
                     psDelete.setLong(1, deliveryId);
                     psDelete.executeUpdate();
-                }
-
-                return new OfflineDelivery(refundAmount, items);
 
+                    return new OfflineDelivery(refundAmount, items);
+                });
             } catch (Exception e) {
                 plugin.getLogger().log(Level.SEVERE, "Error loading/removing offline delivery", e);
                 throw new RuntimeException("Failed to load offline delivery", e);
             }
-        }, runnable -> plugin.getServer().getScheduler().runTaskAsynchronously(plugin, runnable)); // --- FIX: Use correct async executor ---
+        });
     }
 
-
-    // --- Serialization ---
-    private String itemStackToBase64(ItemStack item) throws IOException { if (item == null) return null; try (ByteArrayOutputStream os = new ByteArrayOutputStream(); BukkitObjectOutputStream dos = new BukkitObjectOutputStream(os)) { dos.writeObject(item); return Base64Coder.encodeLines(os.toByteArray()); } }
-    private ItemStack itemStackFromBase64(String data) throws IOException, ClassNotFoundException { if (data == null || data.isEmpty()) return null; try (ByteArrayInputStream is = new ByteArrayInputStream(Base64Coder.decodeLines(data)); BukkitObjectInputStream dis = new BukkitObjectInputStream(is)) { return (ItemStack) dis.readObject(); } }
 }
\ No newline at end of file
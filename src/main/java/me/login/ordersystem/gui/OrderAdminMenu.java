@@ -2,6 +2,7 @@ package me.login.ordersystem.gui;
 
 import me.login.Login;
 import me.login.ordersystem.data.Order;
+import me.login.ordersystem.data.OrderBook;
 import me.login.ordersystem.OrderModule;
 import me.login.ordersystem.data.OrdersDatabase; // --- FIX: Correct import ---
 import me.login.ordersystem.data.OfflineDeliveryManager;
@@ -29,9 +30,7 @@ import org.bukkit.persistence.PersistentDataType;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * Handles the /order adminmenu for staff.
@@ -47,10 +46,8 @@ public class OrderAdminMenu {
     private final OfflineDeliveryManager offlineDeliveryManager;
     private final MiniMessage mm = MiniMessage.miniMessage();
 
-    // Use a cache of *all* active orders for this menu
-    private final Map<Long, Order> activeOrdersCache = new ConcurrentHashMap<>();
-    private final long CACHE_DURATION_MS = 30 * 1000; // 30 seconds
-    private long lastCacheRefresh = 0;
+    // Shared order book of all active orders
+    private final OrderBook orderBook;
 
     private static final int GUI_SIZE = 54;
     private static final int ORDERS_PER_PAGE = 45;
@@ -68,33 +65,9 @@ public class OrderAdminMenu {
 
         this.orderIdKey = new NamespacedKey(plugin, "admin_order_id");
         this.toggleKey = new NamespacedKey(plugin, "admin_toggle");
+        this.orderBook = orderSystem.getOrderBook();
     }
 
-    // --- Cache Handling ---
-    private CompletableFuture<List<Order>> getActiveOrders(boolean forceRefresh) {
-        long now = System.currentTimeMillis();
-        if (!forceRefresh && (now - lastCacheRefresh < CACHE_DURATION_MS) && !activeOrdersCache.isEmpty()) {
-            return CompletableFuture.completedFuture(getSortedCacheList());
-        }
-
-        return ordersDatabase.loadActiveOrders().thenApply(orders -> {
-            activeOrdersCache.clear();
-            if (orders != null) {
-                orders.forEach(order -> activeOrdersCache.put(order.getOrderId(), order));
-            }
-            lastCacheRefresh = System.currentTimeMillis();
-            plugin.getLogger().info("[OrderSystem] Refreshed admin cache, loaded " + activeOrdersCache.size() + " active orders.");
-            return getSortedCacheList();
-        });
-    }
-
-    private List<Order> getSortedCacheList() {
-        return activeOrdersCache.values().stream()
-                .sorted(Comparator.comparingLong(Order::getCreationTimestamp).reversed())
-                .collect(Collectors.toList());
-    }
-
-
     // --- GUI Opening ---
     public void openAdminGui(Player player, int page) {
         for (String key : OrderModule.ALL_GUI_METADATA) {
@@ -105,25 +78,16 @@ public class OrderAdminMenu {
         if (player.hasMetadata(OrderAlertMenu.ALERT_ORDER_KEY)) {
             player.removeMetadata(OrderAlertMenu.ALERT_ORDER_KEY, plugin);
         }
-        getActiveOrders(false).whenComplete((activeOrders, error) -> {
-            if (error != null) {
-                messageHandler.sendMessage(player, "<red>Error loading active orders for admin menu.</red>");
-                logger.logError("Failed to load orders for admin " + player.getName(), error, 0);
-                return;
-            }
-            // --- FIX: Type inference is now correct ---
-            if (activeOrders.isEmpty()) {
-                messageHandler.sendMessage(player, "<yellow>There are currently no active orders.</yellow>");
-                return;
-            }
-
-            // (Point 7) Rebuild GUI on main thread
-            Bukkit.getScheduler().runTask(plugin, () -> buildAndOpenAdminGui(player, page, activeOrders));
+        if (orderBook.size() == 0) {
+            messageHandler.sendMessage(player, "<yellow>There are currently no active orders.</yellow>");
+            return;
+        }
 
-        });
+        // (Point 7) Rebuild GUI on main thread
+        Bukkit.getScheduler().runTask(plugin, () -> buildAndOpenAdminGui(player, page));
     }
 
-    private void buildAndOpenAdminGui(Player player, int page, List<Order> activeOrders) {
+    private void buildAndOpenAdminGui(Player player, int page) {
         for (String key : OrderModule.ALL_GUI_METADATA) {
             if (player.hasMetadata(key)) {
                 player.removeMetadata(key, plugin);
@@ -132,17 +96,15 @@ public class OrderAdminMenu {
         if (player.hasMetadata(OrderAlertMenu.ALERT_ORDER_KEY)) {
             player.removeMetadata(OrderAlertMenu.ALERT_ORDER_KEY, plugin);
         }
-        int totalOrders = activeOrders.size();
-        int totalPages = (int) Math.ceil((double) totalOrders / ORDERS_PER_PAGE);
-        int finalPage = Math.max(0, Math.min(page, totalPages > 0 ? totalPages - 1 : 0));
+        OrderBook.Page result = orderBook.page(OrderBook.Sort.NEWEST, page, ORDERS_PER_PAGE);
+        int totalPages = result.totalPages();
+        int finalPage = result.page();
 
         // (Point 14) Use admin title
         Component title = OrderGuiUtils.getAdminMenuTitle("Admin: Active Orders (Page " + (finalPage + 1) + "/" + Math.max(1, totalPages) + ")");
         Inventory gui = Bukkit.createInventory(null, GUI_SIZE, title);
 
-        int startIndex = finalPage * ORDERS_PER_PAGE;
-        int endIndex = Math.min(startIndex + ORDERS_PER_PAGE, totalOrders);
-        List<Order> pageOrders = activeOrders.subList(startIndex, endIndex);
+        List<Order> pageOrders = result.orders();
 
         for (int i = 0; i < pageOrders.size(); i++) {
             gui.setItem(i, createAdminDisplayItem(pageOrders.get(i)));
@@ -214,8 +176,8 @@ public class OrderAdminMenu {
             } else if (type == Material.CLOCK && slot == 50) {
                 // (Point 7) Force refresh
                 int currentPage = player.getMetadata(OrderModule.GUI_ADMIN_METADATA).get(0).asInt();
-                messageHandler.sendMessage(player, "<green>Forcing cache refresh...</green>");
-                getActiveOrders(true).thenRun(() ->
+                messageHandler.sendMessage(player, "<green>Resyncing orders from the database...</green>");
+                orderSystem.reloadOrderBook().thenRun(() ->
                         Bukkit.getScheduler().runTask(plugin, () -> openAdminGui(player, currentPage))
                 );
             } else if (slot == 51) {
@@ -239,11 +201,11 @@ public class OrderAdminMenu {
                 }
                 long orderId = meta.getPersistentDataContainer().get(orderIdKey, PersistentDataType.LONG);
 
-                // 2. Get the "stale" Order object from your cache
-                Order staleOrder = activeOrdersCache.get(orderId);
+                // 2. Get the "stale" Order object from the order book
+                Order staleOrder = orderBook.get(orderId);
 
                 if (staleOrder == null) {
-                    messageHandler.sendMessage(player, "<red>Error finding order in cache. Try refreshing.</red>");
+                    messageHandler.sendMessage(player, "<red>Order is no longer active. Try refreshing.</red>");
                     return;
                 }
 
@@ -292,42 +254,44 @@ public class OrderAdminMenu {
             // --- END DUPE FIX ---
 
 
-            // Now we can proceed using the FRESH order data.
-            double refundAmount = (freshOrder.getTotalAmount() - freshOrder.getAmountDelivered()) * freshOrder.getPricePerItem();
-            int itemsToReturn = freshOrder.getAmountDelivered();
-
-            // Mark order as cancelled in DB
-            ordersDatabase.updateOrderStatus(freshOrder.getOrderId(), Order.OrderStatus.CANCELLED).whenComplete((success, error) -> {
-                if (error != null || !success) {
+            // Cancel against the row as it is inside the transaction; only that snapshot is refunded
+            ordersDatabase.cancelOrder(orderId, order -> order.getStatus() == Order.OrderStatus.ACTIVE).whenComplete((cancelled, error) -> {
+                if (error != null) {
                     Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<red>Failed to update order status in database. Aborting.</red>"));
-                    logger.logError("AdminCancel failed to update DB status", error, freshOrder.getOrderId());
+                    logger.logError("AdminCancel failed to update DB status", error, orderId);
                     return;
                 }
+                if (cancelled == null) {
+                    Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<red>Cannot cancel: order " + orderId + " changed before it could be cancelled.</red>"));
+                    return;
+                }
+                double refundAmount = (cancelled.getTotalAmount() - cancelled.getAmountDelivered()) * cancelled.getPricePerItem();
+                int itemsToReturn = cancelled.getAmountDelivered();
 
-                // (Point 7) Remove from local cache immediately
-                activeOrdersCache.remove(freshOrder.getOrderId());
+                // (Point 7) Remove from the order book immediately
+                orderBook.remove(cancelled.getOrderId());
 
                 CompletableFuture<List<ItemStack>> itemFuture;
                 if (doReturnItems && itemsToReturn > 0) {
-                    itemFuture = ordersDatabase.loadAndRemoveStoredItems(freshOrder.getOrderId());
+                    itemFuture = ordersDatabase.loadAndRemoveStoredItems(cancelled.getOrderId());
                 } else {
-                    ordersDatabase.deleteOrder(freshOrder.getOrderId());
+                    ordersDatabase.deleteOrder(cancelled.getOrderId());
                     itemFuture = CompletableFuture.completedFuture(new ArrayList<>());
                 }
 
                 itemFuture.whenCompleteAsync((loadedItems, itemError) -> {
                     if (itemError != null) {
                         Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<red>Failed to load stored items. Refund not processed.</red>"));
-                        logger.logError("AdminCancel failed to load items", itemError, freshOrder.getOrderId());
+                        logger.logError("AdminCancel failed to load items", itemError, cancelled.getOrderId());
                         return;
                     }
 
                     double finalRefund = doRefund ? refundAmount : 0.0;
                     List<ItemStack> finalItems = doReturnItems ? loadedItems : new ArrayList<>();
 
-                    logger.logAdminCancel(admin, freshOrder, finalRefund, finalItems.stream().mapToInt(ItemStack::getAmount).sum());
+                    logger.logAdminCancel(admin, cancelled, finalRefund, finalItems.stream().mapToInt(ItemStack::getAmount).sum());
 
-                    OfflinePlayer placer = Bukkit.getOfflinePlayer(freshOrder.getPlacerUUID());
+                    OfflinePlayer placer = Bukkit.getOfflinePlayer(cancelled.getPlacerUUID());
                     if (placer.isOnline()) {
                         Player onlinePlacer = placer.getPlayer();
                         if (finalRefund > 0.01) {
@@ -339,24 +303,19 @@ public class OrderAdminMenu {
                         }
 
                         Bukkit.getScheduler().runTask(plugin, () -> {
-                            messageHandler.sendMessage(onlinePlacer, "<red>Your order (ID: " + freshOrder.getOrderId() + ") was forcibly cancelled by an administrator.</red>");
+                            messageHandler.sendMessage(onlinePlacer, "<red>Your order (ID: " + cancelled.getOrderId() + ") was forcibly cancelled by an administrator.</red>");
                             if (doRefund) messageHandler.sendMessage(onlinePlacer, "<green>The remaining funds (" + OrderModule.getEconomy().format(finalRefund) + ") have been refunded.</green>");
                             if (doReturnItems) messageHandler.sendMessage(onlinePlacer, "<green>The partially filled items have been returned to your inventory.</green>");
                         });
                     } else {
-                        offlineDeliveryManager.scheduleDelivery(freshOrder.getPlacerUUID(), finalRefund, finalItems);
+                        offlineDeliveryManager.scheduleDelivery(cancelled.getPlacerUUID(), finalRefund, finalItems);
                     }
 
                     // Notify admin AND REFRESH MENU
                     Bukkit.getScheduler().runTask(plugin, () -> {
-                        messageHandler.sendMessage(admin, "<green>Successfully cancelled order " + freshOrder.getOrderId() + ".</green>");
-
-                        // --- THIS IS THE CORRECTED REFRESH LINE ---
-                        // It uses the correct method name from your file
-                        getActiveOrders(true).thenRun(() ->
-                                Bukkit.getScheduler().runTask(plugin, () -> openAdminGui(admin, currentPage))
-                        );
-                        // --- END REFRESH ---
+                        messageHandler.sendMessage(admin, "<green>Successfully cancelled order " + cancelled.getOrderId() + ".</green>");
+
+                        openAdminGui(admin, currentPage);
                     });
                 });
             });
@@ -3,6 +3,7 @@ package me.login.ordersystem.gui;
 import me.login.Login;
 import me.login.ordersystem.OrderModule;
 import me.login.ordersystem.data.Order; // --- FIX: Correct import ---
+import me.login.ordersystem.data.OrderBook;
 import me.login.ordersystem.data.OrdersDatabase; // --- FIX: Correct import ---
 import me.login.ordersystem.data.OfflineDeliveryManager;
 import me.login.ordersystem.util.OrderLogger;
@@ -44,6 +45,7 @@ public class OrderAlertMenu {
     private final OrderMessageHandler messageHandler;
     private final OrderLogger logger;
     private final OfflineDeliveryManager offlineDeliveryManager;
+    private final OrderBook orderBook;
     private final MiniMessage mm = MiniMessage.miniMessage();
 
     // Key to store toggles
@@ -55,12 +57,13 @@ public class OrderAlertMenu {
     private static final int SLOT_TOGGLE_ITEMS = 16;
     private static final int SLOT_CLOSE = 26;
 
-    public OrderAlertMenu(Login plugin, OrdersDatabase ordersDatabase, OrderMessageHandler messageHandler, OrderLogger logger, OfflineDeliveryManager offlineDeliveryManager) {
+    public OrderAlertMenu(Login plugin, OrdersDatabase ordersDatabase, OrderMessageHandler messageHandler, OrderLogger logger, OfflineDeliveryManager offlineDeliveryManager, OrderBook orderBook) {
         this.plugin = plugin;
         this.ordersDatabase = ordersDatabase;
         this.messageHandler = messageHandler;
         this.logger = logger;
         this.offlineDeliveryManager = offlineDeliveryManager;
+        this.orderBook = orderBook;
         this.toggleKey = new NamespacedKey(plugin, "order_alert_toggles");
     }
 
@@ -79,45 +82,32 @@ public class OrderAlertMenu {
         }
         // --- END OF FIX ---
 
-        // --- FIX: Use whenComplete ---
-        ordersDatabase.loadOrderById(orderId).whenComplete((order, error) -> {
-            if (error != null) {
-                messageHandler.sendMessage(staff, "<red>Error loading order " + orderId + ".</red>");
-                logger.logError("Failed to load order for alert menu", error, orderId);
-                return;
-            }
-            if (order == null) {
-                messageHandler.sendMessage(staff, "<yellow>Order " + orderId + " no longer exists.</yellow>");
-                return;
-            }
-            // --- FIX: Type inference is now correct ---
-            if (order.getStatus() != Order.OrderStatus.ACTIVE) {
-                messageHandler.sendMessage(staff, "<yellow>Order " + orderId + " is no longer active.</yellow>");
-                return;
-            }
+        // Only active orders are in the book; the cancel itself re-checks the database
+        Order order = orderBook.get(orderId);
+        if (order == null || order.getStatus() != Order.OrderStatus.ACTIVE) {
+            messageHandler.sendMessage(staff, "<yellow>Order " + orderId + " no longer exists or is no longer active.</yellow>");
+            return;
+        }
 
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                Inventory gui = Bukkit.createInventory(null, 27, OrderGuiUtils.getAdminMenuTitle("Inspect Order: " + orderId));
+        Inventory gui = Bukkit.createInventory(null, 27, OrderGuiUtils.getAdminMenuTitle("Inspect Order: " + orderId));
 
-                // Store order data in player metadata
-                // This now happens *after* all old metadata is cleared.
-                staff.setMetadata(OrderModule.GUI_ALERT_METADATA, new FixedMetadataValue(plugin, true));
-                staff.setMetadata(ALERT_ORDER_KEY, new FixedMetadataValue(plugin, order));
+        // Store order data in player metadata
+        // This now happens *after* all old metadata is cleared.
+        staff.setMetadata(OrderModule.GUI_ALERT_METADATA, new FixedMetadataValue(plugin, true));
+        staff.setMetadata(ALERT_ORDER_KEY, new FixedMetadataValue(plugin, order));
 
-                // Default toggles: ON
-                boolean refund = true;
-                boolean items = true;
+        // Default toggles: ON
+        boolean refund = true;
+        boolean items = true;
 
-                fillBackground(gui);
-                // --- FIX: Type inference is now correct ---
-                gui.setItem(SLOT_ORDER_ITEM, createDisplayItem(order));
-                gui.setItem(SLOT_TOGGLE_REFUND, createToggleItem(refund, true));
-                gui.setItem(SLOT_TOGGLE_ITEMS, createToggleItem(items, false));
-                gui.setItem(SLOT_CLOSE, OrderGuiUtils.createGuiItem(Material.BARRIER, mm.deserialize("<red>Close</red>"), null));
+        fillBackground(gui);
+        // --- FIX: Type inference is now correct ---
+        gui.setItem(SLOT_ORDER_ITEM, createDisplayItem(order));
+        gui.setItem(SLOT_TOGGLE_REFUND, createToggleItem(refund, true));
+        gui.setItem(SLOT_TOGGLE_ITEMS, createToggleItem(items, false));
+        gui.setItem(SLOT_CLOSE, OrderGuiUtils.createGuiItem(Material.BARRIER, mm.deserialize("<red>Close</red>"), null));
 
-                staff.openInventory(gui);
-            });
-        });
+        staff.openInventory(gui);
     }
 
     private void fillBackground(Inventory gui) {
@@ -193,28 +183,29 @@ public class OrderAlertMenu {
             // --- END OF FIX ---
 
 
-            // 3. Now we can proceed using the FRESH order data.
-            //    All logic from here on uses 'freshOrder', NOT 'staleOrder'.
-
-            // Calculate refund and items to return (using freshOrder)
-            double refundAmount = (freshOrder.getTotalAmount() - freshOrder.getAmountDelivered()) * freshOrder.getPricePerItem();
-            int itemsToReturn = freshOrder.getAmountDelivered();
-
-            // Mark order as cancelled in DB
-            ordersDatabase.updateOrderStatus(freshOrder.getOrderId(), Order.OrderStatus.CANCELLED).whenComplete((success, error) -> {
-                if (error != null || !success) {
+            // 3. Cancel against the row as it is inside the transaction.
+            //    All logic from here on uses the cancelled snapshot, NOT 'freshOrder' or 'staleOrder'.
+            ordersDatabase.cancelOrder(orderId, order -> order.getStatus() == Order.OrderStatus.ACTIVE).whenComplete((cancelled, error) -> {
+                if (error != null) {
                     Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<red>Failed to update order status in database. Aborting.</red>"));
-                    logger.logError("AdminCancel failed to update DB status", error, freshOrder.getOrderId());
+                    logger.logError("AdminCancel failed to update DB status", error, orderId);
+                    return;
+                }
+                if (cancelled == null) {
+                    Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<red>Cannot cancel: order " + orderId + " changed before it could be cancelled.</red>"));
                     return;
                 }
+                double refundAmount = (cancelled.getTotalAmount() - cancelled.getAmountDelivered()) * cancelled.getPricePerItem();
+                int itemsToReturn = cancelled.getAmountDelivered();
+                orderBook.remove(cancelled.getOrderId());
 
                 // Load stored items IF we need to return them
                 CompletableFuture<List<ItemStack>> itemFuture;
                 if (doReturnItems && itemsToReturn > 0) {
-                    itemFuture = ordersDatabase.loadAndRemoveStoredItems(freshOrder.getOrderId());
+                    itemFuture = ordersDatabase.loadAndRemoveStoredItems(cancelled.getOrderId());
                 } else {
                     // If not returning items, just delete the order (which cascades to storage)
-                    ordersDatabase.deleteOrder(freshOrder.getOrderId());
+                    ordersDatabase.deleteOrder(cancelled.getOrderId());
                     itemFuture = CompletableFuture.completedFuture(new ArrayList<>());
                 }
 
@@ -222,7 +213,7 @@ public class OrderAlertMenu {
                 itemFuture.whenCompleteAsync((loadedItems, itemError) -> {
                     if (itemError != null) {
                         Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<red>Failed to load stored items. Refund not processed.</red>"));
-                        logger.logError("AdminCancel failed to load items", itemError, freshOrder.getOrderId());
+                        logger.logError("AdminCancel failed to load items", itemError, cancelled.getOrderId());
                         return;
                     }
 
@@ -230,11 +221,11 @@ public class OrderAlertMenu {
                     double finalRefund = doRefund ? refundAmount : 0.0;
                     List<ItemStack> finalItems = doReturnItems ? loadedItems : new ArrayList<>();
 
-                    // Log the action (using freshOrder)
-                    logger.logAdminCancel(admin, freshOrder, finalRefund, finalItems.stream().mapToInt(ItemStack::getAmount).sum());
+                    // Log the action (using the cancelled snapshot)
+                    logger.logAdminCancel(admin, cancelled, finalRefund, finalItems.stream().mapToInt(ItemStack::getAmount).sum());
 
                     // Check if player is online
-                    OfflinePlayer placer = Bukkit.getOfflinePlayer(freshOrder.getPlacerUUID());
+                    OfflinePlayer placer = Bukkit.getOfflinePlayer(cancelled.getPlacerUUID());
                     if (placer.isOnline()) {
                         Player onlinePlacer = placer.getPlayer();
                         // Process online
@@ -248,17 +239,17 @@ public class OrderAlertMenu {
 
                         // Notify placer
                         Bukkit.getScheduler().runTask(plugin, () -> {
-                            messageHandler.sendMessage(onlinePlacer, "<red>Your order (ID: " + freshOrder.getOrderId() + ") was forcibly cancelled by an administrator.</red>");
+                            messageHandler.sendMessage(onlinePlacer, "<red>Your order (ID: " + cancelled.getOrderId() + ") was forcibly cancelled by an administrator.</red>");
                             if (doRefund) messageHandler.sendMessage(onlinePlacer, "<green>The remaining funds (" + OrderModule.getEconomy().format(finalRefund) + ") have been refunded.</green>");
                             if (doReturnItems) messageHandler.sendMessage(onlinePlacer, "<green>The partially filled items have been returned to your inventory.</green>");
                         });
                     } else {
                         // Process offline
-                        offlineDeliveryManager.scheduleDelivery(freshOrder.getPlacerUUID(), finalRefund, finalItems);
+                        offlineDeliveryManager.scheduleDelivery(cancelled.getPlacerUUID(), finalRefund, finalItems);
                     }
 
                     // Notify admin
-                    Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<green>Successfully cancelled order " + freshOrder.getOrderId() + ".</green>"));
+                    Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(admin, "<green>Successfully cancelled order " + cancelled.getOrderId() + ".</green>"));
                 });
             });
         }); // This is the end of the new whenComplete block
@@ -309,6 +309,7 @@ public class OrderCreate {
                                                 economy.depositPlayer(p, totalCost);
                                             } else {
                                                 newOrder.setOrderId(generatedId);
+                                                orderSystem.getOrderBook().add(newOrder);
                                                 messageHandler.sendMessage(p, "<green>Order created successfully! (ID: " + generatedId + ")</green>");
                                                 messageHandler.sendMessage(p, "<yellow>" + economy.format(totalCost) + " has been deducted to fund this order.</yellow>");
                                                 logger.logCreation(newOrder);
@@ -7,6 +7,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.PlayerInventory; // <-- Make sure this is imported
 import org.bukkit.metadata.MetadataValue;
@@ -133,4 +134,9 @@ public class OrderGuiListener implements Listener {
             }
         }.runTaskLater(module.getPlugin(), 1L); // 1-tick delay
     }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        module.getOrderMenu().clearPlayer(event.getPlayer().getUniqueId());
+    }
 }
\ No newline at end of file
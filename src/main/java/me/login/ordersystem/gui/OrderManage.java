@@ -359,20 +359,28 @@ public class OrderManage {
                     });
                 }
                 else if (currentStatus == Order.OrderStatus.ACTIVE || (currentStatus == Order.OrderStatus.EXPIRED && order.getAmountDelivered() > 0)) {
-                    // Cancel an active/expired-but-filled order
-                    ordersDatabase.updateOrderStatus(order.getOrderId(), Order.OrderStatus.CANCELLED).whenCompleteAsync((success, error) -> {
+                    // Cancel an active/expired-but-filled order; the refund uses the row as it was cancelled
+                    ordersDatabase.cancelOrder(orderId, fresh -> fresh.getStatus() == Order.OrderStatus.ACTIVE
+                            || (fresh.getStatus() == Order.OrderStatus.EXPIRED && fresh.getAmountDelivered() > 0)).whenCompleteAsync((cancelled, error) -> {
                         Bukkit.getScheduler().runTask(plugin, () -> {
-                            if (!success) {
+                            if (error != null) {
                                 messageHandler.sendMessage(player, "<red>Error cancelling order.</red>");
-                                logger.logError("Cancel Fail DB: " + player.getName() + " O:" + order.getOrderId(), error, order.getOrderId());
+                                logger.logError("Cancel Fail DB: " + player.getName() + " O:" + orderId, error, orderId);
+                                return;
+                            }
+                            if (cancelled == null) {
+                                messageHandler.sendMessage(player, "<red>This order changed before it could be cancelled.</red>");
+                                getPlayerOrders(player.getUniqueId(), true).thenRun(() ->
+                                        Bukkit.getScheduler().runTask(plugin, () -> openManageGui(player, currentPage))
+                                );
                                 return;
                             }
 
-                            order.setStatus(Order.OrderStatus.CANCELLED);
+                            orderSystem.getOrderBook().remove(cancelled.getOrderId());
                             messageHandler.sendMessage(player, "<green>Order cancelled.</green>");
 
                             // Refund unfilled portion
-                            double refundAmount = (order.getTotalAmount() - order.getAmountDelivered()) * order.getPricePerItem();
+                            double refundAmount = (cancelled.getTotalAmount() - cancelled.getAmountDelivered()) * cancelled.getPricePerItem();
                             if (refundAmount > 0.01) {
                                 Economy economy = OrderModule.getEconomy();
                                 if (economy != null) {
@@ -381,18 +389,18 @@ public class OrderManage {
                                         messageHandler.sendMessage(player, "<green>Refunded " + economy.format(refundAmount) + " for the unfilled portion.</green>");
                                     } else {
                                         messageHandler.sendMessage(player, "<red>Order cancelled, but failed to process refund: " + refundResp.errorMessage + "</red>");
-                                        logger.logError("REFUND FAILED (Cancel): " + player.getName() + " O:" + order.getOrderId() + " A:" + refundAmount + " E:" + refundResp.errorMessage, null, order.getOrderId());
+                                        logger.logError("REFUND FAILED (Cancel): " + player.getName() + " O:" + cancelled.getOrderId() + " A:" + refundAmount + " E:" + refundResp.errorMessage, null, cancelled.getOrderId());
                                     }
                                 }
                             }
 
                             // Log cancel
-                            logger.logCancel(player, order, refundAmount);
+                            logger.logCancel(player, cancelled, refundAmount);
 
                             // Return any items
-                            if (order.getAmountDelivered() > 0 && !itemsClaimed) {
+                            if (cancelled.getAmountDelivered() > 0 && !itemsClaimed) {
                                 messageHandler.sendMessage(player, "<green>Returning partially delivered items...</green>");
-                                giveStoredItemsToPlayer(player, order, () -> {
+                                giveStoredItemsToPlayer(player, cancelled, () -> {
                                     // (Point 7) Force refresh cache and reopen
                                     getPlayerOrders(player.getUniqueId(), true).thenRun(() ->
                                             Bukkit.getScheduler().runTask(plugin, () -> openManageGui(player, currentPage))
@@ -3,6 +3,7 @@ package me.login.ordersystem.gui;
 import de.rapha149.signgui.SignGUI;
 import me.login.Login;
 import me.login.ordersystem.data.Order;
+import me.login.ordersystem.data.OrderBook;
 import me.login.ordersystem.OrderModule;
 import me.login.ordersystem.data.OrdersDatabase;
 import me.login.ordersystem.system.OrderFilling;
@@ -25,13 +26,11 @@ import org.bukkit.persistence.PersistentDataType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * Handles the main /order menu for viewing and filling active orders.
@@ -46,10 +45,9 @@ public class OrderMenu {
     private final OrderMessageHandler messageHandler;
     private final MiniMessage mm = MiniMessage.miniMessage();
 
-    private Map<Long, Order> activeOrdersCache = new ConcurrentHashMap<>();
-    private long lastCacheUpdateTime = 0;
-    private final long CACHE_DURATION_MS = 30 * 1000;
-    private boolean isRefreshingCache = false;
+    private final OrderBook orderBook;
+    // Per-player sort choice for the main list
+    private final Map<UUID, OrderBook.Sort> sortModes = new ConcurrentHashMap<>();
 
     private static final int GUI_SIZE = 54;
     private static final int ORDERS_PER_PAGE = 45;
@@ -69,34 +67,7 @@ public class OrderMenu {
         this.orderFilling = orderFilling;
         this.messageHandler = messageHandler;
         this.orderIdKey = new NamespacedKey(plugin, "menu_order_id");
-        refreshActiveOrdersCache(true);
-    }
-
-    // --- Cache Handling ---
-    private CompletableFuture<List<Order>> refreshActiveOrdersCache(boolean force) {
-        if (isRefreshingCache || (!force && (System.currentTimeMillis() - lastCacheUpdateTime <= CACHE_DURATION_MS))) {
-            return CompletableFuture.completedFuture(getActiveOrdersFromCache());
-        }
-        isRefreshingCache = true;
-
-        return ordersDatabase.loadActiveOrders().whenCompleteAsync((orders, error) -> {
-            if (error != null) {
-                plugin.getLogger().severe("[OrderSystem] Failed to load active orders: " + error.getMessage());
-            } else {
-                Map<Long, Order> newCache = new ConcurrentHashMap<>();
-                if (orders != null) orders.forEach(order -> newCache.put(order.getOrderId(), order));
-                this.activeOrdersCache = newCache;
-                this.lastCacheUpdateTime = System.currentTimeMillis();
-                plugin.getLogger().info("[OrderSystem] Loaded " + newCache.size() + " active orders.");
-            }
-            isRefreshingCache = false;
-        }).thenApply(orders -> getActiveOrdersFromCache());
-    }
-
-    private List<Order> getActiveOrdersFromCache() {
-        return activeOrdersCache.values().stream()
-                .sorted(Comparator.comparingLong(Order::getCreationTimestamp).reversed())
-                .collect(Collectors.toList());
+        this.orderBook = orderSystem.getOrderBook();
     }
 
     // --- GUI Opening ---
@@ -109,16 +80,10 @@ public class OrderMenu {
         if (player.hasMetadata(OrderAlertMenu.ALERT_ORDER_KEY)) {
             player.removeMetadata(OrderAlertMenu.ALERT_ORDER_KEY, plugin);
         }
-        if (System.currentTimeMillis() - lastCacheUpdateTime > CACHE_DURATION_MS) {
-            refreshActiveOrdersCache(true).thenAccept(orders ->
-                    buildAndOpenGui(player, page, orders)
-            );
-        } else {
-            buildAndOpenGui(player, page, getActiveOrdersFromCache());
-        }
+        buildAndOpenGui(player, page);
     }
 
-    private void buildAndOpenGui(Player player, int page, List<Order> activeOrders) {
+    private void buildAndOpenGui(Player player, int page) {
         for (String key : OrderModule.ALL_GUI_METADATA) {
             if (player.hasMetadata(key)) {
                 player.removeMetadata(key, plugin);
@@ -128,16 +93,15 @@ public class OrderMenu {
             player.removeMetadata(OrderAlertMenu.ALERT_ORDER_KEY, plugin);
         }
         Bukkit.getScheduler().runTask(plugin, () -> {
-            int totalOrders = activeOrders.size();
-            int totalPages = (int) Math.ceil((double) totalOrders / ORDERS_PER_PAGE);
-            int finalPage = Math.max(0, Math.min(page, totalPages > 0 ? totalPages - 1 : 0));
+            OrderBook.Sort sort = sortModes.getOrDefault(player.getUniqueId(), OrderBook.Sort.NEWEST);
+            OrderBook.Page result = orderBook.page(sort, page, ORDERS_PER_PAGE);
+            int totalPages = result.totalPages();
+            int finalPage = result.page();
 
             Component title = OrderGuiUtils.getMenuTitle("Active Orders (Page " + (finalPage + 1) + "/" + Math.max(1, totalPages) + ")");
             Inventory gui = Bukkit.createInventory(null, GUI_SIZE, title);
 
-            int startIndex = finalPage * ORDERS_PER_PAGE;
-            int endIndex = Math.min(startIndex + ORDERS_PER_PAGE, totalOrders);
-            List<Order> pageOrders = activeOrders.subList(startIndex, endIndex);
+            List<Order> pageOrders = result.orders();
             for (int i = 0; i < pageOrders.size(); i++) {
                 gui.setItem(i, createOrderDisplayItem(pageOrders.get(i)));
             }
@@ -150,6 +114,7 @@ public class OrderMenu {
             gui.setItem(48, OrderGuiUtils.createGuiItem(Material.BARRIER, mm.deserialize("<red>Close</red>"), null));
             gui.setItem(49, OrderGuiUtils.createGuiItem(Material.OAK_SIGN, mm.deserialize("<aqua>Search For Orders</aqua>"), Arrays.asList(mm.deserialize("<gray>Click to search for"), mm.deserialize("<gray>a specific item."))));
             gui.setItem(50, OrderGuiUtils.createGuiItem(Material.CLOCK, mm.deserialize("<yellow>Refresh List</yellow>"), null));
+            gui.setItem(51, OrderGuiUtils.createGuiItem(Material.HOPPER, mm.deserialize("<yellow>Sort: <white>" + sort.getDisplayName() + "</white></yellow>"), Arrays.asList(mm.deserialize("<gray>Click to change"), mm.deserialize("<gray>the sort order."))));
             if (finalPage < totalPages - 1) gui.setItem(53, OrderGuiUtils.createGuiItem(Material.ARROW, mm.deserialize("<green>Next Page</green>"), null));
 
             player.setMetadata(OrderModule.GUI_MENU_METADATA, new FixedMetadataValue(plugin, finalPage));
@@ -166,9 +131,7 @@ public class OrderMenu {
         if (player.hasMetadata(OrderAlertMenu.ALERT_ORDER_KEY)) {
             player.removeMetadata(OrderAlertMenu.ALERT_ORDER_KEY, plugin);
         }
-        List<Order> filteredOrders = getActiveOrdersFromCache().stream()
-                .filter(order -> order.getFormattedItemName().toLowerCase().contains(searchTerm.toLowerCase()))
-                .collect(Collectors.toList());
+        List<Order> filteredOrders = orderBook.search(searchTerm);
 
         if (filteredOrders.isEmpty()) {
             messageHandler.sendMessage(player, "<red>No active orders found for '" + searchTerm + "'.</red>");
@@ -176,16 +139,14 @@ public class OrderMenu {
             return;
         }
 
-        int totalOrders = filteredOrders.size();
-        int totalPages = (int) Math.ceil((double) totalOrders / ORDERS_PER_PAGE);
-        int finalPage = Math.max(0, Math.min(page, totalPages > 0 ? totalPages - 1 : 0));
+        OrderBook.Page result = OrderBook.paginate(filteredOrders, page, ORDERS_PER_PAGE);
+        int totalPages = result.totalPages();
+        int finalPage = result.page();
 
         Component title = OrderGuiUtils.getMenuTitle("Search: '" + searchTerm + "' (" + (finalPage + 1) + "/" + Math.max(1, totalPages) + ")");
         Inventory gui = Bukkit.createInventory(null, GUI_SIZE, title);
 
-        int startIndex = finalPage * ORDERS_PER_PAGE;
-        int endIndex = Math.min(startIndex + ORDERS_PER_PAGE, totalOrders);
-        List<Order> pageOrders = filteredOrders.subList(startIndex, endIndex);
+        List<Order> pageOrders = result.orders();
         for (int i = 0; i < pageOrders.size(); i++) {
             gui.setItem(i, createOrderDisplayItem(pageOrders.get(i)));
         }
@@ -251,6 +212,33 @@ public class OrderMenu {
         return displayItem;
     }
 
+    /**
+     * Redraws one order in the player's open list or search page after it changed, without reopening the menu.
+     * An order that is no longer active leaves an empty slot.
+     */
+    public void refreshOrder(Player player, Order order) {
+        if (!player.isOnline()) return;
+        if (!player.hasMetadata(OrderModule.GUI_MENU_METADATA) && !player.hasMetadata(OrderModule.GUI_MENU_SEARCH_METADATA)) return;
+
+        Inventory top = player.getOpenInventory().getTopInventory();
+        if (top.getSize() != GUI_SIZE) return;
+        for (int slot = 0; slot < ORDERS_PER_PAGE; slot++) {
+            ItemStack item = top.getItem(slot);
+            if (item == null || !item.hasItemMeta()) continue;
+            Long id = item.getItemMeta().getPersistentDataContainer().get(orderIdKey, PersistentDataType.LONG);
+            if (id != null && id == order.getOrderId()) {
+                boolean active = order.getStatus() == Order.OrderStatus.ACTIVE && !order.isExpired();
+                top.setItem(slot, active ? createOrderDisplayItem(order) : null);
+                return;
+            }
+        }
+    }
+
+    /** Drops the player's sort choice; called by OrderGuiListener on quit. */
+    public void clearPlayer(UUID uuid) {
+        sortModes.remove(uuid);
+    }
+
     // --- Click Handlers (Called by OrderGuiListener) ---
 
     public void handleMainMenuClick(InventoryClickEvent event, Player player) {
@@ -267,11 +255,12 @@ public class OrderMenu {
                 if (slot == 45 && currentPage > 0) openMenuListGui(player, currentPage - 1);
                 else if (slot == 53) openMenuListGui(player, currentPage + 1);
             } else if (type == Material.CLOCK && slot == 50) {
-                // (Point 7) Force refresh
-                messageHandler.sendMessage(player, "<green>Refreshing orders...</green>");
-                refreshActiveOrdersCache(true).thenAccept(orders ->
-                        buildAndOpenGui(player, currentPage, orders)
-                );
+                // The book is always current; just re-render
+                buildAndOpenGui(player, currentPage);
+            } else if (type == Material.HOPPER && slot == 51) {
+                OrderBook.Sort sort = sortModes.getOrDefault(player.getUniqueId(), OrderBook.Sort.NEWEST);
+                sortModes.put(player.getUniqueId(), sort.next());
+                buildAndOpenGui(player, 0);
             }
         } else { // Order item
             processFillClick(player, clickedItem, currentPage);
@@ -300,15 +289,13 @@ public class OrderMenu {
         ItemMeta meta = clickedItem.getItemMeta();
         if (meta != null && meta.getPersistentDataContainer().has(orderIdKey, PersistentDataType.LONG)) {
             long orderId = meta.getPersistentDataContainer().get(orderIdKey, PersistentDataType.LONG);
-            Order order = activeOrdersCache.get(orderId);
+            Order order = orderBook.get(orderId);
 
             if (order != null && order.getStatus() == Order.OrderStatus.ACTIVE && !order.isExpired()) {
                 orderFilling.startFillingProcess(player, order, currentPage);
             } else {
                 messageHandler.sendMessage(player, "<red>Order unavailable or changed. Refreshing...</red>");
-                refreshActiveOrdersCache(true).thenAccept(orders ->
-                        buildAndOpenGui(player, 0, orders) // Go back to main menu
-                );
+                buildAndOpenGui(player, 0); // Go back to main menu
             }
         } else {
             messageHandler.sendMessage(player, "<red>Error retrieving order ID.</red>");
@@ -12,9 +12,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.HashMap;
+import java.util.List;
 
 /**
  * Handles the logic for a player filling another player's order.
@@ -46,6 +46,14 @@ public class OrderFilling {
         return economy;
     }
 
+    /**
+     * Fills as much of the order as the filler can deliver.
+     * <p>
+     * The amount is first reserved on the in-memory order (on the main thread), so concurrent fillers claim
+     * disjoint shares and can never over-deliver. The delivered amount, status and stored items are then
+     * committed in one database transaction; only after that commit is the filler paid. A failed commit
+     * releases the reservation and returns the items. Must be called on the main thread.
+     */
     public void startFillingProcess(Player filler, Order order, int currentPage) {
         if (economy == null) {
             messageHandler.sendMessage(filler, "<red>Economy system offline.</red>");
@@ -67,93 +75,74 @@ public class OrderFilling {
             return;
         }
 
-        int needed = order.getTotalAmount() - order.getAmountDelivered();
-        if (needed <= 0) {
-            messageHandler.sendMessage(filler, "<red>This order is already filled. Refreshing list...</red>");
-            // --- FIX: Use plugin.getOrderMenu() ---
-            plugin.getOrderMenu().openMenuListGui(filler, currentPage);
+        ItemStack itemToFill = order.getItem();
+        int amountPlayerHas = countItems(filler.getInventory(), itemToFill);
+        if (amountPlayerHas <= 0) {
+            messageHandler.sendMessage(filler, "<red>You have no " + order.getFormattedItemName() + ".</red>");
             return;
         }
 
-        ItemStack itemToFill = order.getItem();
+        // 1. Reserve; another filler may already have claimed the rest
+        int amountToTake = order.reserve(amountPlayerHas);
+        if (amountToTake <= 0) {
+            messageHandler.sendMessage(filler, "<red>This order is already being filled. Refreshing list...</red>");
+            plugin.getOrderMenu().refreshOrder(filler, order);
+            return;
+        }
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!filler.isOnline()) return;
-
-                int amountPlayerHas = countItems(filler.getInventory(), itemToFill);
-                if (amountPlayerHas <= 0) {
-                    messageHandler.sendMessage(filler, "<red>You have no " + order.getFormattedItemName() + ".</red>");
-                    return;
-                }
-
-                int amountToTake = Math.min(needed, amountPlayerHas);
-                double payment = amountToTake * order.getPricePerItem();
-
-                messageHandler.sendMessage(filler, "<yellow>Delivering " + amountToTake + " " + order.getFormattedItemName() + "...</yellow>");
-
-                // 1. Remove items
-                if (!removeItems(filler.getInventory(), itemToFill, amountToTake)) {
-                    messageHandler.sendMessage(filler, "<red>Failed to remove items. Ensure you have them.</red>");
-                    return;
-                }
-
-                // 2. Pay the filler
-                EconomyResponse depositResponse = economy.depositPlayer(filler, payment);
-                if (!depositResponse.transactionSuccess()) {
-                    messageHandler.sendMessage(filler, "<red>Error giving you payment: " + depositResponse.errorMessage + "</red>");
-                    giveItems(filler, itemToFill, amountToTake); // Rollback items
-                    logger.logError("CRITICAL PAYMENT FAILURE: Order "+order.getOrderId()+" F:"+filler.getName()+" P:"+order.getPlacerName()+" A:"+payment+".", null, order.getOrderId());
-                    return;
-                }
-
-                // 3. Store items for placer
-                ItemStack deliveredItems = itemToFill.clone();
-                deliveredItems.setAmount(amountToTake);
-                ordersDatabase.addItemsToStorage(order.getOrderId(), order.getPlacerUUID(), deliveredItems)
-                        .whenCompleteAsync((storageSuccess, storageError) -> {
-                            if (storageError != null || !storageSuccess) {
-                                // Critical error: Rollback payment and give items back
-                                economy.withdrawPlayer(filler, payment);
-                                Bukkit.getScheduler().runTask(plugin, () -> giveItems(filler, itemToFill, amountToTake));
-                                logger.logError("CRITICAL STORAGE FAILURE: Order " + order.getOrderId() + ". Rolled back payment/items for " + filler.getName(), storageError, order.getOrderId());
-                                Bukkit.getScheduler().runTask(plugin, () -> messageHandler.sendMessage(filler, "<red>A critical error occurred storing the items. Transaction rolled back.</red>"));
-                                return;
-                            }
-
-                            // --- Storage succeeded, now update order status ---
-                            int newAmountDelivered = order.getAmountDelivered() + amountToTake;
-                            order.setAmountDelivered(newAmountDelivered);
-                            Order.OrderStatus finalStatus = order.getStatus(); // setAmountDelivered updates status
-
-                            ordersDatabase.updateOrderAmountAndStatus(order.getOrderId(), newAmountDelivered, finalStatus)
-                                    .whenCompleteAsync((dbSuccess, dbError) -> {
-                                        Bukkit.getScheduler().runTask(plugin, () -> {
-                                            if (dbError != null || !dbSuccess) {
-                                                logger.logError("CRITICAL DB UPDATE FAILED: Order " + order.getOrderId() + " after fill by " + filler.getName(), dbError, order.getOrderId());
-                                            }
-
-                                            messageHandler.sendMessage(filler, "<green>Delivered " + amountToTake + "! Received " + economy.format(payment) + ".</green>");
-
-                                            if (finalStatus == Order.OrderStatus.FILLED) {
-                                                Player placerOnline = Bukkit.getPlayer(order.getPlacerUUID());
-                                                if (placerOnline != null && placerOnline.isOnline()) {
-                                                    messageHandler.sendMultiLine(placerOnline, "<aqua>Your order for " + order.getTotalAmount() + " " + order.getFormattedItemName() + " (ID: "+order.getOrderId()+") is now fully filled!%nl%You can claim your items in /order manage.</aqua>");
-                                                }
-                                            }
-
-                                            // (Point 11) Log to Discord
-                                            logger.logFill(filler, order, amountToTake, payment);
-
-                                            // Refresh GUI for the filler
-                                            // --- FIX: Use plugin.getOrderMenu() ---
-                                            plugin.getOrderMenu().openMenuListGui(filler, 0); // Go back to page 0
-                                        });
-                                    });
-                        });
-            }
-        }.runTask(plugin);
+        // 2. Remove items
+        if (!removeItems(filler.getInventory(), itemToFill, amountToTake)) {
+            order.release(amountToTake);
+            messageHandler.sendMessage(filler, "<red>Failed to remove items. Ensure you have them.</red>");
+            return;
+        }
+
+        double payment = amountToTake * order.getPricePerItem();
+        messageHandler.sendMessage(filler, "<yellow>Delivering " + amountToTake + " " + order.getFormattedItemName() + "...</yellow>");
+
+        // 3. Commit amount, status and stored items together
+        ItemStack deliveredItems = itemToFill.clone();
+        deliveredItems.setAmount(amountToTake);
+        ordersDatabase.commitFill(order.getOrderId(), order.getPlacerUUID(), deliveredItems, amountToTake)
+                .whenComplete((committed, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (error != null || !Boolean.TRUE.equals(committed)) {
+                        order.release(amountToTake);
+                        returnItems(filler, itemToFill, amountToTake);
+                        if (error != null) {
+                            logger.logError("CRITICAL FILL COMMIT FAILURE: Order " + order.getOrderId() + ". Returned items to " + filler.getName(), error, order.getOrderId());
+                            messageHandler.sendMessage(filler, "<red>A critical error occurred storing the items. Your items were returned.</red>");
+                        } else {
+                            messageHandler.sendMessage(filler, "<red>Order is no longer active. Your items were returned.</red>");
+                        }
+                        plugin.getOrderMenu().refreshOrder(filler, order);
+                        return;
+                    }
+
+                    order.commitReserved(amountToTake);
+                    orderSystem.getOrderBook().updated(order); // Drops it from the book once filled
+
+                    // 4. Pay the filler; the delivery is already recorded, so a failure here is logged for staff
+                    EconomyResponse depositResponse = economy.depositPlayer(filler, payment);
+                    if (!depositResponse.transactionSuccess()) {
+                        messageHandler.sendMessage(filler, "<red>Error giving you payment: " + depositResponse.errorMessage + ". Please contact staff.</red>");
+                        logger.logError("CRITICAL PAYMENT FAILURE: Order " + order.getOrderId() + " F:" + filler.getName() + " P:" + order.getPlacerName() + " A:" + payment + ".", null, order.getOrderId());
+                    } else {
+                        messageHandler.sendMessage(filler, "<green>Delivered " + amountToTake + "! Received " + economy.format(payment) + ".</green>");
+                    }
+
+                    if (order.getStatus() == Order.OrderStatus.FILLED) {
+                        Player placerOnline = Bukkit.getPlayer(order.getPlacerUUID());
+                        if (placerOnline != null && placerOnline.isOnline()) {
+                            messageHandler.sendMultiLine(placerOnline, "<aqua>Your order for " + order.getTotalAmount() + " " + order.getFormattedItemName() + " (ID: "+order.getOrderId()+") is now fully filled!%nl%You can claim your items in /order manage.</aqua>");
+                        }
+                    }
+
+                    // (Point 11) Log to Discord
+                    logger.logFill(filler, order, amountToTake, payment);
+
+                    // Update the clicked entry instead of reopening the menu
+                    plugin.getOrderMenu().refreshOrder(filler, order);
+                }));
     }
 
     // --- Inventory Helpers (Unchanged) ---
@@ -182,6 +171,20 @@ public class OrderFilling {
         return failed.isEmpty();
     }
 
+    // Falls back to an offline delivery if the filler left while the fill was being committed
+    private void returnItems(Player player, ItemStack itemToGive, int amount) {
+        if (player.isOnline()) {
+            giveItems(player, itemToGive, amount);
+            return;
+        }
+        ItemStack returned = itemToGive.clone();
+        returned.setAmount(amount);
+        ordersDatabase.saveOfflineDelivery(player.getUniqueId(), 0, List.of(returned)).exceptionally(e -> {
+            logger.logError("Could not return " + amount + " items to offline filler " + player.getName(), e, -1);
+            return null;
+        });
+    }
+
     private void giveItems(Player player, ItemStack itemToGive, int amount) {
         ItemStack give=itemToGive.clone();
         give.setAmount(amount);
@@ -1,14 +1,18 @@
 package me.login.ordersystem.system;
 
 import me.login.Login;
+import me.login.ordersystem.data.OrderBook;
 import me.login.ordersystem.data.OrdersDatabase; // --- FIX: Correct import ---
 import me.login.ordersystem.util.OrderLogger;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -21,12 +25,26 @@ public class OrderSystem {
     private final OrdersDatabase ordersDatabase;
     private final OrderLogger logger;
     private final List<ItemStack> orderableItems = new ArrayList<>();
+    private final OrderBook orderBook = new OrderBook();
+    private BukkitTask expirySweepTask;
 
     public OrderSystem(Login plugin, OrdersDatabase ordersDatabase, OrderLogger logger) {
         this.plugin = plugin;
         this.ordersDatabase = ordersDatabase;
         this.logger = logger;
         loadOrderableItems();
+        reloadOrderBook();
+        // Expired orders leave the book once their rows are flagged; a failed update leaves them for the next sweep
+        this.expirySweepTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            long now = System.currentTimeMillis();
+            ordersDatabase.expireOrders(now).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    plugin.getLogger().warning("[OrderSystem] Failed to flag expired orders: " + error.getMessage());
+                    return;
+                }
+                orderBook.removeExpired(now);
+            });
+        }, 20L * 30, 20L * 30);
     }
 
     // --- Getters ---
@@ -34,6 +52,29 @@ public class OrderSystem {
     public OrdersDatabase getOrdersDatabase() { return ordersDatabase; }
     public List<ItemStack> getOrderableItems() { return new ArrayList<>(orderableItems); }
     public OrderLogger getLogger() { return logger; }
+    public OrderBook getOrderBook() { return orderBook; }
+
+    // --- Order Book ---
+
+    /**
+     * Rebuilds the order book from the database. Only needed on startup and for an admin resync;
+     * every other change is applied to the book directly.
+     */
+    public CompletableFuture<Void> reloadOrderBook() {
+        return ordersDatabase.loadActiveOrders().handle((orders, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("[OrderSystem] Failed to load active orders: " + error.getMessage());
+            } else {
+                orderBook.loadAll(orders);
+                plugin.getLogger().info("[OrderSystem] Loaded " + orderBook.size() + " active orders.");
+            }
+            return null;
+        });
+    }
+
+    public void shutdown() {
+        if (expirySweepTask != null) expirySweepTask.cancel();
+    }
 
 
     private void loadOrderableItems() {
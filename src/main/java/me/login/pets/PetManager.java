@@ -120,6 +120,7 @@ public class PetManager {
                 savePetInventory(pet);
                 database.updatePetStats(playerUuid, pet.getPetType(), pet.getLevel(), pet.getXp(), pet.getHunger(), pet.getHealth());
             }
+            database.flushPetStats(playerUuid);
         }
     }
     public List<Pet> getPlayerData(UUID playerUuid) {
@@ -307,7 +308,7 @@ public class PetManager {
     public Login getPlugin() { return plugin; }
     public TargetSelection getTargetSelection() { return targetSelection; }
     public void showPetParticles(Player player, LivingEntity pet) { if (petInteractCooldowns.containsKey(player.getUniqueId())) { long timeLeft = (petInteractCooldowns.get(player.getUniqueId()) - System.currentTimeMillis()); if (timeLeft > 0) return; } pet.getWorld().spawnParticle(Particle.HEART, pet.getLocation().add(0, 1, 0), 3, 0.5, 0.5, 0.5); petInteractCooldowns.put(player.getUniqueId(), System.currentTimeMillis() + 3000L); }
-    public void savePetInventory(Pet pet) { String armor = pet.serializeArmor(); String weapon = pet.serializeWeapon(); String attribute = pet.serializeAttribute(); database.updatePetInventory(pet.getOwnerUuid(), pet.getPetType(), armor, weapon, attribute); }
+    public void savePetInventory(Pet pet) { database.updatePetInventory(pet); }
     public PetMessageHandler getMessageHandler() { return messageHandler; }
     public PetsConfig getPetsConfig() { return config; }
     public PetFruitShop getFruitShop() { return fruitShop; }
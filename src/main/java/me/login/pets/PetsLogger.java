@@ -1,10 +1,7 @@
 package me.login.pets;
 
 import me.login.Login;
-import me.login.clearlag.LagClearLogger;
-import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.EmbedBuilder;
-import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 
 import java.awt.Color;
 import java.time.Instant;
@@ -88,21 +85,6 @@ public class PetsLogger {
         }
 
         try {
-            LagClearLogger lagClearLogger = plugin.getLagClearLogger();
-            if (lagClearLogger == null) {
-                return;
-            }
-            JDA jda = lagClearLogger.getJDA();
-            if (jda == null) {
-                return;
-            }
-
-            TextChannel channel = jda.getTextChannelById(channelId);
-            if (channel == null) {
-                log("Pets log channel with ID " + channelId + " not found on Discord.");
-                return;
-            }
-
             EmbedBuilder embed = new EmbedBuilder()
                     .setTitle(title)
                     .setDescription(description)
@@ -113,7 +95,7 @@ public class PetsLogger {
                 embed.addField("Details", fieldsContent, false);
             }
 
-            channel.sendMessageEmbeds(embed.build()).queue();
+            plugin.getLogBus().sendEmbed(channelId, embed.build());
 
         } catch (Exception e) {
             log("Failed to send log message to Discord: " + e.getMessage());
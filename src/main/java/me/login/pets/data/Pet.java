@@ -1,13 +1,9 @@
 package me.login.pets.data;
 
+import me.login.utility.ItemCodec;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
-import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.util.UUID;
 
 public class Pet {
@@ -28,7 +24,12 @@ public class Pet {
     private ItemStack weaponContent;
     private ItemStack attributeContent;
 
-    public Pet(UUID ownerUuid, EntityType petType, String displayName, long cooldownEndTime, int level, double xp, double hunger, double health, String armorBase64, String weaponBase64) {
+    // Stored inventory columns that could not be decoded; left untouched on disk until the slot gets real items
+    private boolean armorUnreadable;
+    private boolean weaponUnreadable;
+    private boolean attributeUnreadable;
+
+    public Pet(UUID ownerUuid, EntityType petType, String displayName, long cooldownEndTime, int level, double xp, double hunger, double health, ItemStack[] armorContents, ItemStack weaponContent) {
         this.ownerUuid = ownerUuid;
         this.petType = petType;
         this.displayName = (displayName != null && !displayName.isEmpty()) ? displayName : getDefaultName();
@@ -37,13 +38,13 @@ public class Pet {
         this.xp = xp;
         this.hunger = Math.max(0, Math.min(hunger, maxHunger));
         this.health = health; // 0 means full/default if not set yet
-        this.armorContents = deserializeItems(armorBase64);
-        this.weaponContent = deserializeItem(weaponBase64);
+        this.armorContents = armorContents != null ? armorContents : new ItemStack[4];
+        this.weaponContent = weaponContent;
     }
 
     // Constructor for loading old data (defaults health to 20)
-    public Pet(UUID ownerUuid, EntityType petType, String displayName, long cooldownEndTime, int level, double xp, String armorBase64, String weaponBase64) {
-        this(ownerUuid, petType, displayName, cooldownEndTime, level, xp, 20.0, 20.0, armorBase64, weaponBase64);
+    public Pet(UUID ownerUuid, EntityType petType, String displayName, long cooldownEndTime, int level, double xp, ItemStack[] armorContents, ItemStack weaponContent) {
+        this(ownerUuid, petType, displayName, cooldownEndTime, level, xp, 20.0, 20.0, armorContents, weaponContent);
     }
 
     public String getDefaultName() {
@@ -98,70 +99,35 @@ public class Pet {
     public ItemStack getAttributeContent() { return attributeContent; }
     public void setAttributeContent(ItemStack attributeContent) { this.attributeContent = attributeContent; }
 
-    // --- Serialization Helpers ---
+    // --- Unreadable stored columns ---
 
-    public String serializeArmor() { return serializeItems(armorContents); }
-    public String serializeWeapon() { return serializeItem(weaponContent); }
-    public String serializeAttribute() { return serializeItem(attributeContent); }
-
-    public static String serializeItems(ItemStack[] items) {
-        if (items == null) return "";
-        try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
-            dataOutput.writeInt(items.length);
-            for (ItemStack item : items) {
-                dataOutput.writeObject(item);
-            }
-            dataOutput.close();
-            return Base64Coder.encodeLines(outputStream.toByteArray());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
-        }
+    public void markUnreadable(boolean armor, boolean weapon, boolean attribute) {
+        this.armorUnreadable = armor;
+        this.weaponUnreadable = weapon;
+        this.attributeUnreadable = attribute;
     }
 
-    public static String serializeItem(ItemStack item) {
-        if (item == null) return "";
-        try {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            BukkitObjectOutputStream dataOutput = new BukkitObjectOutputStream(outputStream);
-            dataOutput.writeObject(item);
-            dataOutput.close();
-            return Base64Coder.encodeLines(outputStream.toByteArray());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
+    public boolean keepsStoredArmor() {
+        if (!armorUnreadable) return false;
+        if (armorContents != null) {
+            for (ItemStack item : armorContents) {
+                if (item != null && !item.getType().isAir()) return false;
+            }
         }
+        return true;
     }
 
-    public static ItemStack[] deserializeItems(String data) {
-        if (data == null || data.isEmpty()) return new ItemStack[4];
-        try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64Coder.decodeLines(data));
-            BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
-            int size = dataInput.readInt();
-            ItemStack[] items = new ItemStack[size];
-            for (int i = 0; i < size; i++) {
-                items[i] = (ItemStack) dataInput.readObject();
-            }
-            dataInput.close();
-            return items;
-        } catch (Exception e) {
-            return new ItemStack[4];
-        }
+    public boolean keepsStoredWeapon() {
+        return weaponUnreadable && (weaponContent == null || weaponContent.getType().isAir());
     }
 
-    public static ItemStack deserializeItem(String data) {
-        if (data == null || data.isEmpty()) return null;
-        try {
-            ByteArrayInputStream inputStream = new ByteArrayInputStream(Base64Coder.decodeLines(data));
-            BukkitObjectInputStream dataInput = new BukkitObjectInputStream(inputStream);
-            ItemStack item = (ItemStack) dataInput.readObject();
-            dataInput.close();
-            return item;
-        } catch (Exception e) {
-            return null;
-        }
+    public boolean keepsStoredAttribute() {
+        return attributeUnreadable && (attributeContent == null || attributeContent.getType().isAir());
     }
-}
\ No newline at end of file
+
+    // --- Serialization Helpers ---
+
+    public byte[] serializeArmor() { return ItemCodec.encodeArray(armorContents); }
+    public byte[] serializeWeapon() { return ItemCodec.encode(weaponContent); }
+    public byte[] serializeAttribute() { return ItemCodec.encode(attributeContent); }
+}
@@ -1,8 +1,12 @@
 package me.login.pets.data;
 
 import me.login.Login;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
+import me.login.utility.ItemCodec;
 import org.bukkit.entity.EntityType;
-import java.io.File;
+import org.bukkit.inventory.ItemStack;
+
 import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
@@ -12,7 +16,9 @@ import java.util.logging.Level;
 
 public class PetsDatabase {
     private final Login plugin;
-    private Connection connection;
+    private SQLiteDatabase database;
+    // Pet xp changes on every kill; keep the latest stats per pet and flush them in batches.
+    private WriteBehindBuffer<PetKey, PetStats> pendingStats;
 
     public PetsDatabase(Login plugin) {
         this.plugin = plugin;
@@ -20,38 +26,34 @@ public class PetsDatabase {
     public Login getPlugin() { return plugin; }
 
     public boolean connect() {
-        File databaseDir = new File(plugin.getDataFolder(), "database");
-        if (!databaseDir.exists()) databaseDir.mkdirs();
-        File dataFile = new File(databaseDir, "pets.db");
-        if (!dataFile.exists()) {
-            try {
-                dataFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to create pets database file!", e);
-                return false;
-            }
-        }
-
+        this.database = plugin.getDatabaseService().open("pets.db");
         try {
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dataFile);
             createTables();
-            return true;
-        } catch (SQLException | ClassNotFoundException e) {
+        } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to connect to pets database!", e);
             return false;
         }
+        migrateItemColumns();
+        this.pendingStats = database.writeBehind("pet_stats",
+                "UPDATE player_pets SET level = ?, xp = ?, hunger = ?, health = ? WHERE player_uuid = ? AND pet_type = ?",
+                (ps, key, stats) -> {
+                    ps.setInt(1, stats.level());
+                    ps.setDouble(2, stats.xp());
+                    ps.setDouble(3, stats.hunger());
+                    ps.setDouble(4, stats.health());
+                    ps.setString(5, key.owner().toString());
+                    ps.setString(6, key.type().name());
+                });
+        return true;
     }
 
     public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) connection.close();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error while disconnecting from pets database!", e);
-        }
+        if (database != null) database.close();
     }
 
-    private void createTables() {
+    public SQLiteDatabase getDatabase() { return database; }
+
+    private void createTables() throws SQLException {
         String sql = "CREATE TABLE IF NOT EXISTS player_pets ("
                 + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
                 + "player_uuid VARCHAR(36) NOT NULL,"
@@ -64,52 +66,88 @@ public class PetsDatabase {
                 + "health DOUBLE DEFAULT 20.0," // --- NEW: Health Column ---
                 + "UNIQUE(player_uuid, pet_type)"
                 + ");";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-
-            // Migration: Add columns if they don't exist
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN level INTEGER DEFAULT 1;"); } catch (SQLException ignored) {}
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN xp DOUBLE DEFAULT 0;"); } catch (SQLException ignored) {}
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN armor_contents TEXT;"); } catch (SQLException ignored) {}
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN weapon_content TEXT;"); } catch (SQLException ignored) {}
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN attribute_content TEXT;"); } catch (SQLException ignored) {}
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN hunger DOUBLE DEFAULT 20.0;"); } catch (SQLException ignored) {}
-
-            // --- NEW ---
-            try { stmt.execute("ALTER TABLE player_pets ADD COLUMN health DOUBLE DEFAULT 20.0;"); } catch (SQLException ignored) {}
+        database.withConnection(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+
+                // Migration: Add columns if they don't exist
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN level INTEGER DEFAULT 1;"); } catch (SQLException ignored) {}
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN xp DOUBLE DEFAULT 0;"); } catch (SQLException ignored) {}
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN armor_contents BLOB;"); } catch (SQLException ignored) {}
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN weapon_content BLOB;"); } catch (SQLException ignored) {}
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN attribute_content BLOB;"); } catch (SQLException ignored) {}
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN hunger DOUBLE DEFAULT 20.0;"); } catch (SQLException ignored) {}
+
+                // --- NEW ---
+                try { stmt.execute("ALTER TABLE player_pets ADD COLUMN health DOUBLE DEFAULT 20.0;"); } catch (SQLException ignored) {}
+            }
+            return null;
+        });
+    }
 
+    // One-shot conversion of Base64 object-stream inventories to binary items
+    private void migrateItemColumns() {
+        try {
+            int migrated = ItemCodec.migrateColumn(database, "player_pets", "id", "armor_contents", ItemCodec.LegacyConverter.ITEM_ARRAY, plugin.getLogger())
+                    + ItemCodec.migrateColumn(database, "player_pets", "id", "weapon_content", ItemCodec.LegacyConverter.ITEM, plugin.getLogger())
+                    + ItemCodec.migrateColumn(database, "player_pets", "id", "attribute_content", ItemCodec.LegacyConverter.ITEM, plugin.getLogger());
+            if (migrated > 0) plugin.getLogger().info("Converted " + migrated + " pet inventory columns to binary.");
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not create pets table!", e);
+            plugin.getLogger().log(Level.SEVERE, "Could not migrate pet inventories!", e);
         }
     }
 
     public List<Pet> getPlayerPets(UUID playerUuid) {
         List<Pet> pets = new ArrayList<>();
+        // Queued stats must land before we read them back.
+        pendingStats.flushIf(key -> key.owner().equals(playerUuid));
         String sql = "SELECT * FROM player_pets WHERE player_uuid = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                EntityType petType = EntityType.valueOf(rs.getString("pet_type"));
-                String displayName = rs.getString("display_name");
-                long cooldownEndTime = rs.getLong("cooldown_end_time");
-                int level = rs.getInt("level");
-                double xp = rs.getDouble("xp");
-                double hunger = rs.getDouble("hunger");
-
-                // --- NEW: Load Health ---
-                double health = rs.getDouble("health");
-
-                String armor = rs.getString("armor_contents");
-                String weapon = rs.getString("weapon_content");
-                String attribute = rs.getString("attribute_content");
-
-                Pet pet = new Pet(playerUuid, petType, displayName, cooldownEndTime, level, xp, hunger, health, armor, weapon);
-                if (attribute != null && !attribute.isEmpty()) {
-                    pet.setAttributeContent(Pet.deserializeItem(attribute));
+        try {
+            database.query(sql, rs -> {
+                while (rs.next()) {
+                    EntityType petType = EntityType.valueOf(rs.getString("pet_type"));
+                    String displayName = rs.getString("display_name");
+                    long cooldownEndTime = rs.getLong("cooldown_end_time");
+                    int level = rs.getInt("level");
+                    double xp = rs.getDouble("xp");
+                    double hunger = rs.getDouble("hunger");
+
+                    // --- NEW: Load Health ---
+                    double health = rs.getDouble("health");
+
+                    // Each column is decoded on its own so one bad item does not hide the others
+                    ItemStack[] armor = null;
+                    ItemStack weapon = null;
+                    ItemStack attribute = null;
+                    boolean armorUnreadable = false;
+                    boolean weaponUnreadable = false;
+                    boolean attributeUnreadable = false;
+                    try {
+                        armor = ItemCodec.decodeArrayColumn(rs, "armor_contents");
+                    } catch (IOException | IllegalArgumentException e) {
+                        armorUnreadable = true;
+                        plugin.getLogger().warning("Could not read " + petType + " armor for " + playerUuid + ": " + e.getMessage());
+                    }
+                    try {
+                        weapon = ItemCodec.decodeColumn(rs, "weapon_content");
+                    } catch (IOException | IllegalArgumentException e) {
+                        weaponUnreadable = true;
+                        plugin.getLogger().warning("Could not read " + petType + " weapon for " + playerUuid + ": " + e.getMessage());
+                    }
+                    try {
+                        attribute = ItemCodec.decodeColumn(rs, "attribute_content");
+                    } catch (IOException | IllegalArgumentException e) {
+                        attributeUnreadable = true;
+                        plugin.getLogger().warning("Could not read " + petType + " attribute item for " + playerUuid + ": " + e.getMessage());
+                    }
+
+                    Pet pet = new Pet(playerUuid, petType, displayName, cooldownEndTime, level, xp, hunger, health, armor, weapon);
+                    pet.setAttributeContent(attribute);
+                    pet.markUnreadable(armorUnreadable, weaponUnreadable, attributeUnreadable);
+                    pets.add(pet);
                 }
-                pets.add(pet);
-            }
+                return null;
+            }, playerUuid.toString());
         } catch (SQLException | IllegalArgumentException e) {
             plugin.getLogger().log(Level.SEVERE, "Error fetching player pets for " + playerUuid, e);
         }
@@ -119,10 +157,8 @@ public class PetsDatabase {
     public boolean addPet(UUID playerUuid, EntityType petType) {
         // Default health/hunger 20.0
         String sql = "INSERT INTO player_pets(player_uuid, pet_type, level, xp, hunger, health) VALUES(?,?, 1, 0, 20.0, 20.0)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
-            pstmt.setString(2, petType.name());
-            pstmt.executeUpdate();
+        try {
+            database.update(sql, playerUuid.toString(), petType.name());
             return true;
         } catch (SQLException e) {
             if (e.getErrorCode() == 19) return false;
@@ -133,10 +169,9 @@ public class PetsDatabase {
 
     public boolean removePet(UUID playerUuid, EntityType petType) {
         String sql = "DELETE FROM player_pets WHERE player_uuid = ? AND pet_type = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, playerUuid.toString());
-            pstmt.setString(2, petType.name());
-            return pstmt.executeUpdate() > 0;
+        pendingStats.discard(new PetKey(playerUuid, petType));
+        try {
+            return database.update(sql, playerUuid.toString(), petType.name()) > 0;
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error removing player pet " + petType + " for " + playerUuid, e);
             return false;
@@ -145,11 +180,8 @@ public class PetsDatabase {
 
     public void updatePetName(UUID playerUuid, EntityType petType, String newName) {
         String sql = "UPDATE player_pets SET display_name = ? WHERE player_uuid = ? AND pet_type = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, newName);
-            pstmt.setString(2, playerUuid.toString());
-            pstmt.setString(3, petType.name());
-            pstmt.executeUpdate();
+        try {
+            database.update(sql, newName, playerUuid.toString(), petType.name());
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error updating pet name for " + playerUuid, e);
         }
@@ -157,43 +189,52 @@ public class PetsDatabase {
 
     public void setPetCooldown(UUID playerUuid, EntityType petType, long cooldownEndTime) {
         String sql = "UPDATE player_pets SET cooldown_end_time = ? WHERE player_uuid = ? AND pet_type = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setLong(1, cooldownEndTime);
-            pstmt.setString(2, playerUuid.toString());
-            pstmt.setString(3, petType.name());
-            pstmt.executeUpdate();
+        try {
+            database.update(sql, cooldownEndTime, playerUuid.toString(), petType.name());
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Error setting pet cooldown for " + playerUuid, e);
         }
     }
 
     // --- UPDATED: Save Health & Hunger ---
+    // Queued; written by the next write-behind flush or flushPetStats().
     public void updatePetStats(UUID playerUuid, EntityType petType, int level, double xp, double hunger, double health) {
-        String sql = "UPDATE player_pets SET level = ?, xp = ?, hunger = ?, health = ? WHERE player_uuid = ? AND pet_type = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, level);
-            pstmt.setDouble(2, xp);
-            pstmt.setDouble(3, hunger);
-            pstmt.setDouble(4, health);
-            pstmt.setString(5, playerUuid.toString());
-            pstmt.setString(6, petType.name());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error updating pet stats (full) for " + playerUuid, e);
-        }
+        pendingStats.put(new PetKey(playerUuid, petType), new PetStats(level, xp, hunger, health));
+    }
+
+    public void flushPetStats(UUID playerUuid) {
+        pendingStats.flushIfAsync(key -> key.owner().equals(playerUuid));
     }
 
-    public void updatePetInventory(UUID playerUuid, EntityType petType, String armor, String weapon, String attribute) {
-        String sql = "UPDATE player_pets SET armor_contents = ?, weapon_content = ?, attribute_content = ? WHERE player_uuid = ? AND pet_type = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, armor);
-            pstmt.setString(2, weapon);
-            pstmt.setString(3, attribute);
-            pstmt.setString(4, playerUuid.toString());
-            pstmt.setString(5, petType.name());
-            pstmt.executeUpdate();
+    /**
+     * Writes the pet's inventory. Columns that failed to decode on load are skipped while their slot is still
+     * empty, so an unreadable item is never replaced by nothing.
+     */
+    public void updatePetInventory(Pet pet) {
+        boolean keepArmor = pet.keepsStoredArmor();
+        boolean keepWeapon = pet.keepsStoredWeapon();
+        boolean keepAttribute = pet.keepsStoredAttribute();
+
+        List<String> columns = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (!keepArmor) { columns.add("armor_contents = ?"); params.add(pet.serializeArmor()); }
+        if (!keepWeapon) { columns.add("weapon_content = ?"); params.add(pet.serializeWeapon()); }
+        if (!keepAttribute) { columns.add("attribute_content = ?"); params.add(pet.serializeAttribute()); }
+        if (columns.isEmpty()) return;
+
+        params.add(pet.getOwnerUuid().toString());
+        params.add(pet.getPetType().name());
+        String sql = "UPDATE player_pets SET " + String.join(", ", columns) + " WHERE player_uuid = ? AND pet_type = ?";
+        try {
+            database.update(sql, params.toArray());
+            // Whatever was just written is readable from now on
+            pet.markUnreadable(keepArmor, keepWeapon, keepAttribute);
         } catch (SQLException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error updating pet inventory for " + playerUuid, e);
+            plugin.getLogger().log(Level.SEVERE, "Error updating pet inventory for " + pet.getOwnerUuid(), e);
         }
     }
-}
\ No newline at end of file
+
+    private record PetKey(UUID owner, EntityType type) {}
+
+    private record PetStats(int level, double xp, double hunger, double health) {}
+}
@@ -1,7 +1,6 @@
 package me.login.premiumfeatures.creatorcode;
 
 import me.login.Login;
-import me.login.clearlag.LagClearLogger;
 import me.login.premiumfeatures.credits.CreditsDatabase;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
@@ -26,17 +25,12 @@ public class CreatorCodeModule {
         this.serverPrefix = MiniMessage.miniMessage().deserialize(prefixString);
     }
 
-    public boolean init(LagClearLogger lagClearLogger) {
+    public boolean init() {
         try {
             plugin.getLogger().info("Initializing CreatorCodeModule...");
 
             // Initialize Logger
             this.logger = new CreatorCodeLogger(plugin);
-            if (lagClearLogger != null && lagClearLogger.getJDA() != null) {
-                this.logger.init(lagClearLogger.getJDA());
-            } else {
-                plugin.getLogger().warning("CreatorCodeModule: Discord JDA is missing. Logging disabled.");
-            }
 
             // Initialize Manager with Database
             this.manager = new CreatorCodeManager(plugin, database);
@@ -45,8 +45,7 @@ public class CreditsCommand implements CommandExecutor, TabCompleter {
                 sender.sendMessage(prefix.append(mm.deserialize("<red>Console usage: /credits check <player></red>")));
                 return true;
             }
-            int balance = manager.getBalance(player);
-            sender.sendMessage(prefix.append(mm.deserialize("<gray>Your credits: <gold>" + balance + "</gold></gray>")));
+            sendBalance(sender, player, "<gray>Your credits: <gold>%d</gold></gray>");
             return true;
         }
 
@@ -57,8 +56,7 @@ public class CreditsCommand implements CommandExecutor, TabCompleter {
             if (args.length < 2) {
                 // If player runs "/credits check" without args, treat as self-check
                 if (sender instanceof Player player) {
-                    int balance = manager.getBalance(player);
-                    sender.sendMessage(prefix.append(mm.deserialize("<gray>Your credits: <gold>" + balance + "</gold></gray>")));
+                    sendBalance(sender, player, "<gray>Your credits: <gold>%d</gold></gray>");
                 } else {
                     sender.sendMessage(prefix.append(mm.deserialize("<red>Usage: /credits check <player></red>")));
                 }
@@ -71,8 +69,7 @@ public class CreditsCommand implements CommandExecutor, TabCompleter {
             }
 
             OfflinePlayer target = Bukkit.getOfflinePlayer(args[1]);
-            int balance = manager.getBalance(target);
-            sender.sendMessage(prefix.append(mm.deserialize("<gray>" + target.getName() + "'s credits: <gold>" + balance + "</gold></gray>")));
+            sendBalance(sender, target, "<gray>" + target.getName() + "'s credits: <gold>%d</gold></gray>");
             return true;
         }
 
@@ -121,6 +118,12 @@ public class CreditsCommand implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    // Offline balances are read off the main thread; the reply is sent back on it.
+    private void sendBalance(CommandSender sender, OfflinePlayer target, String format) {
+        manager.getBalance(target).thenAccept(balance -> Bukkit.getScheduler().runTask(plugin, () ->
+                sender.sendMessage(getPrefix().append(mm.deserialize(String.format(format, balance))))));
+    }
+
     @Nullable
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
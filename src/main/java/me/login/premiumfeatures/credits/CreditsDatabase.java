@@ -1,11 +1,16 @@
 package me.login.premiumfeatures.credits;
 
 import me.login.Login;
+import me.login.database.BalanceChange;
+import me.login.database.SQLiteDatabase;
+import me.login.database.WriteBehindBuffer;
 
-import java.io.File;
-import java.io.IOException;
 import java.sql.*;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Level;
@@ -13,99 +18,122 @@ import java.util.logging.Level;
 public class CreditsDatabase {
 
     private final Login plugin;
-    private Connection connection;
+    private final SQLiteDatabase database;
+    // Credit grants and admin sets are merged per player and applied in one batch.
+    private final WriteBehindBuffer<UUID, BalanceChange> pendingGrants;
 
     public CreditsDatabase(Login plugin) {
         this.plugin = plugin;
+        // plugins/Login/database/credits.db
+        this.database = plugin.getDatabaseService().open("credits.db");
         initializeDatabase();
+        this.pendingGrants = database.writeBehind("credit_grants",
+                "INSERT INTO player_credits (uuid, amount) VALUES (?, ?) " +
+                        "ON CONFLICT(uuid) DO UPDATE SET amount = CASE WHEN ? THEN excluded.amount ELSE amount + excluded.amount END",
+                (ps, uuid, change) -> {
+                    ps.setString(1, uuid.toString());
+                    ps.setLong(2, change.amount());
+                    ps.setBoolean(3, change.absolute());
+                },
+                BalanceChange::merge);
     }
 
     private void initializeDatabase() {
-        // Ensure database folder exists: plugins/Login/database/
-        File databaseFolder = new File(plugin.getDataFolder(), "database");
-        if (!databaseFolder.exists()) {
-            databaseFolder.mkdirs();
-        }
-
-        File dbFile = new File(databaseFolder, "credits.db");
-        if (!dbFile.exists()) {
-            try {
-                dbFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create credits.db file!");
-                e.printStackTrace();
-            }
-        }
-
         try {
-            if (connection != null && !connection.isClosed()) {
-                return;
-            }
-
-            // Load SQLite driver and connect
-            Class.forName("org.sqlite.JDBC");
-            connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
-
-            try (Statement statement = connection.createStatement()) {
-                // 1. Credits Table (Changed DOUBLE to INTEGER)
-                statement.execute("CREATE TABLE IF NOT EXISTS player_credits (" +
-                        "uuid TEXT PRIMARY KEY, " +
-                        "amount INTEGER NOT NULL DEFAULT 0)");
-
-                // 2. Creator Codes Table
-                statement.execute("CREATE TABLE IF NOT EXISTS creator_codes (" +
-                        "code TEXT PRIMARY KEY)");
-
-                // 3. Player Usage Table
-                statement.execute("CREATE TABLE IF NOT EXISTS player_creator_usage (" +
-                        "uuid TEXT PRIMARY KEY, " +
-                        "code TEXT NOT NULL)");
-            }
-
-        } catch (SQLException | ClassNotFoundException e) {
+            database.withConnection(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    // 1. Credits Table (Changed DOUBLE to INTEGER)
+                    statement.execute("CREATE TABLE IF NOT EXISTS player_credits (" +
+                            "uuid TEXT PRIMARY KEY, " +
+                            "amount INTEGER NOT NULL DEFAULT 0)");
+
+                    // 2. Creator Codes Table
+                    statement.execute("CREATE TABLE IF NOT EXISTS creator_codes (" +
+                            "code TEXT PRIMARY KEY)");
+
+                    // 3. Player Usage Table
+                    statement.execute("CREATE TABLE IF NOT EXISTS player_creator_usage (" +
+                            "uuid TEXT PRIMARY KEY, " +
+                            "code TEXT NOT NULL)");
+                }
+                return null;
+            });
+        } catch (SQLException e) {
             plugin.getLogger().severe("Could not initialize Credits SQLite database!");
             e.printStackTrace();
         }
     }
 
+    public SQLiteDatabase getDatabase() {
+        return database;
+    }
+
     // --- Credits Methods (Integers) ---
 
+    /**
+     * Blocking (flushes queued grants first); call off the main thread.
+     */
     public int getCredits(UUID uuid) {
         String query = "SELECT amount FROM player_credits WHERE uuid = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, uuid.toString());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("amount");
-                }
-            }
+        pendingGrants.flush(uuid);
+        try {
+            return database.query(query, rs -> rs.next() ? rs.getInt("amount") : 0, uuid.toString());
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return 0;
     }
 
+    // Queued behind any pending grants for the player so an earlier grant can never land after the set.
     public void setCredits(UUID uuid, int amount) {
-        String query = "INSERT INTO player_credits (uuid, amount) VALUES (?, ?) " +
-                "ON CONFLICT(uuid) DO UPDATE SET amount = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, uuid.toString());
-            ps.setInt(2, amount);
-            ps.setInt(3, amount);
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        pendingGrants.put(uuid, BalanceChange.set(amount));
+        pendingGrants.flushAsync(uuid);
     }
 
+    // Queued; merged with other pending grants and written on the next flush.
     public void addCredits(UUID uuid, int amount) {
-        int current = getCredits(uuid);
-        setCredits(uuid, current + amount);
+        pendingGrants.put(uuid, BalanceChange.add(amount));
+    }
+
+    public void flushCredits(UUID uuid) {
+        pendingGrants.flushAsync(uuid);
     }
 
+    // Blocking; call off the main thread.
     public void removeCredits(UUID uuid, int amount) {
-        int current = getCredits(uuid);
-        setCredits(uuid, Math.max(0, current - amount));
+        String query = "UPDATE player_credits SET amount = MAX(0, amount - ?) WHERE uuid = ?";
+        // Queued grants are applied first; if they cannot be written the removal would clamp against a stale balance.
+        if (!pendingGrants.flush(uuid)) {
+            plugin.getLogger().warning("Skipped removing " + amount + " credits from " + uuid + ": queued grants could not be written.");
+            return;
+        }
+        try {
+            database.update(query, amount, uuid.toString());
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Highest balances first, read from the read-only pool. Blocking; call from a worker thread.
+     */
+    public List<Map.Entry<UUID, Integer>> getTopCredits(int limit) {
+        pendingGrants.flushAll();
+        String query = "SELECT uuid, amount FROM player_credits WHERE amount > 0 ORDER BY amount DESC LIMIT ?";
+        try {
+            return database.query(query, rs -> {
+                List<Map.Entry<UUID, Integer>> top = new ArrayList<>();
+                while (rs.next()) {
+                    try {
+                        top.add(new AbstractMap.SimpleImmutableEntry<>(UUID.fromString(rs.getString("uuid")), rs.getInt("amount")));
+                    } catch (IllegalArgumentException ignored) {}
+                }
+                return top;
+            }, limit);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to fetch top credits", e);
+            return new ArrayList<>();
+        }
     }
 
     // --- Creator Code Methods ---
@@ -113,11 +141,13 @@ public class CreditsDatabase {
     public Set<String> getCreatorCodes() {
         Set<String> codes = new HashSet<>();
         String query = "SELECT code FROM creator_codes";
-        try (PreparedStatement ps = connection.prepareStatement(query);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                codes.add(rs.getString("code"));
-            }
+        try {
+            database.query(query, rs -> {
+                while (rs.next()) {
+                    codes.add(rs.getString("code"));
+                }
+                return null;
+            });
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to load creator codes", e);
         }
@@ -126,9 +156,8 @@ public class CreditsDatabase {
 
     public void addCreatorCode(String code) {
         String query = "INSERT OR IGNORE INTO creator_codes (code) VALUES (?)";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, code.toLowerCase());
-            ps.executeUpdate();
+        try {
+            database.update(query, code.toLowerCase());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -136,9 +165,8 @@ public class CreditsDatabase {
 
     public void removeCreatorCode(String code) {
         String query = "DELETE FROM creator_codes WHERE code = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, code.toLowerCase());
-            ps.executeUpdate();
+        try {
+            database.update(query, code.toLowerCase());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -146,13 +174,8 @@ public class CreditsDatabase {
 
     public String getPlayerCreatorCode(UUID uuid) {
         String query = "SELECT code FROM player_creator_usage WHERE uuid = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, uuid.toString());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("code");
-                }
-            }
+        try {
+            return database.query(query, rs -> rs.next() ? rs.getString("code") : null, uuid.toString());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -162,23 +185,14 @@ public class CreditsDatabase {
     public void setPlayerCreatorCode(UUID uuid, String code) {
         String query = "INSERT INTO player_creator_usage (uuid, code) VALUES (?, ?) " +
                 "ON CONFLICT(uuid) DO UPDATE SET code = ?";
-        try (PreparedStatement ps = connection.prepareStatement(query)) {
-            ps.setString(1, uuid.toString());
-            ps.setString(2, code.toLowerCase());
-            ps.setString(3, code.toLowerCase());
-            ps.executeUpdate();
+        try {
+            database.update(query, uuid.toString(), code.toLowerCase(), code.toLowerCase());
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        database.close();
     }
 }
\ No newline at end of file
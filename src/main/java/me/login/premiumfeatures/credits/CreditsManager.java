@@ -1,36 +1,96 @@
 package me.login.premiumfeatures.credits;
 
 import me.login.Login;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+
 public class CreditsManager {
 
     private final CreditsDatabase database;
     private final CreditsLogger logger;
 
+    // Balances of online players, kept in step with every mutation so the scoreboard never touches SQLite.
+    private final Map<UUID, Integer> balanceCache = new ConcurrentHashMap<>();
+    // Join loads in flight; a load only fills the cache if its token is still the current one
+    private final Map<UUID, Object> pendingLoads = new ConcurrentHashMap<>();
+
     public CreditsManager(Login plugin, CreditsDatabase database) {
         this.database = database;
         this.logger = new CreditsLogger(plugin);
     }
 
-    public int getBalance(OfflinePlayer player) {
-        return database.getCredits(player.getUniqueId());
+    /**
+     * Completes immediately for cached (online) players; otherwise reads on the database executor.
+     */
+    public CompletableFuture<Integer> getBalance(OfflinePlayer player) {
+        UUID uuid = player.getUniqueId();
+        Integer cached = balanceCache.get(uuid);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        return database.getDatabase().supplyAsync(() -> database.getCredits(uuid));
+    }
+
+    // --- Balance Cache ---
+
+    /**
+     * Cached balance of an online player; 0 until the join load has finished. Never does I/O.
+     */
+    public int getCachedBalance(UUID uuid) {
+        return balanceCache.getOrDefault(uuid, 0);
+    }
+
+    /**
+     * Reads the balance into the cache. The result is dropped if the player has left, or if another load
+     * or a balance change started after this read (that one reloads with the newer value).
+     */
+    public void loadBalance(UUID uuid) {
+        Object token = new Object();
+        pendingLoads.put(uuid, token);
+        database.getDatabase().runAsync(() -> {
+            int balance = database.getCredits(uuid);
+            if (!pendingLoads.remove(uuid, token)) return;
+            if (Bukkit.getPlayer(uuid) == null) return;
+            balanceCache.putIfAbsent(uuid, balance);
+        });
+    }
+
+    public void unloadBalance(UUID uuid) {
+        pendingLoads.remove(uuid);
+        balanceCache.remove(uuid);
+    }
+
+    // Applies a change to a cached balance; while the join load is still running it is restarted instead,
+    // since its read may predate the change.
+    private void updateCachedBalance(UUID uuid, IntUnaryOperator change) {
+        if (balanceCache.computeIfPresent(uuid, (id, balance) -> change.applyAsInt(balance)) == null && pendingLoads.containsKey(uuid)) {
+            loadBalance(uuid);
+        }
     }
 
     public void addCredits(String adminName, OfflinePlayer target, int amount) {
         database.addCredits(target.getUniqueId(), amount);
-        int newBalance = getBalance(target);
-        logger.logTransaction(adminName, target.getName(), "ADD", amount, newBalance);
+        updateCachedBalance(target.getUniqueId(), balance -> balance + amount);
+        getBalance(target).thenAccept(newBalance -> logger.logTransaction(adminName, target.getName(), "ADD", amount, newBalance));
     }
 
     public void removeCredits(String adminName, OfflinePlayer target, int amount) {
-        database.removeCredits(target.getUniqueId(), amount);
-        int newBalance = getBalance(target);
-        logger.logTransaction(adminName, target.getName(), "REMOVE", amount, newBalance);
+        UUID uuid = target.getUniqueId();
+        database.getDatabase().runAsync(() -> {
+            database.removeCredits(uuid, amount);
+            // After the write, so a restarted join load reads the reduced balance
+            updateCachedBalance(uuid, balance -> Math.max(0, balance - amount));
+            logger.logTransaction(adminName, target.getName(), "REMOVE", amount, database.getCredits(uuid));
+        });
     }
 
     public void setCredits(String adminName, OfflinePlayer target, int amount) {
         database.setCredits(target.getUniqueId(), amount);
+        updateCachedBalance(target.getUniqueId(), balance -> amount);
         logger.logTransaction(adminName, target.getName(), "SET", amount, amount);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,13 @@
 package me.login.premiumfeatures.credits;
 
 import me.login.Login;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-public class CreditsModule {
+public class CreditsModule implements Listener {
 
     private final Login plugin;
     private CreditsDatabase database;
@@ -22,6 +27,10 @@ public class CreditsModule {
         // 3. Register Command
         plugin.getCommand("credits").setExecutor(new CreditsCommand(plugin, manager));
 
+        // 4. Load cached balances on join, flush queued grants on quit
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getServer().getOnlinePlayers().forEach(p -> manager.loadBalance(p.getUniqueId()));
+
         plugin.getLogger().info("Credits Module Enabled!");
     }
 
@@ -32,6 +41,17 @@ public class CreditsModule {
         plugin.getLogger().info("Credits Module Disabled!");
     }
 
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        manager.loadBalance(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        manager.unloadBalance(event.getPlayer().getUniqueId());
+        database.flushCredits(event.getPlayer().getUniqueId());
+    }
+
     public CreditsManager getManager() {
         return manager;
     }
@@ -1,51 +1,47 @@
 package me.login.scoreboard;
 
-import me.clip.placeholderapi.PlaceholderAPI;
-import me.login.Login;
-import me.login.level.LevelManager;
-import me.login.misc.tokens.TokenManager;
-import me.login.premiumfeatures.credits.CreditsManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.Statistic;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
-import org.bukkit.scoreboard.ScoreboardManager;
 import org.bukkit.scoreboard.Team;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 public class Scoreboard {
 
-    private final Login plugin;
+    private static final int MAX_LINES = 15;
+
+    private final ScoreboardManager manager;
     private final Player player;
     private final org.bukkit.scoreboard.Scoreboard scoreboard;
     private final Objective objective;
 
-    private final CreditsManager creditsManager;
-    private final LevelManager levelManager;
-    private final TokenManager tokenManager;
+    // --- Diff state: only changed lines are sent to the client ---
+    private final String[] lastLines = new String[MAX_LINES];
+    private String lastTitle;
+    // Starts at MAX_LINES so the first render also drops stale line_N teams of a reused board
+    private int renderedLines = MAX_LINES;
 
-    private long cachedTokens = 0;
-    private long lastTokenUpdate = 0;
+    // Resolved placeholder values and when they may be resolved again
+    private final Map<String, CachedValue> placeholderValues = new HashMap<>();
+    private final StringBuilder buffer = new StringBuilder(64);
 
-    public Scoreboard(Login plugin, Player player, String title) {
-        this.plugin = plugin;
+    public Scoreboard(ScoreboardManager manager, Player player, String title) {
+        this.manager = manager;
         this.player = player;
 
-        this.creditsManager = plugin.getCreditsModule().getManager();
-        this.levelManager = plugin.getLevelModule().getManager();
-        this.tokenManager = plugin.getTokenModule().getTokenManager();
-
-        ScoreboardManager manager = Bukkit.getScoreboardManager();
+        org.bukkit.scoreboard.ScoreboardManager bukkitManager = Bukkit.getScoreboardManager();
 
         // Determine scoreboard instance
-        if (player.getScoreboard().equals(manager.getMainScoreboard())) {
-            this.scoreboard = manager.getNewScoreboard();
+        if (player.getScoreboard().equals(bukkitManager.getMainScoreboard())) {
+            this.scoreboard = bukkitManager.getNewScoreboard();
         } else {
             this.scoreboard = player.getScoreboard();
         }
@@ -72,67 +68,61 @@ public class Scoreboard {
         for (String entry : scoreboard.getEntries()) {
             scoreboard.resetScores(entry);
         }
+        Arrays.fill(lastLines, null);
+        lastTitle = null;
+        renderedLines = 0;
     }
 
-    public void setTitle(String title) {
-        String parsed = PlaceholderAPI.setPlaceholders(player, title);
-        objective.displayName(toLegacyComponent(parsed));
-    }
-
-    public void updateLines(List<String> rawLines) {
+    /**
+     * Renders the template, touching the objective/teams only for text that differs from what was last sent.
+     */
+    public void render(ScoreboardTemplate template) {
         if (!player.isOnline()) return;
 
-        UUID uuid = player.getUniqueId();
-
-        String credits = String.valueOf(creditsManager.getBalance(player));
-        String level = String.valueOf(levelManager.getLevel(player));
+        long now = System.currentTimeMillis();
 
-        if (System.currentTimeMillis() - lastTokenUpdate > 2000) {
-            lastTokenUpdate = System.currentTimeMillis();
-            tokenManager.getTokenBalance(uuid).thenAccept(val -> cachedTokens = val);
+        String title = build(template.getTitle(), now);
+        if (!title.equals(lastTitle)) {
+            lastTitle = title;
+            objective.displayName(toLegacyComponent(title));
         }
-        String tokens = String.valueOf(cachedTokens);
-
-        // Playtime Logic
-        long ticks = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
-        long hours = ticks / 72000;
-        String playtimeString = hours + "h";
-
-        int lineIndex = 0;
-
-        for (String line : rawLines) {
-            String tempLine = line.replace("%statistic_time_played%", playtimeString);
-
-            String parsed = PlaceholderAPI.setPlaceholders(player, tempLine);
-
-            // --- REMOVED OLD SKRIPT PARSING LINES HERE ---
-            // The lines that manually replaced "{credits." + uuid + "}" are gone.
-            // ---------------------------------------------
 
-            parsed = parsed.replace("%tokens%", tokens);
-            parsed = parsed.replace("%credits%", credits);
-            parsed = parsed.replace("%level%", level);
+        List<ScoreboardTemplate.Segment[]> lines = template.getLines();
+        int count = Math.min(lines.size(), MAX_LINES);
+        for (int i = 0; i < count; i++) {
+            String text = build(lines.get(i), now);
+            if (text.equals(lastLines[i])) continue;
+            lastLines[i] = text;
+            updateLine(i, text);
+        }
 
-            if (parsed.contains("Tokens: ...") || parsed.contains("Tokens: &a...")) {
-                parsed = parsed.replace("...", tokens);
-            }
+        // Only remove teams when the line count shrank (e.g. world/template change)
+        for (int i = count; i < renderedLines; i++) {
+            removeLine(i);
+        }
+        renderedLines = count;
+    }
 
-            updateLine(lineIndex, parsed);
-            lineIndex++;
+    private String build(ScoreboardTemplate.Segment[] segments, long now) {
+        buffer.setLength(0);
+        for (ScoreboardTemplate.Segment segment : segments) {
+            buffer.append(segment.isStatic() ? segment.text() : resolve(segment, now));
         }
+        return buffer.toString();
+    }
 
-        for (int i = rawLines.size(); i < 15; i++) {
-            String teamName = "line_" + i;
-            Team team = scoreboard.getTeam(teamName);
-            if (team != null) {
-                for (String entry : team.getEntries()) scoreboard.resetScores(entry);
-                team.unregister();
-            }
+    private String resolve(ScoreboardTemplate.Segment segment, long now) {
+        CachedValue cached = placeholderValues.get(segment.placeholder());
+        if (cached != null && now < cached.expiresAt()) {
+            return cached.value();
         }
+        String value = manager.resolvePlaceholder(player, segment);
+        placeholderValues.put(segment.placeholder(), new CachedValue(value, now + manager.getRefreshInterval(segment.placeholder())));
+        return value;
     }
 
     private void updateLine(int index, String text) {
-        int score = 15 - index;
+        int score = MAX_LINES - index;
         String teamName = "line_" + index;
 
         Team team = scoreboard.getTeam(teamName);
@@ -146,6 +136,15 @@ public class Scoreboard {
         team.setPrefix(color(text));
     }
 
+    private void removeLine(int index) {
+        lastLines[index] = null;
+        Team team = scoreboard.getTeam("line_" + index);
+        if (team != null) {
+            for (String entry : team.getEntries()) scoreboard.resetScores(entry);
+            team.unregister();
+        }
+    }
+
     private Component toLegacyComponent(String text) {
         return LegacyComponentSerializer.legacyAmpersand().deserialize(text);
     }
@@ -153,4 +152,6 @@ public class Scoreboard {
     private String color(String text) {
         return ChatColor.translateAlternateColorCodes('&', text);
     }
-}
\ No newline at end of file
+
+    private record CachedValue(String value, long expiresAt) {}
+}
@@ -1,8 +1,14 @@
 package me.login.scoreboard;
 
+import me.clip.placeholderapi.PlaceholderAPI;
 import me.login.Login;
 import me.login.dungeon.game.GameSession;
+import me.login.level.LevelModule;
+import me.login.misc.tokens.TokenModule;
+import me.login.premiumfeatures.credits.CreditsModule;
 import org.bukkit.Bukkit;
+import org.bukkit.Statistic;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -10,10 +16,8 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -24,18 +28,19 @@ public class ScoreboardManager implements Listener {
     private final Login plugin;
     private final Map<UUID, Scoreboard> scoreboardMap = new HashMap<>();
 
-    private String hubTitle;
-    private List<String> hubLines;
+    private ScoreboardTemplate hubTemplate;
     private Set<String> hubWorlds;
 
-    private String lifestealTitle;
-    private List<String> lifestealLines;
+    private ScoreboardTemplate lifestealTemplate;
     private Set<String> lifestealWorlds;
 
-    private String dungeonTitle;
-    private List<String> dungeonLines;
+    private ScoreboardTemplate dungeonTemplate;
     private Set<String> dungeonWorlds;
 
+    // Placeholder identifier (without %) -> minimum millis between two resolutions for the same player
+    private final Map<String, Long> refreshIntervals = new HashMap<>();
+    private long defaultRefreshInterval = 1000L;
+
     public ScoreboardManager(Login plugin) {
         this.plugin = plugin;
         loadConfig();
@@ -44,18 +49,22 @@ public class ScoreboardManager implements Listener {
     }
 
     public void loadConfig() {
-        this.hubTitle = plugin.getConfig().getString("scoreboard.hub.title", "&cHub");
-        this.hubLines = plugin.getConfig().getStringList("scoreboard.hub.lines");
+        // Templates are compiled once here, not on every update
+        this.hubTemplate = ScoreboardTemplate.compile(
+                plugin.getConfig().getString("scoreboard.hub.title", "&cHub"),
+                plugin.getConfig().getStringList("scoreboard.hub.lines"));
         this.hubWorlds = plugin.getConfig().getStringList("scoreboard.hub.worlds")
                 .stream().map(String::toLowerCase).collect(Collectors.toSet());
 
-        this.lifestealTitle = plugin.getConfig().getString("scoreboard.lifesteal.title", "&cLifesteal");
-        this.lifestealLines = plugin.getConfig().getStringList("scoreboard.lifesteal.lines");
+        this.lifestealTemplate = ScoreboardTemplate.compile(
+                plugin.getConfig().getString("scoreboard.lifesteal.title", "&cLifesteal"),
+                plugin.getConfig().getStringList("scoreboard.lifesteal.lines"));
         this.lifestealWorlds = plugin.getConfig().getStringList("scoreboard.lifesteal.worlds")
                 .stream().map(String::toLowerCase).collect(Collectors.toSet());
 
-        this.dungeonTitle = plugin.getConfig().getString("scoreboard.dungeon.title", "&cDungeon");
-        this.dungeonLines = plugin.getConfig().getStringList("scoreboard.dungeon.lines");
+        this.dungeonTemplate = ScoreboardTemplate.compile(
+                plugin.getConfig().getString("scoreboard.dungeon.title", "&cDungeon"),
+                plugin.getConfig().getStringList("scoreboard.dungeon.lines"));
         this.dungeonWorlds = plugin.getConfig().getStringList("scoreboard.dungeon.worlds")
                 .stream().map(String::toLowerCase).collect(Collectors.toSet());
 
@@ -63,12 +72,26 @@ public class ScoreboardManager implements Listener {
         if (hubWorlds == null) hubWorlds = new HashSet<>();
         if (lifestealWorlds == null) lifestealWorlds = new HashSet<>();
         if (dungeonWorlds == null) dungeonWorlds = new HashSet<>();
+
+        refreshIntervals.clear();
+        defaultRefreshInterval = 1000L;
+        ConfigurationSection intervals = plugin.getConfig().getConfigurationSection("scoreboard.refresh-intervals");
+        if (intervals != null) {
+            for (String key : intervals.getKeys(false)) {
+                long millis = Math.max(0L, (long) (intervals.getDouble(key) * 1000L));
+                if (key.equalsIgnoreCase("default")) {
+                    defaultRefreshInterval = millis;
+                } else {
+                    refreshIntervals.put(key, millis);
+                }
+            }
+        }
     }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        scoreboardMap.put(player.getUniqueId(), new Scoreboard(plugin, player, "Loading..."));
+        scoreboardMap.put(player.getUniqueId(), new Scoreboard(this, player, "Loading..."));
     }
 
     @EventHandler
@@ -94,46 +117,72 @@ public class ScoreboardManager implements Listener {
     public void updateScoreboard(Player player) {
         Scoreboard scoreboard = scoreboardMap.get(player.getUniqueId());
         if (scoreboard == null) {
-            scoreboard = new Scoreboard(plugin, player, "Loading...");
+            scoreboard = new Scoreboard(this, player, "Loading...");
             scoreboardMap.put(player.getUniqueId(), scoreboard);
         }
 
         String worldName = player.getWorld().getName().toLowerCase();
-        String title = hubTitle;
-        List<String> lines = new ArrayList<>(hubLines);
-
+        ScoreboardTemplate template = hubTemplate;
         if (lifestealWorlds.contains(worldName)) {
-            title = lifestealTitle;
-            lines = new ArrayList<>(lifestealLines);
+            template = lifestealTemplate;
         } else if (dungeonWorlds.contains(worldName)) {
-            title = dungeonTitle;
-            lines = new ArrayList<>(dungeonLines);
-
-            try {
-                if (plugin.getDungeonModule() != null && plugin.getDungeonModule().getGameManager() != null) {
-                    GameSession session = plugin.getDungeonModule().getGameManager().getSession(player);
-                    if (session != null) {
-                        for (int i = 0; i < lines.size(); i++) {
-                            String line = lines.get(i);
-                            line = line.replace("%time_dungeon_started%", session.getTimeLeft());
-                            line = line.replace("%mobs_left_in_room%", String.valueOf(session.getMobsLeft()));
-                            line = line.replace("%dungeon_current_room%", String.valueOf(session.getCurrentRoomId() + 1));
-                            lines.set(i, line);
-                        }
-                    } else {
-                        for (int i = 0; i < lines.size(); i++) {
-                            String line = lines.get(i);
-                            line = line.replace("%time_dungeon_started%", "--:--");
-                            line = line.replace("%mobs_left_in_room%", "0");
-                            line = line.replace("%dungeon_current_room%", "N/A");
-                            lines.set(i, line);
-                        }
-                    }
-                }
-            } catch (Exception ignored) {}
+            template = dungeonTemplate;
         }
 
-        scoreboard.setTitle(title);
-        scoreboard.updateLines(lines);
+        scoreboard.render(template);
+    }
+
+    // --- Placeholder Resolution ---
+
+    public long getRefreshInterval(String placeholder) {
+        return refreshIntervals.getOrDefault(placeholder, defaultRefreshInterval);
+    }
+
+    /**
+     * Resolves one placeholder segment. Our own values come from in-memory state;
+     * everything else goes through PlaceholderAPI for just that placeholder.
+     */
+    String resolvePlaceholder(Player player, ScoreboardTemplate.Segment segment) {
+        switch (segment.placeholder()) {
+            case "tokens": {
+                TokenModule tokens = plugin.getTokenModule();
+                return tokens == null ? "0" : String.valueOf(tokens.getTokenManager().getCachedBalance(player.getUniqueId()));
+            }
+            case "credits": {
+                CreditsModule credits = plugin.getCreditsModule();
+                return credits == null ? "0" : String.valueOf(credits.getManager().getCachedBalance(player.getUniqueId()));
+            }
+            case "level": {
+                LevelModule levels = plugin.getLevelModule();
+                return levels == null ? "0" : String.valueOf(levels.getManager().getLevel(player));
+            }
+            case "statistic_time_played": {
+                long ticks = player.getStatistic(Statistic.PLAY_ONE_MINUTE);
+                return (ticks / 72000) + "h";
+            }
+            case "time_dungeon_started": {
+                GameSession session = getDungeonSession(player);
+                return session != null ? session.getTimeLeft() : "--:--";
+            }
+            case "mobs_left_in_room": {
+                GameSession session = getDungeonSession(player);
+                return session != null ? String.valueOf(session.getMobsLeft()) : "0";
+            }
+            case "dungeon_current_room": {
+                GameSession session = getDungeonSession(player);
+                return session != null ? String.valueOf(session.getCurrentRoomId() + 1) : "N/A";
+            }
+            default:
+                return PlaceholderAPI.setPlaceholders(player, segment.text());
+        }
+    }
+
+    private GameSession getDungeonSession(Player player) {
+        try {
+            if (plugin.getDungeonModule() != null && plugin.getDungeonModule().getGameManager() != null) {
+                return plugin.getDungeonModule().getGameManager().getSession(player);
+            }
+        } catch (Exception ignored) {}
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package me.login.scoreboard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A scoreboard title + lines compiled once from config into static text and placeholder segments.
+ * Rendering only resolves the placeholder segments; static text is appended as-is.
+ */
+public class ScoreboardTemplate {
+
+    // Same shape PlaceholderAPI matches: %anything_without_percent%
+    private static final Pattern PLACEHOLDER = Pattern.compile("%([^%]+)%");
+
+    private final Segment[] title;
+    private final List<Segment[]> lines;
+
+    private ScoreboardTemplate(Segment[] title, List<Segment[]> lines) {
+        this.title = title;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    public static ScoreboardTemplate compile(String title, List<String> rawLines) {
+        List<Segment[]> lines = new ArrayList<>(rawLines.size());
+        for (String line : rawLines) {
+            lines.add(compileLine(line));
+        }
+        return new ScoreboardTemplate(compileLine(title), lines);
+    }
+
+    public Segment[] getTitle() {
+        return title;
+    }
+
+    public List<Segment[]> getLines() {
+        return lines;
+    }
+
+    private static Segment[] compileLine(String raw) {
+        if (raw == null) return new Segment[0];
+
+        // Old configs used "Tokens: ..." as a token placeholder
+        raw = raw.replace("Tokens: &a...", "Tokens: &a%tokens%").replace("Tokens: ...", "Tokens: %tokens%");
+
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(raw);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                segments.add(new Segment(raw.substring(last, matcher.start()), null));
+            }
+            segments.add(new Segment(matcher.group(), matcher.group(1)));
+            last = matcher.end();
+        }
+        if (last < raw.length()) {
+            segments.add(new Segment(raw.substring(last), null));
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    /**
+     * Either literal text ({@code placeholder == null}) or a placeholder such as
+     * {@code %player_ping%} ({@code text} is the full token, {@code placeholder} the inner identifier).
+     */
+    public record Segment(String text, String placeholder) {
+        public boolean isStatic() {
+            return placeholder == null;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package me.login.utility;
+
+import me.login.database.SQLiteDatabase;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.yaml.snakeyaml.external.biz.base64Coder.Base64Coder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Binary item storage shared by the orders, pets and delivery tables.
+ * <p>
+ * Items are stored as Paper's {@link ItemStack#serializeAsBytes()} in BLOB columns; arrays are a count followed by
+ * length-prefixed items (length -1 for an empty slot). Decoded items are cached by content, so the same stack
+ * stored on many rows (2k diamond orders) is only parsed once. Rows still holding the old Base64 object-stream
+ * text are read through {@link #decodeColumn} and rewritten by {@link #migrateColumn}.
+ */
+public final class ItemCodec {
+
+    private static final int CACHE_SIZE = 2048;
+
+    // Access-ordered LRU; keys compare the full bytes so a hash collision can never return the wrong item
+    private static final Map<Key, ItemStack> decodeCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ItemStack> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private ItemCodec() {}
+
+    // --- Single items ---
+
+    /**
+     * Encodes an item, or returns null for null/air.
+     */
+    public static byte[] encode(ItemStack item) {
+        if (item == null || item.getType().isAir()) return null;
+        return item.serializeAsBytes();
+    }
+
+    /**
+     * Decodes an item written by {@link #encode}. Returns a fresh copy the caller may modify.
+     */
+    public static ItemStack decode(byte[] data) {
+        if (data == null || data.length == 0) return null;
+        Key key = new Key(data);
+        ItemStack cached;
+        synchronized (decodeCache) {
+            cached = decodeCache.get(key);
+        }
+        if (cached == null) {
+            cached = ItemStack.deserializeBytes(data);
+            synchronized (decodeCache) {
+                decodeCache.put(key, cached);
+            }
+        }
+        return cached.clone();
+    }
+
+    // --- Arrays ---
+
+    public static byte[] encodeArray(ItemStack[] items) {
+        if (items == null) return null;
+        try (ByteArrayOutputStream bytes = new ByteArrayOutputStream(); DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(items.length);
+            for (ItemStack item : items) {
+                byte[] data = encode(item);
+                if (data == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(data.length);
+                    out.write(data);
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static ItemStack[] decodeArray(byte[] data) throws IOException {
+        if (data == null || data.length == 0) return null;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int size = in.readInt();
+            if (size < 0) throw new IOException("Bad item array size " + size);
+            ItemStack[] items = new ItemStack[size];
+            for (int i = 0; i < size; i++) {
+                int length = in.readInt();
+                if (length < 0) continue;
+                byte[] item = new byte[length];
+                in.readFully(item);
+                items[i] = decode(item);
+            }
+            return items;
+        }
+    }
+
+    // --- Column access (binary or legacy text) ---
+
+    /**
+     * Reads an item column that may still hold legacy Base64 text.
+     */
+    public static ItemStack decodeColumn(ResultSet rs, String column) throws SQLException, IOException {
+        Object value = rs.getObject(column);
+        if (value instanceof byte[] data) return decode(data);
+        if (value instanceof String text) return decodeLegacy(text);
+        return null;
+    }
+
+    public static ItemStack[] decodeArrayColumn(ResultSet rs, String column) throws SQLException, IOException {
+        Object value = rs.getObject(column);
+        if (value instanceof byte[] data) return decodeArray(data);
+        if (value instanceof String text) return decodeLegacyArray(text);
+        return null;
+    }
+
+    // --- Legacy Base64 object streams ---
+
+    public static ItemStack decodeLegacy(String data) throws IOException {
+        if (data == null || data.isEmpty()) return null;
+        try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(Base64Coder.decodeLines(data)))) {
+            return (ItemStack) in.readObject();
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            throw new IOException("Unreadable legacy item", e);
+        }
+    }
+
+    public static ItemStack[] decodeLegacyArray(String data) throws IOException {
+        if (data == null || data.isEmpty()) return null;
+        try (BukkitObjectInputStream in = new BukkitObjectInputStream(new ByteArrayInputStream(Base64Coder.decodeLines(data)))) {
+            int size = in.readInt();
+            ItemStack[] items = new ItemStack[size];
+            for (int i = 0; i < size; i++) {
+                items[i] = (ItemStack) in.readObject();
+            }
+            return items;
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            throw new IOException("Unreadable legacy item array", e);
+        }
+    }
+
+    // --- Migration ---
+
+    /**
+     * Rewrites every row whose {@code column} still holds legacy text as binary, in one transaction.
+     * Rows are selected by {@code typeof(column) = 'text'}, so running it again after a migration is a no-op.
+     * Empty strings, items that encode to nothing (air) and rows that cannot be decoded are left untouched
+     * (the latter are logged); writing null for air would break NOT NULL columns and roll back the whole batch.
+     *
+     * @param converter turns the legacy text into the new bytes
+     * @return how many rows were converted
+     */
+    public static int migrateColumn(SQLiteDatabase database, String table, String idColumn, String column,
+                                    LegacyConverter converter, Logger logger) throws SQLException {
+        String select = "SELECT " + idColumn + ", " + column + " FROM " + table + " WHERE typeof(" + column + ") = 'text'";
+        String update = "UPDATE " + table + " SET " + column + " = ? WHERE " + idColumn + " = ?";
+        return database.transaction(conn -> {
+            List<Object[]> converted = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(select); ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Object id = rs.getObject(1);
+                    String text = rs.getString(2);
+                    if (text == null || text.isEmpty()) continue;
+                    try {
+                        byte[] data = converter.convert(text);
+                        // Air: the legacy text still reads back the same way
+                        if (data == null) continue;
+                        converted.add(new Object[]{id, data});
+                    } catch (IOException | RuntimeException e) {
+                        logger.warning("Could not migrate " + table + "." + column + " for " + idColumn + " " + id + ": " + e.getMessage());
+                    }
+                }
+            }
+            if (converted.isEmpty()) return 0;
+            PreparedStatement ps = database.prepare(update);
+            for (Object[] row : converted) {
+                ps.setBytes(1, (byte[]) row[1]);
+                ps.setObject(2, row[0]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            return converted.size();
+        });
+    }
+
+    /**
+     * Legacy text to binary for {@link #migrateColumn}.
+     */
+    @FunctionalInterface
+    public interface LegacyConverter {
+        byte[] convert(String legacy) throws IOException;
+
+        LegacyConverter ITEM = legacy -> encode(decodeLegacy(legacy));
+        LegacyConverter ITEM_ARRAY = legacy -> encodeArray(decodeLegacyArray(legacy));
+    }
+
+    private record Key(byte[] data, int hash) {
+        Key(byte[] data) {
+            this(data, Arrays.hashCode(data));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && hash == key.hash && Arrays.equals(data, key.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.login.utility;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of which players currently care about which (objective, target) pairs, e.g.
+ * (BREAK_BLOCK, STONE) or (KILL_MOB, ZOMBIE). Event listeners ask it before doing any
+ * per-player work, so events nobody is tracking cost one map lookup.
+ * <p>
+ * Targets are enum constants such as {@link org.bukkit.Material} or {@link org.bukkit.entity.EntityType}.
+ * Owners register a player's objectives whenever they change and clear them when the player leaves.
+ * {@link #track} and {@link #untrack} must be called from the main thread; the lookups are safe from any thread.
+ *
+ * @param <O> the feature's objective enum
+ */
+public class PlayerObjectiveTracker<O extends Enum<O>> {
+
+    private final Map<O, Map<Enum<?>, Set<UUID>>> index;
+    // Reverse index so a player's registrations can be cleared without scanning
+    private final Map<UUID, List<Registration<O>>> registrations = new ConcurrentHashMap<>();
+
+    private record Registration<O>(O objective, Enum<?> target) {}
+
+    public PlayerObjectiveTracker(Class<O> objectiveType) {
+        // Every key present up front so the outer map is never written after construction
+        this.index = new EnumMap<>(objectiveType);
+        for (O objective : objectiveType.getEnumConstants()) {
+            index.put(objective, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void track(UUID player, O objective, Enum<?> target) {
+        index.get(objective).computeIfAbsent(target, t -> ConcurrentHashMap.newKeySet()).add(player);
+        registrations.computeIfAbsent(player, p -> new ArrayList<>()).add(new Registration<>(objective, target));
+    }
+
+    /**
+     * Removes every objective registered for the player.
+     */
+    public void untrack(UUID player) {
+        List<Registration<O>> removed = registrations.remove(player);
+        if (removed == null) return;
+        for (Registration<O> registration : removed) {
+            index.get(registration.objective()).computeIfPresent(registration.target(), (target, players) -> {
+                players.remove(player);
+                return players.isEmpty() ? null : players;
+            });
+        }
+    }
+
+    /**
+     * Whether any player tracks this objective/target.
+     */
+    public boolean isTracked(O objective, Enum<?> target) {
+        return target != null && index.get(objective).containsKey(target);
+    }
+
+    public boolean isTracking(UUID player, O objective, Enum<?> target) {
+        if (target == null) return false;
+        Set<UUID> players = index.get(objective).get(target);
+        return players != null && players.contains(player);
+    }
+
+    /**
+     * Whether the player tracks anything at all; lets listeners skip events before reading block/entity data.
+     */
+    public boolean isTracking(UUID player) {
+        return registrations.containsKey(player);
+    }
+
+    public Set<UUID> getTrackingPlayers(O objective, Enum<?> target) {
+        Set<UUID> players = index.get(objective).get(target);
+        return players == null ? Set.of() : Set.copyOf(players);
+    }
+
+    public void clear() {
+        registrations.clear();
+        for (Map<Enum<?>, Set<UUID>> targets : index.values()) {
+            targets.clear();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package me.login.misc.firesale.model;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FiresaleTest {
+
+    private static final int BUYERS = 64;
+    private static final int STOCK = 10;
+
+    private static Firesale sale(int stock) {
+        Instant now = Instant.now();
+        return new Firesale(1, null, 100.0, stock, stock, now, now.plusSeconds(3600),
+                UUID.randomUUID(), "admin", SaleStatus.ACTIVE, 0);
+    }
+
+    /**
+     * Every buyer is released at once; results are the values returned by reserveUnit (-1 when sold out).
+     */
+    private static List<Integer> race(Firesale sale, int buyers, Callable<Integer> afterStart) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch ready = new CountDownLatch(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return afterStart.call();
+                }));
+            }
+            assertTrue(ready.await(10, TimeUnit.SECONDS), "buyers did not start");
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @RepeatedTest(25)
+    void concurrentBuyersNeverOversell() throws Exception {
+        Firesale sale = sale(STOCK);
+        List<Integer> results = race(sale, BUYERS, sale::reserveUnit);
+
+        Set<Integer> remainders = new HashSet<>();
+        int successes = 0;
+        for (int remaining : results) {
+            if (remaining >= 0) {
+                successes++;
+                remainders.add(remaining);
+            }
+        }
+
+        assertEquals(STOCK, successes);
+        // Each unit was handed out exactly once: the stock left after each claim is unique
+        assertEquals(STOCK, remainders.size());
+        assertEquals(0, sale.getRemainingQuantity());
+        assertEquals(STOCK, sale.getTotalSold());
+    }
+
+    @RepeatedTest(25)
+    void releasedUnitsCanBeBoughtAgain() throws Exception {
+        Firesale sale = sale(STOCK);
+        AtomicInteger attempts = new AtomicInteger();
+        // Every other buyer fails their payment and hands the unit back straight away
+        List<Integer> results = race(sale, BUYERS, () -> {
+            int remaining = sale.reserveUnit();
+            if (remaining >= 0 && attempts.incrementAndGet() % 2 == 0) {
+                sale.releaseUnit();
+                return -2;
+            }
+            return remaining;
+        });
+
+        long kept = results.stream().filter(r -> r >= 0).count();
+        assertEquals(STOCK - sale.getRemainingQuantity(), kept);
+        assertEquals(kept, sale.getTotalSold());
+        assertTrue(sale.getRemainingQuantity() >= 0);
+    }
+
+    @Test
+    void soldOutSaleRejectsBuyers() {
+        Firesale sale = sale(1);
+        assertEquals(0, sale.reserveUnit());
+        assertEquals(-1, sale.reserveUnit());
+        assertEquals(0, sale.getRemainingQuantity());
+        assertEquals(1, sale.getTotalSold());
+    }
+}